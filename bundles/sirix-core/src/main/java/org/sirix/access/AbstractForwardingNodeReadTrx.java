@@ -170,6 +170,41 @@ public abstract class AbstractForwardingNodeReadTrx extends ForwardingObject
 		return delegate().moveToPrevious();
 	}
 
+	@Override
+	public boolean tryMoveTo(long key) {
+		return delegate().tryMoveTo(key);
+	}
+
+	@Override
+	public boolean tryMoveToParent() {
+		return delegate().tryMoveToParent();
+	}
+
+	@Override
+	public boolean tryMoveToFirstChild() {
+		return delegate().tryMoveToFirstChild();
+	}
+
+	@Override
+	public boolean tryMoveToLeftSibling() {
+		return delegate().tryMoveToLeftSibling();
+	}
+
+	@Override
+	public boolean tryMoveToRightSibling() {
+		return delegate().tryMoveToRightSibling();
+	}
+
+	@Override
+	public boolean tryMoveToAttribute(@Nonnegative int index) {
+		return delegate().tryMoveToAttribute(index);
+	}
+
+	@Override
+	public boolean tryMoveToNamespace(@Nonnegative int index) {
+		return delegate().tryMoveToNamespace(index);
+	}
+
 	@Override
 	public Move<? extends NodeReadTrx> moveToNext() {
 		return delegate().moveToNext();
@@ -7,6 +7,7 @@ import javax.annotation.Nonnull;
 
 import org.sirix.api.PageReadTrx;
 import org.sirix.api.Session;
+import org.sirix.cache.NameCache;
 import org.sirix.cache.RecordPageContainer;
 import org.sirix.cache.TransactionLogPageCache;
 import org.sirix.exception.SirixIOException;
@@ -92,6 +93,12 @@ public abstract class AbstractForwardingPageReadTrx extends ForwardingObject
 		return delegate().getRecord(key, page, index);
 	}
 
+	@Override
+	public Record getRecordIfPresent(long key, @Nonnull PageKind page,
+			@Nonnegative int index) throws SirixIOException {
+		return delegate().getRecordIfPresent(key, page, index);
+	}
+
 	@Override
 	public long pageKey(@Nonnegative long recordKey) {
 		return delegate().pageKey(recordKey);
@@ -107,6 +114,11 @@ public abstract class AbstractForwardingPageReadTrx extends ForwardingObject
 		return delegate().getName(nameKey, kind);
 	}
 
+	@Override
+	public NameCache getNameCache() {
+		return delegate().getNameCache();
+	}
+
 	@Override
 	public int getNameCount(int nameKey, @Nonnull Kind kind) {
 		return delegate().getNameCount(nameKey, kind);
@@ -159,6 +171,16 @@ public abstract class AbstractForwardingPageReadTrx extends ForwardingObject
 		return delegate().getReader();
 	}
 
+	@Override
+	public void setNoCacheHint(final boolean noCache) {
+		delegate().setNoCacheHint(noCache);
+	}
+
+	@Override
+	public boolean isNoCacheHint() {
+		return delegate().isNoCacheHint();
+	}
+
 	@Override
 	protected abstract PageReadTrx delegate();
 }
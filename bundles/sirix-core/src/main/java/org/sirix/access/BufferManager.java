@@ -1,10 +1,198 @@
 package org.sirix.access;
 
-import org.sirix.cache.Cache;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nullable;
+
+import org.sirix.cache.BufferKey;
+import org.sirix.cache.CacheStatistics;
+import org.sirix.cache.NameCache;
+import org.sirix.cache.RecordPageContainer;
+import org.sirix.exception.SirixIOException;
+import org.sirix.page.IndirectPage;
+import org.sirix.page.PageKind;
+import org.sirix.page.UnorderedKeyValuePage;
 import org.sirix.page.interfaces.Page;
 
-public interface BufferManager<K, V> {
-	Cache<K, V> getReadingCache(final Page pageKind, final long revision);
+/**
+ * Buffer of reconstructed record pages and indirect pages, which is shared by
+ * all reading transactions of a resource. Implementations must be
+ * thread-safe.
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
+public interface BufferManager {
+
+	/**
+	 * Get a buffered record page or load and buffer it, if it's not buffered.
+	 * Concurrent requests of the same page are only loaded once.
+	 *
+	 * @param key
+	 *          the key of the page
+	 * @param loader
+	 *          loads the page, if it's not buffered
+	 * @param cache
+	 *          {@code false}, if a loaded page shouldn't be buffered, as it's
+	 *          read only once, for instance during a scan
+	 * @return the container of the page
+	 * @throws SirixIOException
+	 *           if loading the page fails
+	 */
+	RecordPageContainer<UnorderedKeyValuePage> get(BufferKey key,
+			Callable<RecordPageContainer<UnorderedKeyValuePage>> loader,
+			boolean cache) throws SirixIOException;
+
+	/**
+	 * Get a buffered record page.
+	 *
+	 * @param key
+	 *          the key of the page
+	 * @param cache
+	 *          {@code false}, if the lookup shouldn't count as an access, for
+	 *          instance during a scan
+	 * @return the container of the page or {@code null}, if it's not buffered
+	 */
+	@Nullable
+	RecordPageContainer<UnorderedKeyValuePage> getIfPresent(BufferKey key,
+			boolean cache);
+
+	/**
+	 * Get the most frequently used record pages.
+	 *
+	 * @param maxWeight
+	 *          the approximate maximum number of bytes of the pages, which is
+	 *          split across the kinds of record pages according to their share in
+	 *          the memory budget
+	 * @return the containers of the pages, whereas the most frequently used
+	 *         pages of each kind come first
+	 */
+	Map<BufferKey, RecordPageContainer<UnorderedKeyValuePage>> getHottestPages(
+			@Nonnegative long maxWeight);
+
+	/**
+	 * Get a buffered indirect page or load and buffer it, if it's not buffered.
+	 * Concurrent requests of the same page are only loaded once.
+	 *
+	 * @param key
+	 *          the on-disk key of the page
+	 * @param loader
+	 *          loads the page, if it's not buffered
+	 * @param cache
+	 *          {@code false}, if a loaded page shouldn't be buffered, as it's
+	 *          read only once, for instance during a scan
+	 * @return the page
+	 * @throws SirixIOException
+	 *           if loading the page fails
+	 */
+	IndirectPage getIndirectPage(long key, Callable<IndirectPage> loader,
+			boolean cache) throws SirixIOException;
+
+	/**
+	 * Get a page, which is pinned for the most recent revisions, or load and pin
+	 * it, if it's not pinned. Pinned pages are the revision root pages, the pages
+	 * referenced by them and the upper levels of the indirect trees, such that
+	 * locating a record page of a recent revision doesn't read any index
+	 * structure from the storage. A page is unpinned, once it isn't used by one
+	 * of the most recent revisions anymore.
+	 *
+	 * @param revision
+	 *          the revision, which uses the page
+	 * @param key
+	 *          the on-disk key of the page
+	 * @param loader
+	 *          loads the page, if it's not pinned
+	 * @return the page or {@code null}, if the revision isn't one of the most
+	 *         recent revisions
+	 * @throws SirixIOException
+	 *           if loading the page fails
+	 */
+	@Nullable
+	Page getPinnedPage(@Nonnegative int revision, long key,
+			Callable<? extends Page> loader) throws SirixIOException;
+
+	/**
+	 * Get the cache of the qualified names of a pinned name page, which is
+	 * shared by all transactions reading a revision with this name page and
+	 * unpinned together with the page.
+	 *
+	 * @param revision
+	 *          the revision, which uses the name page
+	 * @param key
+	 *          the on-disk key of the name page
+	 * @param resolver
+	 *          resolves the name keys of the name page, if the cache is created
+	 * @return the name cache or {@code null}, if the name page isn't pinned
+	 */
+	@Nullable
+	NameCache getNameCache(@Nonnegative int revision, long key,
+			NameCache.NameResolver resolver);
+
+	/**
+	 * Get the number of pinned pages.
+	 *
+	 * @return the number of pinned pages
+	 */
+	@Nonnegative
+	int getPinnedPageCount();
+
+	/**
+	 * Get the approximate number of bytes of all buffered pages.
+	 *
+	 * @return the approximate number of bytes
+	 */
+	@Nonnegative
+	long getWeight();
+
+	/**
+	 * Change the memory budget of the resource, for instance once another
+	 * resource of the database is opened or closed. If the budget shrinks, the
+	 * least recently used pages are evicted.
+	 *
+	 * @param memoryBudget
+	 *          the approximate number of bytes of all buffered pages of the
+	 *          resource
+	 */
+	void setMemoryBudget(@Nonnegative long memoryBudget);
+
+	/**
+	 * Get the approximate maximum number of bytes of the cached pages of a kind,
+	 * which is the share of the page kind in the memory budget of the resource.
+	 *
+	 * @param pageKind
+	 *          the kind of page
+	 * @return the approximate maximum number of bytes
+	 */
+	@Nonnegative
+	long getMaxWeight(PageKind pageKind);
+
+	/**
+	 * Get the statistics of the caches of a kind of page, which are aggregated
+	 * across all transactions of the resource.
+	 *
+	 * @param pageKind
+	 *          the kind of page
+	 * @return the statistics
+	 */
+	CacheStatistics getStatistics(PageKind pageKind);
+
+	/**
+	 * Get the statistics of the caches of all kinds of pages.
+	 *
+	 * @return an unmodifiable map of the statistics of each kind of page
+	 */
+	Map<PageKind, CacheStatistics> getStatistics();
+
+	/**
+	 * Remove all pages from the buffer and unpin all pinned pages.
+	 */
+	void clear();
 
-	Cache<K, V> getTransactionCache(final Page pageKind);
+	/**
+	 * Remove all pages from the buffer and unregister the management beans of
+	 * the statistics.
+	 */
+	void close();
 }
@@ -0,0 +1,573 @@
+package org.sirix.access;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnegative;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.sirix.cache.BufferKey;
+import org.sirix.cache.CacheStatistics;
+import org.sirix.cache.NameCache;
+import org.sirix.cache.RecordPageContainer;
+import org.sirix.cache.TinyLFUCache;
+import org.sirix.exception.SirixIOException;
+import org.sirix.exception.SirixThreadedException;
+import org.sirix.page.IndirectPage;
+import org.sirix.page.PageKind;
+import org.sirix.page.UnorderedKeyValuePage;
+import org.sirix.page.interfaces.KeyValuePage;
+import org.sirix.page.interfaces.Page;
+import org.sirix.settings.Constants;
+import org.sirix.utils.LogWrapper;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link BufferManager}, which buffers the pages of each kind in a
+ * {@link TinyLFUCache}, such that traversals of the whole resource don't evict
+ * the frequently used pages. The approximate number of bytes of the buffered
+ * pages of a kind is bounded by its share in the memory budget of the
+ * resource. Half of the budget is used for regular record pages, a quarter for
+ * the pages of the path summary and the indexes and a quarter for indirect
+ * pages. Reading transactions only keep a few references to buffered pages,
+ * such that the pages are released once they are evicted from the buffer.
+ * The statistics of the caches of each kind of page are optionally registered
+ * as management beans.
+ *
+ * <p>
+ * Besides, the index structure of the most recent revisions, that is the
+ * revision root pages, the pages referenced by them and the upper levels of
+ * the indirect trees, is pinned outside of the memory budget, as it's small
+ * and needed to locate any record page. The qualified names of a pinned name
+ * page are cached next to the page.
+ * </p>
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
+final class BufferManagerImpl implements BufferManager {
+
+	/** {@link LogWrapper} reference. */
+	private static final LogWrapper LOGWRAPPER = new LogWrapper(
+			LoggerFactory.getLogger(BufferManagerImpl.class));
+
+	/** Domain of the names of the management beans. */
+	static final String JMX_DOMAIN = "org.sirix";
+
+	/** Default number of the most recent revisions, whose pages are pinned. */
+	static final int PINNED_REVISIONS = 4;
+
+	/** Page, which is pinned for the most recent revisions. */
+	private static final class PinnedPage {
+		/** Loads the page. */
+		private final FutureTask<Page> mPage;
+
+		/** The most recent revision, which uses the page. */
+		private volatile int mRevision;
+
+		/** The cache of the qualified names, if the page is a name page. */
+		private NameCache mNameCache;
+
+		private PinnedPage(final FutureTask<Page> page, final int revision) {
+			mPage = page;
+			mRevision = revision;
+		}
+
+		/**
+		 * Mark the page as used by a revision.
+		 *
+		 * @param revision
+		 *          the revision
+		 */
+		private synchronized void use(final int revision) {
+			if (revision > mRevision) {
+				mRevision = revision;
+			}
+		}
+
+		/**
+		 * Get the cache of the qualified names of the page or create it.
+		 *
+		 * @param resolver
+		 *          resolves the name keys of the page
+		 * @return the name cache
+		 */
+		private synchronized NameCache nameCache(
+				final NameCache.NameResolver resolver) {
+			if (mNameCache == null) {
+				mNameCache = new NameCache(resolver);
+			}
+			return mNameCache;
+		}
+	}
+
+	/** The memory budget of the resource. */
+	private volatile long mMemoryBudget;
+
+	/** The buffered pages of each kind of record page. */
+	private final Map<PageKind, TinyLFUCache<BufferKey, RecordPageContainer<UnorderedKeyValuePage>>> mBuffers;
+
+	/** The buffered indirect pages. */
+	private final TinyLFUCache<BufferKey, IndirectPage> mIndirectPages;
+
+	/** Pages, which are currently loaded. */
+	private final ConcurrentMap<BufferKey, Future<?>> mLoads;
+
+	/** The cache statistics of each kind of page. */
+	private final Map<PageKind, CacheStatistics> mStatistics;
+
+	/** Names of the registered management beans. */
+	private final List<ObjectName> mRegisteredBeans;
+
+	/** Number of the most recent revisions, whose pages are pinned. */
+	private final int mPinnedRevisions;
+
+	/** The pinned pages. */
+	private final ConcurrentMap<Long, PinnedPage> mPinnedPages;
+
+	/** The most recent revision, which uses a pinned page. */
+	private final AtomicInteger mMostRecentRevision;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param memoryBudget
+	 *          the approximate number of bytes of all cached pages of the
+	 *          resource
+	 */
+	BufferManagerImpl(final @Nonnegative long memoryBudget) {
+		this(memoryBudget, PINNED_REVISIONS);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param memoryBudget
+	 *          the approximate number of bytes of all cached pages of the
+	 *          resource
+	 * @param pinnedRevisions
+	 *          number of the most recent revisions, whose pages are pinned
+	 */
+	BufferManagerImpl(final @Nonnegative long memoryBudget,
+			final @Nonnegative int pinnedRevisions) {
+		checkArgument(memoryBudget > 0, "memoryBudget must be > 0!");
+		checkArgument(pinnedRevisions >= 0, "pinnedRevisions must be >= 0!");
+		mMemoryBudget = memoryBudget;
+		mPinnedRevisions = pinnedRevisions;
+		mPinnedPages = new ConcurrentHashMap<>();
+		mMostRecentRevision = new AtomicInteger(-1);
+		mLoads = new ConcurrentHashMap<>();
+		mBuffers = new EnumMap<>(PageKind.class);
+		for (final PageKind pageKind : new PageKind[] { PageKind.RECORDPAGE,
+				PageKind.PATHSUMMARYPAGE, PageKind.PATHPAGE, PageKind.CASPAGE,
+				PageKind.NAMEPAGE }) {
+			final long maxWeight = getMaxWeight(pageKind);
+			mBuffers.put(pageKind, new TinyLFUCache<>(maxWeight, expectedEntries(
+					maxWeight, Constants.NDP_NODE_COUNT * Constants.RECORD_SIZE),
+					(final BufferKey key,
+							final RecordPageContainer<UnorderedKeyValuePage> value) -> weigh(value),
+					this::evicted));
+		}
+		final long maxWeight = getMaxWeight(PageKind.INDIRECTPAGE);
+		mIndirectPages = new TinyLFUCache<>(maxWeight, expectedEntries(maxWeight,
+				Constants.INP_REFERENCE_COUNT * Constants.REFERENCE_SIZE),
+				(final BufferKey key, final IndirectPage value) -> weigh(value),
+				this::evicted);
+		final Map<PageKind, CacheStatistics> statistics = new EnumMap<>(
+				PageKind.class);
+		for (final PageKind pageKind : PageKind.values()) {
+			final TinyLFUCache<BufferKey, ?> buffer = pageKind == PageKind.INDIRECTPAGE ? mIndirectPages
+					: mBuffers.get(pageKind);
+			statistics.put(pageKind, new CacheStatistics(pageKind,
+					buffer == null ? () -> 0 : buffer::getWeight));
+		}
+		mStatistics = Collections.unmodifiableMap(statistics);
+		mRegisteredBeans = new ArrayList<>();
+	}
+
+	/**
+	 * Constructor, which registers the cache statistics of each kind of page as
+	 * a management bean.
+	 *
+	 * @param memoryBudget
+	 *          the approximate number of bytes of all cached pages of the
+	 *          resource
+	 * @param resource
+	 *          the resource directory, which identifies the management beans
+	 */
+	BufferManagerImpl(final @Nonnegative long memoryBudget, final File resource) {
+		this(memoryBudget);
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		for (final CacheStatistics statistics : mStatistics.values()) {
+			try {
+				final ObjectName name = objectName(checkNotNull(resource),
+						statistics.getPageKind());
+				server.registerMBean(statistics, name);
+				mRegisteredBeans.add(name);
+			} catch (final JMException e) {
+				LOGWRAPPER.warn("Cache statistics couldn't be registered: {}",
+						e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Get the name of the management bean of the cache statistics of a kind of
+	 * page.
+	 *
+	 * @param resource
+	 *          the resource directory
+	 * @param pageKind
+	 *          the kind of page
+	 * @return the name of the management bean
+	 * @throws JMException
+	 *           if the name is malformed
+	 */
+	static ObjectName objectName(final File resource, final PageKind pageKind)
+			throws JMException {
+		return new ObjectName(JMX_DOMAIN + ":type=CacheStatistics,resource="
+				+ ObjectName.quote(resource.getAbsolutePath()) + ",pageKind="
+				+ pageKind.name());
+	}
+
+	/**
+	 * Get the expected number of pages of a buffer.
+	 *
+	 * @param maxWeight
+	 *          the maximum weight of the buffer
+	 * @param pageWeight
+	 *          the approximate weight of a full page
+	 * @return the expected number of pages
+	 */
+	private static int expectedEntries(final long maxWeight, final int pageWeight) {
+		return (int) Math.max(16, Math.min(1 << 20, maxWeight / pageWeight));
+	}
+
+	/**
+	 * Get the approximate number of bytes of a page.
+	 *
+	 * @param page
+	 *          the page
+	 * @return the approximate number of bytes
+	 */
+	static int weigh(final Page page) {
+		return (int) Math.min(page.getRetainedSize(), Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Get the approximate number of bytes of the pages of a container.
+	 *
+	 * @param container
+	 *          the container of the pages
+	 * @return the approximate number of bytes
+	 */
+	static int weigh(final RecordPageContainer<? extends KeyValuePage<?, ?>> container) {
+		final KeyValuePage<?, ?> complete = container.getComplete();
+		final KeyValuePage<?, ?> modified = container.getModified();
+		long weight = complete == null ? 0 : complete.getRetainedSize();
+		if (modified != null && modified != complete) {
+			weight += modified.getRetainedSize();
+		}
+		return (int) Math.min(weight, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Record a page, which has been evicted from the buffer.
+	 *
+	 * @param key
+	 *          the key of the page
+	 * @param page
+	 *          the evicted page
+	 */
+	private void evicted(final BufferKey key, final Object page) {
+		mStatistics.get(key.getPageKind()).recordEviction();
+	}
+
+	@Override
+	public long getMaxWeight(final PageKind pageKind) {
+		switch (checkNotNull(pageKind)) {
+		case RECORDPAGE:
+			return Math.max(1, mMemoryBudget / 2);
+		case PATHSUMMARYPAGE:
+		case PATHPAGE:
+		case CASPAGE:
+		case NAMEPAGE:
+			return Math.max(1, mMemoryBudget / 16);
+		default:
+			return Math.max(1, mMemoryBudget / 4);
+		}
+	}
+
+	@Override
+	public synchronized void setMemoryBudget(final long memoryBudget) {
+		checkArgument(memoryBudget > 0, "memoryBudget must be > 0!");
+		mMemoryBudget = memoryBudget;
+		for (final Map.Entry<PageKind, TinyLFUCache<BufferKey, RecordPageContainer<UnorderedKeyValuePage>>> buffer : mBuffers
+				.entrySet()) {
+			buffer.getValue().setMaxWeight(getMaxWeight(buffer.getKey()));
+		}
+		mIndirectPages.setMaxWeight(getMaxWeight(PageKind.INDIRECTPAGE));
+	}
+
+	@Override
+	public RecordPageContainer<UnorderedKeyValuePage> get(final BufferKey key,
+			final Callable<RecordPageContainer<UnorderedKeyValuePage>> loader,
+			final boolean cache) throws SirixIOException {
+		final TinyLFUCache<BufferKey, RecordPageContainer<UnorderedKeyValuePage>> buffer = mBuffers
+				.get(key.getPageKind());
+		checkArgument(buffer != null, "%s isn't a kind of record page!",
+				key.getPageKind());
+		return get(buffer, key, loader, cache);
+	}
+
+	@Override
+	public RecordPageContainer<UnorderedKeyValuePage> getIfPresent(
+			final BufferKey key, final boolean cache) {
+		final TinyLFUCache<BufferKey, RecordPageContainer<UnorderedKeyValuePage>> buffer = mBuffers
+				.get(key.getPageKind());
+		checkArgument(buffer != null, "%s isn't a kind of record page!",
+				key.getPageKind());
+		final RecordPageContainer<UnorderedKeyValuePage> container = cache ? buffer
+				.get(key) : buffer.getQuietly(key);
+		if (container != null) {
+			mStatistics.get(key.getPageKind()).recordBufferHit();
+		}
+		return container;
+	}
+
+	@Override
+	public Map<BufferKey, RecordPageContainer<UnorderedKeyValuePage>> getHottestPages(
+			final long maxWeight) {
+		checkArgument(maxWeight >= 0, "maxWeight must be >= 0!");
+		long maxWeights = 0;
+		for (final PageKind pageKind : mBuffers.keySet()) {
+			maxWeights += getMaxWeight(pageKind);
+		}
+		final Map<BufferKey, RecordPageContainer<UnorderedKeyValuePage>> pages = new LinkedHashMap<>();
+		for (final Map.Entry<PageKind, TinyLFUCache<BufferKey, RecordPageContainer<UnorderedKeyValuePage>>> buffer : mBuffers
+				.entrySet()) {
+			final double share = (double) getMaxWeight(buffer.getKey()) / maxWeights;
+			pages.putAll(buffer.getValue().getHottest((long) (maxWeight * share)));
+		}
+		return pages;
+	}
+
+	@Override
+	public IndirectPage getIndirectPage(final long key,
+			final Callable<IndirectPage> loader, final boolean cache)
+			throws SirixIOException {
+		return get(mIndirectPages, new BufferKey(PageKind.INDIRECTPAGE, -1, key, 0),
+				loader, cache);
+	}
+
+	/**
+	 * Get a buffered page or load it.
+	 *
+	 * @param buffer
+	 *          the buffer of the page
+	 * @param key
+	 *          the key of the page
+	 * @param loader
+	 *          loads the page, if it's not buffered
+	 * @param cache
+	 *          determines if a loaded page is buffered
+	 * @return the page
+	 * @throws SirixIOException
+	 *           if loading the page fails
+	 */
+	@SuppressWarnings("unchecked")
+	private <V> V get(final TinyLFUCache<BufferKey, V> buffer,
+			final BufferKey key, final Callable<V> loader, final boolean cache)
+			throws SirixIOException {
+		checkNotNull(key);
+		checkNotNull(loader);
+		final CacheStatistics statistics = mStatistics.get(key.getPageKind());
+		// Pages read during a scan don't count as accesses.
+		V value = cache ? buffer.get(key) : buffer.getQuietly(key);
+		if (value != null) {
+			statistics.recordBufferHit();
+			return value;
+		}
+		try {
+			if (!cache) {
+				return load(loader, statistics);
+			}
+			final FutureTask<V> load = new FutureTask<>(() -> load(loader,
+					statistics));
+			final Future<?> concurrentLoad = mLoads.putIfAbsent(key, load);
+			if (concurrentLoad != null) {
+				// The page is loaded only once.
+				value = (V) concurrentLoad.get();
+				statistics.recordBufferHit();
+				return value;
+			}
+			try {
+				load.run();
+				value = load.get();
+				buffer.put(key, value);
+				return value;
+			} finally {
+				mLoads.remove(key, load);
+			}
+		} catch (final ExecutionException e) {
+			throw new SirixIOException(e.getCause());
+		} catch (final InterruptedException e) {
+			throw new SirixThreadedException(e);
+		} catch (final SirixIOException e) {
+			throw e;
+		} catch (final Exception e) {
+			throw new SirixIOException(e);
+		}
+	}
+
+	/**
+	 * Load a page, which isn't buffered, and record the miss.
+	 *
+	 * @param loader
+	 *          loads the page
+	 * @param statistics
+	 *          the statistics of the kind of page
+	 * @return the page
+	 * @throws Exception
+	 *           if loading the page fails
+	 */
+	private static <V> V load(final Callable<V> loader,
+			final CacheStatistics statistics) throws Exception {
+		final long start = System.nanoTime();
+		final V value = loader.call();
+		// The page is resident in the buffer, which is accounted separately.
+		statistics.recordLoad(System.nanoTime() - start, 0);
+		return value;
+	}
+
+	@Override
+	public Page getPinnedPage(final int revision, final long key,
+			final Callable<? extends Page> loader) throws SirixIOException {
+		checkArgument(revision >= 0, "revision must be >= 0!");
+		checkNotNull(loader);
+		if (mPinnedRevisions == 0) {
+			return null;
+		}
+		final int mostRecentRevision = mMostRecentRevision.getAndAccumulate(
+				revision, Math::max);
+		if (revision > mostRecentRevision) {
+			// Unpin the pages, which aren't used by the most recent revisions
+			// anymore.
+			final int oldestRevision = revision - mPinnedRevisions;
+			mPinnedPages.values().removeIf(
+					pinned -> pinned.mRevision <= oldestRevision);
+		} else if (revision <= mostRecentRevision - mPinnedRevisions) {
+			return null;
+		}
+		PinnedPage pinned = mPinnedPages.get(key);
+		boolean loaded = false;
+		if (pinned == null) {
+			final PinnedPage load = new PinnedPage(new FutureTask<>(loader::call),
+					revision);
+			pinned = mPinnedPages.putIfAbsent(key, load);
+			if (pinned == null) {
+				pinned = load;
+				loaded = true;
+				load.mPage.run();
+			}
+		}
+		pinned.use(revision);
+		try {
+			final Page page = pinned.mPage.get();
+			if (!loaded) {
+				// The loader records the loaded page.
+				mStatistics.get(PageKind.getKind(page.getClass())).recordBufferHit();
+			}
+			return page;
+		} catch (final ExecutionException e) {
+			mPinnedPages.remove(key, pinned);
+			throw new SirixIOException(e.getCause());
+		} catch (final InterruptedException e) {
+			throw new SirixThreadedException(e);
+		}
+	}
+
+	@Override
+	public NameCache getNameCache(final int revision, final long key,
+			final NameCache.NameResolver resolver) {
+		checkArgument(revision >= 0, "revision must be >= 0!");
+		checkNotNull(resolver);
+		final PinnedPage pinned = mPinnedPages.get(key);
+		if (pinned == null
+				|| revision <= mMostRecentRevision.get() - mPinnedRevisions) {
+			return null;
+		}
+		pinned.use(revision);
+		return pinned.nameCache(resolver);
+	}
+
+	@Override
+	public int getPinnedPageCount() {
+		return mPinnedPages.size();
+	}
+
+	@Override
+	public long getWeight() {
+		long weight = mIndirectPages.getWeight();
+		for (final TinyLFUCache<BufferKey, RecordPageContainer<UnorderedKeyValuePage>> buffer : mBuffers
+				.values()) {
+			weight += buffer.getWeight();
+		}
+		return weight;
+	}
+
+	@Override
+	public CacheStatistics getStatistics(final PageKind pageKind) {
+		return mStatistics.get(checkNotNull(pageKind));
+	}
+
+	@Override
+	public Map<PageKind, CacheStatistics> getStatistics() {
+		return mStatistics;
+	}
+
+	@Override
+	public void clear() {
+		mPinnedPages.clear();
+		mIndirectPages.clear();
+		for (final TinyLFUCache<BufferKey, RecordPageContainer<UnorderedKeyValuePage>> buffer : mBuffers
+				.values()) {
+			buffer.clear();
+		}
+	}
+
+	@Override
+	public void close() {
+		clear();
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		synchronized (mRegisteredBeans) {
+			for (final ObjectName name : mRegisteredBeans) {
+				try {
+					server.unregisterMBean(name);
+				} catch (final JMException e) {
+					LOGWRAPPER.warn("Cache statistics couldn't be unregistered: {}",
+							e.getMessage());
+				}
+			}
+			mRegisteredBeans.clear();
+		}
+	}
+}
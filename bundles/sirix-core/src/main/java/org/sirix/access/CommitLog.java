@@ -0,0 +1,365 @@
+/**
+ * Copyright (c) 2011, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.sirix.access;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import javax.annotation.Nonnegative;
+
+import org.brackit.xquery.xdm.DocumentException;
+import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.exception.SirixIOException;
+import org.sirix.index.Indexes;
+import org.sirix.io.DurabilityMode;
+
+/**
+ * Write-ahead commit log of a resource. A commit appends a begin record before
+ * it writes any page, a record with the binary index definitions before the
+ * revision becomes visible in the data file and an end record once it is
+ * visible. Index definitions are only stored if they have changed since the
+ * preceding revision.
+ * 
+ * <p>
+ * The log is read once when it is opened. Afterwards the commit state and the
+ * index definitions of each revision are available in main memory, such that
+ * neither commits nor read transactions have to look up marker or index files.
+ * A revision, for which a begin record but no end record exists, is currently
+ * committing (or was committing while the system crashed), so its transaction
+ * logs still have to be considered.
+ * </p>
+ * 
+ * <p>
+ * Begin records are never forced to disk. Whether a revision exists after a
+ * crash is solely determined by the data file, which only exposes completely
+ * written revisions. Thus, if a begin record is lost, either the revision
+ * doesn't exist and is committed again, or it has been written completely and
+ * is read from the data file without considering its transaction logs.
+ * Changed index definitions are forced before the revision is exposed, such
+ * that a revision never exists without them. The end record in turn isn't
+ * forced, as a lost end record only leads to reconsidering the transaction
+ * logs of an existing revision. The binary form of the index definitions is
+ * canonical (see
+ * {@link Indexes#serialize(java.io.DataOutput)}), such that unchanged
+ * definitions are detected by comparing the bytes.
+ * </p>
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+final class CommitLog implements AutoCloseable {
+
+	/** Name of the log file in the transaction log folder. */
+	static final String FILE_NAME = "commits";
+
+	/** Begin record. */
+	private static final byte BEGIN = 0;
+
+	/** End record. */
+	private static final byte END = 1;
+
+	/** Index definitions record. */
+	private static final byte INDEX_DEFS = 2;
+
+	/** Length of the index definitions, if unchanged. */
+	private static final int UNCHANGED = -1;
+
+	/** The log file. */
+	private final RandomAccessFile mFile;
+
+	/** Channel of the log file. */
+	private final FileChannel mChannel;
+
+	/** Determines if changed index definitions are forced to disk. */
+	private final DurabilityMode mDurability;
+
+	/** Revisions which are currently committing. */
+	private final Set<Integer> mCommitting;
+
+	/**
+	 * Serialized index definitions, mapped to the revision from which on they
+	 * are valid.
+	 */
+	private final NavigableMap<Integer, byte[]> mIndexDefs;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param resourceConfig
+	 *          configuration of the resource
+	 * @throws SirixIOException
+	 *           if an I/O error occurs
+	 */
+	CommitLog(final ResourceConfiguration resourceConfig)
+			throws SirixIOException {
+		final File file = new File(new File(resourceConfig.mPath,
+				ResourceConfiguration.Paths.TRANSACTION_LOG.getFile().getName()),
+				FILE_NAME);
+		mDurability = resourceConfig.mDurability;
+		mCommitting = Collections
+				.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
+		mIndexDefs = new ConcurrentSkipListMap<>();
+		try {
+			file.getParentFile().mkdirs();
+			mFile = new RandomAccessFile(file, "rw");
+			mChannel = mFile.getChannel();
+			recover();
+		} catch (final IOException e) {
+			throw new SirixIOException(e);
+		}
+	}
+
+	/**
+	 * Read all records and truncate an incomplete record at the end, which
+	 * results from a crash during an append.
+	 * 
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	private void recover() throws IOException {
+		final DataInputStream in = new DataInputStream(
+				new BufferedInputStream(Channels.newInputStream(mChannel)));
+		long complete = 0;
+		try {
+			while (true) {
+				final byte kind = in.readByte();
+				final int revision = in.readInt();
+				long length = 5;
+				if (kind == BEGIN) {
+					mCommitting.add(revision);
+				} else if (kind == END || kind == INDEX_DEFS) {
+					// End records of older logs might include index definitions.
+					final int size = in.readInt();
+					length += 4;
+					if (size != UNCHANGED) {
+						final byte[] indexDefs = new byte[size];
+						in.readFully(indexDefs);
+						length += size;
+						mIndexDefs.put(revision, indexDefs);
+					}
+					if (kind == END) {
+						mCommitting.remove(revision);
+					}
+				} else {
+					break;
+				}
+				complete += length;
+			}
+		} catch (final EOFException e) {
+			// Incomplete record.
+		}
+		mChannel.truncate(complete);
+		mChannel.position(complete);
+	}
+
+	/**
+	 * Denote the begin of a commit. The record isn't forced to disk, as it only
+	 * matters for the running process (see the class documentation).
+	 * 
+	 * @param revision
+	 *          the revision to commit
+	 * @throws SirixIOException
+	 *           if an I/O error occurs
+	 */
+	synchronized void begin(final @Nonnegative int revision)
+			throws SirixIOException {
+		checkArgument(revision >= 0, "revision must be >= 0!");
+		final ByteBuffer record = ByteBuffer.allocate(5);
+		record.put(BEGIN).putInt(revision).flip();
+		append(record);
+		mCommitting.add(revision);
+	}
+
+	/**
+	 * Log the index definitions of a committing revision, before the revision is
+	 * written to the data file. The index definitions are only appended if they
+	 * have changed and are forced to disk if the resource requires durable
+	 * commits.
+	 * 
+	 * @param revision
+	 *          the committing revision
+	 * @param indexes
+	 *          the index definitions of the revision
+	 * @throws SirixIOException
+	 *           if an I/O error occurs
+	 */
+	synchronized void indexDefs(final @Nonnegative int revision,
+			final Indexes indexes) throws SirixIOException {
+		checkArgument(revision >= 0, "revision must be >= 0!");
+		checkNotNull(indexes);
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try {
+			indexes.serialize(new DataOutputStream(bytes));
+		} catch (final IOException e) {
+			throw new SirixIOException(
+					"Index definitions couldn't be serialized!", e);
+		}
+		final byte[] indexDefs = bytes.toByteArray();
+		final Map.Entry<Integer, byte[]> previous = mIndexDefs
+				.floorEntry(revision);
+		if (previous != null && Arrays.equals(previous.getValue(), indexDefs)) {
+			return;
+		}
+
+		final ByteBuffer record = ByteBuffer.allocate(9 + indexDefs.length);
+		record.put(INDEX_DEFS).putInt(revision).putInt(indexDefs.length)
+				.put(indexDefs).flip();
+		append(record);
+		mIndexDefs.put(revision, indexDefs);
+		if (mDurability == DurabilityMode.FSYNC_ON_COMMIT) {
+			try {
+				mChannel.force(false);
+			} catch (final IOException e) {
+				throw new SirixIOException(e);
+			}
+		}
+	}
+
+	/**
+	 * Denote the end of a commit, once the revision has been written to the data
+	 * file. The record isn't forced to disk (see the class documentation).
+	 * 
+	 * @param revision
+	 *          the committed revision
+	 * @throws SirixIOException
+	 *           if an I/O error occurs
+	 */
+	synchronized void end(final @Nonnegative int revision)
+			throws SirixIOException {
+		checkArgument(revision >= 0, "revision must be >= 0!");
+		final ByteBuffer record = ByteBuffer.allocate(9);
+		record.put(END).putInt(revision).putInt(UNCHANGED).flip();
+		append(record);
+		mCommitting.remove(revision);
+	}
+
+	/**
+	 * Denote that a commit is aborted, if it has been started.
+	 * 
+	 * @param revision
+	 *          the revision, which is not going to be committed
+	 * @throws SirixIOException
+	 *           if an I/O error occurs
+	 */
+	synchronized void abort(final @Nonnegative int revision)
+			throws SirixIOException {
+		if (mCommitting.remove(revision)) {
+			final ByteBuffer record = ByteBuffer.allocate(9);
+			record.put(END).putInt(revision).putInt(UNCHANGED).flip();
+			append(record);
+		}
+	}
+
+	/**
+	 * Determines if a revision is currently committing, that is its transaction
+	 * logs might not have been written to the data file completely.
+	 * 
+	 * @param revision
+	 *          the revision
+	 * @return {@code true}, if the revision is committing, {@code false}
+	 *         otherwise
+	 */
+	boolean isCommitting(final @Nonnegative int revision) {
+		return mCommitting.contains(revision);
+	}
+
+	/**
+	 * Initialize the index definitions of a revision.
+	 * 
+	 * @param revision
+	 *          the revision
+	 * @param indexes
+	 *          the index definitions to initialize
+	 * @return {@code true}, if index definitions are logged for the revision or a
+	 *         preceding revision, {@code false} otherwise
+	 * @throws SirixIOException
+	 *           if the index definitions can't be deserialized
+	 */
+	boolean readIndexDefs(final @Nonnegative int revision, final Indexes indexes)
+			throws SirixIOException {
+		final Map.Entry<Integer, byte[]> entry = mIndexDefs.floorEntry(revision);
+		if (entry == null) {
+			return false;
+		}
+		try {
+			indexes.init(new DataInputStream(new ByteArrayInputStream(entry
+					.getValue())));
+		} catch (final IOException | DocumentException e) {
+			throw new SirixIOException(
+					"Index definitions couldn't be deserialized!", e);
+		}
+		return true;
+	}
+
+	/**
+	 * Append a record.
+	 * 
+	 * @param record
+	 *          the record
+	 * @throws SirixIOException
+	 *           if an I/O error occurs
+	 */
+	private void append(final ByteBuffer record) throws SirixIOException {
+		try {
+			while (record.hasRemaining()) {
+				mChannel.write(record);
+			}
+		} catch (final IOException e) {
+			throw new SirixIOException(e);
+		}
+	}
+
+	@Override
+	public synchronized void close() throws SirixIOException {
+		try {
+			mFile.close();
+		} catch (final IOException e) {
+			throw new SirixIOException(e);
+		}
+	}
+}
@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2011, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.sirix.access;
+
+import javax.annotation.Nonnegative;
+
+import com.google.common.base.Objects;
+
+/**
+ * Immutable snapshot of the commit statistics of a database. Commits of
+ * concurrent write transactions are made durable in batches, such that the
+ * average batch size denotes how many commits share one force of the journal.
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public final class CommitStatistics {
+
+	/** Number of commits. */
+	private final long mCommits;
+
+	/** Accumulated commit latency in nanoseconds. */
+	private final long mCommitLatency;
+
+	/** Maximum commit latency in nanoseconds. */
+	private final long mMaxCommitLatency;
+
+	/** Number of batches. */
+	private final long mBatches;
+
+	/** Accumulated number of syncs in all batches. */
+	private final long mBatchedSyncs;
+
+	/** Maximum batch size. */
+	private final long mMaxBatchSize;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param commits
+	 *          number of commits
+	 * @param commitLatency
+	 *          accumulated commit latency in nanoseconds
+	 * @param maxCommitLatency
+	 *          maximum commit latency in nanoseconds
+	 * @param batches
+	 *          number of batches
+	 * @param batchedSyncs
+	 *          accumulated number of syncs in all batches
+	 * @param maxBatchSize
+	 *          maximum batch size
+	 */
+	CommitStatistics(final @Nonnegative long commits,
+			final @Nonnegative long commitLatency,
+			final @Nonnegative long maxCommitLatency, final @Nonnegative long batches,
+			final @Nonnegative long batchedSyncs, final @Nonnegative long maxBatchSize) {
+		mCommits = commits;
+		mCommitLatency = commitLatency;
+		mMaxCommitLatency = maxCommitLatency;
+		mBatches = batches;
+		mBatchedSyncs = batchedSyncs;
+		mMaxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * Get the number of commits.
+	 * 
+	 * @return number of commits
+	 */
+	public long getCommits() {
+		return mCommits;
+	}
+
+	/**
+	 * Get the average commit latency.
+	 * 
+	 * @return average commit latency in nanoseconds
+	 */
+	public long getAverageCommitLatency() {
+		return mCommits == 0 ? 0 : mCommitLatency / mCommits;
+	}
+
+	/**
+	 * Get the maximum commit latency.
+	 * 
+	 * @return maximum commit latency in nanoseconds
+	 */
+	public long getMaxCommitLatency() {
+		return mMaxCommitLatency;
+	}
+
+	/**
+	 * Get the number of batches.
+	 * 
+	 * @return number of batches
+	 */
+	public long getBatches() {
+		return mBatches;
+	}
+
+	/**
+	 * Get the average number of syncs per batch.
+	 * 
+	 * @return average batch size
+	 */
+	public double getAverageBatchSize() {
+		return mBatches == 0 ? 0 : (double) mBatchedSyncs / mBatches;
+	}
+
+	/**
+	 * Get the maximum number of syncs per batch.
+	 * 
+	 * @return maximum batch size
+	 */
+	public long getMaxBatchSize() {
+		return mMaxBatchSize;
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this).add("commits", mCommits)
+				.add("avgCommitLatency", getAverageCommitLatency())
+				.add("maxCommitLatency", mMaxCommitLatency).add("batches", mBatches)
+				.add("avgBatchSize", getAverageBatchSize())
+				.add("maxBatchSize", mMaxBatchSize).toString();
+	}
+}
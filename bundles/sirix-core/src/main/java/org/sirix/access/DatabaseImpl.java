@@ -53,6 +53,7 @@ import org.sirix.api.Session;
 import org.sirix.exception.SirixException;
 import org.sirix.exception.SirixIOException;
 import org.sirix.exception.SirixUsageException;
+import org.sirix.io.Journal;
 import org.sirix.utils.Files;
 import org.sirix.utils.LogWrapper;
 import org.slf4j.LoggerFactory;
@@ -94,6 +95,18 @@ public final class DatabaseImpl implements Database {
 	/** DatabaseConfiguration with fixed settings. */
 	private final DatabaseConfiguration mDBConfig;
 
+	/** Commit logs of all resources with open sessions. */
+	private final ConcurrentMap<File, CommitLog> mCommitLogs;
+
+	/** Page buffers of all resources with open sessions. */
+	private final ConcurrentMap<File, BufferManager> mBufferManagers;
+
+	/** Journal, which makes the commits of all resources durable. */
+	private final Journal mJournal;
+
+	/** Coordinates the commits of all write transactions. */
+	final GroupCommitCoordinator mCommitCoordinator;
+
 	/**
 	 * Package private constructor.
 	 * 
@@ -109,6 +122,12 @@ public final class DatabaseImpl implements Database {
 		mResources = Maps.synchronizedBiMap(HashBiMap.<Long, String> create());
 		mReadSemaphores = new ConcurrentHashMap<>();
 		mWriteSemaphores = new ConcurrentHashMap<>();
+		mCommitLogs = new ConcurrentHashMap<>();
+		mBufferManagers = new ConcurrentHashMap<>();
+		mJournal = new Journal(mDBConfig.getFile(),
+				Journal.DEFAULT_CHECKPOINT_SIZE);
+		mCommitCoordinator = new GroupCommitCoordinator(mJournal,
+				GroupCommitCoordinator.DEFAULT_WINDOW);
 	}
 
 	// //////////////////////////////////////////////////////////
@@ -191,6 +210,10 @@ public final class DatabaseImpl implements Database {
 					&& ResourceConfiguration.Paths.compareStructure(resourceFile) == 0) {
 				// Instantiate the database for deletion.
 				try {
+					// Records of the resource must not be replayed into a resource,
+					// which is created with the same name afterwards.
+					mJournal.open();
+					mJournal.forceCheckpoint();
 					Files.recursiveRemove(resourceFile.toPath());
 				} catch (final SirixIOException e) {
 					LOGWRAPPER.error(e.getMessage(), e);
@@ -259,9 +282,17 @@ public final class DatabaseImpl implements Database {
 			mReadSemaphores.put(resourceFile, new Semaphore(512));
 		if (!mWriteSemaphores.containsKey(resourceFile))
 			mWriteSemaphores.put(resourceFile, new Semaphore(1));
-		final Session session = new SessionImpl(this, resourceConfig, sessionConf);
+
+		// Replay the commits, which haven't been checkpointed, before the first
+		// data file is opened.
+		mJournal.open();
+		final SessionImpl session = new SessionImpl(this, resourceConfig,
+				sessionConf);
 		sessions.add(session);
 		mSessions.put(resourceFile, sessions);
+		if (sessionConf.getWarmUpLimit() > 0) {
+			WarmUp.preload(session, sessionConf.getWarmUpLimit());
+		}
 		return session;
 	}
 
@@ -276,6 +307,11 @@ public final class DatabaseImpl implements Database {
 			}
 		}
 
+		// Empty the journal, such that no stale record is replayed into a
+		// resource, which is truncated and recreated afterwards.
+		mJournal.forceCheckpoint();
+		mJournal.close();
+
 		// Remove from database mapping.
 		Databases.removeDatabase(mDBConfig.getFile());
 
@@ -304,6 +340,11 @@ public final class DatabaseImpl implements Database {
 				.getFile().getName()).list();
 	}
 
+	@Override
+	public CommitStatistics getCommitStatistics() {
+		return mCommitCoordinator.getStatistics();
+	}
+
 	@Override
 	public synchronized Database commitAll() throws SirixException {
 		// Commit all sessions.
@@ -330,6 +371,15 @@ public final class DatabaseImpl implements Database {
 	protected boolean removeSession(final File resourceFile, final SessionConfiguration sessionConfig) {
 		final Set<Session> sessions = mSessions.get(resourceFile);		
 		if (sessions == null || sessions.isEmpty() || sessions.size() == 1) {
+			final CommitLog commitLog = mCommitLogs.remove(resourceFile);
+			if (commitLog != null) {
+				commitLog.close();
+			}
+			final BufferManager bufferManager = mBufferManagers.remove(resourceFile);
+			if (bufferManager != null) {
+				bufferManager.close();
+				splitMemoryBudget();
+			}
 			return mSessions.remove(resourceFile) == null ? false : true;
 		}
 		
@@ -392,4 +442,61 @@ public final class DatabaseImpl implements Database {
 	Semaphore getWriteSemaphore(File resourceFile) {
 		return mWriteSemaphores.get(resourceFile);
 	}
+
+	/**
+	 * Get the commit log of a resource, which is shared by all sessions on the
+	 * resource.
+	 * 
+	 * @param resourceConfig
+	 *          configuration of the resource
+	 * @return the commit log
+	 * @throws SirixIOException
+	 *           if the commit log can't be opened
+	 */
+	synchronized CommitLog getCommitLog(
+			final ResourceConfiguration resourceConfig) throws SirixIOException {
+		CommitLog commitLog = mCommitLogs.get(resourceConfig.mPath);
+		if (commitLog == null) {
+			commitLog = new CommitLog(resourceConfig);
+			mCommitLogs.put(resourceConfig.mPath, commitLog);
+		}
+		return commitLog;
+	}
+
+	/**
+	 * Get the page buffer of a resource, which is shared by all sessions on the
+	 * resource. The memory budget of the database is split evenly across its
+	 * open resources.
+	 * 
+	 * @param resourceConfig
+	 *          configuration of the resource
+	 * @return the page buffer
+	 */
+	synchronized BufferManager getBufferManager(
+			final ResourceConfiguration resourceConfig) {
+		BufferManager bufferManager = mBufferManagers.get(resourceConfig.mPath);
+		if (bufferManager == null) {
+			bufferManager = new BufferManagerImpl(Math.max(1,
+					mDBConfig.getMemoryBudget() / (mBufferManagers.size() + 1)),
+					resourceConfig.mPath);
+			mBufferManagers.put(resourceConfig.mPath, bufferManager);
+			splitMemoryBudget();
+		}
+		return bufferManager;
+	}
+
+	/**
+	 * Split the memory budget of the database evenly across the page buffers of
+	 * the open resources.
+	 */
+	private synchronized void splitMemoryBudget() {
+		final int count = mBufferManagers.size();
+		if (count > 0) {
+			final long memoryBudget = Math.max(1, mDBConfig.getMemoryBudget()
+					/ count);
+			for (final BufferManager bufferManager : mBufferManagers.values()) {
+				bufferManager.setMemoryBudget(memoryBudget);
+			}
+		}
+	}
 }
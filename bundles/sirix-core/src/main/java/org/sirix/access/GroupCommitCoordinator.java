@@ -0,0 +1,332 @@
+/**
+ * Copyright (c) 2011, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.sirix.access;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nullable;
+
+import org.sirix.exception.SirixIOException;
+import org.sirix.io.Journal;
+import org.sirix.io.Writer;
+import org.sirix.page.PageReference;
+import org.sirix.utils.LogWrapper;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Coordinates the commits of all write transactions of one database, such that
+ * commits, which arrive at nearly the same time, are made durable in one batch.
+ * Each commit appends its revision to the {@link Journal} of the database. The
+ * first committer, which finds no running batch, becomes the leader. It waits
+ * for a short time window as long as other commits are in progress, then
+ * forces the journal once for all collected commits and wakes up the
+ * followers. Backends, which don't use the journal, make their revisions
+ * durable on their own.
+ * 
+ * <p>
+ * Each commit blocks until its revision is durable. Commit latency and batch
+ * sizes are recorded and available through {@link #getStatistics()}.
+ * </p>
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+final class GroupCommitCoordinator {
+
+	/** {@link LogWrapper} reference. */
+	private static final LogWrapper LOGWRAPPER = new LogWrapper(
+			LoggerFactory.getLogger(GroupCommitCoordinator.class));
+
+	/** Default time window to collect commits in nanoseconds. */
+	static final long DEFAULT_WINDOW = TimeUnit.MILLISECONDS.toNanos(2);
+
+	/** The journal of the database. */
+	private final Journal mJournal;
+
+	/** Time window to collect commits in nanoseconds. */
+	private final long mWindow;
+
+	/** Lock guarding the pending requests. */
+	private final Lock mLock;
+
+	/** Signaled, once a commit arrives. */
+	private final Condition mArrived;
+
+	/** Signaled, once a batch is finished. */
+	private final Condition mFinished;
+
+	/** Requests, which are not yet part of a batch. */
+	private List<Request> mPending;
+
+	/** Determines if a leader currently syncs a batch. */
+	private boolean mLeaderActive;
+
+	/** Number of commits in progress. */
+	private int mInProgress;
+
+	/** Number of finished commits. */
+	private final AtomicLong mCommits;
+
+	/** Accumulated commit latency in nanoseconds. */
+	private final AtomicLong mCommitLatency;
+
+	/** Maximum commit latency in nanoseconds. */
+	private final AtomicLong mMaxCommitLatency;
+
+	/** Number of batches. */
+	private final AtomicLong mBatches;
+
+	/** Accumulated number of commits in all batches. */
+	private final AtomicLong mBatchedCommits;
+
+	/** Maximum batch size. */
+	private final AtomicLong mMaxBatchSize;
+
+	/** A single request to force the journal. */
+	private static final class Request {
+		/** Determines if the request is finished. */
+		private boolean mDone;
+
+		/** Failure, if forcing the journal failed. */
+		@Nullable
+		private SirixIOException mFailure;
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param journal
+	 *          the journal of the database
+	 * @param window
+	 *          time window in nanoseconds, during which the leader waits for
+	 *          further commits
+	 * @throws IllegalArgumentException
+	 *           if {@code window < 0}
+	 */
+	GroupCommitCoordinator(final Journal journal, final @Nonnegative long window) {
+		checkArgument(window >= 0, "window must be >= 0!");
+		mJournal = checkNotNull(journal);
+		mWindow = window;
+		mLock = new ReentrantLock();
+		mArrived = mLock.newCondition();
+		mFinished = mLock.newCondition();
+		mPending = new ArrayList<>();
+		mCommits = new AtomicLong();
+		mCommitLatency = new AtomicLong();
+		mMaxCommitLatency = new AtomicLong();
+		mBatches = new AtomicLong();
+		mBatchedCommits = new AtomicLong();
+		mMaxBatchSize = new AtomicLong();
+	}
+
+	/**
+	 * Denotes the start of a commit.
+	 * 
+	 * @return the start time of the commit, which has to be passed to
+	 *         {@link #end(long)}
+	 */
+	long begin() {
+		mLock.lock();
+		try {
+			mInProgress++;
+		} finally {
+			mLock.unlock();
+		}
+		return System.nanoTime();
+	}
+
+	/**
+	 * Denotes the end of a commit.
+	 * 
+	 * @param start
+	 *          the start time as returned by {@link #begin()}
+	 */
+	void end(final long start) {
+		mLock.lock();
+		try {
+			mInProgress--;
+		} finally {
+			mLock.unlock();
+		}
+		final long latency = System.nanoTime() - start;
+		mCommits.incrementAndGet();
+		mCommitLatency.addAndGet(latency);
+		updateMax(mMaxCommitLatency, latency);
+	}
+
+	/**
+	 * Make a revision durable, whose pages have been written, by writing the
+	 * beacon, which references its {@code UberPage}. If the writer uses the
+	 * journal, blocks until the batch containing the revision is durable.
+	 * 
+	 * @param writer
+	 *          the writer of the resource
+	 * @param uberPageReference
+	 *          the reference to the {@code UberPage} of the revision
+	 * @throws SirixIOException
+	 *           if the revision couldn't be made durable
+	 */
+	void commit(final Writer writer, final PageReference uberPageReference)
+			throws SirixIOException {
+		if (writer.writeUberPageReference(checkNotNull(uberPageReference),
+				mJournal)) {
+			sync();
+		} else {
+			writer.writeUberPageReference(uberPageReference);
+			writer.sync();
+		}
+	}
+
+	/**
+	 * Make everything appended to the journal durable. Blocks until the batch
+	 * containing the request is finished.
+	 * 
+	 * @throws SirixIOException
+	 *           if forcing the journal failed
+	 */
+	void sync() throws SirixIOException {
+		final Request request = new Request();
+		final List<Request> batch;
+		mLock.lock();
+		try {
+			mPending.add(request);
+			mArrived.signalAll();
+			while (mLeaderActive && !request.mDone) {
+				mFinished.awaitUninterruptibly();
+			}
+			if (request.mDone) {
+				// The batch has been forced by another leader.
+				if (request.mFailure != null) {
+					throw request.mFailure;
+				}
+				return;
+			}
+
+			// Become the leader and collect further commits.
+			mLeaderActive = true;
+			long remaining = mWindow;
+			while (remaining > 0 && mPending.size() < mInProgress) {
+				try {
+					remaining = mArrived.awaitNanos(remaining);
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+			}
+			batch = mPending;
+			mPending = new ArrayList<>();
+		} finally {
+			mLock.unlock();
+		}
+
+		try {
+			syncBatch(batch);
+		} finally {
+			mLock.lock();
+			try {
+				for (final Request finished : batch) {
+					finished.mDone = true;
+				}
+				mLeaderActive = false;
+				mFinished.signalAll();
+			} finally {
+				mLock.unlock();
+			}
+		}
+
+		if (request.mFailure != null) {
+			throw request.mFailure;
+		}
+
+		// Empty the journal, if it has grown too large, once the followers are
+		// released.
+		try {
+			mJournal.checkpoint();
+		} catch (final SirixIOException e) {
+			// The commits are durable nevertheless.
+			LOGWRAPPER.warn("Checkpoint of the journal failed: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * Force the journal once for all requests of a batch.
+	 * 
+	 * @param batch
+	 *          the requests of the batch
+	 */
+	private void syncBatch(final List<Request> batch) {
+		SirixIOException failure = null;
+		try {
+			mJournal.force();
+		} catch (final SirixIOException e) {
+			failure = e;
+		}
+		for (final Request request : batch) {
+			request.mFailure = failure;
+		}
+		mBatches.incrementAndGet();
+		mBatchedCommits.addAndGet(batch.size());
+		updateMax(mMaxBatchSize, batch.size());
+	}
+
+	/**
+	 * Atomically update a maximum.
+	 * 
+	 * @param max
+	 *          the current maximum
+	 * @param value
+	 *          the new value
+	 */
+	private static void updateMax(final AtomicLong max, final long value) {
+		long current = max.get();
+		while (value > current && !max.compareAndSet(current, value)) {
+			current = max.get();
+		}
+	}
+
+	/**
+	 * Get the commit statistics.
+	 * 
+	 * @return a snapshot of the commit statistics
+	 */
+	CommitStatistics getStatistics() {
+		return new CommitStatistics(mCommits.get(), mCommitLatency.get(),
+				mMaxCommitLatency.get(), mBatches.get(), mBatchedCommits.get(),
+				mMaxBatchSize.get());
+	}
+}
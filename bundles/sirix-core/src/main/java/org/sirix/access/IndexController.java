@@ -2,9 +2,6 @@ package org.sirix.access;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintStream;
@@ -24,7 +21,6 @@ import org.brackit.xquery.util.path.PathException;
 import org.brackit.xquery.util.serialize.SubtreePrinter;
 import org.brackit.xquery.xdm.DocumentException;
 import org.brackit.xquery.xdm.Node;
-import org.sirix.access.conf.ResourceConfiguration;
 import org.sirix.api.NodeReadTrx;
 import org.sirix.api.NodeWriteTrx;
 import org.sirix.api.PageReadTrx;
@@ -134,18 +130,9 @@ public final class IndexController {
 	 */
 	public boolean containsIndex(final IndexType type, final Session session,
 			final int revision) throws SirixIOException {
-		final Indexes indexes = new Indexes();
-		final File indexesFile = new File(session.getResourceConfig().mPath,
-				ResourceConfiguration.Paths.INDEXES.getFile().getPath() + revision
-						+ ".xml");
-		if (indexesFile.length() != 0) {
-			try (final InputStream in = new FileInputStream(indexesFile)) {
-				indexes.init(deserialize(in).getFirstChild());
-			} catch (IOException | DocumentException | SirixException e) {
-				throw new SirixIOException(
-						"Index definitions couldn't be deserialized!", e);
-			}
-		}
+		final IndexController controller = new IndexController();
+		((SessionImpl) session).initIndexDefs(revision, controller);
+		final Indexes indexes = controller.getIndexes();
 		for (final IndexDef indexDef : indexes.getIndexDefs()) {
 			if (indexDef.getType() == type)
 				return true;
@@ -124,7 +124,8 @@ final class NodeFactoryImpl implements NodeFactory {
 		return (ElementNode) mPageWriteTrx.createEntry(
 				nodeDel.getNodeKey(),
 				new ElementNode(structDel, nameDel, new ArrayList<Long>(), HashBiMap
-						.<Long, Long> create(), new ArrayList<Long>(), name),
+						.<Long, Long> create(), new ArrayList<Long>(), mPageWriteTrx
+						.getNameCache()),
 				PageKind.RECORDPAGE, -1, Optional.<UnorderedKeyValuePage> empty());
 	}
 
@@ -172,7 +173,8 @@ final class NodeFactoryImpl implements NodeFactory {
 		final ValNodeDelegate valDel = new ValNodeDelegate(nodeDel, value, false);
 
 		return (AttributeNode) mPageWriteTrx.createEntry(nodeDel.getNodeKey(),
-				new AttributeNode(nodeDel, nameDel, valDel, name), PageKind.RECORDPAGE,
+				new AttributeNode(nodeDel, nameDel, valDel, mPageWriteTrx
+						.getNameCache()), PageKind.RECORDPAGE,
 				-1, Optional.<UnorderedKeyValuePage> empty());
 	}
 
@@ -195,7 +197,8 @@ final class NodeFactoryImpl implements NodeFactory {
 				prefixKey, -1, pathNodeKey);
 
 		return (NamespaceNode) mPageWriteTrx.createEntry(nodeDel.getNodeKey(),
-				new NamespaceNode(nodeDel, nameDel, name), PageKind.RECORDPAGE, -1,
+				new NamespaceNode(nodeDel, nameDel, mPageWriteTrx.getNameCache()),
+				PageKind.RECORDPAGE, -1,
 				Optional.<UnorderedKeyValuePage> empty());
 	}
 
@@ -109,6 +109,9 @@ public final class NodeReadTrxImpl implements NodeReadTrx {
 	/** Read-transaction-exclusive item list. */
 	private final ItemList<AtomicValue> mItemList;
 
+	/** Returned by all successful moves, as it only references the cursor. */
+	private final Move<NodeReadTrx> mMoved;
+
 	/**
 	 * Constructor.
 	 * 
@@ -140,6 +143,7 @@ public final class NodeReadTrxImpl implements NodeReadTrx {
 		}
 		mClosed = false;
 		mItemList = new ItemListImpl();
+		mMoved = Move.<NodeReadTrx> moved(this);
 	}
 
 	/**
@@ -205,40 +209,41 @@ public final class NodeReadTrxImpl implements NodeReadTrx {
 
 	@Override
 	public Move<? extends NodeReadTrx> moveTo(final long nodeKey) {
+		return tryMoveTo(nodeKey) ? mMoved : Move.notMoved();
+	}
+
+	@Override
+	public boolean tryMoveTo(final long nodeKey) {
 		assertNotClosed();
 		// NOT NEEDED: Actually slows down Sirix in most cases (slightly), as it's a
 		// special case.
 		// if (nodeKey == Fixed.NULL_NODE_KEY.getStandardProperty()) {
-		// return Move.notMoved();
+		// return false;
 		// }
 
-		// Remember old node and fetch new one.
-		final ImmutableNode oldNode = mCurrentNode;
-		Optional<? extends Record> newNode;
+		// Fetch new node.
+		Record newNode;
 		try {
 			// Immediately return node from item list if node key negative.
 			if (nodeKey < 0) {
 				if (mItemList.size() > 0) {
-					newNode = mItemList.getItem(nodeKey);
+					newNode = mItemList.getItem(nodeKey).orElse(null);
 				} else {
-					newNode = Optional.empty();
+					newNode = null;
 				}
 			} else {
-				final Optional<? extends Record> node = mPageReadTrx.getRecord(nodeKey,
+				newNode = mPageReadTrx.getRecordIfPresent(nodeKey,
 						PageKind.RECORDPAGE, -1);
-				newNode = node;
 			}
 		} catch (final SirixIOException e) {
-			newNode = Optional.empty();
+			newNode = null;
 		}
 
-		if (newNode.isPresent()) {
-			mCurrentNode = (Node) newNode.get();
-			return Move.moved(this);
-		} else {
-			mCurrentNode = oldNode;
-			return Move.notMoved();
+		if (newNode == null) {
+			return false;
 		}
+		mCurrentNode = (Node) newNode;
+		return true;
 	}
 
 	@Override
@@ -249,72 +254,90 @@ public final class NodeReadTrxImpl implements NodeReadTrx {
 
 	@Override
 	public Move<? extends NodeReadTrx> moveToParent() {
+		return tryMoveToParent() ? mMoved : Move.notMoved();
+	}
+
+	@Override
+	public boolean tryMoveToParent() {
 		assertNotClosed();
-		return moveTo(mCurrentNode.getParentKey());
+		return tryMoveTo(mCurrentNode.getParentKey());
 	}
 
 	@Override
 	public Move<? extends NodeReadTrx> moveToFirstChild() {
+		return tryMoveToFirstChild() ? mMoved : Move.notMoved();
+	}
+
+	@Override
+	public boolean tryMoveToFirstChild() {
 		assertNotClosed();
-		final StructNode node = getStructuralNode();
-		if (!node.hasFirstChild()) {
-			return Moved.notMoved();
+		if (!(mCurrentNode instanceof StructNode)) {
+			return false;
 		}
-		return moveTo(node.getFirstChildKey());
+		final StructNode node = (StructNode) mCurrentNode;
+		return node.hasFirstChild() && tryMoveTo(node.getFirstChildKey());
 	}
 
 	@Override
 	public Move<? extends NodeReadTrx> moveToLeftSibling() {
+		return tryMoveToLeftSibling() ? mMoved : Move.notMoved();
+	}
+
+	@Override
+	public boolean tryMoveToLeftSibling() {
 		assertNotClosed();
-		final StructNode node = getStructuralNode();
-		if (!node.hasLeftSibling()) {
-			return Moved.notMoved();
+		if (!(mCurrentNode instanceof StructNode)) {
+			return false;
 		}
-		return moveTo(node.getLeftSiblingKey());
+		final StructNode node = (StructNode) mCurrentNode;
+		return node.hasLeftSibling() && tryMoveTo(node.getLeftSiblingKey());
 	}
 
 	@Override
 	public Move<? extends NodeReadTrx> moveToRightSibling() {
+		return tryMoveToRightSibling() ? mMoved : Move.notMoved();
+	}
+
+	@Override
+	public boolean tryMoveToRightSibling() {
 		assertNotClosed();
-		final StructNode node = getStructuralNode();
-		if (!node.hasRightSibling()) {
-			return Move.notMoved();
+		if (!(mCurrentNode instanceof StructNode)) {
+			return false;
 		}
-		return moveTo(node.getRightSiblingKey());
+		final StructNode node = (StructNode) mCurrentNode;
+		return node.hasRightSibling() && tryMoveTo(node.getRightSiblingKey());
 	}
 
 	@Override
 	public Move<? extends NodeReadTrx> moveToAttribute(final int index) {
+		return tryMoveToAttribute(index) ? mMoved : Move.notMoved();
+	}
+
+	@Override
+	public boolean tryMoveToAttribute(final int index) {
 		assertNotClosed();
 		if (mCurrentNode.getKind() == Kind.ELEMENT) {
 			final ElementNode element = ((ElementNode) mCurrentNode);
-			if (element.getAttributeCount() > index) {
-				final Move<? extends NodeReadTrx> moved = (Move<? extends NodeReadTrx>) moveTo(element
-						.getAttributeKey(index));
-				return moved;
-			} else {
-				return Moved.notMoved();
-			}
-		} else {
-			return Moved.notMoved();
+			return element.getAttributeCount() > index
+					&& tryMoveTo(element.getAttributeKey(index));
 		}
+		return false;
 	}
 
 	@Override
 	public Move<? extends NodeReadTrx> moveToNamespace(final int index) {
+		return tryMoveToNamespace(index) ? mMoved : Move.notMoved();
+	}
+
+	@Override
+	public boolean tryMoveToNamespace(final int index) {
 		assertNotClosed();
 		if (mCurrentNode.getKind() == Kind.ELEMENT) {
 			final ElementNode element = ((ElementNode) mCurrentNode);
-			if (element.getNamespaceCount() > index) {
-				final Move<? extends NodeReadTrx> moved = (Move<? extends NodeReadTrx>) moveTo(element
-						.getNamespaceKey(index));
-				return moved;
-			} else {
-				return Moved.notMoved();
-			}
-		} else {
-			return Moved.notMoved();
+			return element.getNamespaceCount() > index
+					&& tryMoveTo(element.getNamespaceKey(index));
 		}
+		return false;
 	}
 
 	@Override
@@ -597,7 +620,7 @@ public final class NodeReadTrxImpl implements NodeReadTrx {
 				moveToRightSibling();
 			}
 
-			return Move.moved(this);
+			return mMoved;
 		}
 		return Move.notMoved();
 	}
@@ -606,8 +629,8 @@ public final class NodeReadTrxImpl implements NodeReadTrx {
 	public boolean hasNode(final @Nonnegative long key) {
 		assertNotClosed();
 		final long nodeKey = mCurrentNode.getNodeKey();
-		final boolean retVal = moveTo(key).equals(Move.notMoved()) ? false : true;
-		moveTo(nodeKey);
+		final boolean retVal = tryMoveTo(key);
+		tryMoveTo(nodeKey);
 		return retVal;
 	}
 
@@ -1850,7 +1850,7 @@ final class NodeWriteTrxImpl extends AbstractForwardingNodeReadTrx implements
 				// Release all state immediately.
 				mNodeRtx.mSession.closeWriteTransaction(getTransactionID());
 				mNodeRtx.close();
-				removeCommitFileAndLogs(revision);
+				abortCommit(revision);
 
 				mPathSummaryWriter = null;
 				mNodeFactory = null;
@@ -1887,7 +1887,7 @@ final class NodeWriteTrxImpl extends AbstractForwardingNodeReadTrx implements
 			mNodeRtx.getPageTransaction().closeCaches();
 			mNodeRtx.mSession.closeNodePageWriteTransaction(getTransactionID());
 			mNodeRtx.setPageReadTransaction(null);
-			removeCommitFileAndLogs(revision);
+			abortCommit(revision);
 			final PageWriteTrx<Long, Record, UnorderedKeyValuePage> trx = mNodeRtx.mSession
 					.createPageWriteTransaction(trxID, revNumber, revNumber, Abort.YES);
 			mNodeRtx.setPageReadTransaction(trx);
@@ -1903,17 +1903,17 @@ final class NodeWriteTrxImpl extends AbstractForwardingNodeReadTrx implements
 	}
 
 	/**
-	 * Remove a commit file and all transaction logs.
+	 * Abort the commit of a revision, if it has been started.
 	 * 
 	 * @param revision
-	 *          the revision from which to remove all transaction logs
+	 *          the revision, which isn't going to be committed
 	 * @throws SirixIOException
 	 *           if an I/O error occurs
 	 */
-	private void removeCommitFileAndLogs(final @Nonnegative int revision)
+	private void abortCommit(final @Nonnegative int revision)
 			throws SirixIOException {
-		// Delete commit file.
-		mNodeRtx.mSession.commitFile(revision).delete();
+		// Denote that the commit of the revision, if any, is aborted.
+		mNodeRtx.mSession.mCommitLog.abort(revision);
 	}
 
 	@Override
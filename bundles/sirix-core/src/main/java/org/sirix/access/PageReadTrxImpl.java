@@ -30,35 +30,45 @@ package org.sirix.access;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
-import org.brackit.xquery.xdm.DocumentException;
 import org.sirix.access.conf.ResourceConfiguration;
 import org.sirix.api.PageReadTrx;
 import org.sirix.api.Session;
+import org.sirix.cache.BufferKey;
+import org.sirix.cache.CacheStatistics;
 import org.sirix.cache.IndexLogKey;
 import org.sirix.cache.IndirectPageLogKey;
+import org.sirix.cache.NameCache;
 import org.sirix.cache.RecordPageContainer;
 import org.sirix.cache.TransactionIndexLogCache;
 import org.sirix.cache.TransactionLogCache;
 import org.sirix.cache.TransactionLogPageCache;
-import org.sirix.exception.SirixException;
 import org.sirix.exception.SirixIOException;
+import org.sirix.exception.SirixThreadedException;
 import org.sirix.index.IndexType;
 import org.sirix.io.Reader;
 import org.sirix.node.DeletedNode;
@@ -84,19 +94,32 @@ import com.google.common.base.Objects;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
 import com.google.common.util.concurrent.UncheckedExecutionException;
 
 /**
  * <h1>PageReadTransaction</h1>
  * 
  * <p>
- * Page reading transaction. The only thing shared amongst transactions is the
- * session. Everything else is exclusive to this transaction. It is required
- * that only a single thread has access to this transaction.
+ * Page reading transaction. The only things shared amongst transactions are the
+ * session and its buffer of reconstructed record pages, which is used as long
+ * as the transaction only reads committed pages. Everything else is exclusive
+ * to this transaction. It is required that only a single thread has access to
+ * this transaction.
  * </p>
  */
 final class PageReadTrxImpl implements PageReadTrx {
 
+	/** Maximum number of record pages, which are read ahead. */
+	static final int MAX_READ_AHEAD = 16;
+
+	/**
+	 * Maximum number of pages of each kind, which a transaction references from
+	 * the buffer of the resource.
+	 */
+	static final int REFERENCE_CACHE_SIZE = 64;
+
 	/** Page reader exclusively assigned to this transaction. */
 	private final Reader mPageReader;
 
@@ -130,6 +153,9 @@ final class PageReadTrxImpl implements PageReadTrx {
 	/** {@link NamePage} reference. */
 	private final NamePage mNamePage;
 
+	/** Cache of the qualified names of the revision. */
+	private final NameCache mQNmCache;
+
 	/** Determines if page reading transaction is closed or not. */
 	private boolean mClosed;
 
@@ -181,6 +207,45 @@ final class PageReadTrxImpl implements PageReadTrx {
 	/** {@link IndexController} instance. */
 	private final IndexController mIndexController;
 
+	/**
+	 * Optional buffer of record pages shared with other transactions, dependent
+	 * on the fact, if only committed pages are read.
+	 */
+	private final Optional<BufferManager> mBufferManager;
+
+	/** The cache statistics of each kind of page of the resource. */
+	private final Map<PageKind, CacheStatistics> mStatistics;
+
+	/**
+	 * Determines if pages are read only once, such that they shouldn't be added
+	 * to the buffer shared with other transactions.
+	 */
+	private boolean mNoCache;
+
+	/** Record pages, which are read ahead in the background. */
+	private final Map<Long, ReadAheadTask> mReadAheadPages;
+
+	/** Determines if record pages are read ahead of sequential accesses. */
+	private boolean mReadAheadEnabled;
+
+	/** Key of the record page, which has been read last. */
+	private long mLastRecordPageKey;
+
+	/** Key of the record page, which has been accessed last. */
+	private long mCurrentRecordPageKey;
+
+	/** Container of the record page, which has been accessed last. */
+	private RecordPageContainer<UnorderedKeyValuePage> mCurrentRecordPage;
+
+	/** Key of the last record page, which has been read ahead. */
+	private long mReadAheadKey;
+
+	/**
+	 * Number of record pages to read ahead, which grows with each sequential
+	 * access.
+	 */
+	private int mReadAhead;
+
 	/**
 	 * Standard constructor.
 	 * 
@@ -212,26 +277,21 @@ final class PageReadTrxImpl implements PageReadTrx {
 
 		if (!indexController.isPresent()) {
 			// Deserialize index definitions.
-			final File indexes = new File(session.mResourceConfig.mPath,
-					ResourceConfiguration.Paths.INDEXES.getFile().getPath() + revision
-							+ ".xml");
-			if (indexes.exists()) {
-				try (final InputStream in = new FileInputStream(indexes)) {
-					mIndexController.getIndexes().init(
-							mIndexController.deserialize(in).getFirstChild());
-				} catch (IOException | DocumentException | SirixException e) {
-					throw new SirixIOException(
-							"Index definitions couldn't be deserialized!", e);
-				}
-			}
+			session.initIndexDefs(revision, mIndexController);
 		}
 
-		final File commitFile = session.commitFile(revision);
-		final boolean doesExist = commitFile.exists();
+		final boolean doesExist = session.mCommitLog.isCommitting(revision);
 
 		mSession = checkNotNull(session);
 		mPageReader = checkNotNull(reader);
 		mUberPage = checkNotNull(uberPage);
+		mBufferManager = pageWriteTrx.isPresent() || doesExist ? Optional
+				.<BufferManager> empty() : Optional.of(session.mBufferManager);
+		mReadAheadPages = new HashMap<>();
+		mReadAheadEnabled = true;
+		mLastRecordPageKey = -1;
+		mCurrentRecordPageKey = -1;
+		mReadAheadKey = -1;
 
 		// Transaction logs which might have to be read because the data hasn't been
 		// commited to the data-file.
@@ -280,36 +340,43 @@ final class PageReadTrxImpl implements PageReadTrx {
 					.<TransactionIndexLogCache<UnorderedKeyValuePage>> empty();
 		}
 
-		// In memory caches from data directory.
+		// In memory caches from data directory. Pages of reading transactions are
+		// held by the buffer of the resource, thus the caches only keep a few weak
+		// references to them. The caches of writing transactions are weighed by
+		// the approximate number of bytes of the pages.
 		// =========================================================
 		@SuppressWarnings("resource")
 		final PageReadTrxImpl pageReadTrx = this;
-		mNodeCache = CacheBuilder
-				.newBuilder()
-				.maximumSize(1000)
-				.expireAfterWrite(5000, TimeUnit.SECONDS)
-				.expireAfterAccess(5000, TimeUnit.SECONDS)
-				.concurrencyLevel(1)
-				.build(
-						new CacheLoader<Long, RecordPageContainer<UnorderedKeyValuePage>>() {
-							public RecordPageContainer<UnorderedKeyValuePage> load(
-									final Long key) {
-								final RecordPageContainer<UnorderedKeyValuePage> container = mNodeLog
-										.isPresent() ? mNodeLog.get().get(key)
-										: RecordPageContainer
-												.<UnorderedKeyValuePage> emptyInstance();
-								return (RecordPageContainer<UnorderedKeyValuePage>) (container
-										.equals(RecordPageContainer.EMPTY_INSTANCE) ? pageReadTrx
-										.<Long, Record, UnorderedKeyValuePage> getRecordPageContainer(
-												key, -1, PageKind.RECORDPAGE)
-										: container);
-							}
-						});
-		final CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
-				.concurrencyLevel(1).maximumSize(20);
+		final BufferManager bufferManager = session.mBufferManager;
+		mStatistics = bufferManager.getStatistics();
+		final Weigher<Object, RecordPageContainer<UnorderedKeyValuePage>> weigher = mBufferManager
+				.isPresent() ? null : (final Object key,
+				final RecordPageContainer<UnorderedKeyValuePage> value) -> BufferManagerImpl
+				.weigh(value);
+		mNodeCache = buildCache(
+				recordPageCacheBuilder(bufferManager, PageKind.RECORDPAGE)
+						.expireAfterWrite(5000, TimeUnit.SECONDS)
+						.expireAfterAccess(5000, TimeUnit.SECONDS),
+				weigher,
+				value -> mStatistics.get(PageKind.RECORDPAGE),
+				new CacheLoader<Long, RecordPageContainer<UnorderedKeyValuePage>>() {
+					public RecordPageContainer<UnorderedKeyValuePage> load(final Long key) {
+						final RecordPageContainer<UnorderedKeyValuePage> container = mNodeLog
+								.isPresent() ? mNodeLog.get().get(key) : RecordPageContainer
+								.<UnorderedKeyValuePage> emptyInstance();
+						return (RecordPageContainer<UnorderedKeyValuePage>) (container
+								.equals(RecordPageContainer.EMPTY_INSTANCE) ? pageReadTrx
+								.<Long, Record, UnorderedKeyValuePage> getRecordPageContainer(
+										key, -1, PageKind.RECORDPAGE) : container);
+					}
+				});
+		// The pages of the path summary and the indexes have equal shares.
+		final Supplier<CacheBuilder<Object, Object>> builder = () -> recordPageCacheBuilder(
+				bufferManager, PageKind.PATHPAGE);
 		if (mBuildPathSummary) {
-			mPathSummaryCache = builder
-					.build(new CacheLoader<IndexLogKey, RecordPageContainer<UnorderedKeyValuePage>>() {
+			mPathSummaryCache = buildCache(builder.get(), weigher,
+					value -> mStatistics.get(PageKind.PATHSUMMARYPAGE),
+					new CacheLoader<IndexLogKey, RecordPageContainer<UnorderedKeyValuePage>>() {
 						public RecordPageContainer<UnorderedKeyValuePage> load(
 								final IndexLogKey key) {
 							final RecordPageContainer<UnorderedKeyValuePage> container = mPathSummaryLog
@@ -327,8 +394,9 @@ final class PageReadTrxImpl implements PageReadTrx {
 			mPathSummaryCache = null;
 		}
 		if (mIndexController.containsIndex(IndexType.PATH)) {
-			mPathCache = builder
-					.build(new CacheLoader<IndexLogKey, RecordPageContainer<UnorderedKeyValuePage>>() {
+			mPathCache = buildCache(builder.get(), weigher,
+					value -> mStatistics.get(PageKind.PATHPAGE),
+					new CacheLoader<IndexLogKey, RecordPageContainer<UnorderedKeyValuePage>>() {
 						public RecordPageContainer<UnorderedKeyValuePage> load(
 								final IndexLogKey key) {
 							final RecordPageContainer<UnorderedKeyValuePage> container = mPathLog
@@ -345,8 +413,9 @@ final class PageReadTrxImpl implements PageReadTrx {
 			mPathCache = null;
 		}
 		if (mIndexController.containsIndex(IndexType.CAS)) {
-			mCASCache = builder
-					.build(new CacheLoader<IndexLogKey, RecordPageContainer<UnorderedKeyValuePage>>() {
+			mCASCache = buildCache(builder.get(), weigher,
+					value -> mStatistics.get(PageKind.CASPAGE),
+					new CacheLoader<IndexLogKey, RecordPageContainer<UnorderedKeyValuePage>>() {
 						public RecordPageContainer<UnorderedKeyValuePage> load(
 								final IndexLogKey key) {
 							final RecordPageContainer<UnorderedKeyValuePage> container = mCASLog
@@ -362,8 +431,9 @@ final class PageReadTrxImpl implements PageReadTrx {
 			mCASCache = null;
 		}
 		if (mIndexController.containsIndex(IndexType.NAME)) {
-			mNameCache = builder
-					.build(new CacheLoader<IndexLogKey, RecordPageContainer<UnorderedKeyValuePage>>() {
+			mNameCache = buildCache(builder.get(), weigher,
+					value -> mStatistics.get(PageKind.NAMEPAGE),
+					new CacheLoader<IndexLogKey, RecordPageContainer<UnorderedKeyValuePage>>() {
 						public RecordPageContainer<UnorderedKeyValuePage> load(
 								final IndexLogKey key) {
 							final RecordPageContainer<UnorderedKeyValuePage> container = mNameLog
@@ -379,29 +449,192 @@ final class PageReadTrxImpl implements PageReadTrx {
 			mNameCache = null;
 		}
 
-		final CacheBuilder<Object, Object> pageCacheBuilder = CacheBuilder
-				.newBuilder();
 		final PageReadTrxImpl impl = this;
-		mPageCache = pageCacheBuilder.build(new CacheLoader<PageReference, Page>() {
-			public Page load(final PageReference reference) {
-				assert reference.getLogKey() != null
-						|| reference.getKey() != Constants.NULL_ID;
-				Page page = mPageLog.isPresent() ? mPageLog.get().get(
-						reference.getLogKey()) : null;
-				if (page == null) {
-					page = mPageReader.read(reference.getKey(), impl).setDirty(true);
-				}
-				return page;
-			}
-		});
+		// Indirect pages and the pages referenced by the revision root pages are
+		// mostly pinned or buffered by the resource, if it's read.
+		mPageCache = buildCache(
+				CacheBuilder.newBuilder().maximumWeight(
+						mBufferManager.isPresent() ? Math.min(
+								bufferManager.getMaxWeight(PageKind.INDIRECTPAGE),
+								REFERENCE_CACHE_SIZE * Constants.INP_REFERENCE_COUNT
+										* Constants.REFERENCE_SIZE) : bufferManager
+								.getMaxWeight(PageKind.INDIRECTPAGE)),
+				(final PageReference key, final Page value) -> BufferManagerImpl
+						.weigh(value), this::getStatistics,
+				new CacheLoader<PageReference, Page>() {
+					public Page load(final PageReference reference) {
+						assert reference.getLogKey() != null
+								|| reference.getKey() != Constants.NULL_ID;
+						Page page = mPageLog.isPresent() ? mPageLog.get().get(
+								reference.getLogKey()) : null;
+						if (page == null) {
+							page = mPageReader.read(reference.getKey(), impl).setDirty(true);
+						}
+						return page;
+					}
+				});
 
 		// Load revision root.
 		mRootPage = loadRevRoot(revision);
 		assert mRootPage != null : "root page must not be null!";
 		mNamePage = getNamePage(mRootPage);
+		mQNmCache = nameCache(mRootPage.getNamePageReference().getKey());
 		mClosed = false;
 	}
 
+	/**
+	 * Get the builder of an in-memory cache of record pages. The cache of a
+	 * reading transaction weakly references a fixed number of pages of the
+	 * buffer of the resource, whereas the cache of a writing transaction is
+	 * weighed and bounded by the share of the page kind in the memory budget.
+	 * 
+	 * @param bufferManager
+	 *          the buffer of the resource
+	 * @param pageKind
+	 *          the kind of record page
+	 * @return the builder
+	 */
+	private CacheBuilder<Object, Object> recordPageCacheBuilder(
+			final BufferManager bufferManager, final PageKind pageKind) {
+		final CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
+				.concurrencyLevel(1);
+		return mBufferManager.isPresent() ? builder.maximumSize(
+				REFERENCE_CACHE_SIZE).weakValues() : builder
+				.maximumWeight(bufferManager.getMaxWeight(pageKind));
+	}
+
+	/**
+	 * Build an in-memory cache of pages, which records the loaded and removed
+	 * pages in the cache statistics of the resource.
+	 * 
+	 * @param builder
+	 *          the configured builder of the cache
+	 * @param weigher
+	 *          determines the approximate number of bytes of a page or
+	 *          {@code null}, if the cache only references pages of the buffer of
+	 *          the resource, which are accounted there
+	 * @param statistics
+	 *          determines the statistics of a page
+	 * @param loader
+	 *          loads a page, which isn't cached
+	 * @return the cache
+	 */
+	private static <K, V> LoadingCache<K, V> buildCache(
+			final CacheBuilder<Object, Object> builder,
+			final @Nullable Weigher<? super K, ? super V> weigher,
+			final Function<? super V, CacheStatistics> statistics,
+			final CacheLoader<K, V> loader) {
+		// The weights at the time the pages have been loaded, as the pages of a
+		// writing transaction are modified afterwards.
+		final ConcurrentMap<K, Integer> weights = new ConcurrentHashMap<>();
+		@SuppressWarnings("unchecked")
+		final CacheBuilder<K, V> weighedBuilder = weigher == null ? (CacheBuilder<K, V>) (CacheBuilder<?, ?>) builder
+				: builder.<K, V> weigher(weigher);
+		return weighedBuilder
+				.removalListener((final RemovalNotification<K, V> notification) -> {
+					final Integer weight = weights.remove(notification.getKey());
+					if (weigher != null && weight != null
+							&& notification.getValue() != null) {
+						statistics.apply(notification.getValue()).recordRemoval(weight,
+								notification.wasEvicted());
+					}
+				}).build(new CacheLoader<K, V>() {
+					@Override
+					public V load(final K key) throws Exception {
+						if (weigher == null) {
+							// The buffer records the hit or the loaded page.
+							return loader.load(key);
+						}
+						final long start = System.nanoTime();
+						final V value = loader.load(key);
+						final int weight = weigher.weigh(key, value);
+						weights.put(key, weight);
+						statistics.apply(value).recordLoad(System.nanoTime() - start,
+								weight);
+						return value;
+					}
+				});
+	}
+
+	/**
+	 * Get the cache statistics of the kind of a page.
+	 * 
+	 * @param page
+	 *          the page
+	 * @return the statistics
+	 */
+	private CacheStatistics getStatistics(final Page page) {
+		return mStatistics.get(PageKind.getKind(page.getClass()));
+	}
+
+	/**
+	 * Get a page from the in-memory page cache and record the lookup.
+	 * 
+	 * @param reference
+	 *          reference of the page
+	 * @return the page
+	 * @throws ExecutionException
+	 *           if loading the page fails
+	 */
+	private Page getFromCache(final PageReference reference)
+			throws ExecutionException {
+		final Page page = mPageCache.get(reference);
+		getStatistics(page).recordRequest();
+		return page;
+	}
+
+	/**
+	 * Get a page, which is pinned in the buffer of the resource for the most
+	 * recent revisions. If the page can't be pinned, it's read from the page
+	 * cache.
+	 * 
+	 * @param reference
+	 *          reference of the page
+	 * @param revision
+	 *          the revision, which uses the page
+	 * @return the page
+	 * @throws SirixIOException
+	 *           if an I/O error occurs
+	 * @throws ExecutionException
+	 *           if loading the page fails
+	 */
+	private Page getPinnedPage(final PageReference reference,
+			final @Nonnegative int revision) throws SirixIOException,
+			ExecutionException {
+		if (mBufferManager.isPresent() && reference.getKey() != Constants.NULL_ID) {
+			final long key = reference.getKey();
+			final Page page = mBufferManager.get().getPinnedPage(revision, key,
+					() -> {
+						final long start = System.nanoTime();
+						final Page pinnedPage = mPageReader.read(key, this);
+						// The page is resident in the buffer of the resource.
+						getStatistics(pinnedPage).recordLoad(System.nanoTime() - start, 0);
+						return pinnedPage;
+					});
+			if (page != null) {
+				getStatistics(page).recordRequest();
+				return page;
+			}
+		}
+		return getFromCache(reference);
+	}
+
+	/**
+	 * Get the cache of the qualified names of the revision, which is shared with
+	 * all other transactions reading a revision with the same name page, as
+	 * long as the name page is pinned.
+	 * 
+	 * @param key
+	 *          the on-disk key of the name page
+	 * @return the name cache
+	 */
+	private NameCache nameCache(final long key) {
+		final NameCache nameCache = mBufferManager.isPresent()
+				&& key != Constants.NULL_ID ? mBufferManager.get().getNameCache(
+				mRootPage.getRevision(), key, mNamePage::getName) : null;
+		return nameCache == null ? new NameCache(mNamePage::getName) : nameCache;
+	}
+
 	@Override
 	public Session getSession() {
 		assertNotClosed();
@@ -421,20 +654,34 @@ final class PageReadTrxImpl implements PageReadTrx {
 	public Optional<Record> getRecord(final long nodeKey,
 			final PageKind pageKind, final @Nonnegative int index)
 			throws SirixIOException {
+		return Optional.ofNullable(getRecordIfPresent(nodeKey, pageKind, index));
+	}
+
+	@Override
+	public Record getRecordIfPresent(final long nodeKey,
+			final PageKind pageKind, final @Nonnegative int index)
+			throws SirixIOException {
 		checkNotNull(pageKind);
 		assertNotClosed();
 
 		if (nodeKey == Fixed.NULL_NODE_KEY.getStandardProperty()) {
-			return Optional.<Record> empty();
+			return null;
 		}
 
 		final long recordPageKey = pageKey(nodeKey);
 
 		RecordPageContainer<UnorderedKeyValuePage> cont;
 		try {
+			mStatistics.get(pageKind).recordRequest();
 			switch (pageKind) {
 			case RECORDPAGE:
-				cont = mNodeCache.get(recordPageKey);
+				// Consecutive nodes are mostly stored in the same page, thus the
+				// boxing of the key and the lookup in the cache is skipped.
+				if (recordPageKey != mCurrentRecordPageKey) {
+					mCurrentRecordPage = mNodeCache.get(recordPageKey);
+					mCurrentRecordPageKey = recordPageKey;
+				}
+				cont = mCurrentRecordPage;
 				break;
 			case PATHSUMMARYPAGE:
 				cont = mPathSummaryCache.get(new IndexLogKey(recordPageKey, index));
@@ -456,26 +703,12 @@ final class PageReadTrxImpl implements PageReadTrx {
 		}
 
 		if (cont.equals(RecordPageContainer.EMPTY_INSTANCE)) {
-			return Optional.<Record> empty();
+			return null;
 		}
 
-		final Record retVal = cont.getComplete().getValue(nodeKey);
-		return checkItemIfDeleted(retVal);
-	}
-
-	/**
-	 * Method to check if an {@link Record} is deleted.
-	 * 
-	 * @param toCheck
-	 *          node to check
-	 * @return the {@code node} if it is valid, {@code null} otherwise
-	 */
-	final Optional<Record> checkItemIfDeleted(final @Nullable Record toCheck) {
-		if (toCheck instanceof DeletedNode) {
-			return Optional.empty();
-		} else {
-			return Optional.ofNullable(toCheck);
-		}
+		// The page might be shared with other transactions.
+		final Record retVal = cont.getComplete().getValue(nodeKey, this);
+		return retVal instanceof DeletedNode ? null : retVal;
 	}
 
 	@Override
@@ -484,6 +717,11 @@ final class PageReadTrxImpl implements PageReadTrx {
 		return mNamePage.getName(nameKey, nodeKind);
 	}
 
+	@Override
+	public NameCache getNameCache() {
+		return mQNmCache;
+	}
+
 	@Override
 	public final byte[] getRawName(final int pNameKey, final Kind pNodeKind) {
 		assertNotClosed();
@@ -493,20 +731,7 @@ final class PageReadTrxImpl implements PageReadTrx {
 	@Override
 	public void clearCaches() {
 		assertNotClosed();
-		if (mBuildPathSummary) {
-			mPathSummaryCache.invalidateAll();
-		}
-		if (mPathCache != null) {
-			mPathCache.invalidateAll();
-		}
-		if (mCASCache != null) {
-			mCASCache.invalidateAll();
-		}
-		if (mNameCache != null) {
-			mNameCache.invalidateAll();
-		}
-		mNodeCache.invalidateAll();
-		mPageCache.invalidateAll();
+		invalidateCaches();
 
 		if (mPathLog.isPresent()) {
 			mPathLog.get().clear();
@@ -528,6 +753,28 @@ final class PageReadTrxImpl implements PageReadTrx {
 		}
 	}
 
+	/**
+	 * Remove all pages from the in-memory caches.
+	 */
+	private void invalidateCaches() {
+		if (mBuildPathSummary) {
+			mPathSummaryCache.invalidateAll();
+		}
+		if (mPathCache != null) {
+			mPathCache.invalidateAll();
+		}
+		if (mCASCache != null) {
+			mCASCache.invalidateAll();
+		}
+		if (mNameCache != null) {
+			mNameCache.invalidateAll();
+		}
+		mNodeCache.invalidateAll();
+		mCurrentRecordPageKey = -1;
+		mCurrentRecordPage = null;
+		mPageCache.invalidateAll();
+	}
+
 	@Override
 	public void closeCaches() {
 		assertNotClosed();
@@ -583,7 +830,7 @@ final class PageReadTrxImpl implements PageReadTrx {
 			if (page == null) {
 				assert reference.getKey() != Constants.NULL_ID
 						|| reference.getLogKey() != null;
-				page = (RevisionRootPage) mPageCache.get(reference);
+				page = (RevisionRootPage) getPinnedPage(reference, revisionKey);
 			}
 			return page;
 		} catch (final ExecutionException | UncheckedExecutionException e) {
@@ -596,7 +843,7 @@ final class PageReadTrxImpl implements PageReadTrx {
 			throws SirixIOException {
 		assertNotClosed();
 		return (NamePage) getPage(revisionRoot.getNamePageReference(),
-				PageKind.NAMEPAGE);
+				PageKind.NAMEPAGE, revisionRoot.getRevision());
 	}
 
 	@Override
@@ -604,7 +851,8 @@ final class PageReadTrxImpl implements PageReadTrx {
 			final RevisionRootPage revisionRoot) throws SirixIOException {
 		assertNotClosed();
 		return (PathSummaryPage) getPage(
-				revisionRoot.getPathSummaryPageReference(), PageKind.PATHSUMMARYPAGE);
+				revisionRoot.getPathSummaryPageReference(), PageKind.PATHSUMMARYPAGE,
+				revisionRoot.getRevision());
 	}
 
 	@Override
@@ -612,7 +860,7 @@ final class PageReadTrxImpl implements PageReadTrx {
 			throws SirixIOException {
 		assertNotClosed();
 		return (PathPage) getPage(revisionRoot.getPathPageReference(),
-				PageKind.PATHPAGE);
+				PageKind.PATHPAGE, revisionRoot.getRevision());
 	}
 
 	@Override
@@ -620,7 +868,7 @@ final class PageReadTrxImpl implements PageReadTrx {
 			throws SirixIOException {
 		assertNotClosed();
 		return (CASPage) getPage(revisionRoot.getCASPageReference(),
-				PageKind.CASPAGE);
+				PageKind.CASPAGE, revisionRoot.getRevision());
 	}
 
 	/**
@@ -628,11 +876,15 @@ final class PageReadTrxImpl implements PageReadTrx {
 	 * 
 	 * @param reference
 	 *          page reference
+	 * @param pageKind
+	 *          kind of page
+	 * @param revision
+	 *          the revision, which uses the page
 	 * @throws SirixIOException
 	 *           if an I/O error occurs
 	 */
-	private Page getPage(final PageReference reference, final PageKind pageKind)
-			throws SirixIOException {
+	private Page getPage(final PageReference reference, final PageKind pageKind,
+			final @Nonnegative int revision) throws SirixIOException {
 		try {
 			Page page = reference.getPage();
 			if (mPageWriteTrx.isPresent() || mPageLog.isPresent()) {
@@ -641,7 +893,7 @@ final class PageReadTrxImpl implements PageReadTrx {
 				reference.setLogKey(logKey);
 			}
 			if (page == null) {
-				page = mPageCache.get(reference);
+				page = getPinnedPage(reference, revision);
 				reference.setPage(page);
 			}
 			return page;
@@ -663,6 +915,13 @@ final class PageReadTrxImpl implements PageReadTrx {
 			final PageKind pageKind) throws SirixIOException {
 		assertNotClosed();
 		checkArgument(recordPageKey >= 0, "recordPageKey must not be negative!");
+		if (mBufferManager.isPresent()) {
+			if (pageKind == PageKind.RECORDPAGE && mReadAheadEnabled) {
+				return (RecordPageContainer<S>) getReadAheadRecordPageContainer(recordPageKey);
+			}
+			return (RecordPageContainer<S>) getBufferedRecordPageContainer(
+					recordPageKey, index, checkNotNull(pageKind));
+		}
 		try {
 			final List<S> pages = (List<S>) this.<K, V, S> getSnapshotPages(
 					checkNotNull(recordPageKey), index, checkNotNull(pageKind),
@@ -681,6 +940,311 @@ final class PageReadTrxImpl implements PageReadTrx {
 		}
 	}
 
+	/**
+	 * Record page, which is read ahead in the background.
+	 */
+	private static final class ReadAheadTask extends
+			FutureTask<RecordPageContainer<UnorderedKeyValuePage>> {
+
+		/**
+		 * Determines if the task has been claimed, either by a worker of the pool,
+		 * which reads the page, or by the transaction, which revoked it.
+		 */
+		private final AtomicBoolean mClaimed;
+
+		private ReadAheadTask(
+				final Callable<RecordPageContainer<UnorderedKeyValuePage>> callable) {
+			super(callable);
+			mClaimed = new AtomicBoolean();
+		}
+
+		@Override
+		public void run() {
+			if (mClaimed.compareAndSet(false, true)) {
+				super.run();
+			}
+		}
+
+		/**
+		 * Revoke the task, if no worker has started reading the page yet.
+		 * 
+		 * @return {@code true}, if the task has been revoked, {@code false} if the
+		 *         page is currently read or has already been read
+		 */
+		private boolean revoke() {
+			if (mClaimed.compareAndSet(false, true)) {
+				cancel(false);
+				return true;
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Enable or disable reading record pages ahead of sequential accesses.
+	 * Transactions, which are themselves running in the background, shouldn't
+	 * read ahead, as they would compete with the transactions of the user for
+	 * the workers of the pool.
+	 * 
+	 * @param readAhead
+	 *          determines if record pages are read ahead
+	 */
+	void setReadAhead(final boolean readAhead) {
+		mReadAheadEnabled = readAhead;
+		if (!readAhead) {
+			cancelReadAhead(false);
+		}
+	}
+
+	/**
+	 * Get a regular record page and read the following record pages ahead in the
+	 * background, if the record pages are accessed sequentially, as node keys are
+	 * mostly assigned in document order. The number of pages read ahead doubles
+	 * with each sequential access up to {@link #MAX_READ_AHEAD} and is reset on
+	 * any other access. A page, which hasn't been picked up by a worker of the
+	 * pool yet, isn't awaited, but read synchronously instead.
+	 * 
+	 * @param recordPageKey
+	 *          key of the record page
+	 * @return the container of the page
+	 * @throws SirixIOException
+	 *           if an I/O error occurs
+	 */
+	private RecordPageContainer<UnorderedKeyValuePage> getReadAheadRecordPageContainer(
+			final @Nonnegative long recordPageKey) throws SirixIOException {
+		final ReadAheadTask readAhead = mReadAheadPages.remove(recordPageKey);
+		if (recordPageKey == mLastRecordPageKey + 1) {
+			mReadAhead = Math.min(Math.max(1, mReadAhead << 1), MAX_READ_AHEAD);
+		} else {
+			mReadAhead = 0;
+			cancelReadAhead(false);
+			mReadAheadKey = recordPageKey;
+		}
+		mLastRecordPageKey = recordPageKey;
+
+		final long lastKey = Math.min(recordPageKey + mReadAhead,
+				pageKey(mRootPage.getMaxNodeKey()));
+		for (long key = Math.max(mReadAheadKey, recordPageKey) + 1; key <= lastKey; key++) {
+			// Everything the task needs is resolved and captured up front, as it
+			// must neither read nor modify the state of this transaction.
+			final long pageKey = key;
+			mReadAheadKey = pageKey;
+			final PageReference reference = getPageReferenceForPage(
+					getPageReference(mRootPage, PageKind.RECORDPAGE, -1), pageKey, -1,
+					PageKind.RECORDPAGE);
+			if (reference == null || reference.getKey() == Constants.NULL_ID) {
+				continue;
+			}
+			final long diskKey = reference.getKey();
+			final int versions = getVersions();
+			final boolean noCache = mNoCache;
+			final ReadAheadTask task = new ReadAheadTask(
+					() -> loadBufferedRecordPageContainer(diskKey, -1,
+							PageKind.RECORDPAGE, versions, noCache));
+			try {
+				mSession.mReadAheadPool.execute(task);
+			} catch (final RejectedExecutionException e) {
+				// The session is closing.
+				break;
+			}
+			mReadAheadPages.put(pageKey, task);
+		}
+
+		// Never wait for a page, which is still queued behind other tasks.
+		if (readAhead != null && !readAhead.revoke()) {
+			try {
+				return readAhead.get();
+			} catch (final ExecutionException | CancellationException e) {
+				// Read the page synchronously.
+			} catch (final InterruptedException e) {
+				throw new SirixThreadedException(e);
+			}
+		}
+		return getBufferedRecordPageContainer(recordPageKey, -1,
+				PageKind.RECORDPAGE);
+	}
+
+	/**
+	 * Cancel reading record pages ahead.
+	 * 
+	 * @param await
+	 *          determines if pages, which are currently read, are awaited
+	 */
+	private void cancelReadAhead(final boolean await) {
+		for (final ReadAheadTask readAhead : mReadAheadPages.values()) {
+			if (!readAhead.revoke() && await) {
+				try {
+					readAhead.get();
+				} catch (final ExecutionException | CancellationException
+						| InterruptedException e) {
+					// Page isn't needed anymore.
+				}
+			}
+		}
+		mReadAheadPages.clear();
+	}
+
+	/**
+	 * Get a record page from the buffer shared by all reading transactions. Pages
+	 * are buffered by the on-disk key of their most recent version, thus a page
+	 * is only reconstructed once for all transactions, which read it.
+	 * 
+	 * <p>
+	 * If combined pages are shareable according to the versioning, a page is
+	 * buffered with the number of versions it has actually been combined from,
+	 * such that it's also found by readers of other revisions, which resolve to
+	 * the same chain of versions. Furthermore, if the reconstruction of the
+	 * previous version is buffered, only the most recent version is read and
+	 * combined with it.
+	 * </p>
+	 * 
+	 * @param recordPageKey
+	 *          key of the record page
+	 * @param index
+	 *          index number or {@code -1}, if it's a regular record page
+	 * @param pageKind
+	 *          kind of page, that is the type of tree to dereference
+	 * @return the container of the page
+	 * @throws SirixIOException
+	 *           if an I/O error occurs
+	 */
+	private RecordPageContainer<UnorderedKeyValuePage> getBufferedRecordPageContainer(
+			final @Nonnegative long recordPageKey, final int index,
+			final PageKind pageKind) throws SirixIOException {
+		final PageReference reference = getPageReferenceForPage(
+				getPageReference(mRootPage, pageKind, index), recordPageKey, index,
+				pageKind);
+		if (reference == null || reference.getKey() == Constants.NULL_ID) {
+			return RecordPageContainer.<UnorderedKeyValuePage> emptyInstance();
+		}
+		return loadBufferedRecordPageContainer(reference.getKey(), index,
+				pageKind, getVersions(), mNoCache);
+	}
+
+	/**
+	 * Get the number of versions of a record page, which have to be combined for
+	 * the revision of this transaction at most.
+	 * 
+	 * @return the number of versions
+	 */
+	private int getVersions() {
+		return mResourceConfig.mRevisionKind.getRevisionRoots(
+				mRootPage.getRevision(), mResourceConfig.mRevisionsToRestore).length;
+	}
+
+	/**
+	 * Get a record page, whose on-disk key is already known, from the buffer
+	 * shared by all reading transactions or load it into the buffer. Only the
+	 * immutable state of this transaction is used, as pages are also loaded by
+	 * the workers of the read-ahead pool.
+	 * 
+	 * @param key
+	 *          the on-disk key of the most recent version of the page
+	 * @param index
+	 *          index number or {@code -1}, if it's a regular record page
+	 * @param pageKind
+	 *          kind of page, that is the type of tree to dereference
+	 * @param versions
+	 *          the maximum number of versions to combine
+	 * @param noCache
+	 *          determines if the page is read only once
+	 * @return the container of the page
+	 * @throws SirixIOException
+	 *           if an I/O error occurs
+	 */
+	private RecordPageContainer<UnorderedKeyValuePage> loadBufferedRecordPageContainer(
+			final long key, final int index, final PageKind pageKind,
+			final @Nonnegative int versions, final boolean noCache)
+			throws SirixIOException {
+		final Versioning versioning = mResourceConfig.mRevisionKind;
+		if (!versioning.isChainShareable()) {
+			return mBufferManager.get().get(
+					new BufferKey(pageKind, index, key, versions), () -> {
+						final List<UnorderedKeyValuePage> pages = new ArrayList<>(
+								versions);
+						pages.add((UnorderedKeyValuePage) mPageReader.read(key, this));
+						final Set<Long> keys = new HashSet<>(versions);
+						keys.add(key);
+						readPreviousVersions(pages, keys, versions);
+						return combineBufferedRecordPages(pages);
+					}, !noCache);
+		}
+
+		// A page combined from fewer versions is valid for more versions.
+		for (int i = versions; i > 0; i--) {
+			final RecordPageContainer<UnorderedKeyValuePage> container = mBufferManager
+					.get().getIfPresent(new BufferKey(pageKind, index, key, i), !noCache);
+			if (container != null) {
+				return container;
+			}
+		}
+
+		try {
+			final List<UnorderedKeyValuePage> pages = new ArrayList<>(versions);
+			final UnorderedKeyValuePage firstPage = (UnorderedKeyValuePage) mPageReader
+					.read(key, this);
+			pages.add(firstPage);
+			final long[] previousKeys = firstPage.getPreviousKeys();
+			final Optional<PageReference> previousReference = firstPage
+					.getPreviousReference();
+			final long previousKey = previousKeys.length > 0 ? previousKeys[0]
+					: previousReference.isPresent() ? previousReference.get().getKey()
+							: Constants.NULL_ID;
+			int combinedVersions = 1;
+			if (versions > 1 && firstPage.size() < Constants.NDP_NODE_COUNT
+					&& previousKey != Constants.NULL_ID && previousKey != key) {
+				// Combine the most recent version with the buffered reconstruction of
+				// the previous version.
+				for (int i = versions - 1; i > 0; i--) {
+					final RecordPageContainer<UnorderedKeyValuePage> previous = mBufferManager
+							.get().getIfPresent(
+									new BufferKey(pageKind, index, previousKey, i), !noCache);
+					if (previous != null) {
+						pages.add(previous.getComplete());
+						combinedVersions = i + 1;
+						break;
+					}
+				}
+				if (combinedVersions == 1) {
+					final Set<Long> keys = new HashSet<>(versions);
+					keys.add(key);
+					readPreviousVersions(pages, keys, versions);
+					combinedVersions = pages.size();
+				}
+			}
+			return mBufferManager.get().get(
+					new BufferKey(pageKind, index, key, combinedVersions),
+					() -> combineBufferedRecordPages(pages), !noCache);
+		} catch (final ExecutionException e) {
+			throw new SirixIOException(e.getCause());
+		}
+	}
+
+	/**
+	 * Combine the versions of a record page, which is buffered for all reading
+	 * transactions.
+	 * 
+	 * @param pages
+	 *          the versions of the page, starting with the most recent version
+	 * @return the container of the combined page
+	 */
+	private RecordPageContainer<UnorderedKeyValuePage> combineBufferedRecordPages(
+			final List<UnorderedKeyValuePage> pages) {
+		if (pages.size() == 0) {
+			return RecordPageContainer.<UnorderedKeyValuePage> emptyInstance();
+		}
+		final UnorderedKeyValuePage completePage = mResourceConfig.mRevisionKind
+				.combineRecordPages(pages, mResourceConfig.mRevisionsToRestore, this);
+
+		// Deserialize overflow records up front, as the page is read
+		// concurrently and might outlive this transaction.
+		for (final Entry<Long, PageReference> entry : completePage
+				.referenceEntrySet()) {
+			completePage.getValue(entry.getKey());
+		}
+		return new RecordPageContainer<>(completePage);
+	}
+
 	/**
 	 * Dereference key/value page reference and get all leaves, the
 	 * {@link KeyValuePage}s from the revision-trees.
@@ -708,47 +1272,129 @@ final class PageReadTrxImpl implements PageReadTrx {
 		final ResourceConfiguration config = mSession.getResourceConfig();
 		final int revsToRestore = config.mRevisionsToRestore;
 		final List<S> pages = new ArrayList<>(revsToRestore);
-		final Set<Long> keys = new HashSet<>(revsToRestore);
 		final int[] revisionsToRead = config.mRevisionKind.getRevisionRoots(
 				mRootPage.getRevision(), revsToRestore);
-		boolean first = true;
-		for (int i : revisionsToRead) {
-			PageReference refToRecordPage = null;
-			if (first) {
-				first = false;
-				if (pageReference.isPresent()) {
-					refToRecordPage = pageReference.get();
-				} else {
-					assert mRootPage.getRevision() == i;
-					final PageReference tmpRef = getPageReference(mRootPage, pageKind,
-							index);
-					refToRecordPage = getPageReferenceForPage(tmpRef, recordPageKey,
-							index, pageKind);
+		if (revisionsToRead.length == 0) {
+			return pages;
+		}
+
+		final PageReference refToRecordPage;
+		if (pageReference.isPresent()) {
+			refToRecordPage = pageReference.get();
+		} else {
+			assert mRootPage.getRevision() == revisionsToRead[0];
+			final PageReference tmpRef = getPageReference(mRootPage, pageKind, index);
+			refToRecordPage = getPageReferenceForPage(tmpRef, recordPageKey, index,
+					pageKind);
+		}
+		if (refToRecordPage == null
+				|| refToRecordPage.getKey() == Constants.NULL_ID) {
+			return pages;
+		}
+
+		final Set<Long> keys = new HashSet<>(revsToRestore);
+		@SuppressWarnings("unchecked")
+		final S firstPage = (S) mPageReader.read(refToRecordPage.getKey(), this);
+		pages.add(firstPage);
+		keys.add(refToRecordPage.getKey());
+
+		readPreviousVersions(pages, keys, revisionsToRead.length);
+		return pages;
+	}
+
+	/**
+	 * Read the previous versions of a record page, until the page is complete or
+	 * the maximum number of versions has been read.
+	 * 
+	 * @param pages
+	 *          the versions read so far, starting with the most recent version
+	 * @param keys
+	 *          the on-disk keys of the versions read so far
+	 * @param versions
+	 *          the maximum number of versions
+	 * @throws SirixIOException
+	 *           if an I/O error occurs
+	 * @throws ExecutionException
+	 *           if reading a page failed
+	 */
+	private <S extends KeyValuePage<?, ?>> void readPreviousVersions(
+			final List<S> pages, final Set<Long> keys,
+			final @Nonnegative int versions) throws SirixIOException,
+			ExecutionException {
+		while (pages.size() < versions) {
+			final S page = pages.get(pages.size() - 1);
+			if (page.size() == Constants.NDP_NODE_COUNT) {
+				// Page is full, thus we can skip reconstructing pages with elder
+				// versions.
+				break;
+			}
+
+			// Collect the keys of the previous versions, which are known up front.
+			final long[] previousKeys = page.getPreviousKeys();
+			final int maxKeys = Math.min(previousKeys.length, versions
+					- pages.size());
+			final List<Long> keysToRead = new ArrayList<>(Math.max(maxKeys, 1));
+			for (int i = 0; i < maxKeys && previousKeys[i] != Constants.NULL_ID
+					&& !keys.contains(previousKeys[i]); i++) {
+				keysToRead.add(previousKeys[i]);
+			}
+			if (previousKeys.length == 0) {
+				// Keys are not known, thus follow the previous reference.
+				final Optional<PageReference> reference = page.getPreviousReference();
+				if (reference.isPresent()
+						&& reference.get().getKey() != Constants.NULL_ID
+						&& !keys.contains(reference.get().getKey())) {
+					keysToRead.add(reference.get().getKey());
 				}
-			} else {
-				final Optional<PageReference> reference = pages.get(pages.size() - 1)
-						.getPreviousReference();
-				refToRecordPage = reference.isPresent() ? reference.get() : null;
+			}
+			if (keysToRead.isEmpty()) {
+				break;
 			}
 
-			if (refToRecordPage != null
-					&& refToRecordPage.getKey() != Constants.NULL_ID) {
-				// Probably save page.
-				if (!keys.contains(refToRecordPage.getKey())) {
-					@SuppressWarnings("unchecked")
-					final S page = (S) mPageReader.read(refToRecordPage.getKey(), this);
-					pages.add(page);
-					keys.add(refToRecordPage.getKey());
-					if (page.size() == Constants.NDP_NODE_COUNT) {
-						// Page is full, thus we can skip reconstructing pages with elder
-						// versions.
-						break;
-					}
+			boolean filledPage = false;
+			for (final S previousPage : this.<S> readPages(keysToRead)) {
+				pages.add(previousPage);
+				if (previousPage.size() == Constants.NDP_NODE_COUNT) {
+					filledPage = true;
+					break;
 				}
-			} else {
+			}
+			keys.addAll(keysToRead);
+			if (filledPage) {
 				break;
 			}
 		}
+	}
+
+	/**
+	 * Read pages, whereas all pages except the first one are read and
+	 * deserialized in parallel.
+	 * 
+	 * @param keys
+	 *          keys of the pages to read
+	 * @return the pages in the order of the keys
+	 * @throws SirixIOException
+	 *           if an I/O error occurs
+	 * @throws ExecutionException
+	 *           if reading a page failed
+	 */
+	@SuppressWarnings("unchecked")
+	private <S> List<S> readPages(final List<Long> keys) throws SirixIOException,
+			ExecutionException {
+		final List<Future<Page>> futures = new ArrayList<>(keys.size() - 1);
+		for (final long key : keys.subList(1, keys.size())) {
+			futures.add(mSession.mPageReaderPool.submit(() -> mPageReader.read(key,
+					this)));
+		}
+		final List<S> pages = new ArrayList<>(keys.size());
+		pages.add((S) mPageReader.read(keys.get(0), this));
+		try {
+			for (final Future<Page> future : futures) {
+				pages.add((S) future.get());
+			}
+		} catch (final InterruptedException e) {
+			throw new SirixThreadedException(e);
+		}
 		return pages;
 	}
 
@@ -809,9 +1455,19 @@ final class PageReadTrxImpl implements PageReadTrx {
 				page = (IndirectPage) mPageWriteTrx.get().mPageLog.get(reference
 						.getLogKey());
 			}
+			if (page == null && mBufferManager.isPresent()
+					&& reference.getKey() != Constants.NULL_ID) {
+				final long key = reference.getKey();
+				final CacheStatistics statistics = mStatistics
+						.get(PageKind.INDIRECTPAGE);
+				statistics.recordRequest();
+				// The buffer records the hit or the loaded page.
+				page = mBufferManager.get().getIndirectPage(key,
+						() -> (IndirectPage) mPageReader.read(key, this), !mNoCache);
+			}
 			if (page == null
 					&& (reference.getKey() != Constants.NULL_ID || reference.getLogKey() != null)) {
-				page = (IndirectPage) mPageCache.get(reference);
+				page = (IndirectPage) getFromCache(reference);
 			}
 			return page;
 		} catch (final ExecutionException | UncheckedExecutionException e) {
@@ -856,7 +1512,21 @@ final class PageReadTrxImpl implements PageReadTrx {
 				reference.setLogKey(new IndirectPageLogKey(pageKind, index, level,
 						parentOffset * Constants.INP_REFERENCE_COUNT + offset));
 			}
-			final Page derefPage = dereferenceIndirectPage(reference);
+			final Page derefPage;
+			if (mBufferManager.isPresent() && reference.getKey() != Constants.NULL_ID
+					&& (pageKind == PageKind.UBERPAGE || level < height - 1)) {
+				// The upper levels of the indirect trees are pinned, whereas the
+				// revision root pages are looked up by their revision number.
+				try {
+					derefPage = getPinnedPage(reference,
+							pageKind == PageKind.UBERPAGE ? (int) key : mRootPage
+									.getRevision());
+				} catch (final ExecutionException | UncheckedExecutionException e) {
+					throw new SirixIOException(e.getCause());
+				}
+			} else {
+				derefPage = dereferenceIndirectPage(reference);
+			}
 			if (derefPage == null) {
 				reference = null;
 				break;
@@ -903,6 +1573,8 @@ final class PageReadTrxImpl implements PageReadTrx {
 	@Override
 	public void close() {
 		if (!mClosed) {
+			cancelReadAhead(true);
+			invalidateCaches();
 			closeCaches();
 			mPageReader.close();
 
@@ -932,7 +1604,7 @@ final class PageReadTrxImpl implements PageReadTrx {
 			throws SirixIOException {
 		assertNotClosed();
 		try {
-			return mPageCache.get(reference);
+			return getFromCache(reference);
 		} catch (final ExecutionException e) {
 			throw new SirixIOException(e.getCause());
 		}
@@ -950,4 +1622,14 @@ final class PageReadTrxImpl implements PageReadTrx {
 	public Reader getReader() {
 		return mPageReader;
 	}
+
+	@Override
+	public void setNoCacheHint(final boolean noCache) {
+		mNoCache = noCache;
+	}
+
+	@Override
+	public boolean isNoCacheHint() {
+		return mNoCache;
+	}
 }
\ No newline at end of file
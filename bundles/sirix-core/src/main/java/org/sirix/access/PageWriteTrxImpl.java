@@ -30,12 +30,6 @@ package org.sirix.access;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
@@ -44,19 +38,17 @@ import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
-import org.brackit.xquery.xdm.DocumentException;
-import org.sirix.access.conf.ResourceConfiguration;
 import org.sirix.api.PageReadTrx;
 import org.sirix.api.PageWriteTrx;
 import org.sirix.cache.Cache;
 import org.sirix.cache.IndexLogKey;
 import org.sirix.cache.IndirectPageLogKey;
+import org.sirix.cache.NameCache;
 import org.sirix.cache.RecordPageContainer;
 import org.sirix.cache.SynchronizedIndexTransactionLogCache;
 import org.sirix.cache.SynchronizedTransactionLogCache;
 import org.sirix.cache.SynchronizedTransactionLogPageCache;
 import org.sirix.cache.TransactionIndexLogCache;
-import org.sirix.exception.SirixException;
 import org.sirix.exception.SirixIOException;
 import org.sirix.index.IndexType;
 import org.sirix.io.Writer;
@@ -142,6 +134,9 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx implements
 	/** Determines if transaction is closed. */
 	private boolean mIsClosed;
 
+	/** Cache of the qualified names of the revision. */
+	private final NameCache mQNmCache;
+
 	/** Determines if a path summary should be used or not. */
 	private final boolean mUsePathSummary;
 
@@ -176,18 +171,7 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx implements
 		mIndexController = session.getWtxIndexController(representRev);
 
 		// Deserialize index definitions.
-		final File indexes = new File(session.mResourceConfig.mPath,
-				ResourceConfiguration.Paths.INDEXES.getFile().getPath() + lastStoredRev
-						+ ".xml");
-		if (indexes.exists()) {
-			try (final InputStream in = new FileInputStream(indexes)) {
-				mIndexController.getIndexes().init(
-						mIndexController.deserialize(in).getFirstChild());
-			} catch (IOException | DocumentException | SirixException e) {
-				throw new SirixIOException(
-						"Index definitions couldn't be deserialized!", e);
-			}
-		}
+		session.initIndexDefs(lastStoredRev, mIndexController);
 
 		mPageLog = new SynchronizedTransactionLogPageCache(
 				session.mResourceConfig.mPath, revision, "page", this);
@@ -244,8 +228,19 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx implements
 			page.createPathSummaryTree(this, 0);
 		}
 
+		final NamePage previousNamePage = mPageRtx.getNamePage(revisionRoot);
 		mPageLog.put(new IndirectPageLogKey(PageKind.NAMEPAGE, -1, -1, 0),
-				mPageRtx.getNamePage(revisionRoot));
+				previousNamePage);
+
+		// Names are resolved from the name page of the new revision, if it has
+		// been prepared, and from the previous revision otherwise.
+		mQNmCache = new NameCache((key, kind) -> {
+			final NamePage namePage = (NamePage) mNewRoot.getNamePageReference()
+					.getPage();
+			final String name = namePage == null ? null : namePage.getName(key,
+					kind);
+			return name == null ? previousNamePage.getName(key, kind) : name;
+		});
 		mPageLog.put(new IndirectPageLogKey(PageKind.CASPAGE, -1, -1, 0),
 				mPageRtx.getCASPage(revisionRoot));
 		mPageLog.put(new IndirectPageLogKey(PageKind.PATHPAGE, -1, -1, 0),
@@ -353,6 +348,13 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx implements
 	public Optional<Record> getRecord(final @Nonnegative long recordKey,
 			final PageKind pageKind, final @Nonnegative int index)
 			throws SirixIOException {
+		return Optional.ofNullable(getRecordIfPresent(recordKey, pageKind, index));
+	}
+
+	@Override
+	public Record getRecordIfPresent(final long recordKey,
+			final PageKind pageKind, final @Nonnegative int index)
+			throws SirixIOException {
 		mPageRtx.assertNotClosed();
 		checkArgument(recordKey >= Fixed.NULL_NODE_KEY.getStandardProperty());
 		checkNotNull(pageKind);
@@ -362,13 +364,13 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx implements
 		final RecordPageContainer<UnorderedKeyValuePage> pageCont = getUnorderedRecordPageContainer(
 				pageKind, index, recordPageKey);
 		if (pageCont.equals(RecordPageContainer.EMPTY_INSTANCE)) {
-			return mPageRtx.getRecord(recordKey, pageKind, index);
+			return mPageRtx.getRecordIfPresent(recordKey, pageKind, index);
 		} else {
 			Record node = pageCont.getModified().getValue(recordKey);
 			if (node == null) {
 				node = pageCont.getComplete().getValue(recordKey);
 			}
-			return mPageRtx.checkItemIfDeleted(node);
+			return node instanceof DeletedNode ? null : node;
 		}
 	}
 
@@ -476,6 +478,11 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx implements
 				: currentNamePage.getName(nameKey, nodeKind);
 	}
 
+	@Override
+	public NameCache getNameCache() {
+		return mQNmCache;
+	}
+
 	@Override
 	public int createNameKey(final @Nullable String name, final Kind nodeKind)
 			throws SirixIOException {
@@ -619,17 +626,9 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx implements
 		mPageRtx.mSession.mCommitLock.lock();
 		mMultipleWriteTrx = checkNotNull(multipleWriteTrx);
 
-		final File commitFile = mPageRtx.mSession.commitFile(getRevisionNumber());
-		commitFile.deleteOnExit();
-		// Issues with windows that it's not created in the first
-		// time?
-		while (!commitFile.exists()) {
-			try {
-				commitFile.createNewFile();
-			} catch (final IOException e) {
-				throw new SirixIOException(e);
-			}
-		}
+		final int revision = getRevisionNumber();
+		final CommitLog commitLog = mPageRtx.mSession.mCommitLog;
+		commitLog.begin(revision);
 
 		// Forcefully flush write-ahead transaction logs to persistent storage.
 		if (mPageRtx.mSession.mSessionConfig.dumpLogs()) {
@@ -653,32 +652,28 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx implements
 		final PageReference uberPageReference = new PageReference();
 		final UberPage uberPage = getUberPage();
 		uberPageReference.setPage(uberPage);
-		final int revision = uberPage.getRevisionNumber();
-
-		// Recursively write indirectly referenced pages.
-		uberPage.commit(this);
 
-		uberPageReference.setPage(uberPage);
-		mPageWriter.writeUberPageReference(uberPageReference);
-		uberPageReference.setPage(null);
-
-		mPageRtx.mSession.waitForFinishedSync(mTransactionID);
-
-		final File indexes = new File(mPageRtx.mResourceConfig.mPath,
-				ResourceConfiguration.Paths.INDEXES.getFile().getPath() + revision
-						+ ".xml");
-		try (final OutputStream out = new FileOutputStream(indexes)) {
-			mIndexController.serialize(out);
-		} catch (final IOException e) {
-			throw new SirixIOException("Index definitions couldn't be serialized!", e);
+		final GroupCommitCoordinator coordinator =
+				mPageRtx.mSession.mDatabase.mCommitCoordinator;
+		final long start = coordinator.begin();
+		try {
+			// Recursively write indirectly referenced pages.
+			uberPage.commit(this);
+
+			// Write the uber page and the beacon, which points to the new revision,
+			// and make the revision durable together with the commits of concurrent
+			// write transactions.
+			uberPageReference.setPage(uberPage);
+			mPageWriter.write(uberPageReference);
+			commitLog.indexDefs(revision, mIndexController.getIndexes());
+			coordinator.commit(mPageWriter, uberPageReference);
+			commitLog.end(revision);
+			uberPageReference.setPage(null);
+		} finally {
+			coordinator.end(start);
 		}
 
-		// Delete commit file which denotes that a commit must write the log in
-		// the data file.
-		final boolean deleted = commitFile.delete();
-		if (!deleted) {
-			throw new SirixIOException("Commit file couldn't be deleted!");
-		}
+		mPageRtx.mSession.waitForFinishedSync(mTransactionID);
 
 		mPageRtx.mSession.mCommitLock.unlock();
 		return uberPage;
@@ -936,13 +931,44 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx implements
 							recordPageKey, index, pageKind, Optional.of(reference));
 			final Versioning revisioning = mPageRtx.mSession.mResourceConfig.mRevisionKind;
 			final int mileStoneRevision = mPageRtx.mSession.mResourceConfig.mRevisionsToRestore;
-			return revisioning.combineRecordPagesForModification(revs,
-					mileStoneRevision, mPageRtx, reference);
+			final RecordPageContainer<UnorderedKeyValuePage> container = revisioning
+					.combineRecordPagesForModification(revs, mileStoneRevision, mPageRtx,
+							reference);
+			if (!revs.isEmpty() && container.getModified() != null) {
+				// Remember the keys of the previous versions, such that they can be
+				// read in parallel.
+				container.getModified().setPreviousKeys(
+						previousKeys(reference.getKey(), revs.get(0).getPreviousKeys(),
+								mileStoneRevision - 1));
+			}
+			return container;
 		} catch (final ExecutionException e) {
 			throw new SirixIOException(e.getCause());
 		}
 	}
 
+	/**
+	 * Get the keys of the previous versions of a new version of a record page.
+	 * 
+	 * @param key
+	 *          key of the most recent version
+	 * @param previousKeys
+	 *          keys of the previous versions of the most recent version
+	 * @param maxKeys
+	 *          maximum number of keys
+	 * @return the keys of the previous versions, the most recent one first
+	 */
+	private static long[] previousKeys(final long key, final long[] previousKeys,
+			final int maxKeys) {
+		final long[] keys = new long[Math.max(0, Math.min(Math.min(
+				previousKeys.length + 1, maxKeys), Byte.MAX_VALUE))];
+		if (keys.length > 0) {
+			keys[0] = key;
+			System.arraycopy(previousKeys, 0, keys, 1, keys.length - 1);
+		}
+		return keys;
+	}
+
 	@Override
 	public RevisionRootPage getActualRevisionRootPage() {
 		return mNewRoot;
@@ -31,6 +31,9 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Map;
@@ -52,6 +55,7 @@ import java.util.concurrent.locks.ReentrantLock;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 
+import org.brackit.xquery.xdm.DocumentException;
 import org.sirix.access.conf.DatabaseConfiguration;
 import org.sirix.access.conf.ResourceConfiguration;
 import org.sirix.access.conf.SessionConfiguration;
@@ -61,6 +65,7 @@ import org.sirix.api.NodeWriteTrx;
 import org.sirix.api.PageReadTrx;
 import org.sirix.api.PageWriteTrx;
 import org.sirix.api.Session;
+import org.sirix.cache.CacheStatistics;
 import org.sirix.cache.RecordPageContainer;
 import org.sirix.exception.SirixException;
 import org.sirix.exception.SirixIOException;
@@ -78,6 +83,7 @@ import org.sirix.page.UberPage;
 import org.sirix.page.UnorderedKeyValuePage;
 
 import com.google.common.base.Objects;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * <h1>Session</h1>
@@ -90,7 +96,7 @@ import com.google.common.base.Objects;
 public final class SessionImpl implements Session {
 
 	/** Database for centralized closure of related Sessions. */
-	private final DatabaseImpl mDatabase;
+	final DatabaseImpl mDatabase;
 
 	/** Write semaphore to assure only one exclusive write transaction exists. */
 	private final Semaphore mWriteSemaphore;
@@ -110,6 +116,21 @@ public final class SessionImpl implements Session {
 	/** Lock for blocking the commit. */
 	final Lock mCommitLock;
 
+	/** Commit log of the resource. */
+	final CommitLog mCommitLog;
+
+	/** Pool to read the previous versions of record pages in parallel. */
+	final ExecutorService mPageReaderPool;
+
+	/** Pool to read record pages ahead of sequential accesses. */
+	final ExecutorService mReadAheadPool;
+
+	/** Pool to warm up the buffer, separate from reading ahead. */
+	final ExecutorService mWarmUpPool;
+
+	/** Buffer of record pages shared by all reading transactions. */
+	final BufferManager mBufferManager;
+
 	/** Session configuration. */
 	final ResourceConfiguration mResourceConfig;
 
@@ -179,6 +200,15 @@ public final class SessionImpl implements Session {
 		mNodeTrxIDCounter = new AtomicLong();
 		mPageTrxIDCounter = new AtomicLong();
 		mCommitLock = new ReentrantLock(false);
+		mPageReaderPool = Executors.newFixedThreadPool(Runtime.getRuntime()
+				.availableProcessors(), new ThreadFactoryBuilder().setDaemon(true)
+				.setNameFormat("sirix-page-reader-%d").build());
+		mReadAheadPool = Executors.newFixedThreadPool(Math.max(1, Runtime
+				.getRuntime().availableProcessors() / 2), new ThreadFactoryBuilder()
+				.setDaemon(true).setNameFormat("sirix-read-ahead-%d").build());
+		mWarmUpPool = Executors.newFixedThreadPool(Math.max(1, Runtime
+				.getRuntime().availableProcessors() / 2), new ThreadFactoryBuilder()
+				.setDaemon(true).setNameFormat("sirix-warm-up-%d").build());
 
 		final File resourceFile = new File(new File(database.getDatabaseConfig().getFile(),
 				DatabaseConfiguration.Paths.DATA.getFile().getName()),
@@ -188,6 +218,9 @@ public final class SessionImpl implements Session {
 		mWriteSemaphore = database.getWriteSemaphore(resourceFile);
 		mReadSemaphore = database.getReadSemaphore(resourceFile);
 
+		mCommitLog = database.getCommitLog(mResourceConfig);
+		mBufferManager = database.getBufferManager(mResourceConfig);
+
 		mFac = StorageType.getStorage(mResourceConfig);
 		if (mFac.exists()) {
 			final Reader reader = mFac.getReader();
@@ -242,16 +275,32 @@ public final class SessionImpl implements Session {
 	}
 
 	/**
-	 * A commit file which is used by a {@link NodeWriteTrx} to denote if it's
-	 * currently commiting or not.
+	 * Initialize the index definitions of a revision.
 	 * 
 	 * @param revision
 	 *          revision number
+	 * @param controller
+	 *          the {@link IndexController} to initialize
+	 * @throws SirixIOException
+	 *           if the index definitions can't be deserialized
 	 */
-	File commitFile(final int revision) {
-		return new File(mResourceConfig.mPath, new File(
-				ResourceConfiguration.Paths.TRANSACTION_LOG.getFile(), new File(
-						new File(String.valueOf(revision)), ".commit").getPath()).getPath());
+	void initIndexDefs(final @Nonnegative int revision,
+			final IndexController controller) throws SirixIOException {
+		if (!mCommitLog.readIndexDefs(revision, controller.getIndexes())) {
+			// Resources written before the commit log existed.
+			final File indexes = new File(mResourceConfig.mPath,
+					ResourceConfiguration.Paths.INDEXES.getFile().getPath() + revision
+							+ ".xml");
+			if (indexes.exists()) {
+				try (final InputStream in = new FileInputStream(indexes)) {
+					controller.getIndexes().init(
+							controller.deserialize(in).getFirstChild());
+				} catch (IOException | DocumentException | SirixException e) {
+					throw new SirixIOException(
+							"Index definitions couldn't be deserialized!", e);
+				}
+			}
+		}
 	}
 
 	@Override
@@ -359,9 +408,16 @@ public final class SessionImpl implements Session {
 			mPageTrxMap.clear();
 			mNodePageTrxMap.clear();
 
+			if (mSessionConfig.getWarmUpLimit() > 0) {
+				WarmUp.record(mBufferManager, mResourceConfig.mPath,
+						mSessionConfig.getWarmUpLimit());
+			}
 			mDatabase.removeSession(mResourceConfig.mPath, mSessionConfig);
 
 			mFac.close();
+			mPageReaderPool.shutdown();
+			mReadAheadPool.shutdown();
+			mWarmUpPool.shutdown();
 			mClosed = true;
 		}
 	}
@@ -400,6 +456,11 @@ public final class SessionImpl implements Session {
 		return mWriteSemaphore.availablePermits();
 	}
 
+	@Override
+	public Map<PageKind, CacheStatistics> getCacheStatistics() {
+		return mBufferManager.getStatistics();
+	}
+
 	/**
 	 * Set a new node page write trx.
 	 * 
@@ -0,0 +1,201 @@
+package org.sirix.access;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nonnegative;
+
+import org.sirix.cache.BufferKey;
+import org.sirix.cache.RecordPageContainer;
+import org.sirix.exception.SirixIOException;
+import org.sirix.page.PageKind;
+import org.sirix.page.UnorderedKeyValuePage;
+import org.sirix.utils.LogWrapper;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Warm-up of the buffer of a resource. The keys of the most frequently used
+ * record pages are recorded in the resource directory, when a session is
+ * closed, and the pages are preloaded in parallel in the background, when the
+ * resource is opened again. Thus, the first queries after a restart don't have
+ * to read all pages from the storage.
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
+final class WarmUp {
+
+	/** {@link LogWrapper} reference. */
+	private static final LogWrapper LOGWRAPPER = new LogWrapper(
+			LoggerFactory.getLogger(WarmUp.class));
+
+	/** Name of the file in the resource directory. */
+	static final String FILE_NAME = "warmup";
+
+	/** Recorded record page. */
+	private static final class HotPage {
+		/** The kind of page. */
+		private final PageKind mPageKind;
+
+		/** Index number or {@code -1}, if it's a regular record page. */
+		private final int mIndex;
+
+		/** Key of the record page. */
+		private final long mRecordPageKey;
+
+		private HotPage(final PageKind pageKind, final int index,
+				final long recordPageKey) {
+			mPageKind = pageKind;
+			mIndex = index;
+			mRecordPageKey = recordPageKey;
+		}
+	}
+
+	/** Utility class. */
+	private WarmUp() {
+		throw new AssertionError("May not be instantiated!");
+	}
+
+	/**
+	 * Record the keys of the most frequently used record pages of a resource.
+	 * Failures are only logged, as the warm-up is an optimization.
+	 *
+	 * @param bufferManager
+	 *          the buffer of the resource
+	 * @param resource
+	 *          the resource directory
+	 * @param limit
+	 *          the maximum number of bytes of the pages
+	 */
+	static void record(final BufferManager bufferManager, final File resource,
+			final @Nonnegative long limit) {
+		checkNotNull(bufferManager);
+		checkArgument(limit > 0, "limit must be > 0!");
+		final Map<BufferKey, RecordPageContainer<UnorderedKeyValuePage>> pages = bufferManager
+				.getHottestPages(limit);
+		final File file = new File(checkNotNull(resource), FILE_NAME);
+		final File tmpFile = new File(resource, FILE_NAME + ".tmp");
+		try {
+			try (final DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+				out.writeInt(pages.size());
+				for (final Map.Entry<BufferKey, RecordPageContainer<UnorderedKeyValuePage>> page : pages
+						.entrySet()) {
+					out.writeByte(page.getKey().getPageKind().getID());
+					out.writeInt(page.getKey().getIndex());
+					out.writeLong(page.getValue().getComplete().getPageKey());
+				}
+			}
+			Files.move(tmpFile.toPath(), file.toPath(),
+					StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (final IOException e) {
+			LOGWRAPPER.warn("Pages to warm up couldn't be recorded: {}",
+					e.getMessage());
+		}
+	}
+
+	/**
+	 * Read the recorded keys of the record pages of a resource.
+	 *
+	 * @param resource
+	 *          the resource directory
+	 * @return the recorded pages, whereas the most frequently used pages come
+	 *         first
+	 * @throws SirixIOException
+	 *           if the keys can't be read
+	 */
+	private static List<HotPage> read(final File resource)
+			throws SirixIOException {
+		final File file = new File(resource, FILE_NAME);
+		if (!file.exists()) {
+			return new ArrayList<>(0);
+		}
+		try (final DataInputStream in = new DataInputStream(
+				new BufferedInputStream(new FileInputStream(file)))) {
+			final int size = in.readInt();
+			final List<HotPage> pages = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				pages.add(new HotPage(PageKind.getKind(in.readByte()), in.readInt(),
+						in.readLong()));
+			}
+			return pages;
+		} catch (final IOException e) {
+			throw new SirixIOException(e);
+		}
+	}
+
+	/**
+	 * Preload the recorded record pages of the most recent revision in parallel
+	 * in the background. Each worker reads its pages with its own transaction,
+	 * until the limit is reached. The workers run on a pool of their own and
+	 * don't read ahead, such that the read-ahead pool stays available to the
+	 * transactions of the user. Failures are only logged, as the warm-up is an
+	 * optimization.
+	 *
+	 * @param session
+	 *          the session on the resource
+	 * @param limit
+	 *          the maximum number of bytes of the pages
+	 */
+	static void preload(final SessionImpl session, final @Nonnegative long limit) {
+		checkNotNull(session);
+		checkArgument(limit > 0, "limit must be > 0!");
+		final List<HotPage> pages;
+		try {
+			pages = read(session.getResourceConfig().mPath);
+		} catch (final SirixIOException e) {
+			LOGWRAPPER.warn("Pages to warm up couldn't be read: {}", e.getMessage());
+			return;
+		}
+		if (pages.isEmpty()) {
+			return;
+		}
+
+		// The pages are distributed round-robin, such that the most frequently
+		// used pages are loaded first.
+		final int workers = Math.min(pages.size(), Math.max(1, Runtime
+				.getRuntime().availableProcessors() / 2));
+		final AtomicLong weight = new AtomicLong();
+		for (int worker = 0; worker < workers; worker++) {
+			final int first = worker;
+			try {
+				session.mWarmUpPool.submit(() -> {
+					try (final PageReadTrxImpl trx = (PageReadTrxImpl) session
+							.beginPageReadTrx()) {
+						trx.setReadAhead(false);
+						for (int i = first; i < pages.size()
+								&& weight.get() < limit; i += workers) {
+							final HotPage page = pages.get(i);
+							final RecordPageContainer<UnorderedKeyValuePage> container = trx
+									.getRecordPageContainer(page.mRecordPageKey, page.mIndex,
+											page.mPageKind);
+							weight.addAndGet(BufferManagerImpl.weigh(container));
+						}
+					} catch (final RuntimeException e) {
+						LOGWRAPPER.debug("Warm-up stopped: {}", e.getMessage());
+					}
+				});
+			} catch (final RejectedExecutionException e) {
+				// The session has been closed.
+				return;
+			}
+		}
+	}
+}
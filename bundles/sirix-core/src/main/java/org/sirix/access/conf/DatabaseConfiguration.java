@@ -132,6 +132,9 @@ public final class DatabaseConfiguration {
 	// STATIC STANDARD FIELDS
 	/** Identification for string. */
 	public static final String BINARY = "0.1.0";
+
+	/** Default number of bytes of all caches of the database. */
+	public static final long MEMORY_BUDGET = 1L << 28;
 	// END STATIC STANDARD FIELDS
 
 	/** Binary version of storage. */
@@ -143,6 +146,9 @@ public final class DatabaseConfiguration {
 	/** Maximum unique resource ID. */
 	private long mMaxResourceID;
 
+	/** Approximate number of bytes of all caches of the database. */
+	private long mMemoryBudget;
+
 	/**
 	 * Constructor with the path to be set.
 	 * 
@@ -152,6 +158,7 @@ public final class DatabaseConfiguration {
 	public DatabaseConfiguration(final File file) {
 		mBinaryVersion = BINARY;
 		mFile = file.getAbsoluteFile();
+		mMemoryBudget = MEMORY_BUDGET;
 	}
 
 	/**
@@ -176,6 +183,31 @@ public final class DatabaseConfiguration {
 		return mMaxResourceID;
 	}
 
+	/**
+	 * Set the memory budget, that is the approximate number of bytes of all
+	 * caches of the database. The budget is split evenly across the resources of
+	 * the database and within a resource across the kinds of pages.
+	 * 
+	 * @param bytes
+	 *          the number of bytes
+	 * @return this {@link DatabaseConfiguration} reference
+	 */
+	public DatabaseConfiguration setMemoryBudget(final long bytes) {
+		checkArgument(bytes > 0, "bytes must be > 0!");
+		mMemoryBudget = bytes;
+		return this;
+	}
+
+	/**
+	 * Get the memory budget, that is the approximate number of bytes of all
+	 * caches of the database.
+	 * 
+	 * @return the memory budget
+	 */
+	public long getMemoryBudget() {
+		return mMemoryBudget;
+	}
+
 	/**
 	 * Getting the database file.
 	 * 
@@ -231,6 +263,7 @@ public final class DatabaseConfiguration {
 			final String filePath = config.mFile.getAbsolutePath();
 			jsonWriter.name("file").value(filePath);
 			jsonWriter.name("ID").value(config.mMaxResourceID);
+			jsonWriter.name("memoryBudget").value(config.mMemoryBudget);
 			jsonWriter.endObject();
 		} catch (final IOException e) {
 			throw new SirixIOException(e);
@@ -258,8 +291,15 @@ public final class DatabaseConfiguration {
 			final String IDName = jsonReader.nextName();
 			assert IDName.equals("ID");
 			final int ID = jsonReader.nextInt();
+			long memoryBudget = MEMORY_BUDGET;
+			if (jsonReader.hasNext()) {
+				final String memoryBudgetName = jsonReader.nextName();
+				assert memoryBudgetName.equals("memoryBudget");
+				memoryBudget = jsonReader.nextLong();
+			}
 			jsonReader.endObject();
-			return new DatabaseConfiguration(dbFile).setMaximumResourceID(ID);
+			return new DatabaseConfiguration(dbFile).setMaximumResourceID(ID)
+					.setMemoryBudget(memoryBudget);
 		} catch (final IOException e) {
 			throw new SirixIOException(e);
 		}
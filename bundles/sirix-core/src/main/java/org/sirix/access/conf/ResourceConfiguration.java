@@ -34,25 +34,35 @@ import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.annotation.Nonnegative;
 
 import org.sirix.access.HashKind;
 import org.sirix.access.SessionImpl;
 import org.sirix.exception.SirixIOException;
+import org.sirix.io.ChecksumVerification;
+import org.sirix.io.DurabilityMode;
 import org.sirix.io.StorageType;
 import org.sirix.io.bytepipe.ByteHandlePipeline;
 import org.sirix.io.bytepipe.ByteHandler;
 import org.sirix.io.bytepipe.DeflateCompressor;
+import org.sirix.io.bytepipe.PageKindByteHandler;
+import org.sirix.io.bytepipe.ZstdCompressor;
 import org.sirix.node.NodePersistenterImpl;
 import org.sirix.node.interfaces.RecordPersistenter;
+import org.sirix.page.PageKind;
+import org.sirix.settings.StorageFormat;
 import org.sirix.settings.Versioning;
 
 import com.google.common.base.Objects;
 import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.google.gson.stream.JsonWriter;
 
 /**
@@ -164,6 +174,18 @@ public final class ResourceConfiguration {
 	/** Persistenter for records. */
 	public static final RecordPersistenter PERSISTENTER = new NodePersistenterImpl();
 	
+	/** Standard durability guarantee of commits. */
+	public static final DurabilityMode DURABILITY = DurabilityMode.FSYNC_ON_COMMIT;
+
+	/** Standard number of bytes of pages, which are appended at once. */
+	public static final int APPEND_BATCH_SIZE = 1 << 22;
+
+	/** Standard number of bytes of the off-heap page cache (disabled). */
+	public static final long OFF_HEAP_CACHE_SIZE = 0;
+
+	/** Standard verification of the checksums of stored pages. */
+	public static final ChecksumVerification CHECKSUM_VERIFICATION = ChecksumVerification.EVERY_READ;
+
 	/** Number of concurrent exclusive write transactions. */
 	public static final int MAX_WRITE_TRANSACTIONS = 1;
 
@@ -188,6 +210,12 @@ public final class ResourceConfiguration {
 	/** Byte handler pipeline. */
 	public final ByteHandlePipeline mByteHandler;
 
+	/**
+	 * Byte handler pipelines for specific page kinds, which override the
+	 * default pipeline.
+	 */
+	public final Map<PageKind, ByteHandlePipeline> mPageKindByteHandlers;
+
 	/** Path for the resource to be associated. */
 	public final File mPath;
 
@@ -209,6 +237,28 @@ public final class ResourceConfiguration {
 	/** Determines if dewey IDs should be stored or not. */
 	public final boolean mDeweyIDsStored;
 
+	/** Determines if and when pages are forced to the storage device. */
+	public final DurabilityMode mDurability;
+
+	/**
+	 * Maximum number of bytes of pages, which are appended at once by backends
+	 * supporting batched appends (currently the chronicle backend).
+	 */
+	public final int mAppendBatchSize;
+
+	/**
+	 * Maximum number of bytes of direct memory, which is used to cache the
+	 * decompressed bytes of stored pages, or {@code 0}, if no pages are cached
+	 * outside of the Java heap.
+	 */
+	public final long mOffHeapCacheSize;
+
+	/** Version of the format of the stored records and pages. */
+	public final StorageFormat mStorageFormat;
+
+	/** Determines when the checksums of stored pages are verified. */
+	public final ChecksumVerification mChecksumVerification;
+
 	// END MEMBERS FOR FIXED FIELDS
 
 	/**
@@ -236,6 +286,8 @@ public final class ResourceConfiguration {
 	private ResourceConfiguration(final ResourceConfiguration.Builder builder) {
 		mStorage = builder.mType;
 		mByteHandler = builder.mByteHandler;
+		mPageKindByteHandlers = Collections.unmodifiableMap(new EnumMap<>(
+				builder.mPageKindByteHandlers));
 		mRevisionKind = builder.mRevisionKind;
 		mHashKind = builder.mHashKind;
 		mRevisionsToRestore = builder.mRevisionsToRestore;
@@ -247,6 +299,11 @@ public final class ResourceConfiguration {
 				DatabaseConfiguration.Paths.DATA.getFile().getName()),
 				builder.mResource);
 		mPersistenter = builder.mPersistenter;
+		mDurability = builder.mDurability;
+		mAppendBatchSize = builder.mAppendBatchSize;
+		mOffHeapCacheSize = builder.mOffHeapCacheSize;
+		mStorageFormat = builder.mStorageFormat;
+		mChecksumVerification = builder.mChecksumVerification;
 	}
 
 	/**
@@ -307,6 +364,21 @@ public final class ResourceConfiguration {
 		return mPath;
 	}
 
+	/**
+	 * Get the byte handler pipeline, which is used to store pages. If pipelines
+	 * for specific page kinds are configured, the pipeline selects the codec by
+	 * the page kind and stores the codec id in front of each page.
+	 * 
+	 * @return the byte handler pipeline for pages
+	 */
+	public ByteHandlePipeline getPageByteHandler() {
+		if (mPageKindByteHandlers.isEmpty()) {
+			return mByteHandler;
+		}
+		return new ByteHandlePipeline(new PageKindByteHandler(mByteHandler,
+				mPageKindByteHandlers));
+	}
+
 	/**
 	 * Get the configuration file.
 	 * 
@@ -322,7 +394,9 @@ public final class ResourceConfiguration {
 	private static final String[] JSONNAMES = { "revisioning",
 			"revisioningClass", "numbersOfRevisiontoRestore", "byteHandlerClasses",
 			"storageKind", "hashKind", "compression", "pathSummary", "resourceID",
-			"deweyIDsStored", "persistenter" };
+			"deweyIDsStored", "persistenter", "durability", "pageKindByteHandlers",
+			"appendBatchSize", "offHeapCacheSize", "storageFormat",
+			"checksumVerification" };
 
 	/**
 	 * Serialize the configuration.
@@ -345,13 +419,8 @@ public final class ResourceConfiguration {
 			jsonWriter.name(JSONNAMES[2]).value(config.mRevisionsToRestore);
 			jsonWriter.endObject();
 			// ByteHandlers.
-			final ByteHandlePipeline byteHandler = config.mByteHandler;
 			jsonWriter.name(JSONNAMES[3]);
-			jsonWriter.beginArray();
-			for (final ByteHandler handler : byteHandler.getComponents()) {
-				jsonWriter.value(handler.getClass().getName());
-			}
-			jsonWriter.endArray();
+			serializePipeline(jsonWriter, config.mByteHandler);
 			// Storage type.
 			jsonWriter.name(JSONNAMES[4]).value(config.mStorage.name());
 			// Hashing type.
@@ -367,6 +436,26 @@ public final class ResourceConfiguration {
 			// Persistenter.
 			jsonWriter.name(JSONNAMES[10]).value(
 					config.mPersistenter.getClass().getName());
+			// Durability.
+			jsonWriter.name(JSONNAMES[11]).value(config.mDurability.name());
+			// ByteHandlers for specific page kinds.
+			jsonWriter.name(JSONNAMES[12]);
+			jsonWriter.beginObject();
+			for (final Map.Entry<PageKind, ByteHandlePipeline> entry : config.mPageKindByteHandlers
+					.entrySet()) {
+				jsonWriter.name(entry.getKey().name());
+				serializePipeline(jsonWriter, entry.getValue());
+			}
+			jsonWriter.endObject();
+			// Append batch size.
+			jsonWriter.name(JSONNAMES[13]).value(config.mAppendBatchSize);
+			// Off-heap cache size.
+			jsonWriter.name(JSONNAMES[14]).value(config.mOffHeapCacheSize);
+			// Storage format.
+			jsonWriter.name(JSONNAMES[15]).value(config.mStorageFormat.name());
+			// Checksum verification.
+			jsonWriter.name(JSONNAMES[16]).value(
+					config.mChecksumVerification.name());
 			jsonWriter.endObject();
 		} catch (final IOException e) {
 			throw new SirixIOException(e);
@@ -376,6 +465,101 @@ public final class ResourceConfiguration {
 		DatabaseConfiguration.serialize(config.mDBConfig);
 	}
 
+	/**
+	 * Serialize the class names of the components of a byte handler pipeline.
+	 * The level and the dictionary of a {@link ZstdCompressor} are serialized
+	 * together with its class name.
+	 * 
+	 * @param jsonWriter
+	 *          the writer to serialize to
+	 * @param pipeline
+	 *          the pipeline to serialize
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	private static void serializePipeline(final JsonWriter jsonWriter,
+			final ByteHandlePipeline pipeline) throws IOException {
+		jsonWriter.beginArray();
+		for (final ByteHandler handler : pipeline.getComponents()) {
+			if (handler instanceof ZstdCompressor) {
+				final ZstdCompressor zstd = (ZstdCompressor) handler;
+				jsonWriter.beginObject();
+				jsonWriter.name("class").value(handler.getClass().getName());
+				jsonWriter.name("level").value(zstd.getLevel());
+				final byte[] dictionary = zstd.getDictionary();
+				if (dictionary != null) {
+					jsonWriter.name("dictionary").value(
+							Base64.getEncoder().encodeToString(dictionary));
+				}
+				jsonWriter.endObject();
+			} else {
+				jsonWriter.value(handler.getClass().getName());
+			}
+		}
+		jsonWriter.endArray();
+	}
+
+	/**
+	 * Deserialize a byte handler pipeline from the class names of its components.
+	 * 
+	 * @param jsonReader
+	 *          the reader to deserialize from
+	 * @return the pipeline
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 * @throws ReflectiveOperationException
+	 *           if a byte handler can't be instantiated
+	 */
+	private static ByteHandlePipeline deserializePipeline(
+			final JsonReader jsonReader) throws IOException,
+			ReflectiveOperationException {
+		final List<ByteHandler> handlerList = new ArrayList<>();
+		jsonReader.beginArray();
+		while (jsonReader.hasNext()) {
+			if (jsonReader.peek() == JsonToken.BEGIN_OBJECT) {
+				handlerList.add(deserializeZstdCompressor(jsonReader));
+				continue;
+			}
+			final Class<?> handlerClazz = Class.forName(jsonReader.nextString());
+			final Constructor<?> handlerCons = handlerClazz.getConstructor();
+			handlerList.add((ByteHandler) handlerCons.newInstance());
+		}
+		jsonReader.endArray();
+		return new ByteHandlePipeline(handlerList.toArray(new ByteHandler[handlerList
+				.size()]));
+	}
+
+	/**
+	 * Deserialize a {@link ZstdCompressor} from its level and dictionary.
+	 * 
+	 * @param jsonReader
+	 *          the reader to deserialize from
+	 * @return the compressor
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	private static ZstdCompressor deserializeZstdCompressor(
+			final JsonReader jsonReader) throws IOException {
+		int level = ZstdCompressor.DEFAULT_LEVEL;
+		byte[] dictionary = null;
+		jsonReader.beginObject();
+		while (jsonReader.hasNext()) {
+			final String name = jsonReader.nextName();
+			switch (name) {
+			case "level":
+				level = jsonReader.nextInt();
+				break;
+			case "dictionary":
+				dictionary = Base64.getDecoder().decode(jsonReader.nextString());
+				break;
+			default:
+				jsonReader.skipValue();
+			}
+		}
+		jsonReader.endObject();
+		return new ZstdCompressor(level, dictionary);
+	}
+
 	/**
 	 * Deserializing a Resource configuration from a JSON-file from the persistent
 	 * storage.
@@ -407,18 +591,9 @@ public final class ResourceConfiguration {
 			final int revisionToRestore = jsonReader.nextInt();
 			jsonReader.endObject();
 			// ByteHandlers.
-			final List<ByteHandler> handlerList = new ArrayList<>();
 			name = jsonReader.nextName();
 			assert name.equals(JSONNAMES[3]);
-			jsonReader.beginArray();
-			while (jsonReader.hasNext()) {
-				final Class<?> handlerClazz = Class.forName(jsonReader.nextString());
-				final Constructor<?> handlerCons = handlerClazz.getConstructors()[0];
-				handlerList.add((ByteHandler) handlerCons.newInstance());
-			}
-			jsonReader.endArray();
-			final ByteHandlePipeline pipeline = new ByteHandlePipeline(
-					handlerList.toArray(new ByteHandler[handlerList.size()]));
+			final ByteHandlePipeline pipeline = deserializePipeline(jsonReader);
 			// Storage type.
 			name = jsonReader.nextName();
 			assert name.equals(JSONNAMES[4]);
@@ -449,6 +624,61 @@ public final class ResourceConfiguration {
 					.getConstructors()[0];
 			final RecordPersistenter persistenter = (RecordPersistenter) persistenterConstr
 					.newInstance();
+			// Durability (not available in older configurations).
+			DurabilityMode durability = DURABILITY;
+			if (jsonReader.hasNext()) {
+				name = jsonReader.nextName();
+				assert name.equals(JSONNAMES[11]);
+				durability = DurabilityMode.valueOf(jsonReader.nextString());
+			}
+			// ByteHandlers for specific page kinds (not available in older
+			// configurations).
+			final Map<PageKind, ByteHandlePipeline> pageKindPipelines = new EnumMap<>(
+					PageKind.class);
+			if (jsonReader.hasNext()) {
+				name = jsonReader.nextName();
+				assert name.equals(JSONNAMES[12]);
+				jsonReader.beginObject();
+				while (jsonReader.hasNext()) {
+					final PageKind pageKind = PageKind.valueOf(jsonReader.nextName());
+					pageKindPipelines.put(pageKind, deserializePipeline(jsonReader));
+				}
+				jsonReader.endObject();
+			}
+			// Append batch size (not available in older configurations).
+			int appendBatchSize = APPEND_BATCH_SIZE;
+			if (jsonReader.hasNext()) {
+				name = jsonReader.nextName();
+				assert name.equals(JSONNAMES[13]);
+				appendBatchSize = jsonReader.nextInt();
+			}
+			// Off-heap cache size (not available in older configurations).
+			long offHeapCacheSize = OFF_HEAP_CACHE_SIZE;
+			if (jsonReader.hasNext()) {
+				name = jsonReader.nextName();
+				assert name.equals(JSONNAMES[14]);
+				offHeapCacheSize = jsonReader.nextLong();
+			}
+			// Storage format. The pages of resources, which have been created before
+			// the format has been versioned, can't be read.
+			if (!jsonReader.hasNext()) {
+				jsonReader.close();
+				throw new SirixIOException("Resource " + file.getName()
+						+ " has been stored in an unversioned format, which isn't"
+						+ " supported anymore, and has to be recreated!");
+			}
+			name = jsonReader.nextName();
+			assert name.equals(JSONNAMES[15]);
+			final StorageFormat storageFormat = StorageFormat.valueOf(jsonReader
+					.nextString());
+			// Checksum verification (not available in older configurations).
+			ChecksumVerification checksumVerification = CHECKSUM_VERIFICATION;
+			if (jsonReader.hasNext()) {
+				name = jsonReader.nextName();
+				assert name.equals(JSONNAMES[16]);
+				checksumVerification = ChecksumVerification.valueOf(jsonReader
+						.nextString());
+			}
 			jsonReader.endObject();
 			jsonReader.close();
 			fileReader.close();
@@ -464,14 +694,20 @@ public final class ResourceConfiguration {
 					.versioningApproach(revisioning)
 					.revisionsToRestore(revisionToRestore).storageType(storage)
 					.persistenter(persistenter).useTextCompression(compression)
-					.buildPathSummary(pathSummary).useDeweyIDs(deweyIDsStored);
+					.buildPathSummary(pathSummary).useDeweyIDs(deweyIDsStored)
+					.durability(durability).appendBatchSize(appendBatchSize)
+					.offHeapCacheSize(offHeapCacheSize).storageFormat(storageFormat)
+					.checksumVerification(checksumVerification);
+			for (final Map.Entry<PageKind, ByteHandlePipeline> entry : pageKindPipelines
+					.entrySet()) {
+				builder.byteHandlerPipeline(entry.getKey(), entry.getValue());
+			}
 
 			// Deserialized instance.
 			final ResourceConfiguration config = new ResourceConfiguration(builder);
 			return config.setID(ID);
-		} catch (IOException | ClassNotFoundException | IllegalArgumentException
-				| InstantiationException | IllegalAccessException
-				| InvocationTargetException e) {
+		} catch (IOException | ReflectiveOperationException
+				| IllegalArgumentException e) {
 			throw new SirixIOException(e);
 		}
 	}
@@ -508,12 +744,31 @@ public final class ResourceConfiguration {
 		/** Byte handler pipeline. */
 		private ByteHandlePipeline mByteHandler;
 
+		/** Byte handler pipelines for specific page kinds. */
+		private final Map<PageKind, ByteHandlePipeline> mPageKindByteHandlers = new EnumMap<>(
+				PageKind.class);
+
 		/** Determines if DeweyIDs should be used or not. */
 		private boolean mUseDeweyIDs;
 
 		/** Determines if a path summary should be build or not. */
 		private boolean mPathSummary;
 
+		/** Determines if and when pages are forced to the storage device. */
+		private DurabilityMode mDurability = DURABILITY;
+
+		/** Maximum number of bytes of pages, which are appended at once. */
+		private int mAppendBatchSize = APPEND_BATCH_SIZE;
+
+		/** Maximum number of bytes of the off-heap page cache. */
+		private long mOffHeapCacheSize = OFF_HEAP_CACHE_SIZE;
+
+		/** Version of the format of the stored records and pages. */
+		private StorageFormat mStorageFormat = StorageFormat.CURRENT;
+
+		/** Determines when the checksums of stored pages are verified. */
+		private ChecksumVerification mChecksumVerification = CHECKSUM_VERIFICATION;
+
 		/**
 		 * Constructor, setting the mandatory fields.
 		 * 
@@ -584,6 +839,24 @@ public final class ResourceConfiguration {
 			return this;
 		}
 
+		/**
+		 * Set the byte handler pipeline for a specific page kind, for instance a
+		 * fast codec for record pages or no compression at all for indirect
+		 * pages. Page kinds without a specific pipeline use the default pipeline.
+		 * 
+		 * @param pageKind
+		 *          the page kind
+		 * @param byteHandler
+		 *          byte handler pipeline
+		 * @return reference to the builder object
+		 */
+		public Builder byteHandlerPipeline(final PageKind pageKind,
+				final ByteHandlePipeline byteHandler) {
+			mPageKindByteHandlers.put(checkNotNull(pageKind),
+					checkNotNull(byteHandler));
+			return this;
+		}
+
 		/**
 		 * Set the number of revisions to restore after the last full dump.
 		 * 
@@ -629,6 +902,77 @@ public final class ResourceConfiguration {
 			return this;
 		}
 
+		/**
+		 * Set the durability mode, which determines if and when pages are forced
+		 * to the storage device.
+		 * 
+		 * @param durability
+		 *          the durability mode
+		 * @return reference to the builder object
+		 */
+		public Builder durability(final DurabilityMode durability) {
+			mDurability = checkNotNull(durability);
+			return this;
+		}
+
+		/**
+		 * Set the maximum number of bytes of pages, which are appended at once by
+		 * backends supporting batched appends.
+		 * 
+		 * @param appendBatchSize
+		 *          the maximum number of bytes
+		 * @return reference to the builder object
+		 */
+		public Builder appendBatchSize(final @Nonnegative int appendBatchSize) {
+			checkArgument(appendBatchSize > 0, "appendBatchSize must be > 0!");
+			mAppendBatchSize = appendBatchSize;
+			return this;
+		}
+
+		/**
+		 * Set the maximum number of bytes of direct memory, which is used to cache
+		 * the decompressed bytes of stored pages outside of the Java heap. The
+		 * cache is a second level behind the buffer of deserialized pages, whose
+		 * size is determined by the memory budget of the database.
+		 * 
+		 * @param offHeapCacheSize
+		 *          the maximum number of bytes or {@code 0} to disable the cache
+		 * @return reference to the builder object
+		 */
+		public Builder offHeapCacheSize(final @Nonnegative long offHeapCacheSize) {
+			checkArgument(offHeapCacheSize >= 0, "offHeapCacheSize must be >= 0!");
+			mOffHeapCacheSize = offHeapCacheSize;
+			return this;
+		}
+
+		/**
+		 * Set the version of the format of the stored records and pages. New
+		 * resources use {@link StorageFormat#CURRENT} by default.
+		 * 
+		 * @param storageFormat
+		 *          the storage format
+		 * @return reference to the builder object
+		 */
+		public Builder storageFormat(final StorageFormat storageFormat) {
+			mStorageFormat = checkNotNull(storageFormat);
+			return this;
+		}
+
+		/**
+		 * Set when the checksums of stored pages are verified. Verifying a page
+		 * only the first time it is read saves computing the checksum of pages,
+		 * which are read repeatedly as they don't fit into the caches.
+		 * 
+		 * @param checksumVerification
+		 *          determines when the checksums are verified
+		 * @return reference to the builder object
+		 */
+		public Builder checksumVerification(
+				final ChecksumVerification checksumVerification) {
+			mChecksumVerification = checkNotNull(checksumVerification);
+			return this;
+		}
+
 		@Override
 		public String toString() {
 			return Objects.toStringHelper(this).add("Type", mType)
@@ -72,6 +72,12 @@ public final class SessionConfiguration {
 	 * commit or not.
 	 */
 	public static final boolean DUMP_LOGS = false;
+
+	/**
+	 * Maximum number of bytes of the pages, which are recorded on close and
+	 * preloaded on open, whereas {@code 0} disables the warm-up.
+	 */
+	public static final long WARM_UP_LIMIT = 0;
 	// END STATIC STANDARD FIELDS
 
 	// MEMBERS FOR FLEXIBLE FIELDS
@@ -91,6 +97,12 @@ public final class SessionConfiguration {
 	 */
 	private final boolean mDumpLogs;
 
+	/**
+	 * Maximum number of bytes of the pages, which are recorded on close and
+	 * preloaded on open.
+	 */
+	private final long mWarmUpLimit;
+
 	/**
 	 * Convenience constructor using the standard settings.
 	 * 
@@ -102,6 +114,7 @@ public final class SessionConfiguration {
 		mUser = builder.mUser;
 		mResource = builder.mResource;
 		mDumpLogs = builder.mDumpLogs;
+		mWarmUpLimit = builder.mWarmUpLimit;
 	}
 
 	@Override
@@ -145,6 +158,18 @@ public final class SessionConfiguration {
 		return mDumpLogs;
 	}
 
+	/**
+	 * Get the maximum number of bytes of the most frequently used pages, which
+	 * are recorded, when the session is closed, and preloaded in the background,
+	 * when the resource is opened again.
+	 * 
+	 * @return the maximum number of bytes or {@code 0}, if the warm-up is
+	 *         disabled
+	 */
+	public long getWarmUpLimit() {
+		return mWarmUpLimit;
+	}
+
 	/**
 	 * Get a new builder instance.
 	 * 
@@ -181,6 +206,12 @@ public final class SessionConfiguration {
 		 */
 		private boolean mDumpLogs = SessionConfiguration.DUMP_LOGS;
 
+		/**
+		 * Maximum number of bytes of the pages, which are recorded on close and
+		 * preloaded on open.
+		 */
+		private long mWarmUpLimit = SessionConfiguration.WARM_UP_LIMIT;
+
 		/** Resource for the this session. */
 		private final String mResource;
 
@@ -258,6 +289,22 @@ public final class SessionConfiguration {
 			return this;
 		}
 
+		/**
+		 * Record the most frequently used pages up to the given number of bytes,
+		 * when the session is closed, and preload them in the background, when the
+		 * resource is opened again.
+		 * 
+		 * @param bytes
+		 *          the maximum number of bytes of the pages or {@code 0} to disable
+		 *          the warm-up
+		 * @return reference to the builder object
+		 */
+		public Builder warmUpLimit(final @Nonnegative long bytes) {
+			checkArgument(bytes >= 0, "bytes must be >= 0!");
+			mWarmUpLimit = bytes;
+			return this;
+		}
+
 		/**
 		 * Set key for cipher.
 		 * 
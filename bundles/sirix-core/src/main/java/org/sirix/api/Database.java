@@ -29,6 +29,7 @@ package org.sirix.api;
 
 import javax.annotation.Nonnegative;
 
+import org.sirix.access.CommitStatistics;
 import org.sirix.access.conf.DatabaseConfiguration;
 import org.sirix.access.conf.ResourceConfiguration;
 import org.sirix.access.conf.SessionConfiguration;
@@ -130,6 +131,14 @@ public interface Database extends AutoCloseable {
 	 */
 	Database commitAll() throws SirixException;
 
+	/**
+	 * Get statistics about the commits of all write transactions, which are
+	 * made durable in batches.
+	 * 
+	 * @return a snapshot of the commit statistics
+	 */
+	CommitStatistics getCommitStatistics();
+
 	/**
 	 * Get the resource name associated with the given ID.
 	 * 
@@ -117,6 +117,63 @@ public interface NodeCursor extends AutoCloseable {
 	 */
 	Move<? extends NodeCursor> moveToNext();
 
+	/**
+	 * Move cursor to a node by its node key without allocating a {@link Move}
+	 * instance. Axes use this method, as they move the cursor for every node.
+	 * 
+	 * @param key
+	 *          key of node to select
+	 * @return {@code true}, if the node is selected, {@code false} otherwise, in
+	 *         which case the cursor has not been moved
+	 */
+	default boolean tryMoveTo(final long key) {
+		return moveTo(key).hasMoved();
+	}
+
+	/**
+	 * Move cursor to the parent node of the currently selected node without
+	 * allocating a {@link Move} instance.
+	 * 
+	 * @return {@code true}, if the parent node is selected, {@code false}
+	 *         otherwise, in which case the cursor has not been moved
+	 */
+	default boolean tryMoveToParent() {
+		return moveToParent().hasMoved();
+	}
+
+	/**
+	 * Move cursor to the first child node of the currently selected node without
+	 * allocating a {@link Move} instance.
+	 * 
+	 * @return {@code true}, if the first child node is selected, {@code false}
+	 *         otherwise, in which case the cursor has not been moved
+	 */
+	default boolean tryMoveToFirstChild() {
+		return moveToFirstChild().hasMoved();
+	}
+
+	/**
+	 * Move cursor to the left sibling node of the currently selected node without
+	 * allocating a {@link Move} instance.
+	 * 
+	 * @return {@code true}, if the left sibling node is selected, {@code false}
+	 *         otherwise, in which case the cursor has not been moved
+	 */
+	default boolean tryMoveToLeftSibling() {
+		return moveToLeftSibling().hasMoved();
+	}
+
+	/**
+	 * Move cursor to the right sibling node of the currently selected node
+	 * without allocating a {@link Move} instance.
+	 * 
+	 * @return {@code true}, if the right sibling node is selected, {@code false}
+	 *         otherwise, in which case the cursor has not been moved
+	 */
+	default boolean tryMoveToRightSibling() {
+		return moveToRightSibling().hasMoved();
+	}
+
 	/**
 	 * Determines if a node with the given key exists.
 	 * 
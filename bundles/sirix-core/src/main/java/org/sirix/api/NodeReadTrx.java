@@ -207,6 +207,32 @@ public interface NodeReadTrx extends NodeCursor {
 	 */
 	Move<? extends NodeReadTrx> moveToNamespace(@Nonnegative int index);
 
+	/**
+	 * Move cursor to attribute by its index without allocating a {@link Move}
+	 * instance.
+	 * 
+	 * @param index
+	 *          index of attribute to move to
+	 * @return {@code true}, if the attribute node is selected, {@code false}
+	 *         otherwise, in which case the cursor has not been moved
+	 */
+	default boolean tryMoveToAttribute(final @Nonnegative int index) {
+		return moveToAttribute(index).hasMoved();
+	}
+
+	/**
+	 * Move cursor to namespace declaration by its index without allocating a
+	 * {@link Move} instance.
+	 * 
+	 * @param index
+	 *          index of namespace declaration to move to
+	 * @return {@code true}, if the namespace node is selected, {@code false}
+	 *         otherwise, in which case the cursor has not been moved
+	 */
+	default boolean tryMoveToNamespace(final @Nonnegative int index) {
+		return moveToNamespace(index).hasMoved();
+	}
+
 	/**
 	 * Move to the next following node, that is the next node on the XPath
 	 * {@code following::-axis}, that is the next node which is not a descendant
@@ -4,7 +4,9 @@ import java.util.Optional;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
+import org.sirix.cache.NameCache;
 import org.sirix.cache.RecordPageContainer;
 import org.sirix.cache.TransactionLogPageCache;
 import org.sirix.exception.SirixIOException;
@@ -60,6 +62,25 @@ public interface PageReadTrx extends AutoCloseable {
 	Optional<? extends Record> getRecord(final @Nonnegative long key,
 			final PageKind pageKind, final int index) throws SirixIOException;
 
+	/**
+	 * Get a record from persistent storage without allocating an
+	 * {@link Optional}, which is used to navigate through the nodes.
+	 * 
+	 * @param key
+	 *          the unique record-ID
+	 * @param pageKind
+	 *          the page kind from which to fetch the record
+	 * @param index
+	 *          the index number
+	 * @return the record or {@code null}, if it doesn't exist or has been
+	 *         deleted
+	 * @throws SirixIOException
+	 *           if an I/O error occured
+	 */
+	@Nullable
+	Record getRecordIfPresent(final long key, final PageKind pageKind,
+			final int index) throws SirixIOException;
+
 	/**
 	 * Current reference to actual revision-root page.
 	 * 
@@ -80,6 +101,13 @@ public interface PageReadTrx extends AutoCloseable {
 	 */
 	String getName(int nameKey, @Nonnull Kind recordKind);
 
+	/**
+	 * Get the cache of the qualified names of the nodes of the revision.
+	 * 
+	 * @return the {@link NameCache} instance
+	 */
+	NameCache getNameCache();
+
 	/**
 	 * Get the number of references for a name.
 	 * 
@@ -178,6 +206,26 @@ public interface PageReadTrx extends AutoCloseable {
 	 */
 	void closeCaches();
 
+	/**
+	 * Set a hint, if the pages read from now on are read only once, for instance
+	 * during a traversal of the whole resource. Such pages aren't added to the
+	 * caches shared with other transactions, in order not to evict frequently
+	 * used pages.
+	 * 
+	 * @param noCache
+	 *          {@code true}, if pages are read only once, {@code false}
+	 *          otherwise
+	 */
+	void setNoCacheHint(boolean noCache);
+
+	/**
+	 * Determines if pages are read only once.
+	 * 
+	 * @return {@code true}, if pages are read only once, {@code false} otherwise
+	 * @see #setNoCacheHint(boolean)
+	 */
+	boolean isNoCacheHint();
+
 	/**
 	 * Calculate record page key from a given record key.
 	 * 
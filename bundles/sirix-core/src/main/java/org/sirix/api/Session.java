@@ -27,6 +27,7 @@
 
 package org.sirix.api;
 
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
@@ -35,9 +36,11 @@ import javax.annotation.Nonnegative;
 import org.sirix.access.IndexController;
 import org.sirix.access.conf.ResourceConfiguration;
 import org.sirix.access.conf.SessionConfiguration;
+import org.sirix.cache.CacheStatistics;
 import org.sirix.exception.SirixException;
 import org.sirix.index.path.summary.PathSummaryReader;
 import org.sirix.node.interfaces.Record;
+import org.sirix.page.PageKind;
 import org.sirix.page.UnorderedKeyValuePage;
 
 /**
@@ -258,6 +261,15 @@ public interface Session extends AutoCloseable {
 	 */
 	int getAvailableNodeWriteTrx();
 
+	/**
+	 * Get the statistics of the page caches of each kind of page, which are
+	 * aggregated across all transactions of the resource. The statistics are
+	 * also registered as management beans.
+	 * 
+	 * @return an unmodifiable map of the statistics of each kind of page
+	 */
+	Map<PageKind, CacheStatistics> getCacheStatistics();
+
 	/**
 	 * Get the index controller.
 	 * 
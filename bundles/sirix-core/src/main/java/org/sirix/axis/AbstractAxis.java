@@ -37,6 +37,7 @@ import javax.annotation.Nonnegative;
 
 import org.sirix.api.Axis;
 import org.sirix.api.NodeReadTrx;
+import org.sirix.api.PageReadTrx;
 import org.sirix.api.visitor.Visitor;
 import org.sirix.settings.Fixed;
 
@@ -72,6 +73,9 @@ public abstract class AbstractAxis implements Axis {
 	/** Current state. */
 	private State mState = State.NOT_READY;
 
+	/** Determines if pages read by the axis shouldn't be buffered. */
+	private boolean mNoCache;
+
 	/** State of the iterator. */
 	private enum State {
 		/** We have computed the next element and haven't returned it yet. */
@@ -180,7 +184,18 @@ public abstract class AbstractAxis implements Axis {
 	private boolean tryToComputeNext() {
 		mState = State.FAILED; // temporary pessimism
 		// Template method.
-		mKey = nextKey();
+		if (mNoCache) {
+			final PageReadTrx pageTrx = mRtx.getPageTrx();
+			final boolean noCache = pageTrx.isNoCacheHint();
+			pageTrx.setNoCacheHint(true);
+			try {
+				mKey = nextKey();
+			} finally {
+				pageTrx.setNoCacheHint(noCache);
+			}
+		} else {
+			mKey = nextKey();
+		}
 		if (mKey == Fixed.NULL_NODE_KEY.getStandardProperty()) {
 			mState = State.DONE;
 		}
@@ -238,11 +253,11 @@ public abstract class AbstractAxis implements Axis {
 
 		// Move to next.
 		if (mKey >= 0) {
-			if (!mRtx.moveTo(mKey).hasMoved()) {
+			if (!mRtx.tryMoveTo(mKey)) {
 				throw new IllegalStateException("Failed to move to nodeKey: " + mKey);
 			}
 		} else {
-			mRtx.moveTo(mKey);
+			mRtx.tryMoveTo(mKey);
 		}
 		return mKey;
 	}
@@ -287,7 +302,7 @@ public abstract class AbstractAxis implements Axis {
 	 */
 	private final long resetToStartKey() {
 		// No check because of IAxis Convention 4.
-		mRtx.moveTo(mStartKey);
+		mRtx.tryMoveTo(mStartKey);
 		return mStartKey;
 	}
 
@@ -300,7 +315,7 @@ public abstract class AbstractAxis implements Axis {
 	 */
 	private final long resetToLastKey() {
 		// No check because of IAxis Convention 4.
-		mRtx.moveTo(mKey);
+		mRtx.tryMoveTo(mKey);
 		return mKey;
 	}
 
@@ -322,6 +337,20 @@ public abstract class AbstractAxis implements Axis {
 		return mIncludeSelf;
 	}
 
+	/**
+	 * Hint, that the axis visits each node only once, such that the pages read
+	 * while computing the next node aren't buffered for other transactions.
+	 * Thus a scan doesn't evict the frequently used pages.
+	 * 
+	 * @param noCache
+	 *          {@code true}, if pages read by the axis shouldn't be buffered
+	 * @return this axis
+	 */
+	public final AbstractAxis setNoCacheHint(final boolean noCache) {
+		mNoCache = noCache;
+		return this;
+	}
+
 	/**
 	 * Implements a simple foreach-method.
 	 * 
@@ -64,7 +64,7 @@ public final class AttributeAxis extends AbstractAxis {
 		// this case the current node was set to an attribute by resetToLastKey().
 		if (mNextIndex > 0) {
 			assert getTrx().getKind() == Kind.ATTRIBUTE;
-			getTrx().moveToParent();
+			getTrx().tryMoveToParent();
 		}
 
 		if (getTrx().getKind() == Kind.ELEMENT) {
@@ -134,11 +134,11 @@ public final class DescendantAxis extends AbstractAxis {
 	 */
 	private long hasNextNode(@Nonnegative long pKey,
 			final @Nonnegative long pCurrKey) {
-		getTrx().moveTo(pKey);
+		getTrx().tryMoveTo(pKey);
 		if (getTrx().getLeftSiblingKey() == getStartKey()) {
 			return done();
 		} else {
-			getTrx().moveTo(pCurrKey);
+			getTrx().tryMoveTo(pCurrKey);
 			return pKey;
 		}
 	}
@@ -91,7 +91,7 @@ public final class FollowingAxis extends AbstractAxis {
 			 * descendants are no following node!
 			 */
 			if (getTrx().hasRightSibling()) {
-				getTrx().moveToRightSibling();
+				getTrx().tryMoveToRightSibling();
 				final long key = getTrx().getNodeKey();
 
 				if (getTrx().hasRightSibling()) {
@@ -99,20 +99,20 @@ public final class FollowingAxis extends AbstractAxis {
 					mRightSiblingStack.push(getTrx().getRightSiblingKey());
 				}
 
-				getTrx().moveTo(currKey);
+				getTrx().tryMoveTo(currKey);
 				return key;
 			}
 			// Try to find the right sibling of one of the ancestors.
 			while (getTrx().hasParent()) {
-				getTrx().moveToParent();
+				getTrx().tryMoveToParent();
 				if (getTrx().hasRightSibling()) {
-					getTrx().moveToRightSibling();
+					getTrx().tryMoveToRightSibling();
 					final long key = getTrx().getNodeKey();
 
 					if (getTrx().hasRightSibling()) {
 						mRightSiblingStack.push(getTrx().getRightSiblingKey());
 					}
-					getTrx().moveTo(currKey);
+					getTrx().tryMoveTo(currKey);
 					return key;
 				}
 			}
@@ -122,7 +122,7 @@ public final class FollowingAxis extends AbstractAxis {
 
 		// Step down the tree in document order.
 		if (getTrx().hasFirstChild()) {
-			getTrx().moveToFirstChild();
+			getTrx().tryMoveToFirstChild();
 			final long key = getTrx().getNodeKey();
 
 			if (getTrx().hasRightSibling()) {
@@ -130,16 +130,16 @@ public final class FollowingAxis extends AbstractAxis {
 				mRightSiblingStack.push(getTrx().getRightSiblingKey());
 			}
 
-			getTrx().moveTo(currKey);
+			getTrx().tryMoveTo(currKey);
 			return key;
 		}
 
 		if (mRightSiblingStack.isEmpty()) {
 			// Try to find the right sibling of one of the ancestors.
 			while (getTrx().hasParent()) {
-				getTrx().moveToParent();
+				getTrx().tryMoveToParent();
 				if (getTrx().hasRightSibling()) {
-					getTrx().moveToRightSibling();
+					getTrx().tryMoveToRightSibling();
 					final long key = getTrx().getNodeKey();
 
 					if (getTrx().hasRightSibling()) {
@@ -148,13 +148,13 @@ public final class FollowingAxis extends AbstractAxis {
 						mRightSiblingStack.push(getTrx().getRightSiblingKey());
 					}
 
-					getTrx().moveTo(currKey);
+					getTrx().tryMoveTo(currKey);
 					return key;
 				}
 			}
 		} else {
 			// Get root key of sibling subtree.
-			getTrx().moveTo(mRightSiblingStack.pop());
+			getTrx().tryMoveTo(mRightSiblingStack.pop());
 			final long key = getTrx().getNodeKey();
 
 			if (getTrx().hasRightSibling()) {
@@ -162,7 +162,7 @@ public final class FollowingAxis extends AbstractAxis {
 				mRightSiblingStack.push(getTrx().getRightSiblingKey());
 			}
 
-			getTrx().moveTo(currKey);
+			getTrx().tryMoveTo(currKey);
 			return key;
 		}
 
@@ -248,14 +248,14 @@ public final class LevelOrderAxis extends AbstractAxis {
 		if (rtx.getKind() == Kind.ELEMENT
 				&& mIncludeNodes == IncludeNodes.NONSTRUCTURAL) {
 			for (int i = 0, nspCount = rtx.getNamespaceCount(); i < nspCount; i++) {
-				rtx.moveToNamespace(i);
+				rtx.tryMoveToNamespace(i);
 				mFirstChilds.add(rtx.getNodeKey());
-				rtx.moveToParent();
+				rtx.tryMoveToParent();
 			}
 			for (int i = 0, attCount = rtx.getAttributeCount(); i < attCount; i++) {
-				rtx.moveToAttribute(i);
+				rtx.tryMoveToAttribute(i);
 				mFirstChilds.add(rtx.getNodeKey());
-				rtx.moveToParent();
+				rtx.tryMoveToParent();
 			}
 		}
 	}
@@ -111,17 +111,17 @@ public final class NonStructuralWrapperAxis extends AbstractAxis {
 	 */
 	private long nonStructural(final NodeReadTrx trx) {
 		if (trx.isNamespace()) {
-			trx.moveToParent();
+			trx.tryMoveToParent();
 		}
 		if (trx.isElement() && mNspIndex < trx.getNamespaceCount()) {
-			trx.moveToNamespace(mNspIndex++);
+			trx.tryMoveToNamespace(mNspIndex++);
 			return trx.getNodeKey();
 		}
 		if (trx.isAttribute()) {
-			trx.moveToParent();
+			trx.tryMoveToParent();
 		}
 		if (trx.isElement() && mAttIndex < trx.getAttributeCount()) {
-			trx.moveToAttribute(mAttIndex++);
+			trx.tryMoveToAttribute(mAttIndex++);
 			return trx.getNodeKey();
 		}
 		return Fixed.NULL_NODE_KEY.getStandardProperty();
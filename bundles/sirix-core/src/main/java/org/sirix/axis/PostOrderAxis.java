@@ -91,13 +91,13 @@ public final class PostOrderAxis extends AbstractAxis {
 
 		// Move down in the tree if it hasn't moved down before.
 		if ((!mMovedToParent && rtx.hasFirstChild())
-				|| (rtx.hasRightSibling() && (rtx.moveToRightSibling().hasMoved()))) {
+				|| (rtx.hasRightSibling() && rtx.tryMoveToRightSibling())) {
 			while (rtx.hasFirstChild()) {
-				rtx.moveToFirstChild();
+				rtx.tryMoveToFirstChild();
 			}
 
 			final long key = rtx.getNodeKey();
-			getTrx().moveTo(currKey);
+			getTrx().tryMoveTo(currKey);
 			return key;
 		}
 
@@ -126,7 +126,7 @@ public final class PostOrderAxis extends AbstractAxis {
 		}
 
 		// Move back to current node.
-		rtx.moveTo(currKey);
+		rtx.tryMoveTo(currKey);
 		return key;
 	}
 }
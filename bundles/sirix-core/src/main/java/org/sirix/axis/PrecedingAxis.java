@@ -90,7 +90,7 @@ public final class PrecedingAxis extends AbstractAxis {
 		}
 
 		if (rtx.hasLeftSibling()) {
-			getTrx().moveToLeftSibling();
+			getTrx().tryMoveToLeftSibling();
 			/*
 			 * Because this axis return the precedings in reverse document order, we
 			 * need to iterate to the node in the subtree, that comes last in document
@@ -98,19 +98,19 @@ public final class PrecedingAxis extends AbstractAxis {
 			 */
 			getLastChild();
 			final long nodeKey = rtx.getNodeKey();
-			getTrx().moveTo(key);
+			getTrx().tryMoveTo(key);
 			return nodeKey;
 		}
 
 		while (rtx.hasParent()) {
 			// Ancestors are not part of the preceding set.
-			getTrx().moveToParent();
+			getTrx().tryMoveToParent();
 			if (rtx.hasLeftSibling()) {
-				getTrx().moveToLeftSibling();
+				getTrx().tryMoveToLeftSibling();
 				// Move to last node in the subtree.
 				getLastChild();
 				final long nodeKey = rtx.getNodeKey();
-				getTrx().moveTo(key);
+				getTrx().tryMoveTo(key);
 				return nodeKey;
 			}
 		}
@@ -137,7 +137,7 @@ public final class PrecedingAxis extends AbstractAxis {
 		if (rtx.hasFirstChild()) {
 			while (rtx.hasFirstChild()) {
 				mStack.push(rtx.getNodeKey());
-				getTrx().moveToFirstChild();
+				getTrx().tryMoveToFirstChild();
 			}
 
 			/*
@@ -146,7 +146,7 @@ public final class PrecedingAxis extends AbstractAxis {
 			 */
 			while (rtx.hasRightSibling()) {
 				mStack.push(rtx.getNodeKey());
-				getTrx().moveToRightSibling();
+				getTrx().tryMoveToRightSibling();
 				getLastChild();
 			}
 
@@ -159,14 +159,14 @@ public final class PrecedingAxis extends AbstractAxis {
 				mStack.push(rtx.getNodeKey());
 				while (rtx.hasParent() && (rtx.getParentKey() != parent)) {
 
-					getTrx().moveToParent();
+					getTrx().tryMoveToParent();
 
 					/*
 					 * Traverse all the siblings of the leftmost leave and all their
 					 * descendants and push all of them to the stack
 					 */
 					while (rtx.hasRightSibling()) {
-						getTrx().moveToRightSibling();
+						getTrx().tryMoveToRightSibling();
 						getLastChild();
 						mStack.push(rtx.getNodeKey());
 					}
@@ -176,7 +176,7 @@ public final class PrecedingAxis extends AbstractAxis {
 				 * Set transaction to the node in the subtree that is last in document
 				 * order.
 				 */
-				getTrx().moveTo(mStack.pop());
+				getTrx().tryMoveTo(mStack.pop());
 			}
 		}
 	}
@@ -78,14 +78,14 @@ public final class PrecedingSiblingAxis extends AbstractAxis {
 			} else {
 				if (rtx.hasParent()) {
 					final long startNodeKey = rtx.getNodeKey();
-					rtx.moveToParent();
-					rtx.moveToFirstChild();
+					rtx.tryMoveToParent();
+					rtx.tryMoveToFirstChild();
 
 					if (rtx.getNodeKey() == startNodeKey) {
 						return Fixed.NULL_NODE_KEY.getStandardProperty();
 					} else {
 						final long key = rtx.getNodeKey();
-						rtx.moveTo(startNodeKey);
+						rtx.tryMoveTo(startNodeKey);
 						return key;
 					}
 				}
@@ -73,7 +73,7 @@ public abstract class AbstractFilter implements Filter, Predicate<Long> {
 
 	@Override
 	public boolean apply(final @Nullable Long nodeKey) {
-		mRtx.moveTo(checkNotNull(nodeKey));
+		mRtx.tryMoveTo(checkNotNull(nodeKey));
 		return filter();
 	}
 }
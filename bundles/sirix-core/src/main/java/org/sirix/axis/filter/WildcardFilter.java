@@ -85,12 +85,12 @@ public final class WildcardFilter extends AbstractFilter {
 			} else { // namespace prefix is given
 				final int prefixKey = mKnownPartKey;
 				for (int i = 0, nsCount = getTrx().getNamespaceCount(); i < nsCount; i++) {
-					getTrx().moveToNamespace(i);
+					getTrx().tryMoveToNamespace(i);
 					if (getTrx().getPrefixKey() == prefixKey) {
-						getTrx().moveToParent();
+						getTrx().tryMoveToParent();
 						return true;
 					}
-					getTrx().moveToParent();
+					getTrx().tryMoveToParent();
 				}
 				return false;
 			}
@@ -45,7 +45,7 @@ public final class AllTimeAxis extends AbstractTemporalAxis {
 	protected NodeReadTrx computeNext() {
 		if (mRevision <= mSession.getMostRecentRevisionNumber()) {
 			mRtx = mSession.beginNodeReadTrx(mRevision++);
-			return mRtx.moveTo(mNodeKey).hasMoved() ? mRtx : endOfData();
+			return mRtx.tryMoveTo(mNodeKey) ? mRtx : endOfData();
 		} else {
 			return endOfData();
 		}
@@ -43,7 +43,7 @@ public final class FirstAxis extends AbstractTemporalAxis {
 		if (mFirst) {
 			mFirst = false;
 				mRtx = mSession.beginNodeReadTrx(1);
-			return mRtx.moveTo(mNodeKey).hasMoved() ? mRtx : endOfData();
+			return mRtx.tryMoveTo(mNodeKey) ? mRtx : endOfData();
 		} else {
 			return endOfData();
 		}
@@ -61,7 +61,7 @@ public final class FutureAxis extends AbstractTemporalAxis {
 		// != a little bit faster?
 		if (mRevision <= mSession.getMostRecentRevisionNumber()) {
 			mRtx = mSession.beginNodeReadTrx(mRevision++);
-			return mRtx.moveTo(mNodeKey).hasMoved() ? mRtx : endOfData();
+			return mRtx.tryMoveTo(mNodeKey) ? mRtx : endOfData();
 		} else {
 			return endOfData();
 		}
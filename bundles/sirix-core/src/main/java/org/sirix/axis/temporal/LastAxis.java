@@ -44,7 +44,7 @@ public final class LastAxis extends AbstractTemporalAxis {
 			mFirst = false;
 				mRtx = mSession
 						.beginNodeReadTrx(mSession.getMostRecentRevisionNumber());
-			return mRtx.moveTo(mNodeKey).hasMoved() ? mRtx : endOfData();
+			return mRtx.tryMoveTo(mNodeKey) ? mRtx : endOfData();
 		} else {
 			return endOfData();
 		}
@@ -48,7 +48,7 @@ public final class NextAxis extends AbstractTemporalAxis {
 		if (mRevision <= mSession.getMostRecentRevisionNumber() && mFirst) {
 			mFirst = false;
 			mRtx = mSession.beginNodeReadTrx(mRevision);
-			return mRtx.moveTo(mNodeKey).hasMoved() ? mRtx : endOfData();
+			return mRtx.tryMoveTo(mNodeKey) ? mRtx : endOfData();
 		} else {
 			return endOfData();
 		}
@@ -59,7 +59,7 @@ public final class PastAxis extends AbstractTemporalAxis {
 	protected NodeReadTrx computeNext() {
 		if (mRevision > 0) {
 			mRtx = mSession.beginNodeReadTrx(mRevision--);
-			return mRtx.moveTo(mNodeKey).hasMoved() ? mRtx : endOfData();
+			return mRtx.tryMoveTo(mNodeKey) ? mRtx : endOfData();
 		} else {
 			return endOfData();
 		}
@@ -49,7 +49,7 @@ public final class PreviousAxis extends AbstractTemporalAxis {
 		if (mRevision > 0 && mFirst) {
 			mFirst = false;
 			mRtx = mSession.beginNodeReadTrx(mRevision);
-			return mRtx.moveTo(mNodeKey).hasMoved() ? mRtx : endOfData();
+			return mRtx.tryMoveTo(mNodeKey) ? mRtx : endOfData();
 		} else {
 			return endOfData();
 		}
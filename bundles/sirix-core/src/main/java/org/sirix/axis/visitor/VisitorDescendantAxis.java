@@ -236,11 +236,11 @@ public final class VisitorDescendantAxis extends AbstractAxis {
 			final @Nonnegative long currKey) {
 		// Fail if the subtree is finished.
 		final NodeReadTrx rtx = getTrx();
-		rtx.moveTo(nextKey);
+		rtx.tryMoveTo(nextKey);
 		if (rtx.getLeftSiblingKey() == getStartKey()) {
 			return Fixed.NULL_NODE_KEY.getStandardProperty();
 		} else {
-			rtx.moveTo(currKey);
+			rtx.tryMoveTo(currKey);
 			return nextKey;
 		}
 	}
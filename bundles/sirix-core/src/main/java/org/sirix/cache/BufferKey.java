@@ -0,0 +1,94 @@
+package org.sirix.cache;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nullable;
+
+import org.sirix.page.PageKind;
+
+import com.google.common.base.Objects;
+
+/**
+ * Key of a record page, which is buffered for all transactions of a resource.
+ * As stored pages are never modified, a page is identified by the on-disk key
+ * of its most recent version. The number of versions, which have to be
+ * combined, is part of the key as it depends on the revision to read.
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
+public final class BufferKey {
+
+	/** The kind of page. */
+	private final PageKind mPageKind;
+
+	/** The index number or {@code -1}, if it's a regular record page. */
+	private final int mIndex;
+
+	/** The on-disk key of the most recent version of the page. */
+	private final long mKey;
+
+	/** The number of versions to combine. */
+	private final int mVersions;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param pageKind
+	 *          the kind of page
+	 * @param index
+	 *          the index number or {@code -1}, if it's a regular record page
+	 * @param key
+	 *          the on-disk key of the most recent version of the page
+	 * @param versions
+	 *          the number of versions to combine
+	 */
+	public BufferKey(final PageKind pageKind, final int index,
+			final long key, final @Nonnegative int versions) {
+		assert index >= -1;
+		assert versions >= 0;
+		mPageKind = checkNotNull(pageKind);
+		mIndex = index;
+		mKey = key;
+		mVersions = versions;
+	}
+
+	public PageKind getPageKind() {
+		return mPageKind;
+	}
+
+	public int getIndex() {
+		return mIndex;
+	}
+
+	public long getKey() {
+		return mKey;
+	}
+
+	public int getVersions() {
+		return mVersions;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hashCode(mPageKind, mIndex, mKey, mVersions);
+	}
+
+	@Override
+	public boolean equals(final @Nullable Object obj) {
+		if (obj instanceof BufferKey) {
+			final BufferKey other = (BufferKey) obj;
+			return mPageKind == other.mPageKind && mIndex == other.mIndex
+					&& mKey == other.mKey && mVersions == other.mVersions;
+		}
+		return false;
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this).add("pageKind", mPageKind)
+				.add("index", mIndex).add("key", mKey).add("versions", mVersions)
+				.toString();
+	}
+}
@@ -0,0 +1,197 @@
+package org.sirix.cache;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import javax.annotation.Nonnegative;
+
+import org.sirix.page.PageKind;
+
+import com.google.common.base.Objects;
+
+/**
+ * Thread-safe statistics of the caches of one kind of page, which are
+ * aggregated across all transactions of a resource. Transactions record each
+ * lookup, whereas the buffer shared by all reading transactions records its
+ * hits, the pages it has loaded and evicted. Writing transactions record the
+ * pages loaded into and removed from their own caches.
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
+public final class CacheStatistics implements CacheStatisticsMXBean {
+
+	/** The kind of page. */
+	private final PageKind mPageKind;
+
+	/** Number of lookups. */
+	private final LongAdder mRequests;
+
+	/** Number of loaded pages. */
+	private final LongAdder mMisses;
+
+	/** Number of lookups, which have found a page in the buffer. */
+	private final LongAdder mBufferHits;
+
+	/** Time spent loading pages in nanoseconds. */
+	private final LongAdder mLoadTime;
+
+	/** Number of evicted pages. */
+	private final LongAdder mEvictions;
+
+	/** Approximate number of bytes of the cached pages. */
+	private final AtomicLong mResidentBytes;
+
+	/** Supplies the approximate number of bytes of the buffered pages. */
+	private final LongSupplier mBufferedBytes;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param pageKind
+	 *          the kind of page
+	 * @param bufferedBytes
+	 *          supplies the approximate number of bytes of the pages of the kind
+	 *          in the buffer shared by all reading transactions
+	 */
+	public CacheStatistics(final PageKind pageKind,
+			final LongSupplier bufferedBytes) {
+		mPageKind = checkNotNull(pageKind);
+		mBufferedBytes = checkNotNull(bufferedBytes);
+		mRequests = new LongAdder();
+		mMisses = new LongAdder();
+		mBufferHits = new LongAdder();
+		mLoadTime = new LongAdder();
+		mEvictions = new LongAdder();
+		mResidentBytes = new AtomicLong();
+	}
+
+	/**
+	 * Record a cache lookup.
+	 */
+	public void recordRequest() {
+		mRequests.increment();
+	}
+
+	/**
+	 * Record a lookup, which has found a page in the buffer.
+	 */
+	public void recordBufferHit() {
+		mBufferHits.increment();
+	}
+
+	/**
+	 * Record a page, which has been evicted from the buffer.
+	 */
+	public void recordEviction() {
+		mEvictions.increment();
+	}
+
+	/**
+	 * Record a page, which has been loaded because of a cache miss.
+	 *
+	 * @param loadTime
+	 *          the time spent loading the page in nanoseconds
+	 * @param weight
+	 *          the approximate number of bytes of the page
+	 */
+	public void recordLoad(final @Nonnegative long loadTime,
+			final @Nonnegative long weight) {
+		mMisses.increment();
+		mLoadTime.add(loadTime);
+		mResidentBytes.addAndGet(weight);
+	}
+
+	/**
+	 * Record a page, which has been removed from a cache.
+	 *
+	 * @param weight
+	 *          the approximate number of bytes of the page
+	 * @param evicted
+	 *          {@code true}, if the page has been evicted because of the size of
+	 *          the cache or its expiration, {@code false}, if it has been removed
+	 *          explicitly
+	 */
+	public void recordRemoval(final @Nonnegative long weight,
+			final boolean evicted) {
+		if (evicted) {
+			mEvictions.increment();
+		}
+		mResidentBytes.addAndGet(-weight);
+	}
+
+	/**
+	 * Get the kind of page.
+	 *
+	 * @return the kind of page
+	 */
+	public PageKind getPageKind() {
+		return mPageKind;
+	}
+
+	@Override
+	public long getRequestCount() {
+		return mRequests.sum();
+	}
+
+	@Override
+	public long getHitCount() {
+		return Math.max(0, mRequests.sum() - mMisses.sum());
+	}
+
+	@Override
+	public long getMissCount() {
+		return mMisses.sum();
+	}
+
+	@Override
+	public long getBufferHitCount() {
+		return mBufferHits.sum();
+	}
+
+	@Override
+	public double getHitRate() {
+		final long requests = mRequests.sum();
+		return requests == 0 ? 1.0 : (double) getHitCount() / requests;
+	}
+
+	@Override
+	public long getTotalLoadTime() {
+		return mLoadTime.sum();
+	}
+
+	@Override
+	public double getAverageLoadPenalty() {
+		final long misses = mMisses.sum();
+		return misses == 0 ? 0.0 : (double) mLoadTime.sum() / misses;
+	}
+
+	@Override
+	public long getEvictionCount() {
+		return mEvictions.sum();
+	}
+
+	@Override
+	public long getResidentBytes() {
+		return mResidentBytes.get();
+	}
+
+	@Override
+	public long getBufferedBytes() {
+		return mBufferedBytes.getAsLong();
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this).add("pageKind", mPageKind)
+				.add("hits", getHitCount()).add("misses", getMissCount())
+				.add("bufferHits", getBufferHitCount())
+				.add("loadTime", getTotalLoadTime())
+				.add("evictions", getEvictionCount())
+				.add("residentBytes", getResidentBytes())
+				.add("bufferedBytes", getBufferedBytes()).toString();
+	}
+}
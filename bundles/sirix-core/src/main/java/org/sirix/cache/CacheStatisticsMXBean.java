@@ -0,0 +1,87 @@
+package org.sirix.cache;
+
+/**
+ * Management interface of the {@link CacheStatistics} of one kind of page of a
+ * resource.
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
+public interface CacheStatisticsMXBean {
+
+	/**
+	 * Get the number of cache lookups.
+	 *
+	 * @return the number of cache lookups
+	 */
+	long getRequestCount();
+
+	/**
+	 * Get the number of lookups, which have found a cached page.
+	 *
+	 * @return the number of hits
+	 */
+	long getHitCount();
+
+	/**
+	 * Get the number of lookups, which have loaded the page from the storage.
+	 *
+	 * @return the number of misses
+	 */
+	long getMissCount();
+
+	/**
+	 * Get the number of lookups in the buffer shared by all reading
+	 * transactions, which have found a buffered page.
+	 *
+	 * @return the number of buffer hits
+	 */
+	long getBufferHitCount();
+
+	/**
+	 * Get the ratio of hits to lookups.
+	 *
+	 * @return the hit rate or {@code 1.0}, if there hasn't been any lookup
+	 */
+	double getHitRate();
+
+	/**
+	 * Get the total time spent loading pages.
+	 *
+	 * @return the total load time in nanoseconds
+	 */
+	long getTotalLoadTime();
+
+	/**
+	 * Get the average time spent loading a page.
+	 *
+	 * @return the average load time in nanoseconds
+	 */
+	double getAverageLoadPenalty();
+
+	/**
+	 * Get the number of pages, which have been evicted from the buffer or the
+	 * caches of writing transactions because of their size or the expiration of
+	 * the pages.
+	 *
+	 * @return the number of evictions
+	 */
+	long getEvictionCount();
+
+	/**
+	 * Get the approximate number of bytes of the pages cached by the
+	 * transactions, which doesn't include the pages reading transactions
+	 * reference from the buffer.
+	 *
+	 * @return the approximate number of bytes
+	 */
+	long getResidentBytes();
+
+	/**
+	 * Get the approximate number of bytes of the pages in the buffer shared by
+	 * all reading transactions.
+	 *
+	 * @return the approximate number of bytes
+	 */
+	long getBufferedBytes();
+}
@@ -0,0 +1,172 @@
+package org.sirix.cache;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nullable;
+
+import org.brackit.xquery.atomic.QNm;
+import org.sirix.node.Kind;
+
+import com.google.common.base.Objects;
+
+/**
+ * Cache of the qualified names of the nodes of a revision. The name keys of
+ * the nodes are resolved only once and all nodes with the same name share a
+ * single {@link QNm} instance. As the nodes of the pages in the buffer of a
+ * resource are shared by transactions, the cache is thread-safe.
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
+public final class NameCache {
+
+	/** Resolves a name key of a kind of node. */
+	@FunctionalInterface
+	public interface NameResolver {
+		/**
+		 * Get the name of a name key.
+		 *
+		 * @param key
+		 *          the name key
+		 * @param kind
+		 *          the kind of node
+		 * @return the name or {@code null}, if the key doesn't exist
+		 */
+		@Nullable
+		String getName(int key, Kind kind);
+	}
+
+	/** Cached name, whereas names with the same prefix and local name are chained. */
+	private static final class Entry {
+		/** The kind of node. */
+		private final Kind mKind;
+
+		/** The name key of the namespace URI. */
+		private final int mURIKey;
+
+		/** The qualified name. */
+		private final QNm mName;
+
+		/** The next entry with the same prefix and local name keys. */
+		private final Entry mNext;
+
+		private Entry(final Kind kind, final int uriKey, final QNm name,
+				final @Nullable Entry next) {
+			mKind = kind;
+			mURIKey = uriKey;
+			mName = name;
+			mNext = next;
+		}
+	}
+
+	/** Resolves the name keys. */
+	private final NameResolver mResolver;
+
+	/** Cached names, whose prefix and local name keys are combined. */
+	private final ConcurrentMap<Long, Entry> mNames;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param resolver
+	 *          resolves the name keys of the revision
+	 */
+	public NameCache(final NameResolver resolver) {
+		mResolver = checkNotNull(resolver);
+		mNames = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Get the qualified name of a node.
+	 *
+	 * @param uriKey
+	 *          the name key of the namespace URI
+	 * @param prefixKey
+	 *          the name key of the prefix or {@code -1}, if there's no prefix
+	 * @param localNameKey
+	 *          the name key of the local name or {@code -1}, if there's no local
+	 *          name
+	 * @param kind
+	 *          the kind of node, whose prefix and local name keys are resolved
+	 * @return the shared {@link QNm} instance
+	 */
+	public QNm getName(final int uriKey, final int prefixKey,
+			final int localNameKey, final Kind kind) {
+		final long key = ((long) prefixKey << 32) | (localNameKey & 0xFFFFFFFFL);
+		final Entry entry = find(mNames.get(key), uriKey, kind);
+		if (entry != null) {
+			return entry.mName;
+		}
+		final Entry first = mNames.compute(key, (k, head) -> find(head, uriKey,
+				kind) == null ? new Entry(kind, uriKey, resolve(uriKey, prefixKey,
+				localNameKey, kind), head) : head);
+		return find(first, uriKey, kind).mName;
+	}
+
+	/**
+	 * Find the entry of a namespace URI and a kind of node.
+	 *
+	 * @param first
+	 *          the first entry of the chain or {@code null}
+	 * @param uriKey
+	 *          the name key of the namespace URI
+	 * @param kind
+	 *          the kind of node
+	 * @return the entry or {@code null}, if it isn't cached
+	 */
+	private static Entry find(final @Nullable Entry first, final int uriKey,
+			final Kind kind) {
+		for (Entry entry = first; entry != null; entry = entry.mNext) {
+			if (entry.mURIKey == uriKey && entry.mKind == kind) {
+				return entry;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Resolve the name keys of a node.
+	 *
+	 * @param uriKey
+	 *          the name key of the namespace URI
+	 * @param prefixKey
+	 *          the name key of the prefix
+	 * @param localNameKey
+	 *          the name key of the local name
+	 * @param kind
+	 *          the kind of node
+	 * @return the qualified name
+	 */
+	private QNm resolve(final int uriKey, final int prefixKey,
+			final int localNameKey, final Kind kind) {
+		final String uri = mResolver.getName(uriKey, Kind.NAMESPACE);
+		final String prefix = prefixKey == -1 ? "" : mResolver.getName(prefixKey,
+				kind);
+		final String localName = localNameKey == -1 ? "" : mResolver.getName(
+				localNameKey, kind);
+		return new QNm(uri, prefix, localName);
+	}
+
+	/**
+	 * Get the number of cached names.
+	 *
+	 * @return the number of cached names
+	 */
+	public int size() {
+		int size = 0;
+		for (final Entry first : mNames.values()) {
+			for (Entry entry = first; entry != null; entry = entry.mNext) {
+				size++;
+			}
+		}
+		return size;
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this).add("names", size()).toString();
+	}
+}
@@ -0,0 +1,392 @@
+package org.sirix.cache;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nullable;
+
+import org.sirix.io.bytepipe.ByteBufferPool;
+
+import com.google.common.base.Objects;
+
+/**
+ * Thread-safe second-level cache of pages, which keeps the decompressed bytes
+ * of serialized pages in direct memory outside of the Java heap. Thus, the
+ * cached pages neither inflate the heap nor the pauses of the garbage
+ * collector, whereas only a small descriptor per page resides on the heap.
+ * Pages are identified by their key in the storage, as stored pages are never
+ * modified.
+ *
+ * <p>
+ * The direct memory is allocated lazily in chunks of up to 64 MB, whereas the
+ * remainder of the capacity is allocated in smaller chunks, such that the whole
+ * capacity is used. Each chunk has a power of two size and is divided into
+ * blocks by a buddy allocator: a larger free block is split for a smaller page
+ * and a freed block is merged with its neighbour of the same size (its buddy),
+ * if the neighbour is free as well. If no free block is large enough, the least
+ * recently used page of the same or a larger size is evicted. Pages, which are
+ * larger than a chunk, are not cached.
+ * </p>
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
+public final class OffHeapPageCache {
+
+	/** Maximum size of a chunk of direct memory (64 MB). */
+	static final int CHUNK_SIZE = 1 << 26;
+
+	/** Size of the smallest block (256 bytes). */
+	static final int MIN_BLOCK_SIZE = 1 << 8;
+
+	/** Block of direct memory, whose offset is a multiple of its size. */
+	private static final class Block {
+		/** Index of the chunk. */
+		private final int mChunk;
+
+		/** Offset of the block within the chunk. */
+		private final int mOffset;
+
+		/** Size class of the block. */
+		private final int mSizeClass;
+
+		/** Number of bytes of the page stored in the block. */
+		private int mLength;
+
+		private Block(final int chunk, final int offset, final int sizeClass) {
+			mChunk = chunk;
+			mOffset = offset;
+			mSizeClass = sizeClass;
+		}
+	}
+
+	/** Maximum number of bytes of direct memory. */
+	private final long mCapacity;
+
+	/** Maximum size of a chunk. */
+	private final int mChunkSize;
+
+	/** Allocated chunks of direct memory. */
+	private final List<ByteBuffer> mChunks;
+
+	/** Number of bytes of the allocated chunks. */
+	private long mAllocated;
+
+	/**
+	 * Free blocks of each size class by their position (see
+	 * {@link #position(int, int)}), such that blocks at the beginning of the
+	 * chunks are used first.
+	 */
+	private final TreeMap<Long, Block>[] mFree;
+
+	/** Blocks of the cached pages of each size class in LRU order. */
+	private final LinkedHashMap<Long, Block>[] mEntries;
+
+	/** Blocks of all cached pages. */
+	private final Map<Long, Block> mIndex;
+
+	/** Number of bytes of the cached pages. */
+	private long mSize;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param capacity
+	 *          the maximum number of bytes of direct memory
+	 */
+	@SuppressWarnings("unchecked")
+	public OffHeapPageCache(final @Nonnegative long capacity) {
+		checkArgument(capacity > 0, "capacity must be > 0!");
+		mCapacity = capacity;
+		mChunkSize = (int) Math.max(MIN_BLOCK_SIZE,
+				Math.min(CHUNK_SIZE, Long.highestOneBit(capacity)));
+		final int sizeClasses = sizeClass(mChunkSize) + 1;
+		mFree = new TreeMap[sizeClasses];
+		mEntries = new LinkedHashMap[sizeClasses];
+		for (int i = 0; i < sizeClasses; i++) {
+			mFree[i] = new TreeMap<>();
+			mEntries[i] = new LinkedHashMap<>(16, 0.75f, true);
+		}
+		mChunks = new ArrayList<>();
+		mIndex = new HashMap<>();
+	}
+
+	/**
+	 * Get the size class of a number of bytes.
+	 *
+	 * @param length
+	 *          the number of bytes
+	 * @return the index of the smallest size class, which is able to hold the
+	 *         bytes
+	 */
+	private static int sizeClass(final @Nonnegative int length) {
+		if (length <= MIN_BLOCK_SIZE) {
+			return 0;
+		}
+		return 32 - Integer.numberOfLeadingZeros(length - 1)
+				- Integer.numberOfTrailingZeros(MIN_BLOCK_SIZE);
+	}
+
+	/**
+	 * Get the position of a block, which identifies free blocks.
+	 *
+	 * @param chunk
+	 *          the index of the chunk
+	 * @param offset
+	 *          the offset of the block within the chunk
+	 * @return the position
+	 */
+	private static long position(final int chunk, final int offset) {
+		return ((long) chunk << 32) | offset;
+	}
+
+	/**
+	 * Get a copy of the bytes of a cached page.
+	 *
+	 * @param key
+	 *          the key of the page in the storage
+	 * @param pool
+	 *          the pool to acquire the copy from
+	 * @return a flipped buffer holding the bytes of the page, which has to be
+	 *         released to the pool, or {@code null}, if the page isn't cached
+	 */
+	public synchronized @Nullable ByteBuffer get(final long key,
+			final ByteBufferPool pool) {
+		checkNotNull(pool);
+		final Block block = mIndex.get(key);
+		if (block == null) {
+			return null;
+		}
+		// Mark the page as recently used.
+		mEntries[block.mSizeClass].get(key);
+		final ByteBuffer chunk = mChunks.get(block.mChunk);
+		chunk.clear();
+		chunk.position(block.mOffset).limit(block.mOffset + block.mLength);
+		final ByteBuffer page = pool.acquire(block.mLength);
+		page.put(chunk);
+		page.flip();
+		return page;
+	}
+
+	/**
+	 * Cache the remaining bytes of a page. The position of the given buffer is
+	 * not changed.
+	 *
+	 * @param key
+	 *          the key of the page in the storage
+	 * @param page
+	 *          the decompressed bytes of the serialized page
+	 * @return {@code true}, if the page is cached, {@code false} otherwise
+	 */
+	public synchronized boolean put(final long key, final ByteBuffer page) {
+		checkNotNull(page);
+		if (mIndex.containsKey(key)) {
+			// Stored pages are never modified.
+			return true;
+		}
+		final int length = page.remaining();
+		if (length > mChunkSize) {
+			return false;
+		}
+		final int sizeClass = sizeClass(length);
+		final Block block = allocate(sizeClass);
+		if (block == null) {
+			return false;
+		}
+		block.mLength = length;
+		final ByteBuffer chunk = mChunks.get(block.mChunk);
+		chunk.clear();
+		chunk.position(block.mOffset);
+		chunk.put(page.duplicate());
+		mEntries[sizeClass].put(key, block);
+		mIndex.put(key, block);
+		mSize += length;
+		return true;
+	}
+
+	/**
+	 * Allocate a block.
+	 *
+	 * @param sizeClass
+	 *          the size class of the block
+	 * @return the block or {@code null}, if no block can be made available
+	 */
+	private Block allocate(final int sizeClass) {
+		Block block = allocateFree(sizeClass);
+		if (block != null) {
+			return block;
+		}
+
+		// Allocate a new chunk, which is smaller for the remainder of the
+		// capacity.
+		final int chunkSize = (int) Math.min(mChunkSize,
+				Long.highestOneBit(mCapacity - mAllocated));
+		if (chunkSize >= MIN_BLOCK_SIZE << sizeClass) {
+			mChunks.add(ByteBuffer.allocateDirect(chunkSize));
+			mAllocated += chunkSize;
+			return split(new Block(mChunks.size() - 1, 0, sizeClass(chunkSize)),
+					sizeClass);
+		}
+
+		// Evict a page, whose block is at least as large as the requested one.
+		for (int evicted = sizeClass; evicted < mFree.length; evicted++) {
+			if (!mEntries[evicted].isEmpty()) {
+				free(evict(evicted));
+				block = allocateFree(sizeClass);
+				assert block != null;
+				return block;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Allocate the smallest free block, which is large enough, and split it.
+	 *
+	 * @param sizeClass
+	 *          the size class of the block
+	 * @return the block or {@code null}, if no free block is large enough
+	 */
+	private Block allocateFree(final int sizeClass) {
+		for (int larger = sizeClass; larger < mFree.length; larger++) {
+			final Map.Entry<Long, Block> free = mFree[larger].pollFirstEntry();
+			if (free != null) {
+				return split(free.getValue(), sizeClass);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Free a block and merge it with its buddy as long as the buddy is free.
+	 *
+	 * @param block
+	 *          the block to free
+	 */
+	private void free(final Block block) {
+		final int chunk = block.mChunk;
+		final int chunkSizeClass = sizeClass(mChunks.get(chunk).capacity());
+		int offset = block.mOffset;
+		int sizeClass = block.mSizeClass;
+		while (sizeClass < chunkSizeClass) {
+			final int buddy = offset ^ (MIN_BLOCK_SIZE << sizeClass);
+			if (mFree[sizeClass].remove(position(chunk, buddy)) == null) {
+				break;
+			}
+			offset = Math.min(offset, buddy);
+			sizeClass++;
+		}
+		mFree[sizeClass].put(position(chunk, offset), new Block(chunk, offset,
+				sizeClass));
+	}
+
+	/**
+	 * Evict the least recently used page of a size class.
+	 *
+	 * @param sizeClass
+	 *          the size class, which must have a cached page
+	 * @return the block of the evicted page
+	 */
+	private Block evict(final int sizeClass) {
+		final Iterator<Map.Entry<Long, Block>> it = mEntries[sizeClass]
+				.entrySet().iterator();
+		final Map.Entry<Long, Block> eldest = it.next();
+		it.remove();
+		mIndex.remove(eldest.getKey());
+		mSize -= eldest.getValue().mLength;
+		return eldest.getValue();
+	}
+
+	/**
+	 * Split a block, whereas the unused upper halves are freed.
+	 *
+	 * @param block
+	 *          the block to split
+	 * @param sizeClass
+	 *          the size class of the requested block
+	 * @return the requested block at the start of the split block
+	 */
+	private Block split(final Block block, final int sizeClass) {
+		for (int i = block.mSizeClass - 1; i >= sizeClass; i--) {
+			final int offset = block.mOffset + (MIN_BLOCK_SIZE << i);
+			mFree[i].put(position(block.mChunk, offset), new Block(block.mChunk,
+					offset, i));
+		}
+		return block.mSizeClass == sizeClass ? block : new Block(block.mChunk,
+				block.mOffset, sizeClass);
+	}
+
+	/**
+	 * Remove a page from the cache.
+	 *
+	 * @param key
+	 *          the key of the page in the storage
+	 */
+	public synchronized void remove(final long key) {
+		final Block block = mIndex.remove(key);
+		if (block != null) {
+			mEntries[block.mSizeClass].remove(key);
+			mSize -= block.mLength;
+			free(block);
+		}
+	}
+
+	/**
+	 * Get the number of bytes of the cached pages.
+	 *
+	 * @return the number of bytes
+	 */
+	public synchronized long getSize() {
+		return mSize;
+	}
+
+	/**
+	 * Get the maximum number of bytes of direct memory.
+	 *
+	 * @return the maximum number of bytes
+	 */
+	public long getCapacity() {
+		return mCapacity;
+	}
+
+	/**
+	 * Get the number of cached pages.
+	 *
+	 * @return the number of cached pages
+	 */
+	public synchronized int size() {
+		return mIndex.size();
+	}
+
+	/**
+	 * Remove all pages from the cache and release the direct memory, once the
+	 * chunks are garbage collected.
+	 */
+	public synchronized void clear() {
+		for (int i = 0; i < mFree.length; i++) {
+			mFree[i].clear();
+			mEntries[i].clear();
+		}
+		mIndex.clear();
+		mChunks.clear();
+		mAllocated = 0;
+		mSize = 0;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return Objects.toStringHelper(this).add("pages", mIndex.size())
+				.add("size", mSize).add("capacity", mCapacity)
+				.add("chunks", mChunks.size()).toString();
+	}
+}
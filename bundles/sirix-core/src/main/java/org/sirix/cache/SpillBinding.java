@@ -0,0 +1,145 @@
+package org.sirix.cache;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.sirix.api.PageReadTrx;
+import org.sirix.page.PageKind;
+import org.sirix.page.PagePersistenter;
+import org.sirix.page.interfaces.KeyValuePage;
+import org.sirix.page.interfaces.Page;
+
+/**
+ * Binding of keys or values of a {@link SpillFileCache} to their serialized
+ * form.
+ *
+ * @author Johannes Lichtenberger
+ *
+ * @param <T>
+ *          the type of the keys or values
+ */
+public interface SpillBinding<T> {
+
+	/** Binding of {@code Long} keys. */
+	SpillBinding<Long> LONG = new SpillBinding<Long>() {
+		@Override
+		public void write(final DataOutput out, final Long value)
+				throws IOException {
+			out.writeLong(value);
+		}
+
+		@Override
+		public Long read(final DataInput in) throws IOException {
+			return in.readLong();
+		}
+	};
+
+	/** Binding of {@link IndexLogKey}s. */
+	SpillBinding<IndexLogKey> INDEX_LOG_KEY = new SpillBinding<IndexLogKey>() {
+		@Override
+		public void write(final DataOutput out, final IndexLogKey value)
+				throws IOException {
+			out.writeLong(value.getRecordPageKey());
+			out.writeInt(value.getIndex());
+		}
+
+		@Override
+		public IndexLogKey read(final DataInput in) throws IOException {
+			return new IndexLogKey(in.readLong(), in.readInt());
+		}
+	};
+
+	/** Binding of {@link IndirectPageLogKey}s. */
+	SpillBinding<IndirectPageLogKey> INDIRECT_PAGE_LOG_KEY = new SpillBinding<IndirectPageLogKey>() {
+		@Override
+		public void write(final DataOutput out, final IndirectPageLogKey value)
+				throws IOException {
+			out.writeByte(value.getPageKind().getID());
+			out.writeInt(value.getIndex());
+			out.writeInt(value.getLevel());
+			out.writeInt(value.getOffset());
+		}
+
+		@Override
+		public IndirectPageLogKey read(final DataInput in) throws IOException {
+			return new IndirectPageLogKey(PageKind.getKind(in.readByte()),
+					in.readInt(), in.readInt(), in.readInt());
+		}
+	};
+
+	/**
+	 * Get the binding of pages.
+	 *
+	 * @param pageReadTrx
+	 *          the transaction, which deserializes the pages
+	 * @return the binding
+	 */
+	static SpillBinding<Page> page(final PageReadTrx pageReadTrx) {
+		return new SpillBinding<Page>() {
+			@Override
+			public void write(final DataOutput out, final Page value)
+					throws IOException {
+				PagePersistenter.serializePage(out, value);
+			}
+
+			@Override
+			public Page read(final DataInput in) throws IOException {
+				return PagePersistenter.deserializePage(in, pageReadTrx);
+			}
+		};
+	}
+
+	/**
+	 * Get the binding of containers of record pages.
+	 *
+	 * @param pageReadTrx
+	 *          the transaction, which deserializes the pages
+	 * @return the binding
+	 */
+	static <T extends KeyValuePage<?, ?>> SpillBinding<RecordPageContainer<T>> pageContainer(
+			final PageReadTrx pageReadTrx) {
+		return new SpillBinding<RecordPageContainer<T>>() {
+			@Override
+			public void write(final DataOutput out,
+					final RecordPageContainer<T> value) throws IOException {
+				PagePersistenter.serializePage(out, value.getComplete());
+				PagePersistenter.serializePage(out, value.getModified());
+			}
+
+			@SuppressWarnings("unchecked")
+			@Override
+			public RecordPageContainer<T> read(final DataInput in)
+					throws IOException {
+				final T complete = (T) PagePersistenter.deserializePage(in,
+						pageReadTrx);
+				final T modified = (T) PagePersistenter.deserializePage(in,
+						pageReadTrx);
+				return new RecordPageContainer<>(complete, modified);
+			}
+		};
+	}
+
+	/**
+	 * Serialize a key or value.
+	 *
+	 * @param out
+	 *          the output to write to
+	 * @param value
+	 *          the key or value
+	 * @throws IOException
+	 *           if serializing fails
+	 */
+	void write(DataOutput out, T value) throws IOException;
+
+	/**
+	 * Deserialize a key or value.
+	 *
+	 * @param in
+	 *          the input to read from
+	 * @return the key or value
+	 * @throws IOException
+	 *           if deserializing fails
+	 */
+	T read(DataInput in) throws IOException;
+}
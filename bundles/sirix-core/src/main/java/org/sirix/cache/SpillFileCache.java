@@ -0,0 +1,396 @@
+package org.sirix.cache;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nullable;
+
+import org.sirix.exception.SirixIOException;
+import org.sirix.io.bytepipe.ByteBufferDataInput;
+import org.sirix.io.bytepipe.ByteBufferDataOutput;
+import org.sirix.io.bytepipe.ByteBufferPool;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Persistent second-level cache of a transaction log, which appends all
+ * entries to a single file and keeps the offsets of the entries in memory.
+ * Compared to a database environment, opening the log is cheap and entries are
+ * written with a single positional write.
+ *
+ * <p>
+ * Each record consists of its length, a CRC32 checksum, its kind, the key and,
+ * unless the entry has been removed, the value. When a log is opened, the
+ * offsets are recovered by scanning the records up to the first incomplete
+ * one. Records appended by another instance of the same log are indexed, as
+ * soon as a key isn't found. The checksum and the key of a record are verified
+ * on each read. If they don't match, for instance because another instance
+ * has cleared and rewritten the log, the whole log is indexed again.
+ * </p>
+ *
+ * @author Johannes Lichtenberger
+ *
+ * @param <K>
+ *          the key
+ * @param <V>
+ *          the value
+ */
+public final class SpillFileCache<K, V> extends AbstractPersistenceCache<K, V> {
+
+	/** Name of the file in the directory of the log. */
+	static final String FILE_NAME = "spill";
+
+	/** Header of a record, that is its length and its checksum. */
+	private static final int HEADER = 8;
+
+	/** Kind of a record, which stores an entry. */
+	private static final byte PUT = 0;
+
+	/** Kind of a record, which removes an entry. */
+	private static final byte REMOVE = 1;
+
+	/** Random access to the file. */
+	private final RandomAccessFile mFile;
+
+	/** Channel of the file. */
+	private final FileChannel mChannel;
+
+	/** Binding of the keys. */
+	private final SpillBinding<K> mKeyBinding;
+
+	/** Binding of the values. */
+	private final SpillBinding<V> mValueBinding;
+
+	/** Pool of buffers to serialize and read records. */
+	private final ByteBufferPool mBufferPool;
+
+	/** Offsets of the records of all entries. */
+	private final Map<K, Long> mIndex;
+
+	/** Offset behind the last indexed record. */
+	private long mEnd;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param file
+	 *          the resource directory
+	 * @param revision
+	 *          revision number
+	 * @param logType
+	 *          type of log to append to the path of the log
+	 * @param keyBinding
+	 *          binding of the keys
+	 * @param valueBinding
+	 *          binding of the values
+	 * @throws SirixIOException
+	 *           if the file can't be opened
+	 */
+	public SpillFileCache(final File file, final @Nonnegative int revision,
+			final String logType, final SpillBinding<K> keyBinding,
+			final SpillBinding<V> valueBinding) throws SirixIOException {
+		super(checkNotNull(file), revision, logType);
+		mKeyBinding = checkNotNull(keyBinding);
+		mValueBinding = checkNotNull(valueBinding);
+		mBufferPool = new ByteBufferPool(2);
+		mIndex = new HashMap<>();
+		try {
+			mFile = new RandomAccessFile(new File(mPlace, FILE_NAME), "rw");
+			mChannel = mFile.getChannel();
+			index();
+		} catch (final IOException e) {
+			throw new SirixIOException(e);
+		}
+	}
+
+	/**
+	 * Index the records, which have been appended behind the last indexed
+	 * record. If the file has been cleared by another instance, all records are
+	 * indexed again.
+	 *
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	private void index() throws IOException {
+		final long size = mChannel.size();
+		if (size < mEnd) {
+			mIndex.clear();
+			mEnd = 0;
+		}
+		final ByteBuffer header = ByteBuffer.allocate(HEADER);
+		while (mEnd + HEADER <= size) {
+			header.clear();
+			readFully(header, mEnd);
+			final int length = header.getInt(0);
+			if (length <= 0 || mEnd + HEADER + length > size) {
+				// Incomplete record.
+				return;
+			}
+			final ByteBuffer record = mBufferPool.acquire(length);
+			try {
+				record.limit(length);
+				readFully(record, mEnd + HEADER);
+				record.flip();
+				if (checksum(record) != header.getInt(4)) {
+					// Torn record.
+					return;
+				}
+				final ByteBufferDataInput in = new ByteBufferDataInput(record);
+				final byte kind = in.readByte();
+				final K key = mKeyBinding.read(in);
+				if (kind == PUT) {
+					mIndex.put(key, mEnd);
+				} else {
+					mIndex.remove(key);
+				}
+			} finally {
+				mBufferPool.release(record);
+			}
+			mEnd += HEADER + length;
+		}
+	}
+
+	/**
+	 * Compute the checksum of the remaining bytes of a buffer without changing
+	 * its position.
+	 *
+	 * @param buffer
+	 *          the buffer
+	 * @return the checksum
+	 */
+	private static int checksum(final ByteBuffer buffer) {
+		final CRC32 crc = new CRC32();
+		crc.update(buffer.duplicate());
+		return (int) crc.getValue();
+	}
+
+	/**
+	 * Read bytes at the given position until the buffer is full.
+	 *
+	 * @param buffer
+	 *          the buffer to fill
+	 * @param position
+	 *          the file position to read from
+	 * @throws IOException
+	 *           if an I/O error occurs or the end of the file is reached
+	 */
+	private void readFully(final ByteBuffer buffer, final long position)
+			throws IOException {
+		long pos = position;
+		while (buffer.hasRemaining()) {
+			final int read = mChannel.read(buffer, pos);
+			if (read < 0) {
+				throw new IOException("Unexpected end of file!");
+			}
+			pos += read;
+		}
+	}
+
+	/**
+	 * Append a record.
+	 *
+	 * @param kind
+	 *          the kind of the record
+	 * @param key
+	 *          the key
+	 * @param value
+	 *          the value or {@code null}, if the entry is removed
+	 * @return the offset of the record
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	private long append(final byte kind, final K key, final @Nullable V value)
+			throws IOException {
+		final ByteBufferDataOutput out = new ByteBufferDataOutput(mBufferPool);
+		out.writeLong(0);
+		out.writeByte(kind);
+		mKeyBinding.write(out, key);
+		if (value != null) {
+			mValueBinding.write(out, value);
+		}
+		final ByteBuffer record = out.getBuffer();
+		try {
+			record.putInt(0, record.limit() - HEADER);
+			record.position(HEADER);
+			record.putInt(4, checksum(record));
+			record.position(0);
+			final long offset = mEnd;
+			long pos = offset;
+			while (record.hasRemaining()) {
+				pos += mChannel.write(record, pos);
+			}
+			mEnd = pos;
+			return offset;
+		} finally {
+			mBufferPool.release(record);
+		}
+	}
+
+	@Override
+	public synchronized void putPersistent(final K key, final V value)
+			throws SirixIOException {
+		try {
+			index();
+			mIndex.put(checkNotNull(key), append(PUT, key, checkNotNull(value)));
+		} catch (final IOException e) {
+			throw new SirixIOException(e);
+		}
+	}
+
+	@Override
+	public synchronized V getPersistent(final K key) throws SirixIOException {
+		try {
+			Long offset = mIndex.get(checkNotNull(key));
+			if (offset == null) {
+				// Records might have been appended by another instance.
+				index();
+				offset = mIndex.get(key);
+				if (offset == null) {
+					return null;
+				}
+			}
+			final Optional<V> value = read(key, offset);
+			if (value.isPresent()) {
+				return value.get();
+			}
+
+			// The log has been changed by another instance.
+			mIndex.clear();
+			mEnd = 0;
+			index();
+			final Long indexedOffset = mIndex.get(key);
+			if (indexedOffset == null) {
+				return null;
+			}
+			return read(key, indexedOffset).orElseThrow(
+					() -> new SirixIOException("Corrupt record in " + mPlace
+							+ " at offset " + indexedOffset + "!"));
+		} catch (final IOException e) {
+			throw new SirixIOException(e);
+		}
+	}
+
+	/**
+	 * Read the value of a record and verify the record.
+	 *
+	 * @param key
+	 *          the key of the entry
+	 * @param offset
+	 *          the offset of the record
+	 * @return the value or {@link Optional#empty()}, if there's no complete
+	 *         record of the key at the offset or if its checksum doesn't match
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	private Optional<V> read(final K key, final long offset) throws IOException {
+		final long size = mChannel.size();
+		if (offset + HEADER > size) {
+			return Optional.empty();
+		}
+		final ByteBuffer header = ByteBuffer.allocate(HEADER);
+		readFully(header, offset);
+		final int length = header.getInt(0);
+		if (length <= 0 || offset + HEADER + length > size) {
+			return Optional.empty();
+		}
+		final ByteBuffer record = mBufferPool.acquire(length);
+		try {
+			record.limit(length);
+			readFully(record, offset + HEADER);
+			record.flip();
+			if (checksum(record) != header.getInt(4)) {
+				return Optional.empty();
+			}
+			final ByteBufferDataInput in = new ByteBufferDataInput(record);
+			if (in.readByte() != PUT || !key.equals(mKeyBinding.read(in))) {
+				return Optional.empty();
+			}
+			return Optional.of(mValueBinding.read(in));
+		} finally {
+			mBufferPool.release(record);
+		}
+	}
+
+	@Override
+	public synchronized void remove(final K key) {
+		try {
+			index();
+			if (mIndex.remove(checkNotNull(key)) != null) {
+				append(REMOVE, key, null);
+			}
+		} catch (final IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public synchronized void clearPersistent() throws SirixIOException {
+		try {
+			mChannel.truncate(0);
+		} catch (final IOException e) {
+			throw new SirixIOException(e);
+		}
+		mIndex.clear();
+		mEnd = 0;
+	}
+
+	@Override
+	public synchronized void putAll(final Map<? extends K, ? extends V> map) {
+		for (final Map.Entry<? extends K, ? extends V> entry : checkNotNull(map)
+				.entrySet()) {
+			put(entry.getKey(), entry.getValue());
+		}
+	}
+
+	@Override
+	public synchronized ImmutableMap<K, V> getAll(final Iterable<? extends K> keys) {
+		final ImmutableMap.Builder<K, V> builder = new ImmutableMap.Builder<>();
+		for (final K key : keys) {
+			final V value = get(key);
+			if (value != null) {
+				builder.put(key, value);
+			}
+		}
+		return builder.build();
+	}
+
+	@Override
+	public void toSecondCache() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Get the number of entries.
+	 *
+	 * @return the number of entries
+	 */
+	public synchronized int size() {
+		return mIndex.size();
+	}
+
+	@Override
+	public synchronized void close() {
+		try {
+			mFile.close();
+		} catch (final IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public synchronized String toString() {
+		return Objects.toStringHelper(this).add("file", mPlace)
+				.add("entries", mIndex.size()).add("size", mEnd).toString();
+	}
+}
@@ -57,8 +57,8 @@ public final class SynchronizedIndexTransactionLogCache<T extends KeyValuePage<?
 	/** RAM-Based first cache. */
 	private final LRUCache<IndexLogKey, RecordPageContainer<T>> mFirstCache;
 
-	/** Persistend second cache. */
-	private final BerkeleyIndexPersistenceCache<T> mSecondCache;
+	/** Persistent second cache, which appends to a spill file. */
+	private final SpillFileCache<IndexLogKey, RecordPageContainer<T>> mSecondCache;
 
 	/** {@link ReadWriteLock} instance. */
 	private final ReadWriteLock mLock = new ReentrantReadWriteLock();
@@ -87,8 +87,9 @@ public final class SynchronizedIndexTransactionLogCache<T extends KeyValuePage<?
 	public SynchronizedIndexTransactionLogCache(final File file,
 			final @Nonnegative int revision, final String logType,
 			final PageReadTrx pageReadTrx) throws SirixIOException {
-		mSecondCache = new BerkeleyIndexPersistenceCache<>(file, revision, logType,
-				pageReadTrx);
+		mSecondCache = new SpillFileCache<>(file, revision, logType,
+				SpillBinding.INDEX_LOG_KEY,
+				SpillBinding.<T> pageContainer(pageReadTrx));
 		mFirstCache = new LRUCache<IndexLogKey, RecordPageContainer<T>>(
 				mSecondCache);
 	}
@@ -57,8 +57,8 @@ public final class SynchronizedTransactionLogCache<T extends KeyValuePage<?, ?>>
 	/** RAM-Based first cache. */
 	private final LRUCache<Long, RecordPageContainer<T>> mFirstCache;
 
-	/** Persistend second cache. */
-	private final BerkeleyPersistenceCache<T> mSecondCache;
+	/** Persistent second cache, which appends to a spill file. */
+	private final SpillFileCache<Long, RecordPageContainer<T>> mSecondCache;
 
 	/** {@link ReadWriteLock} instance. */
 	private final ReadWriteLock mLock = new ReentrantReadWriteLock();
@@ -87,8 +87,8 @@ public final class SynchronizedTransactionLogCache<T extends KeyValuePage<?, ?>>
 	public SynchronizedTransactionLogCache(final File file,
 			final @Nonnegative int revision, final String logType,
 			final PageReadTrx pageReadTrx) throws SirixIOException {
-		mSecondCache = new BerkeleyPersistenceCache<>(file, revision, logType,
-				pageReadTrx);
+		mSecondCache = new SpillFileCache<>(file, revision, logType,
+				SpillBinding.LONG, SpillBinding.<T> pageContainer(pageReadTrx));
 		mFirstCache = new LRUCache<Long, RecordPageContainer<T>>(mSecondCache);
 	}
 
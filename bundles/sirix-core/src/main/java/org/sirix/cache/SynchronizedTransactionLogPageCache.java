@@ -57,8 +57,8 @@ public final class SynchronizedTransactionLogPageCache implements
 	/** RAM-Based first cache. */
 	private final LRUCache<IndirectPageLogKey, Page> mFirstCache;
 
-	/** Persistend second cache. */
-	private final BerkeleyPersistencePageCache mSecondCache;
+	/** Persistent second cache, which appends to a spill file. */
+	private final SpillFileCache<IndirectPageLogKey, Page> mSecondCache;
 
 	/** {@link ReadWriteLock} instance. */
 	private final ReadWriteLock mLock = new ReentrantReadWriteLock();
@@ -87,8 +87,8 @@ public final class SynchronizedTransactionLogPageCache implements
 	public SynchronizedTransactionLogPageCache(final File file,
 			final @Nonnegative int revision, final String logType,
 			final PageReadTrx pageReadTrx) throws SirixIOException {
-		mSecondCache = new BerkeleyPersistencePageCache(file, revision, logType,
-				pageReadTrx);
+		mSecondCache = new SpillFileCache<>(file, revision, logType,
+				SpillBinding.INDIRECT_PAGE_LOG_KEY, SpillBinding.page(pageReadTrx));
 		mFirstCache = new LRUCache<>(mSecondCache);
 	}
 
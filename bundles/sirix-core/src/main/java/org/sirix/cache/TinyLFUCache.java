@@ -0,0 +1,503 @@
+package org.sirix.cache;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nullable;
+
+import com.google.common.base.Objects;
+import com.google.common.cache.Weigher;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * A thread-safe, weighted and scan-resistant cache, based on the W-TinyLFU
+ * policy. New entries are added to a small LRU window. Entries evicted from
+ * the window are only admitted to the main space, if they have been accessed
+ * more frequently than the entry, which would have to be evicted instead. The
+ * main space is a segmented LRU, whereas entries accessed a second time are
+ * promoted from the probation to the protected segment.
+ *
+ * <p>
+ * Thus, entries which are accessed only once, for instance during a full
+ * traversal of a resource, can't evict the frequently used entries.
+ * </p>
+ *
+ * @author Johannes Lichtenberger
+ *
+ * @param <K>
+ *          the key
+ * @param <V>
+ *          the value
+ */
+public final class TinyLFUCache<K, V> implements Cache<K, V> {
+
+	/** Percentage of the maximum weight used for the window. */
+	private static final int WINDOW_PERCENTAGE = 1;
+
+	/** Percentage of the main space used for the protected segment. */
+	private static final int PROTECTED_PERCENTAGE = 80;
+
+	/** Entry of the cache. */
+	private static final class Node<V> {
+		/** The value. */
+		private final V mValue;
+
+		/** The weight of the value. */
+		private final int mWeight;
+
+		private Node(final V value, final int weight) {
+			mValue = value;
+			mWeight = weight;
+		}
+	}
+
+	/** Window of recently added entries in LRU order. */
+	private final LinkedHashMap<K, Node<V>> mWindow;
+
+	/** Entries of the main space, which have been accessed once, in LRU order. */
+	private final LinkedHashMap<K, Node<V>> mProbation;
+
+	/** Entries of the main space, which have been accessed again, in LRU order. */
+	private final LinkedHashMap<K, Node<V>> mProtected;
+
+	/** Estimates the access frequencies of the keys. */
+	private final FrequencySketch mSketch;
+
+	/** Determines the weight of an entry. */
+	private final Weigher<? super K, ? super V> mWeigher;
+
+	/** Notified of each evicted entry. */
+	private final BiConsumer<? super K, ? super V> mEvictionListener;
+
+	/** Maximum weight of the window. */
+	private long mMaxWindowWeight;
+
+	/** Maximum weight of the main space. */
+	private long mMaxMainWeight;
+
+	/** Maximum weight of the protected segment. */
+	private long mMaxProtectedWeight;
+
+	/** Weight of the window. */
+	private long mWindowWeight;
+
+	/** Weight of the probation segment. */
+	private long mProbationWeight;
+
+	/** Weight of the protected segment. */
+	private long mProtectedWeight;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param maxWeight
+	 *          the maximum weight of all entries
+	 * @param expectedEntries
+	 *          the expected number of entries, which is used to size the
+	 *          frequency estimation
+	 * @param weigher
+	 *          determines the weight of an entry
+	 */
+	public TinyLFUCache(final @Nonnegative long maxWeight,
+			final @Nonnegative int expectedEntries,
+			final Weigher<? super K, ? super V> weigher) {
+		this(maxWeight, expectedEntries, weigher, (final K key, final V value) -> {
+		});
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param maxWeight
+	 *          the maximum weight of all entries
+	 * @param expectedEntries
+	 *          the expected number of entries, which is used to size the
+	 *          frequency estimation
+	 * @param weigher
+	 *          determines the weight of an entry
+	 * @param evictionListener
+	 *          notified of each entry, which is evicted or not admitted because
+	 *          of the maximum weight, but not of removed entries
+	 */
+	public TinyLFUCache(final @Nonnegative long maxWeight,
+			final @Nonnegative int expectedEntries,
+			final Weigher<? super K, ? super V> weigher,
+			final BiConsumer<? super K, ? super V> evictionListener) {
+		checkArgument(expectedEntries > 0, "expectedEntries must be > 0!");
+		mWeigher = checkNotNull(weigher);
+		mEvictionListener = checkNotNull(evictionListener);
+		setMaxWeights(maxWeight);
+		mWindow = new LinkedHashMap<>(16, 0.75f, true);
+		mProbation = new LinkedHashMap<>(16, 0.75f, true);
+		mProtected = new LinkedHashMap<>(16, 0.75f, true);
+		mSketch = new FrequencySketch(expectedEntries);
+	}
+
+	/**
+	 * Constructor, whereas each entry weighs one.
+	 *
+	 * @param maxSize
+	 *          the maximum number of entries
+	 */
+	public TinyLFUCache(final @Nonnegative int maxSize) {
+		this(maxSize, maxSize, (final K key, final V value) -> 1);
+	}
+
+	/**
+	 * Set the maximum weights of the window and the segments of the main space.
+	 *
+	 * @param maxWeight
+	 *          the maximum weight of all entries
+	 */
+	private void setMaxWeights(final @Nonnegative long maxWeight) {
+		checkArgument(maxWeight > 0, "maxWeight must be > 0!");
+		mMaxWindowWeight = Math.max(1, maxWeight * WINDOW_PERCENTAGE / 100);
+		mMaxMainWeight = Math.max(1, maxWeight - mMaxWindowWeight);
+		mMaxProtectedWeight = mMaxMainWeight * PROTECTED_PERCENTAGE / 100;
+	}
+
+	/**
+	 * Change the maximum weight of all entries. If the cache shrinks, the least
+	 * recently used entries are evicted.
+	 *
+	 * @param maxWeight
+	 *          the new maximum weight of all entries
+	 */
+	public synchronized void setMaxWeight(final @Nonnegative long maxWeight) {
+		setMaxWeights(maxWeight);
+		while (mWindowWeight > mMaxWindowWeight) {
+			final Map.Entry<K, Node<V>> candidate = removeEldest(mWindow);
+			mWindowWeight -= candidate.getValue().mWeight;
+			admit(candidate.getKey(), candidate.getValue());
+		}
+		while (mProtectedWeight > mMaxProtectedWeight) {
+			final Map.Entry<K, Node<V>> eldest = removeEldest(mProtected);
+			mProtectedWeight -= eldest.getValue().mWeight;
+			mProbation.put(eldest.getKey(), eldest.getValue());
+			mProbationWeight += eldest.getValue().mWeight;
+		}
+		while (mProbationWeight + mProtectedWeight > mMaxMainWeight) {
+			final Map.Entry<K, Node<V>> victim = removeEldest(mProbation);
+			mProbationWeight -= victim.getValue().mWeight;
+			mEvictionListener.accept(victim.getKey(), victim.getValue().mValue);
+		}
+	}
+
+	@Override
+	public synchronized V get(final K key) {
+		mSketch.increment(key);
+		Node<V> node = mWindow.get(key);
+		if (node == null) {
+			node = mProtected.get(key);
+		}
+		if (node == null) {
+			node = mProbation.remove(key);
+			if (node == null) {
+				return null;
+			}
+			// Promote the entry, as it has been accessed again.
+			mProbationWeight -= node.mWeight;
+			mProtected.put(key, node);
+			mProtectedWeight += node.mWeight;
+			while (mProtectedWeight > mMaxProtectedWeight) {
+				final Map.Entry<K, Node<V>> eldest = removeEldest(mProtected);
+				mProtectedWeight -= eldest.getValue().mWeight;
+				mProbation.put(eldest.getKey(), eldest.getValue());
+				mProbationWeight += eldest.getValue().mWeight;
+			}
+		}
+		return node.mValue;
+	}
+
+	/**
+	 * Get a value without recording the access.
+	 *
+	 * @param key
+	 *          the key
+	 * @return the value or {@code null}, if the key isn't cached
+	 */
+	public synchronized V getQuietly(final K key) {
+		Node<V> node = mWindow.get(key);
+		if (node == null) {
+			node = mProtected.get(key);
+		}
+		if (node == null) {
+			node = mProbation.get(key);
+		}
+		return node == null ? null : node.mValue;
+	}
+
+	@Override
+	public synchronized void put(final K key, final V value) {
+		checkNotNull(key);
+		checkNotNull(value);
+		remove(key);
+		mSketch.increment(key);
+		final int weight = mWeigher.weigh(key, value);
+		mWindow.put(key, new Node<>(value, weight));
+		mWindowWeight += weight;
+
+		// Entries evicted from the window are candidates for the main space.
+		while (mWindowWeight > mMaxWindowWeight) {
+			final Map.Entry<K, Node<V>> candidate = removeEldest(mWindow);
+			mWindowWeight -= candidate.getValue().mWeight;
+			admit(candidate.getKey(), candidate.getValue());
+		}
+	}
+
+	/**
+	 * Admit a candidate to the main space, if it's accessed more frequently than
+	 * the entries, which would have to be evicted.
+	 *
+	 * @param key
+	 *          the key of the candidate
+	 * @param node
+	 *          the candidate
+	 */
+	private void admit(final K key, final Node<V> node) {
+		if (node.mWeight > mMaxMainWeight) {
+			mEvictionListener.accept(key, node.mValue);
+			return;
+		}
+		final int frequency = mSketch.frequency(key);
+		while (mProbationWeight + mProtectedWeight + node.mWeight > mMaxMainWeight) {
+			final LinkedHashMap<K, Node<V>> segment = mProbation.isEmpty() ? mProtected
+					: mProbation;
+			if (segment.isEmpty()
+					|| frequency <= mSketch.frequency(segment.keySet().iterator().next())) {
+				// Reject the candidate.
+				mEvictionListener.accept(key, node.mValue);
+				return;
+			}
+			final Map.Entry<K, Node<V>> victim = removeEldest(segment);
+			if (segment == mProbation) {
+				mProbationWeight -= victim.getValue().mWeight;
+			} else {
+				mProtectedWeight -= victim.getValue().mWeight;
+			}
+			mEvictionListener.accept(victim.getKey(), victim.getValue().mValue);
+		}
+		mProbation.put(key, node);
+		mProbationWeight += node.mWeight;
+	}
+
+	/**
+	 * Remove the least recently used entry of a segment.
+	 *
+	 * @param segment
+	 *          the non-empty segment
+	 * @return the removed entry
+	 */
+	private static <K, V> Map.Entry<K, Node<V>> removeEldest(
+			final LinkedHashMap<K, Node<V>> segment) {
+		final Iterator<Map.Entry<K, Node<V>>> it = segment.entrySet().iterator();
+		final Map.Entry<K, Node<V>> eldest = it.next();
+		it.remove();
+		return eldest;
+	}
+
+	@Override
+	public synchronized void putAll(final Map<? extends K, ? extends V> map) {
+		for (final Map.Entry<? extends K, ? extends V> entry : checkNotNull(map)
+				.entrySet()) {
+			put(entry.getKey(), entry.getValue());
+		}
+	}
+
+	@Override
+	public synchronized ImmutableMap<K, V> getAll(final Iterable<? extends K> keys) {
+		final ImmutableMap.Builder<K, V> builder = new ImmutableMap.Builder<>();
+		for (final K key : keys) {
+			final V value = get(key);
+			if (value != null) {
+				builder.put(key, value);
+			}
+		}
+		return builder.build();
+	}
+
+	@Override
+	public synchronized void remove(final K key) {
+		Node<V> node = mWindow.remove(key);
+		if (node != null) {
+			mWindowWeight -= node.mWeight;
+			return;
+		}
+		node = mProbation.remove(key);
+		if (node != null) {
+			mProbationWeight -= node.mWeight;
+			return;
+		}
+		node = mProtected.remove(key);
+		if (node != null) {
+			mProtectedWeight -= node.mWeight;
+		}
+	}
+
+	/**
+	 * Get the most frequently accessed entries.
+	 *
+	 * @param maxWeight
+	 *          the maximum weight of the entries
+	 * @return the entries ordered by their estimated access frequency, whereas
+	 *         the most frequently accessed entry comes first
+	 */
+	public synchronized ImmutableMap<K, V> getHottest(
+			final @Nonnegative long maxWeight) {
+		final List<Map.Entry<K, Node<V>>> entries = new ArrayList<>(size());
+		entries.addAll(mProtected.entrySet());
+		entries.addAll(mProbation.entrySet());
+		entries.addAll(mWindow.entrySet());
+		entries.sort(Comparator.comparingInt(
+				(final Map.Entry<K, Node<V>> entry) -> mSketch.frequency(entry
+						.getKey())).reversed());
+		final ImmutableMap.Builder<K, V> builder = new ImmutableMap.Builder<>();
+		long weight = 0;
+		for (final Map.Entry<K, Node<V>> entry : entries) {
+			weight += entry.getValue().mWeight;
+			if (weight > maxWeight) {
+				break;
+			}
+			builder.put(entry.getKey(), entry.getValue().mValue);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Get the weight of all entries.
+	 *
+	 * @return the weight of all entries
+	 */
+	public synchronized long getWeight() {
+		return mWindowWeight + mProbationWeight + mProtectedWeight;
+	}
+
+	/**
+	 * Get the number of entries.
+	 *
+	 * @return the number of entries
+	 */
+	public synchronized int size() {
+		return mWindow.size() + mProbation.size() + mProtected.size();
+	}
+
+	@Override
+	public synchronized void clear() {
+		mWindow.clear();
+		mProbation.clear();
+		mProtected.clear();
+		mWindowWeight = 0;
+		mProbationWeight = 0;
+		mProtectedWeight = 0;
+	}
+
+	@Override
+	public void toSecondCache() {
+		// There's no second cache.
+	}
+
+	@Override
+	public void close() {
+		clear();
+	}
+
+	@Override
+	public synchronized String toString() {
+		return Objects.toStringHelper(this).add("window", mWindow.size())
+				.add("probation", mProbation.size())
+				.add("protected", mProtected.size()).add("weight", getWeight())
+				.toString();
+	}
+
+	/**
+	 * Count-min sketch with four bit counters, which estimates the access
+	 * frequencies of keys. All counters are halved periodically, such that the
+	 * estimation adapts to changing access patterns.
+	 */
+	private static final class FrequencySketch {
+
+		/** Seeds of the hash functions. */
+		private static final int[] SEEDS = { 0x97cb3127, 0x8d1e3ea5, 0x62d9b9b3,
+				0x39b0d1c7 };
+
+		/** Counters, 16 per long. */
+		private final long[] mTable;
+
+		/** Number of increments after which all counters are halved. */
+		private final int mSampleSize;
+
+		/** Number of increments since the counters have been halved. */
+		private int mSize;
+
+		private FrequencySketch(final @Nonnegative int expectedEntries) {
+			final int length = Integer.highestOneBit(Math.max(
+					Math.min(expectedEntries, 1 << 24), 4) - 1) << 1;
+			mTable = new long[length];
+			mSampleSize = 10 * Math.max(expectedEntries, 16);
+		}
+
+		/**
+		 * Get the index of the counter of a key for one hash function.
+		 *
+		 * @param hash
+		 *          the hash of the key
+		 * @param i
+		 *          the number of the hash function
+		 * @return the index of the counter
+		 */
+		private int indexOf(final int hash, final int i) {
+			int h = (hash + SEEDS[i]) * SEEDS[i];
+			h ^= h >>> 16;
+			return h & ((mTable.length << 4) - 1);
+		}
+
+		private static int spread(final @Nullable Object key) {
+			int h = key == null ? 0 : key.hashCode() * 0x9e3779b9;
+			return h ^ (h >>> 16);
+		}
+
+		private int frequency(final @Nullable Object key) {
+			final int hash = spread(key);
+			int frequency = 15;
+			for (int i = 0; i < SEEDS.length; i++) {
+				final int index = indexOf(hash, i);
+				final int count = (int) ((mTable[index >>> 4] >>> ((index & 15) << 2)) & 15L);
+				frequency = Math.min(frequency, count);
+			}
+			return frequency;
+		}
+
+		private void increment(final @Nullable Object key) {
+			final int hash = spread(key);
+			boolean added = false;
+			for (int i = 0; i < SEEDS.length; i++) {
+				final int index = indexOf(hash, i);
+				final int shift = (index & 15) << 2;
+				if (((mTable[index >>> 4] >>> shift) & 15L) != 15L) {
+					mTable[index >>> 4] += 1L << shift;
+					added = true;
+				}
+			}
+			if (added && ++mSize == mSampleSize) {
+				reset();
+			}
+		}
+
+		/** Halve all counters. */
+		private void reset() {
+			for (int i = 0; i < mTable.length; i++) {
+				mTable[i] = (mTable[i] >>> 1) & 0x7777777777777777L;
+			}
+			mSize /= 2;
+		}
+	}
+}
@@ -54,8 +54,8 @@ public final class TransactionIndexLogCache<T extends KeyValuePage<?, ?>>
 	/** RAM-Based first cache. */
 	private final LRUCache<IndexLogKey, RecordPageContainer<T>> mFirstCache;
 
-	/** Persistend second cache. */
-	private final BerkeleyIndexPersistenceCache<T> mSecondCache;
+	/** Persistent second cache, which appends to a spill file. */
+	private final SpillFileCache<IndexLogKey, RecordPageContainer<T>> mSecondCache;
 
 	/**
 	 * Constructor including the {@link DatabaseConfiguration} for persistent
@@ -75,8 +75,9 @@ public final class TransactionIndexLogCache<T extends KeyValuePage<?, ?>>
 	public TransactionIndexLogCache(final File file,
 			final @Nonnegative int revision, final String logType,
 			final PageReadTrx pageReadTrx) throws SirixIOException {
-		mSecondCache = new BerkeleyIndexPersistenceCache<>(file, revision, logType,
-				pageReadTrx);
+		mSecondCache = new SpillFileCache<>(file, revision, logType,
+				SpillBinding.INDEX_LOG_KEY,
+				SpillBinding.<T> pageContainer(pageReadTrx));
 		mFirstCache = new LRUCache<>(mSecondCache);
 	}
 
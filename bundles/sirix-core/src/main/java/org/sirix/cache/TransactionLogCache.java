@@ -54,8 +54,8 @@ public final class TransactionLogCache<T extends KeyValuePage<?, ?>> implements
 	/** RAM-Based first cache. */
 	private final LRUCache<Long, RecordPageContainer<T>> mFirstCache;
 
-	/** Persistend second cache. */
-	private final BerkeleyPersistenceCache<T> mSecondCache;
+	/** Persistent second cache, which appends to a spill file. */
+	private final SpillFileCache<Long, RecordPageContainer<T>> mSecondCache;
 
 	/**
 	 * Constructor including the {@link DatabaseConfiguration} for persistent
@@ -75,8 +75,8 @@ public final class TransactionLogCache<T extends KeyValuePage<?, ?>> implements
 	public TransactionLogCache(final File file, final @Nonnegative int revision,
 			final String logType, final PageReadTrx pageReadTrx)
 			throws SirixIOException {
-		mSecondCache = new BerkeleyPersistenceCache<>(file, revision, logType,
-				pageReadTrx);
+		mSecondCache = new SpillFileCache<>(file, revision, logType,
+				SpillBinding.LONG, SpillBinding.<T> pageContainer(pageReadTrx));
 		mFirstCache = new LRUCache<>(mSecondCache);
 	}
 
@@ -54,8 +54,8 @@ public final class TransactionLogPageCache implements
 	/** RAM-Based first cache. */
 	private final LRUCache<IndirectPageLogKey, Page> mFirstCache;
 
-	/** Persistend second cache. */
-	private final BerkeleyPersistencePageCache mSecondCache;
+	/** Persistent second cache, which appends to a spill file. */
+	private final SpillFileCache<IndirectPageLogKey, Page> mSecondCache;
 
 	/**
 	 * Constructor including the {@link DatabaseConfiguration} for persistent
@@ -75,8 +75,8 @@ public final class TransactionLogPageCache implements
 	public TransactionLogPageCache(final File file,
 			final @Nonnegative int revision, final String logType,
 			final PageReadTrx pageReadTrx) throws SirixIOException {
-		mSecondCache = new BerkeleyPersistencePageCache(file, revision, logType,
-				pageReadTrx);
+		mSecondCache = new SpillFileCache<>(file, revision, logType,
+				SpillBinding.INDIRECT_PAGE_LOG_KEY, SpillBinding.page(pageReadTrx));
 		mFirstCache = new LRUCache<>(mSecondCache);
 	}
 
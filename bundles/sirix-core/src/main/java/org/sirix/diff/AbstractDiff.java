@@ -695,8 +695,10 @@ abstract class AbstractDiff extends AbstractDiffObservable {
 			if (replaced) {
 				final long newNodeKey = newRtx.getNodeKey();
 				final long oldNodeKey = oldRtx.getNodeKey();
-				final Axis oldAxis = new DescendantAxis(oldRtx, IncludeSelf.YES);
-				final Axis newAxis = new DescendantAxis(newRtx, IncludeSelf.YES);
+				final Axis oldAxis = new DescendantAxis(oldRtx, IncludeSelf.YES)
+						.setNoCacheHint(true);
+				final Axis newAxis = new DescendantAxis(newRtx, IncludeSelf.YES)
+						.setNoCacheHint(true);
 				while (oldAxis.hasNext()) {
 					oldAxis.next();
 					fireDiff(DiffType.REPLACEDOLD, newRtx.getNodeKey(),
@@ -3,9 +3,15 @@ package org.sirix.index;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import javax.annotation.Nullable;
@@ -219,6 +225,81 @@ public final class IndexDef implements Materializable {
 		}
 	}
 
+	/**
+	 * Serialize the index definition in binary form. Paths and names are written
+	 * in sorted order, such that equal definitions have the same binary form.
+	 * 
+	 * @param out
+	 *          the output to serialize to
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	public void serialize(final DataOutput out) throws IOException {
+		out.writeByte(mType.ordinal());
+		out.writeInt(mID);
+		out.writeBoolean(mUnique);
+		out.writeBoolean(mContentType != null);
+		if (mContentType != null) {
+			out.writeUTF(mContentType.toString());
+		}
+		writeSorted(out, mPaths);
+		writeSorted(out, mIncluded);
+		writeSorted(out, mExcluded);
+	}
+
+	/**
+	 * Write the number of values followed by their sorted string
+	 * representations.
+	 * 
+	 * @param out
+	 *          the output to serialize to
+	 * @param values
+	 *          the values
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	private static void writeSorted(final DataOutput out,
+			final Collection<?> values) throws IOException {
+		final List<String> strings = new ArrayList<>(values.size());
+		for (final Object value : values) {
+			strings.add(value.toString());
+		}
+		Collections.sort(strings);
+		out.writeInt(strings.size());
+		for (final String string : strings) {
+			out.writeUTF(string);
+		}
+	}
+
+	/**
+	 * Initialize the index definition from its binary form as written by
+	 * {@link #serialize(DataOutput)}.
+	 * 
+	 * @param in
+	 *          the input to deserialize from
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 * @throws DocumentException
+	 *           if a path or content type can't be resolved
+	 */
+	public void init(final DataInput in) throws IOException, DocumentException {
+		mType = IndexType.values()[in.readByte()];
+		mID = in.readInt();
+		mUnique = in.readBoolean();
+		if (in.readBoolean()) {
+			mContentType = resolveType(in.readUTF());
+		}
+		for (int i = 0, size = in.readInt(); i < size; i++) {
+			mPaths.add(Path.parse(in.readUTF()));
+		}
+		for (int i = 0, size = in.readInt(); i < size; i++) {
+			mIncluded.add(new QNm(in.readUTF()));
+		}
+		for (int i = 0, size = in.readInt(); i < size; i++) {
+			mExcluded.add(new QNm(in.readUTF()));
+		}
+	}
+
 	private Type resolveType(String s) throws DocumentException {
 		QNm name = new QNm(Namespaces.XS_NSURI, Namespaces.XS_PREFIX,
 				s.substring(Namespaces.XS_PREFIX.length() + 1));
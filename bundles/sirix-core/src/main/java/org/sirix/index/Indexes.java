@@ -3,7 +3,13 @@ package org.sirix.index;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import javax.annotation.Nonnegative;
@@ -90,6 +96,47 @@ public final class Indexes implements Materializable {
 		return helper.getRoot();
 	}
 
+	/**
+	 * Serialize all index definitions in binary form. The definitions are
+	 * written ordered by their type and ID, such that the same definitions
+	 * always have the same binary form, regardless of the order they have been
+	 * added in.
+	 * 
+	 * @param out
+	 *          the output to serialize to
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	public synchronized void serialize(final DataOutput out) throws IOException {
+		final List<IndexDef> indexDefs = new ArrayList<>(mIndexes);
+		indexDefs.sort(Comparator.comparing(IndexDef::getType).thenComparingInt(
+				IndexDef::getID));
+		out.writeInt(indexDefs.size());
+		for (final IndexDef indexDef : indexDefs) {
+			indexDef.serialize(out);
+		}
+	}
+
+	/**
+	 * Initialize the index definitions from their binary form as written by
+	 * {@link #serialize(DataOutput)}.
+	 * 
+	 * @param in
+	 *          the input to deserialize from
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 * @throws DocumentException
+	 *           if an index definition can't be resolved
+	 */
+	public synchronized void init(final DataInput in) throws IOException,
+			DocumentException {
+		for (int i = 0, size = in.readInt(); i < size; i++) {
+			final IndexDef indexDefinition = new IndexDef();
+			indexDefinition.init(in);
+			mIndexes.add(indexDefinition);
+		}
+	}
+
 	public synchronized void add(IndexDef indexDefinition) {
 		mIndexes.add(indexDefinition);
 	}
@@ -38,6 +38,9 @@ import com.google.common.io.ByteArrayDataInput;
 public class BPlusInnerNodePage<K extends Comparable<? super K> & Record, V extends Record>
 		extends AbstractForwardingPage implements KeyValuePage<K, V> {
 
+	/** No previous keys. */
+	private static final long[] NO_KEYS = new long[0];
+
 	/** Key of record page. This is the base key of all contained nodes. */
 	private final long mRecordPageKey;
 
@@ -244,4 +247,16 @@ public class BPlusInnerNodePage<K extends Comparable<? super K> & Record, V exte
 		// TODO Auto-generated method stub
 		return null;
 	}
+
+	@Override
+	public long[] getPreviousKeys() {
+		// The previous versions aren't known up front.
+		return NO_KEYS;
+	}
+
+	@Override
+	public void setPreviousKeys(final long[] keys) {
+		throw new UnsupportedOperationException(
+				"Previous keys are not stored in B+-tree pages!");
+	}
 }
@@ -36,6 +36,9 @@ import com.google.common.io.ByteArrayDataInput;
 public class BPlusLeafNodePage<K extends Comparable<? super K> & Record, V extends Record>
 		implements KeyValuePage<K, V> {
 
+	/** No previous keys. */
+	private static final long[] NO_KEYS = new long[0];
+
 	/** Key of record page. This is the base key of all contained nodes. */
 	private final long mRecordPageKey;
 
@@ -159,6 +162,12 @@ public class BPlusLeafNodePage<K extends Comparable<? super K> & Record, V exten
 		return null;
 	}
 
+	@Override
+	public long getRetainedSize() {
+		return org.sirix.settings.Constants.PAGE_SIZE + mRecords.size()
+				* org.sirix.settings.Constants.RECORD_SIZE;
+	}
+
 	@Override
 	public <KE extends Comparable<? super KE>, VA extends Record, S extends KeyValuePage<KE, VA>> void commit(
 			PageWriteTrx<KE, VA, S> pageWriteTrx) {
@@ -255,6 +264,18 @@ public class BPlusLeafNodePage<K extends Comparable<? super K> & Record, V exten
 		return null;
 	}
 
+	@Override
+	public long[] getPreviousKeys() {
+		// The previous versions aren't known up front.
+		return NO_KEYS;
+	}
+
+	@Override
+	public void setPreviousKeys(final long[] keys) {
+		throw new UnsupportedOperationException(
+				"Previous keys are not stored in B+-tree pages!");
+	}
+
 	// @Override
 	// public boolean isFullDump() {
 	// // TODO Auto-generated method stub
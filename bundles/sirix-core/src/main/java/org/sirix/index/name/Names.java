@@ -2,7 +2,7 @@ package org.sirix.index.name;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import java.io.DataInputStream;
+import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.util.HashMap;
@@ -41,7 +41,7 @@ public final class Names {
 	 * @param in
 	 *          the persistent storage
 	 */
-	private Names(final DataInputStream in) throws IOException {
+	private Names(final DataInput in) throws IOException {
 		final int mapSize = in.readInt();
 		mNameMap = HashBiMap.create(mapSize);
 		mCountNameMapping = new HashMap<>(mapSize);
@@ -180,7 +180,7 @@ public final class Names {
 	 *          input source, the persistent storage
 	 * @return cloned index
 	 */
-	public static Names clone(final DataInputStream in) throws IOException {
+	public static Names clone(final DataInput in) throws IOException {
 		return new Names(in);
 	}
 }
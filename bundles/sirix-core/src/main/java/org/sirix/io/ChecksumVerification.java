@@ -0,0 +1,21 @@
+package org.sirix.io;
+
+/**
+ * Determines when the checksum of a stored page is verified. The length of a
+ * page is always checked against the size of the file, regardless of the mode.
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
+public enum ChecksumVerification {
+	/** The checksum is verified whenever a page is read from the storage. */
+	EVERY_READ,
+
+	/**
+	 * The checksum is only verified the first time a page is read by a reader,
+	 * as pages are never changed once they have been written. A page, which is
+	 * corrupted on the storage device afterwards, is not detected until the
+	 * storage is opened again.
+	 */
+	FIRST_READ
+}
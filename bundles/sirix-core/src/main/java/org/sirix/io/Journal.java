@@ -0,0 +1,450 @@
+package org.sirix.io;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import javax.annotation.Nonnegative;
+
+import org.sirix.exception.SirixIOException;
+import org.sirix.utils.LogWrapper;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Journal of a database, which makes the commits of all its resources durable
+ * with a single force. A commit appends the pages of its revision and the
+ * beacon of the data file, which have been written to the data file without
+ * forcing it, as one record. Once the journal is forced, all commits appended
+ * so far are durable. The data files are only forced at a checkpoint, which
+ * empties the journal.
+ *
+ * <p>
+ * On {@link #open()}, all complete records are replayed into the data files,
+ * that is after a crash the data files contain every revision, whose commit
+ * has returned. Thus, the journal has to be opened before any data file of the
+ * database is opened.
+ * </p>
+ *
+ * <p>
+ * Each record consists of the path of the data file relative to the directory
+ * of the database, the offset and the length of the pages, the beacon, the
+ * pages and a checksum of the record.
+ * </p>
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
+public final class Journal implements AutoCloseable {
+
+	/** {@link LogWrapper} reference. */
+	private static final LogWrapper LOGWRAPPER = new LogWrapper(
+			LoggerFactory.getLogger(Journal.class));
+
+	/** Name of the journal in the directory of the database. */
+	public static final String FILE_NAME = "journal";
+
+	/** Default size of the journal, from which on a checkpoint is made. */
+	public static final long DEFAULT_CHECKPOINT_SIZE = 1L << 26;
+
+	/** Size of the buffer to copy pages with. */
+	private static final int COPY_BUFFER_SIZE = 1 << 16;
+
+	/** The directory of the database. */
+	private final File mDirectory;
+
+	/** The journal file or {@code null}, if the journal isn't open. */
+	private RandomAccessFile mFile;
+
+	/** Channel of the journal file or {@code null}, if the journal isn't open. */
+	private volatile FileChannel mChannel;
+
+	/** Size of the journal, from which on a checkpoint is made. */
+	private final long mCheckpointSize;
+
+	/** Data files, which have records in the journal. */
+	private final Set<File> mDataFiles;
+
+	/**
+	 * Constructor. The journal has to be opened before it's used.
+	 *
+	 * @param directory
+	 *          the directory of the database
+	 * @param checkpointSize
+	 *          size of the journal, from which on a checkpoint is made
+	 */
+	public Journal(final File directory, final @Nonnegative long checkpointSize) {
+		checkArgument(checkpointSize > 0, "checkpointSize must be > 0!");
+		mDirectory = checkNotNull(directory).getAbsoluteFile();
+		mCheckpointSize = checkpointSize;
+		mDataFiles = new HashSet<>();
+	}
+
+	/**
+	 * Open the journal, if it isn't open, and replay all complete records into
+	 * the data files.
+	 *
+	 * @throws SirixIOException
+	 *           if an I/O error occurs
+	 */
+	public synchronized void open() throws SirixIOException {
+		if (mChannel != null) {
+			return;
+		}
+		try {
+			mFile = new RandomAccessFile(new File(mDirectory, FILE_NAME), "rw");
+			final FileChannel channel = mFile.getChannel();
+			replay(channel);
+			mChannel = channel;
+		} catch (final IOException e) {
+			if (mFile != null) {
+				try {
+					mFile.close();
+				} catch (final IOException closeException) {
+					e.addSuppressed(closeException);
+				}
+				mFile = null;
+			}
+			throw new SirixIOException(e);
+		}
+	}
+
+	/**
+	 * Get the channel of the journal.
+	 *
+	 * @return the channel
+	 * @throws SirixIOException
+	 *           if the journal isn't open
+	 */
+	private FileChannel channel() throws SirixIOException {
+		final FileChannel channel = mChannel;
+		if (channel == null) {
+			throw new SirixIOException("Journal isn't open!");
+		}
+		return channel;
+	}
+
+	/**
+	 * Replay all complete records into the data files, force them and empty
+	 * the journal. An incomplete record at the end belongs to a commit, which
+	 * hasn't returned.
+	 *
+	 * @param journal
+	 *          channel of the journal
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	private void replay(final FileChannel journal) throws IOException {
+		final long size = journal.size();
+		long position = 0;
+		int records = 0;
+		final Set<File> replayed = new HashSet<>();
+		try {
+			while (position < size) {
+				final CRC32 crc = new CRC32();
+				final ByteBuffer pathLength = read(journal, position, 4, crc);
+				final int length = pathLength.getInt(0);
+				if (length <= 0 || position + 4 + length > size) {
+					break;
+				}
+				final File file = new File(mDirectory, new String(read(journal,
+						position + 4, length, crc).array(), StandardCharsets.UTF_8));
+				long offset = position + 4 + length;
+				final ByteBuffer header = read(journal, offset, 16 + 24, crc);
+				final long pagesOffset = header.getLong(0);
+				final long pagesLength = header.getLong(8);
+				offset += header.capacity();
+				if (pagesLength < 0 || offset + pagesLength + 4 > size) {
+					break;
+				}
+				final long pagesPosition = offset;
+				offset += pagesLength;
+				final ByteBuffer buffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
+				for (long copied = 0; copied < pagesLength;) {
+					buffer.clear();
+					buffer.limit((int) Math.min(buffer.capacity(), pagesLength
+							- copied));
+					readFully(journal, buffer, pagesPosition + copied);
+					crc.update(buffer.array(), 0, buffer.limit());
+					copied += buffer.limit();
+				}
+				if (read(journal, offset, 4, null).getInt(0) != (int) crc.getValue()) {
+					break;
+				}
+
+				// The record is complete, thus the commit has returned.
+				if (file.exists()) {
+					try (final RandomAccessFile dataFile = new RandomAccessFile(file,
+							"rw")) {
+						final FileChannel channel = dataFile.getChannel();
+						for (long copied = 0; copied < pagesLength;) {
+							final long transferred = journal.transferTo(pagesPosition
+									+ copied, pagesLength - copied, channel.position(pagesOffset
+									+ copied));
+							if (transferred <= 0) {
+								throw new EOFException();
+							}
+							copied += transferred;
+						}
+						final ByteBuffer beacon = (ByteBuffer) header.position(16);
+						while (beacon.hasRemaining()) {
+							channel.write(beacon, beacon.position() - 16);
+						}
+						replayed.add(file);
+					}
+				}
+				position = offset + 4;
+				records++;
+			}
+		} catch (final EOFException e) {
+			// Incomplete record.
+		}
+
+		for (final File file : replayed) {
+			try (final RandomAccessFile dataFile = new RandomAccessFile(file, "rw")) {
+				dataFile.getChannel().force(true);
+			}
+		}
+		if (records > 0) {
+			LOGWRAPPER.info("Replayed {} commits from the journal.", records);
+		}
+		journal.truncate(0);
+		journal.force(true);
+	}
+
+	/**
+	 * Read bytes of the journal.
+	 *
+	 * @param journal
+	 *          channel of the journal
+	 * @param position
+	 *          position in the journal
+	 * @param length
+	 *          number of bytes
+	 * @param crc
+	 *          checksum to update or {@code null}
+	 * @return a heap buffer holding the bytes
+	 * @throws IOException
+	 *           if an I/O error occurs or the end of the journal is reached
+	 */
+	private static ByteBuffer read(final FileChannel journal,
+			final long position, final int length, final CRC32 crc)
+			throws IOException {
+		final ByteBuffer buffer = ByteBuffer.allocate(length);
+		readFully(journal, buffer, position);
+		if (crc != null) {
+			crc.update(buffer.array());
+		}
+		return buffer;
+	}
+
+	/**
+	 * Fill a buffer.
+	 *
+	 * @param channel
+	 *          the channel to read from
+	 * @param buffer
+	 *          the buffer to fill
+	 * @param position
+	 *          the position to read from
+	 * @throws IOException
+	 *           if an I/O error occurs or the end of the channel is reached
+	 */
+	private static void readFully(final FileChannel channel,
+			final ByteBuffer buffer, final long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0) {
+				throw new EOFException();
+			}
+		}
+	}
+
+	/**
+	 * Append a commit, whose pages and beacon have already been written to the
+	 * data file. The commit is durable once the journal is forced.
+	 *
+	 * @param dataFile
+	 *          the data file
+	 * @param source
+	 *          channel of the data file
+	 * @param offset
+	 *          offset of the pages of the revision in the data file
+	 * @param length
+	 *          length of the pages of the revision
+	 * @param beacon
+	 *          the beacon at the beginning of the data file
+	 * @throws SirixIOException
+	 *           if an I/O error occurs
+	 */
+	public synchronized void append(final File dataFile,
+			final FileChannel source, final @Nonnegative long offset,
+			final @Nonnegative long length, final ByteBuffer beacon)
+			throws SirixIOException {
+		checkArgument(offset >= 0 && length >= 0,
+				"offset and length must be >= 0!");
+		checkArgument(beacon.remaining() == 24, "beacon must have 24 bytes!");
+		final File file = dataFile.getAbsoluteFile();
+		final byte[] path = mDirectory.toPath().relativize(file.toPath())
+				.toString().getBytes(StandardCharsets.UTF_8);
+		final CRC32 crc = new CRC32();
+		final ByteBuffer header = ByteBuffer.allocate(4 + path.length + 16 + 24);
+		header.putInt(path.length).put(path).putLong(offset).putLong(length)
+				.put(beacon.duplicate()).flip();
+		crc.update(header.array());
+		final FileChannel channel = channel();
+		try {
+			long position = channel.size();
+			while (header.hasRemaining()) {
+				position += channel.write(header, position);
+			}
+
+			// Copy the pages, which are usually still in the page cache.
+			final ByteBuffer buffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
+			for (long copied = 0; copied < length;) {
+				buffer.clear();
+				buffer.limit((int) Math.min(buffer.capacity(), length - copied));
+				readFully(source, buffer, offset + copied);
+				crc.update(buffer.array(), 0, buffer.limit());
+				buffer.flip();
+				while (buffer.hasRemaining()) {
+					position += channel.write(buffer, position);
+				}
+				copied += buffer.limit();
+			}
+
+			final ByteBuffer checksum = ByteBuffer.allocate(4);
+			checksum.putInt(0, (int) crc.getValue());
+			while (checksum.hasRemaining()) {
+				position += channel.write(checksum, position);
+			}
+		} catch (final IOException e) {
+			throw new SirixIOException(e);
+		}
+		mDataFiles.add(file);
+	}
+
+	/**
+	 * Force all appended commits to the storage device.
+	 *
+	 * @throws SirixIOException
+	 *           if an I/O error occurs
+	 */
+	public void force() throws SirixIOException {
+		try {
+			// Metadata is needed, as the journal has grown.
+			channel().force(true);
+		} catch (final IOException e) {
+			throw new SirixIOException(e);
+		}
+	}
+
+	/**
+	 * Make a checkpoint, if the journal has exceeded its size, that is force all
+	 * data files, which have records in the journal, and empty the journal.
+	 * Commits, which are appended concurrently, wait for the checkpoint.
+	 *
+	 * @throws SirixIOException
+	 *           if an I/O error occurs
+	 */
+	public synchronized void checkpoint() throws SirixIOException {
+		final FileChannel channel = channel();
+		try {
+			if (channel.size() >= mCheckpointSize) {
+				checkpoint(channel);
+			}
+		} catch (final IOException e) {
+			throw new SirixIOException(e);
+		}
+	}
+
+	/**
+	 * Make a checkpoint regardless of the size of the journal, if the journal is
+	 * open. Afterwards no record is replayed into a data file, thus it's
+	 * required before data files are removed or the journal is closed.
+	 *
+	 * @throws SirixIOException
+	 *           if an I/O error occurs
+	 */
+	public synchronized void forceCheckpoint() throws SirixIOException {
+		final FileChannel channel = mChannel;
+		if (channel == null) {
+			return;
+		}
+		try {
+			checkpoint(channel);
+		} catch (final IOException e) {
+			throw new SirixIOException(e);
+		}
+	}
+
+	/**
+	 * Force all data files, which have records in the journal, and empty the
+	 * journal.
+	 *
+	 * @param channel
+	 *          channel of the journal
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	private void checkpoint(final FileChannel channel) throws IOException {
+		for (final File file : mDataFiles) {
+			if (file.exists()) {
+				try (final RandomAccessFile dataFile = new RandomAccessFile(file,
+						"rw")) {
+					dataFile.getChannel().force(true);
+				}
+			}
+		}
+		mDataFiles.clear();
+		channel.truncate(0);
+		channel.force(true);
+	}
+
+	/**
+	 * Get the size of the journal.
+	 *
+	 * @return the size of the journal in bytes
+	 * @throws SirixIOException
+	 *           if an I/O error occurs
+	 */
+	public long size() throws SirixIOException {
+		try {
+			return channel().size();
+		} catch (final IOException e) {
+			throw new SirixIOException(e);
+		}
+	}
+
+	/**
+	 * Close the journal. The records are replayed, once the journal is opened
+	 * again, unless a checkpoint has been made beforehand (see
+	 * {@link #forceCheckpoint()}).
+	 *
+	 * @throws SirixIOException
+	 *           if an I/O error occurs
+	 */
+	@Override
+	public synchronized void close() throws SirixIOException {
+		if (mFile == null) {
+			return;
+		}
+		mChannel = null;
+		try {
+			mFile.close();
+		} catch (final IOException e) {
+			throw new SirixIOException(e);
+		} finally {
+			mFile = null;
+			mDataFiles.clear();
+		}
+	}
+}
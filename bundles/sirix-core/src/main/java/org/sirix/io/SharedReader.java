@@ -0,0 +1,37 @@
+package org.sirix.io;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * View on a thread-safe {@link Reader}, which is shared by all transactions of
+ * a {@link Storage}. Closing the view doesn't close the shared reader, which
+ * is closed together with the storage.
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
+public final class SharedReader extends AbstractForwardingReader {
+
+	/** The shared reader. */
+	private final Reader mReader;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param reader
+	 *          the shared reader, which must be thread-safe
+	 */
+	public SharedReader(final Reader reader) {
+		mReader = checkNotNull(reader);
+	}
+
+	@Override
+	public void close() {
+		// The shared reader is closed by the storage.
+	}
+
+	@Override
+	protected Reader delegate() {
+		return mReader;
+	}
+}
@@ -50,7 +50,9 @@ public interface Storage {
 	Writer getWriter() throws SirixIOException;
 
 	/**
-	 * Getting a reader.
+	 * Getting a reader. Backends might hand out views on a single thread-safe
+	 * reader, which is shared by all transactions and closed once the storage
+	 * is closed.
 	 * 
 	 * @return an {@link Reader} instance
 	 * @throws SirixIOException
@@ -33,6 +33,7 @@ import org.sirix.exception.SirixIOException;
 import org.sirix.io.berkeley.BerkeleyStorage;
 import org.sirix.io.chronicle.ChronicleStorage;
 import org.sirix.io.file.FileStorage;
+import org.sirix.io.memorymapped.MemoryMappedStorage;
 import org.sirix.io.ram.RAMStorage;
 
 /**
@@ -71,6 +72,15 @@ public enum StorageType {
 		}
 	},
 
+	/** Memory mapped file backend. */
+	MEMORY_MAPPED {
+		@Override
+		public Storage getInstance(final ResourceConfiguration resourceConf)
+				throws SirixIOException {
+			return new MemoryMappedStorage(resourceConf);
+		}
+	},
+
 	/** BerkeleyDB backend. */
 	BERKELEY_DB {
 		@Override
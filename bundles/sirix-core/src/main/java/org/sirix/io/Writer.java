@@ -50,7 +50,10 @@ public interface Writer extends Reader {
 	void write(final PageReference pageReference) throws SirixIOException;
 
 	/**
-	 * Write beacon for the first reference.
+	 * Write beacon for the first reference. The referenced page is written
+	 * beforehand, if it isn't already written (that is if the key of the
+	 * reference is not set). All pages are durable before the beacon is written,
+	 * the beacon itself is durable after the next {@link #sync()}.
 	 * 
 	 * @param pageReference
 	 *          that points to the beacon
@@ -60,4 +63,36 @@ public interface Writer extends Reader {
 	void writeUberPageReference(final PageReference pageReference)
 			throws SirixIOException;
 
+	/**
+	 * Write beacon for the first reference like
+	 * {@link #writeUberPageReference(PageReference)}, but without forcing any
+	 * pages. Instead all pages of the revision and the beacon are appended to
+	 * the journal of the database, which makes the revision durable once it's
+	 * forced.
+	 * 
+	 * @param pageReference
+	 *          that points to the beacon
+	 * @param journal
+	 *          the journal of the database
+	 * @return {@code true}, if the revision has been appended to the journal,
+	 *         {@code false} if the backend doesn't use the journal, in which case
+	 *         nothing has been written
+	 * @throws SirixIOException
+	 *           if an I/O error occured
+	 */
+	default boolean writeUberPageReference(final PageReference pageReference,
+			final Journal journal) throws SirixIOException {
+		return false;
+	}
+
+	/**
+	 * Make everything written so far durable, if required by the
+	 * {@link DurabilityMode} of the resource. Backends, which handle durability
+	 * on their own, do nothing.
+	 * 
+	 * @throws SirixIOException
+	 *           if an I/O error occured
+	 */
+	void sync() throws SirixIOException;
+
 }
@@ -68,9 +68,6 @@ public final class BerkeleyReader implements Reader {
 	/** {@link Transaction} reference. */
 	private final Transaction mTxn;
 
-	/** {@link PageBinding} reference. */
-	private PageBinding mPageBinding;
-
 	/** {@link ByteHandlePipeline} reference. */
 	private final ByteHandlePipeline mByteHandler;
 
@@ -115,7 +112,7 @@ public final class BerkeleyReader implements Reader {
 	@Override
 	public Page read(final long key, final PageReadTrx pageReadTrx)
 			throws SirixIOException {
-		mPageBinding = new PageBinding(mByteHandler, pageReadTrx);
+		final PageBinding pageBinding = new PageBinding(mByteHandler, pageReadTrx);
 		final DatabaseEntry valueEntry = new DatabaseEntry();
 		final DatabaseEntry keyEntry = new DatabaseEntry();
 
@@ -126,7 +123,7 @@ public final class BerkeleyReader implements Reader {
 			final OperationStatus status = mDatabase.get(mTxn, keyEntry, valueEntry,
 					LockMode.DEFAULT);
 			if (status == OperationStatus.SUCCESS) {
-				page = mPageBinding.entryToObject(valueEntry);
+				page = pageBinding.entryToObject(valueEntry);
 			}
 			return page;
 		} catch (final DatabaseException exc) {
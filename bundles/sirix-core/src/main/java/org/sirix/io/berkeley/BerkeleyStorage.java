@@ -105,7 +105,7 @@ public final class BerkeleyStorage implements Storage {
 			repoFile.mkdirs();
 		}
 
-		mByteHandler = checkNotNull(resourceConfig.mByteHandler);
+		mByteHandler = checkNotNull(resourceConfig.getPageByteHandler());
 
 		final DatabaseConfig conf = generateDBConf();
 		final EnvironmentConfig config = generateEnvConf();
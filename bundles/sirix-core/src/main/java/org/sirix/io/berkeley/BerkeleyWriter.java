@@ -42,6 +42,7 @@ import org.sirix.io.bytepipe.ByteHandlePipeline;
 import org.sirix.page.PageReference;
 import org.sirix.page.UnorderedKeyValuePage;
 import org.sirix.page.interfaces.Page;
+import org.sirix.settings.Constants;
 
 import com.sleepycat.bind.tuple.TupleBinding;
 import com.sleepycat.je.Database;
@@ -185,7 +186,9 @@ public final class BerkeleyWriter implements Writer {
 	@Override
 	public void writeUberPageReference(final PageReference pageReference)
 			throws SirixIOException {
-		write(pageReference);
+		if (pageReference.getKey() == Constants.NULL_ID) {
+			write(pageReference);
+		}
 
 		final DatabaseEntry keyEntry = new DatabaseEntry();
 		TupleBinding.getPrimitiveBinding(Long.class).objectToEntry(-1l, keyEntry);
@@ -202,6 +205,11 @@ public final class BerkeleyWriter implements Writer {
 
 	}
 
+	@Override
+	public void sync() {
+		// Durability is handled by the Berkeley DB transaction.
+	}
+
 	@Override
 	public Page read(final long key, final PageReadTrx pageReadTrx)
 			throws SirixIOException {
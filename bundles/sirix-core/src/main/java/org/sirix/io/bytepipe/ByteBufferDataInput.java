@@ -0,0 +1,152 @@
+package org.sirix.io.bytepipe;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import javax.annotation.Nonnegative;
+
+/**
+ * {@link DataInput} reading the remaining bytes of a {@link ByteBuffer}
+ * without copying them.
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public final class ByteBufferDataInput implements DataInput {
+
+	/** The buffer to read from. */
+	private final ByteBuffer mBuffer;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param buffer
+	 *          the buffer to read from, beginning at its current position
+	 */
+	public ByteBufferDataInput(final ByteBuffer buffer) {
+		mBuffer = checkNotNull(buffer);
+	}
+
+	/**
+	 * Make sure, that the given number of bytes can be read.
+	 * 
+	 * @param length
+	 *          number of bytes to read
+	 * @throws EOFException
+	 *           if less bytes remain
+	 */
+	private void require(final @Nonnegative int length) throws EOFException {
+		if (mBuffer.remaining() < length) {
+			throw new EOFException();
+		}
+	}
+
+	@Override
+	public void readFully(final byte[] b) throws IOException {
+		readFully(b, 0, b.length);
+	}
+
+	@Override
+	public void readFully(final byte[] b, final int off, final int len)
+			throws IOException {
+		require(len);
+		mBuffer.get(b, off, len);
+	}
+
+	@Override
+	public int skipBytes(final int n) {
+		final int skip = Math.max(0, Math.min(n, mBuffer.remaining()));
+		mBuffer.position(mBuffer.position() + skip);
+		return skip;
+	}
+
+	@Override
+	public boolean readBoolean() throws IOException {
+		return readByte() != 0;
+	}
+
+	@Override
+	public byte readByte() throws IOException {
+		require(1);
+		return mBuffer.get();
+	}
+
+	@Override
+	public int readUnsignedByte() throws IOException {
+		return readByte() & 0xFF;
+	}
+
+	@Override
+	public short readShort() throws IOException {
+		require(2);
+		return mBuffer.getShort();
+	}
+
+	@Override
+	public int readUnsignedShort() throws IOException {
+		return readShort() & 0xFFFF;
+	}
+
+	@Override
+	public char readChar() throws IOException {
+		require(2);
+		return mBuffer.getChar();
+	}
+
+	@Override
+	public int readInt() throws IOException {
+		require(4);
+		return mBuffer.getInt();
+	}
+
+	@Override
+	public long readLong() throws IOException {
+		require(8);
+		return mBuffer.getLong();
+	}
+
+	@Override
+	public float readFloat() throws IOException {
+		require(4);
+		return mBuffer.getFloat();
+	}
+
+	@Override
+	public double readDouble() throws IOException {
+		require(8);
+		return mBuffer.getDouble();
+	}
+
+	@Override
+	public String readLine() {
+		if (!mBuffer.hasRemaining()) {
+			return null;
+		}
+		final StringBuilder line = new StringBuilder();
+		while (mBuffer.hasRemaining()) {
+			final char c = (char) (mBuffer.get() & 0xFF);
+			if (c == '\n') {
+				break;
+			}
+			if (c == '\r') {
+				if (mBuffer.hasRemaining()
+						&& mBuffer.get(mBuffer.position()) == '\n') {
+					mBuffer.get();
+				}
+				break;
+			}
+			line.append(c);
+		}
+		return line.toString();
+	}
+
+	@Override
+	public String readUTF() throws IOException {
+		return DataInputStream.readUTF(this);
+	}
+}
@@ -0,0 +1,196 @@
+package org.sirix.io.bytepipe;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.DataOutput;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+
+import javax.annotation.Nonnegative;
+
+/**
+ * {@link DataOutput} writing into a buffer of a {@link ByteBufferPool}, which
+ * is replaced by a larger one whenever it is full.
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public final class ByteBufferDataOutput implements DataOutput {
+
+	/** Pool to acquire buffers from. */
+	private final ByteBufferPool mPool;
+
+	/** The current buffer. */
+	private ByteBuffer mBuffer;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param pool
+	 *          pool to acquire buffers from
+	 */
+	public ByteBufferDataOutput(final ByteBufferPool pool) {
+		this(pool, ByteBufferPool.MIN_CAPACITY);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param pool
+	 *          pool to acquire buffers from
+	 * @param capacity
+	 *          the initial capacity
+	 */
+	public ByteBufferDataOutput(final ByteBufferPool pool,
+			final @Nonnegative int capacity) {
+		mPool = checkNotNull(pool);
+		mBuffer = mPool.acquire(capacity);
+	}
+
+	/**
+	 * Get the written bytes. The ownership of the returned buffer passes to the
+	 * caller, which has to release it to the pool. Afterwards nothing can be
+	 * written anymore.
+	 * 
+	 * @return a flipped buffer holding the written bytes
+	 */
+	public ByteBuffer getBuffer() {
+		checkState(mBuffer != null, "Buffer has already been retrieved!");
+		final ByteBuffer buffer = mBuffer;
+		mBuffer = null;
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * Make sure, that the given number of bytes can be written.
+	 * 
+	 * @param length
+	 *          number of bytes to write
+	 */
+	private void ensureRemaining(final @Nonnegative int length) {
+		checkState(mBuffer != null, "Buffer has already been retrieved!");
+		if (mBuffer.remaining() < length) {
+			mBuffer = mPool.grow(mBuffer, mBuffer.position() + length);
+		}
+	}
+
+	@Override
+	public void write(final int b) {
+		ensureRemaining(1);
+		mBuffer.put((byte) b);
+	}
+
+	@Override
+	public void write(final byte[] b) {
+		write(b, 0, b.length);
+	}
+
+	@Override
+	public void write(final byte[] b, final int off, final int len) {
+		ensureRemaining(len);
+		mBuffer.put(b, off, len);
+	}
+
+	@Override
+	public void writeBoolean(final boolean v) {
+		write(v ? 1 : 0);
+	}
+
+	@Override
+	public void writeByte(final int v) {
+		write(v);
+	}
+
+	@Override
+	public void writeShort(final int v) {
+		ensureRemaining(2);
+		mBuffer.putShort((short) v);
+	}
+
+	@Override
+	public void writeChar(final int v) {
+		ensureRemaining(2);
+		mBuffer.putChar((char) v);
+	}
+
+	@Override
+	public void writeInt(final int v) {
+		ensureRemaining(4);
+		mBuffer.putInt(v);
+	}
+
+	@Override
+	public void writeLong(final long v) {
+		ensureRemaining(8);
+		mBuffer.putLong(v);
+	}
+
+	@Override
+	public void writeFloat(final float v) {
+		ensureRemaining(4);
+		mBuffer.putFloat(v);
+	}
+
+	@Override
+	public void writeDouble(final double v) {
+		ensureRemaining(8);
+		mBuffer.putDouble(v);
+	}
+
+	@Override
+	public void writeBytes(final String s) {
+		final int length = s.length();
+		ensureRemaining(length);
+		for (int i = 0; i < length; i++) {
+			mBuffer.put((byte) s.charAt(i));
+		}
+	}
+
+	@Override
+	public void writeChars(final String s) {
+		final int length = s.length();
+		ensureRemaining(2 * length);
+		for (int i = 0; i < length; i++) {
+			mBuffer.putChar(s.charAt(i));
+		}
+	}
+
+	@Override
+	public void writeUTF(final String s) throws UTFDataFormatException {
+		// Modified UTF-8 as specified by DataOutput.
+		final int length = s.length();
+		int utfLength = 0;
+		for (int i = 0; i < length; i++) {
+			final char c = s.charAt(i);
+			if (c >= 0x0001 && c <= 0x007F) {
+				utfLength++;
+			} else if (c > 0x07FF) {
+				utfLength += 3;
+			} else {
+				utfLength += 2;
+			}
+		}
+		if (utfLength > 65535) {
+			throw new UTFDataFormatException("Encoded string too long: "
+					+ utfLength + " bytes");
+		}
+
+		ensureRemaining(utfLength + 2);
+		mBuffer.putShort((short) utfLength);
+		for (int i = 0; i < length; i++) {
+			final char c = s.charAt(i);
+			if (c >= 0x0001 && c <= 0x007F) {
+				mBuffer.put((byte) c);
+			} else if (c > 0x07FF) {
+				mBuffer.put((byte) (0xE0 | ((c >> 12) & 0x0F)));
+				mBuffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+				mBuffer.put((byte) (0x80 | (c & 0x3F)));
+			} else {
+				mBuffer.put((byte) (0xC0 | ((c >> 6) & 0x1F)));
+				mBuffer.put((byte) (0x80 | (c & 0x3F)));
+			}
+		}
+	}
+}
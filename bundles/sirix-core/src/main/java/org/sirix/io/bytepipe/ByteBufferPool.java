@@ -0,0 +1,201 @@
+package org.sirix.io.bytepipe;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Set;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nullable;
+
+import com.google.common.collect.MapMaker;
+
+/**
+ * Pool of buffers, which are used to serialize, transform and deserialize
+ * pages, such that the I/O path doesn't allocate new byte arrays for every
+ * page. Buffers are handed out in power of two size classes, whereas buffers
+ * larger than {@link #MAX_CAPACITY} are not pooled at all. Only buffers, which
+ * have been handed out by the pool and haven't been released since, are taken
+ * back, such that neither foreign buffers nor buffers released twice end up in
+ * the pool.
+ * 
+ * <p>
+ * The buffers are backed by an accessible array, as the compressors of the
+ * Java 8 class library only operate on arrays. The pool is thread-safe.
+ * </p>
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public final class ByteBufferPool {
+
+	/** Capacity of the smallest size class (4 KB). */
+	public static final int MIN_CAPACITY = 1 << 12;
+
+	/** Capacity of the largest size class (16 MB). */
+	public static final int MAX_CAPACITY = 1 << 24;
+
+	/** Default number of buffers kept per size class. */
+	public static final int DEFAULT_BUFFERS_PER_CLASS = 16;
+
+	/** Free buffers for each size class. */
+	private final Deque<ByteBuffer>[] mFree;
+
+	/** Maximum number of buffers kept per size class. */
+	private final int mBuffersPerClass;
+
+	/**
+	 * Buffers, which have been handed out and not yet released, compared by
+	 * identity and weakly referenced, as buffers might never be released.
+	 */
+	private final Set<ByteBuffer> mAcquired;
+
+	/**
+	 * Constructor, which keeps up to {@link #DEFAULT_BUFFERS_PER_CLASS} buffers
+	 * per size class.
+	 */
+	public ByteBufferPool() {
+		this(DEFAULT_BUFFERS_PER_CLASS);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param buffersPerClass
+	 *          maximum number of buffers kept per size class
+	 */
+	@SuppressWarnings("unchecked")
+	public ByteBufferPool(final @Nonnegative int buffersPerClass) {
+		checkArgument(buffersPerClass >= 0, "buffersPerClass must be >= 0!");
+		mBuffersPerClass = buffersPerClass;
+		mAcquired = Collections.newSetFromMap(new MapMaker().weakKeys()
+				.<ByteBuffer, Boolean> makeMap());
+		mFree = new Deque[sizeClass(MAX_CAPACITY) + 1];
+		for (int i = 0; i < mFree.length; i++) {
+			mFree[i] = new ArrayDeque<>();
+		}
+	}
+
+	/**
+	 * Acquire a cleared buffer in big-endian byte order.
+	 * 
+	 * @param capacity
+	 *          the minimum capacity of the buffer
+	 * @return a buffer with at least the requested capacity, whose limit is the
+	 *         capacity
+	 */
+	public ByteBuffer acquire(final @Nonnegative int capacity) {
+		checkArgument(capacity >= 0, "capacity must be >= 0!");
+		if (capacity > MAX_CAPACITY) {
+			return ByteBuffer.allocate(capacity);
+		}
+		final int sizeClass = sizeClass(capacity);
+		final Deque<ByteBuffer> free = mFree[sizeClass];
+		ByteBuffer buffer;
+		synchronized (free) {
+			buffer = free.poll();
+		}
+		if (buffer == null) {
+			buffer = ByteBuffer.allocate(MIN_CAPACITY << sizeClass);
+		}
+		mAcquired.add(buffer);
+		buffer.clear();
+		buffer.order(ByteOrder.BIG_ENDIAN);
+		return buffer;
+	}
+
+	/**
+	 * Acquire a buffer holding a copy of the remaining bytes of the given
+	 * buffer. The position of the given buffer is not changed.
+	 * 
+	 * @param source
+	 *          the buffer to copy
+	 * @return a flipped buffer holding the copy
+	 */
+	public ByteBuffer acquireCopy(final ByteBuffer source) {
+		final ByteBuffer copy = acquire(source.remaining());
+		copy.put(source.duplicate());
+		copy.flip();
+		return copy;
+	}
+
+	/**
+	 * Get a buffer backed by an accessible array, which holds the remaining
+	 * bytes of the given buffer. If the given buffer isn't backed by an
+	 * accessible array (for instance a direct or read-only buffer), a copy is
+	 * acquired and the given buffer is released.
+	 * 
+	 * @param buffer
+	 *          the buffer
+	 * @return the given buffer or a flipped copy
+	 */
+	public ByteBuffer arrayBacked(final ByteBuffer buffer) {
+		if (buffer.hasArray()) {
+			return buffer;
+		}
+		final ByteBuffer copy = acquireCopy(buffer);
+		release(buffer);
+		return copy;
+	}
+
+	/**
+	 * Replace a buffer with a larger one. The bytes up to the position of the
+	 * given buffer are copied and the given buffer is released.
+	 * 
+	 * @param buffer
+	 *          the buffer to replace
+	 * @param capacity
+	 *          the minimum capacity of the new buffer
+	 * @return the new buffer, whose position is the position of the given buffer
+	 */
+	public ByteBuffer grow(final ByteBuffer buffer,
+			final @Nonnegative int capacity) {
+		final ByteBuffer grown = acquire(Math.max(capacity,
+				(int) Math.min(Integer.MAX_VALUE, 2L * buffer.capacity())));
+		buffer.flip();
+		grown.put(buffer);
+		release(buffer);
+		return grown;
+	}
+
+	/**
+	 * Release a buffer, such that it can be reused. Buffers not handed out by
+	 * this pool (for instance direct or mapped buffers, duplicates or buffers of
+	 * another pool) and buffers, which have already been released, are ignored.
+	 * The buffer must not be used afterwards.
+	 * 
+	 * @param buffer
+	 *          the buffer to release, might be {@code null}
+	 */
+	public void release(final @Nullable ByteBuffer buffer) {
+		if (buffer == null || !mAcquired.remove(buffer)) {
+			return;
+		}
+		final Deque<ByteBuffer> free = mFree[sizeClass(buffer.capacity())];
+		synchronized (free) {
+			if (free.size() < mBuffersPerClass) {
+				free.push(buffer);
+			}
+		}
+	}
+
+	/**
+	 * Get the size class of a capacity.
+	 * 
+	 * @param capacity
+	 *          the capacity
+	 * @return the index of the smallest size class, which is able to hold the
+	 *         capacity
+	 */
+	private static int sizeClass(final @Nonnegative int capacity) {
+		if (capacity <= MIN_CAPACITY) {
+			return 0;
+		}
+		return 32 - Integer.numberOfLeadingZeros(capacity - 1)
+				- Integer.numberOfTrailingZeros(MIN_CAPACITY);
+	}
+}
@@ -6,6 +6,7 @@ package org.sirix.io.bytepipe;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -68,6 +69,28 @@ public final class ByteHandlePipeline implements ByteHandler {
 		return pipeData;
 	}
 
+	@Override
+	public ByteBuffer serialize(final ByteBuffer toSerialize,
+			final ByteBufferPool pool) throws IOException {
+		// The stream of the first part is the outermost one, thus it is applied
+		// last.
+		ByteBuffer pipeData = toSerialize;
+		for (int i = mParts.size() - 1; i >= 0; i--) {
+			pipeData = mParts.get(i).serialize(pipeData, pool);
+		}
+		return pipeData;
+	}
+
+	@Override
+	public ByteBuffer deserialize(final ByteBuffer toDeserialize,
+			final ByteBufferPool pool) throws IOException {
+		ByteBuffer pipeData = toDeserialize;
+		for (final ByteHandler part : mParts) {
+			pipeData = part.deserialize(pipeData, pool);
+		}
+		return pipeData;
+	}
+
 	/**
 	 * Get byte handler components.
 	 * 
@@ -3,11 +3,19 @@ package org.sirix.io.bytepipe;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 /**
  * Interface for the decorator, representing any byte representation to be
  * serialized or to serialize.
  * 
+ * <p>
+ * Besides the stream based methods, bytes can be transformed between buffers
+ * of a {@link ByteBufferPool}. Both variants produce the same representation.
+ * The ownership of the buffer to transform passes to the handler, which either
+ * returns it or releases it to the pool.
+ * </p>
+ * 
  * @author Sebastian Graf, University of Konstanz
  * 
  */
@@ -35,6 +43,36 @@ public interface ByteHandler {
 	 */
 	InputStream deserialize(InputStream toDeserialize) throws IOException;
 
+	/**
+	 * Method to serialize the remaining bytes of a buffer.
+	 * 
+	 * @param toSerialize
+	 *          buffer holding the bytes to serialize
+	 * @param pool
+	 *          pool to acquire buffers from and release buffers to
+	 * @return buffer holding the result of the serialization between its
+	 *         position and limit
+	 * @throws IOException
+	 *           if a byte handling exception occurs
+	 */
+	ByteBuffer serialize(ByteBuffer toSerialize, ByteBufferPool pool)
+			throws IOException;
+
+	/**
+	 * Method to deserialize the remaining bytes of a buffer.
+	 * 
+	 * @param toDeserialize
+	 *          buffer holding the bytes to deserialize
+	 * @param pool
+	 *          pool to acquire buffers from and release buffers to
+	 * @return buffer holding the result of the deserialization between its
+	 *         position and limit
+	 * @throws IOException
+	 *           if a byte handling exception occurs
+	 */
+	ByteBuffer deserialize(ByteBuffer toDeserialize, ByteBufferPool pool)
+			throws IOException;
+
 	/**
 	 * Method to retrieve a new instance.
 	 * 
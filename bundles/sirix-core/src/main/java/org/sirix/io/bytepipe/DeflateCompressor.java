@@ -3,10 +3,15 @@
  */
 package org.sirix.io.bytepipe;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
 import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
 import java.util.zip.InflaterInputStream;
 
 /**
@@ -17,6 +22,17 @@ import java.util.zip.InflaterInputStream;
  */
 public final class DeflateCompressor implements ByteHandler {
 
+	/**
+	 * Deflater of each thread, which is reset instead of being allocated (and
+	 * its native memory freed) for every page.
+	 */
+	private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal
+			.withInitial(Deflater::new);
+
+	/** Inflater of each thread, which is reset instead of being allocated. */
+	private static final ThreadLocal<Inflater> INFLATER = ThreadLocal
+			.withInitial(Inflater::new);
+
 	@Override
 	public OutputStream serialize(final OutputStream toSerialize)
 			throws IOException {
@@ -29,6 +45,68 @@ public final class DeflateCompressor implements ByteHandler {
 		return new InflaterInputStream(toDeserialize);
 	}
 
+	@Override
+	public ByteBuffer serialize(final ByteBuffer toSerialize,
+			final ByteBufferPool pool) throws IOException {
+		final ByteBuffer source = pool.arrayBacked(toSerialize);
+		final Deflater deflater = DEFLATER.get();
+		try {
+			deflater.setInput(source.array(),
+					source.arrayOffset() + source.position(), source.remaining());
+			deflater.finish();
+			ByteBuffer target = pool.acquire(source.remaining()
+					+ (source.remaining() >> 8) + 64);
+			while (!deflater.finished()) {
+				if (!target.hasRemaining()) {
+					target = pool.grow(target, target.capacity() + 1);
+				}
+				final int deflated = deflater.deflate(target.array(),
+						target.arrayOffset() + target.position(), target.remaining());
+				target.position(target.position() + deflated);
+			}
+			target.flip();
+			return target;
+		} finally {
+			deflater.reset();
+			pool.release(source);
+		}
+	}
+
+	@Override
+	public ByteBuffer deserialize(final ByteBuffer toDeserialize,
+			final ByteBufferPool pool) throws IOException {
+		final ByteBuffer source = pool.arrayBacked(toDeserialize);
+		final Inflater inflater = INFLATER.get();
+		ByteBuffer target = null;
+		try {
+			inflater.setInput(source.array(),
+					source.arrayOffset() + source.position(), source.remaining());
+			target = pool.acquire(4 * source.remaining());
+			while (!inflater.finished()) {
+				if (!target.hasRemaining()) {
+					target = pool.grow(target, target.capacity() + 1);
+				}
+				final int inflated = inflater.inflate(target.array(),
+						target.arrayOffset() + target.position(), target.remaining());
+				if (inflated == 0
+						&& (inflater.needsInput() || inflater.needsDictionary())) {
+					throw new EOFException("Unexpected end of deflated data!");
+				}
+				target.position(target.position() + inflated);
+			}
+			target.flip();
+			final ByteBuffer result = target;
+			target = null;
+			return result;
+		} catch (final DataFormatException e) {
+			throw new IOException(e);
+		} finally {
+			inflater.reset();
+			pool.release(target);
+			pool.release(source);
+		}
+	}
+
 	@Override
 	public ByteHandler getInstance() {
 		return new DeflateCompressor();
@@ -6,6 +6,7 @@ package org.sirix.io.bytepipe;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.security.GeneralSecurityException;
 import java.security.Key;
 
@@ -27,6 +28,12 @@ public final class Encryptor implements ByteHandler {
 	/** Algorithm to use. */
 	private static final String ALGORITHM = "AES";
 
+	/**
+	 * Cipher of each thread to transform buffers with, which is initialized for
+	 * every buffer instead of being looked up from the providers.
+	 */
+	private static final ThreadLocal<Cipher> CIPHER = new ThreadLocal<>();
+
 	/** Key for access data. */
 	private final Key mKey;
 
@@ -68,6 +75,67 @@ public final class Encryptor implements ByteHandler {
 		}
 	}
 
+	@Override
+	public ByteBuffer serialize(final ByteBuffer toSerialize,
+			final ByteBufferPool pool) throws IOException {
+		return transform(Cipher.ENCRYPT_MODE, toSerialize, pool);
+	}
+
+	@Override
+	public ByteBuffer deserialize(final ByteBuffer toDeserialize,
+			final ByteBufferPool pool) throws IOException {
+		return transform(Cipher.DECRYPT_MODE, toDeserialize, pool);
+	}
+
+	/**
+	 * Encrypt or decrypt the remaining bytes of a buffer.
+	 * 
+	 * @param mode
+	 *          the cipher mode
+	 * @param source
+	 *          buffer to transform, which is released afterwards
+	 * @param pool
+	 *          pool to acquire the target buffer from
+	 * @return flipped target buffer
+	 * @throws IOException
+	 *           if the bytes can't be transformed
+	 */
+	private ByteBuffer transform(final int mode, final ByteBuffer source,
+			final ByteBufferPool pool) throws IOException {
+		ByteBuffer target = null;
+		try {
+			final Cipher cipher = cipher();
+			cipher.init(mode, mKey);
+			target = pool.acquire(cipher.getOutputSize(source.remaining()));
+			cipher.doFinal(source, target);
+			target.flip();
+			final ByteBuffer result = target;
+			target = null;
+			return result;
+		} catch (final GeneralSecurityException e) {
+			throw new IOException(e);
+		} finally {
+			pool.release(target);
+			pool.release(source);
+		}
+	}
+
+	/**
+	 * Get the cipher of the current thread.
+	 * 
+	 * @return the cipher
+	 * @throws GeneralSecurityException
+	 *           if the algorithm isn't available
+	 */
+	private static Cipher cipher() throws GeneralSecurityException {
+		Cipher cipher = CIPHER.get();
+		if (cipher == null) {
+			cipher = Cipher.getInstance(ALGORITHM);
+			CIPHER.set(cipher);
+		}
+		return cipher;
+	}
+
 	@Override
 	public ByteHandler getInstance() {
 		return new Encryptor();
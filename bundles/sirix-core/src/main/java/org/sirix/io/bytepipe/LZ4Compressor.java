@@ -0,0 +1,166 @@
+package org.sirix.io.bytepipe;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+import com.google.common.io.ByteStreams;
+
+/**
+ * LZ4 compression/decompression, which trades compression ratio for very fast
+ * decompression. Data is stored as its uncompressed length followed by a
+ * single block in the LZ4 block format.
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
+public final class LZ4Compressor implements ByteHandler {
+
+	/** The fastest available (native, unsafe or pure Java) implementation. */
+	private static final LZ4Factory FACTORY = LZ4Factory.fastestInstance();
+
+	/** Compresses blocks, which is thread-safe. */
+	private static final net.jpountz.lz4.LZ4Compressor COMPRESSOR = FACTORY
+			.fastCompressor();
+
+	/**
+	 * Decompresses blocks, which is thread-safe and never reads or writes out of
+	 * bounds, even if a block is corrupt.
+	 */
+	private static final LZ4SafeDecompressor DECOMPRESSOR = FACTORY
+			.safeDecompressor();
+
+	@Override
+	public OutputStream serialize(final OutputStream toSerialize)
+			throws IOException {
+		// A block is compressed as a whole, once the stream is closed.
+		return new FilterOutputStream(new ByteArrayOutputStream()) {
+			@Override
+			public void write(final byte[] b, final int off, final int len)
+					throws IOException {
+				out.write(b, off, len);
+			}
+
+			@Override
+			public void close() throws IOException {
+				final byte[] bytes = ((ByteArrayOutputStream) out).toByteArray();
+				final byte[] compressed = new byte[4 + COMPRESSOR
+						.maxCompressedLength(bytes.length)];
+				ByteBuffer.wrap(compressed).putInt(bytes.length);
+				final int length = COMPRESSOR.compress(bytes, 0, bytes.length,
+						compressed, 4, compressed.length - 4);
+				toSerialize.write(compressed, 0, 4 + length);
+				toSerialize.close();
+			}
+		};
+	}
+
+	@Override
+	public InputStream deserialize(final InputStream toDeserialize)
+			throws IOException {
+		final byte[] bytes = ByteStreams.toByteArray(toDeserialize);
+		if (bytes.length < 4) {
+			throw new IOException("Missing LZ4 block length!");
+		}
+		final int length = ByteBuffer.wrap(bytes).getInt();
+		if (length < 0) {
+			throw new IOException("Invalid LZ4 block length: " + length);
+		}
+		final byte[] decompressed = new byte[length];
+		decompress(bytes, 4, bytes.length - 4, decompressed, 0, length);
+		return new ByteArrayInputStream(decompressed);
+	}
+
+	@Override
+	public ByteBuffer serialize(final ByteBuffer toSerialize,
+			final ByteBufferPool pool) throws IOException {
+		final ByteBuffer source = pool.arrayBacked(toSerialize);
+		try {
+			final int length = source.remaining();
+			final int maxLength = COMPRESSOR.maxCompressedLength(length);
+			final ByteBuffer target = pool.acquire(4 + maxLength);
+			target.putInt(length);
+			final int compressed = COMPRESSOR.compress(source.array(),
+					source.arrayOffset() + source.position(), length, target.array(),
+					target.arrayOffset() + target.position(), maxLength);
+			target.position(target.position() + compressed);
+			target.flip();
+			return target;
+		} finally {
+			pool.release(source);
+		}
+	}
+
+	@Override
+	public ByteBuffer deserialize(final ByteBuffer toDeserialize,
+			final ByteBufferPool pool) throws IOException {
+		final ByteBuffer source = pool.arrayBacked(toDeserialize);
+		ByteBuffer target = null;
+		try {
+			if (source.remaining() < 4) {
+				throw new IOException("Missing LZ4 block length!");
+			}
+			final int length = source.getInt(source.position());
+			if (length < 0) {
+				throw new IOException("Invalid LZ4 block length: " + length);
+			}
+			target = pool.acquire(length);
+			decompress(source.array(), source.arrayOffset() + source.position() + 4,
+					source.remaining() - 4, target.array(), target.arrayOffset(),
+					length);
+			target.limit(length);
+			final ByteBuffer result = target;
+			target = null;
+			return result;
+		} finally {
+			pool.release(target);
+			pool.release(source);
+		}
+	}
+
+	/**
+	 * Decompress a single block.
+	 *
+	 * @param src
+	 *          the source array
+	 * @param srcOff
+	 *          the offset of the block
+	 * @param srcLen
+	 *          the length of the block
+	 * @param dest
+	 *          the destination array
+	 * @param destOff
+	 *          the offset in the destination array
+	 * @param destLen
+	 *          the uncompressed length
+	 * @throws IOException
+	 *           if the block is corrupt or doesn't have the uncompressed length
+	 */
+	private static void decompress(final byte[] src, final int srcOff,
+			final int srcLen, final byte[] dest, final int destOff, final int destLen)
+			throws IOException {
+		try {
+			final int length = DECOMPRESSOR.decompress(src, srcOff, srcLen, dest,
+					destOff, destLen);
+			if (length != destLen) {
+				throw new IOException("Invalid LZ4 block length: " + length
+						+ " instead of " + destLen);
+			}
+		} catch (final LZ4Exception e) {
+			throw new IOException("Corrupt LZ4 block!", e);
+		}
+	}
+
+	@Override
+	public ByteHandler getInstance() {
+		return new LZ4Compressor();
+	}
+}
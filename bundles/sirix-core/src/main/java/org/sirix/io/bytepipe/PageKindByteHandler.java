@@ -0,0 +1,374 @@
+package org.sirix.io.bytepipe;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.sirix.page.PageKind;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Selects the {@link ByteHandlePipeline} (the codec) of a serialized page by
+ * its {@link PageKind}, which is the first byte of a serialized page. The id of
+ * the codec is written in front of the transformed page, such that a page is
+ * always read with the codec it has been written with, regardless of the
+ * current selection.
+ *
+ * <p>
+ * The codec id is stable, that is it only depends on the components of the
+ * pipeline and neither on the page kinds nor on the other pipelines: the
+ * number of components followed by the id of each component (see
+ * {@link #HANDLER_IDS}). Thus, a page remains readable as long as a pipeline
+ * with the same components is configured for any page kind.
+ * </p>
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
+public final class PageKindByteHandler implements ByteHandler {
+
+	/**
+	 * Stable ids of the byte handlers, which are written to disk and therefore
+	 * must never be changed or reused.
+	 */
+	private static final Map<Class<? extends ByteHandler>, Byte> HANDLER_IDS = ImmutableMap
+			.<Class<? extends ByteHandler>, Byte> builder()
+			.put(DeflateCompressor.class, (byte) 1)
+			.put(SnappyCompressor.class, (byte) 2)
+			.put(LZ4Compressor.class, (byte) 3)
+			.put(ZstdCompressor.class, (byte) 4).put(Encryptor.class, (byte) 5)
+			.build();
+
+	/** Maximum number of components of a pipeline. */
+	private static final int MAX_COMPONENTS = 7;
+
+	/** A pipeline together with its codec id. */
+	private static final class Codec {
+		/** The codec id. */
+		private final byte[] mId;
+
+		/** The pipeline. */
+		private final ByteHandlePipeline mPipeline;
+
+		private Codec(final byte[] id, final ByteHandlePipeline pipeline) {
+			mId = id;
+			mPipeline = pipeline;
+		}
+	}
+
+	/** The default codec. */
+	private final Codec mDefault;
+
+	/** The selected codec for each page kind. */
+	private final Map<PageKind, Codec> mSelection;
+
+	/** The codecs by their codec ids. */
+	private final Map<Long, Codec> mCodecs;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param defaultPipeline
+	 *          the pipeline used for page kinds without a specific pipeline
+	 * @param pipelines
+	 *          the pipelines for specific page kinds
+	 * @throws IllegalArgumentException
+	 *           if a pipeline has a component without a stable id or if two
+	 *           pipelines with the same codec id produce different data (for
+	 *           instance Zstandard compressors with different dictionaries)
+	 */
+	public PageKindByteHandler(final ByteHandlePipeline defaultPipeline,
+			final Map<PageKind, ByteHandlePipeline> pipelines) {
+		mCodecs = new HashMap<>();
+		mDefault = register(new ByteHandlePipeline(checkNotNull(defaultPipeline)));
+		mSelection = new EnumMap<>(PageKind.class);
+		for (final Map.Entry<PageKind, ByteHandlePipeline> entry : pipelines
+				.entrySet()) {
+			mSelection.put(entry.getKey(),
+					register(new ByteHandlePipeline(entry.getValue())));
+		}
+	}
+
+	/**
+	 * Copy constructor.
+	 *
+	 * @param handler
+	 *          the handler to copy
+	 */
+	private PageKindByteHandler(final PageKindByteHandler handler) {
+		mCodecs = new HashMap<>();
+		for (final Map.Entry<Long, Codec> entry : handler.mCodecs.entrySet()) {
+			mCodecs.put(entry.getKey(), new Codec(entry.getValue().mId,
+					new ByteHandlePipeline(entry.getValue().mPipeline)));
+		}
+		mDefault = mCodecs.get(key(handler.mDefault.mId));
+		mSelection = new EnumMap<>(PageKind.class);
+		for (final Map.Entry<PageKind, Codec> entry : handler.mSelection
+				.entrySet()) {
+			mSelection.put(entry.getKey(), mCodecs.get(key(entry.getValue().mId)));
+		}
+	}
+
+	/**
+	 * Register the codec of a pipeline, unless a codec with the same id has
+	 * already been registered.
+	 *
+	 * @param pipeline
+	 *          the pipeline
+	 * @return the codec
+	 */
+	private Codec register(final ByteHandlePipeline pipeline) {
+		final byte[] id = codecId(pipeline);
+		final Codec codec = mCodecs.get(key(id));
+		if (codec == null) {
+			final Codec newCodec = new Codec(id, pipeline);
+			mCodecs.put(key(id), newCodec);
+			return newCodec;
+		}
+		final List<ByteHandler> components = pipeline.getComponents();
+		final List<ByteHandler> registered = codec.mPipeline.getComponents();
+		for (int i = 0; i < components.size(); i++) {
+			if (components.get(i) instanceof ZstdCompressor) {
+				checkArgument(((ZstdCompressor) components.get(i))
+						.isCompatible((ZstdCompressor) registered.get(i)),
+						"Zstandard compressors with the same codec id must use the same dictionary!");
+			}
+		}
+		return codec;
+	}
+
+	/**
+	 * Get the codec id of a pipeline.
+	 *
+	 * @param pipeline
+	 *          the pipeline
+	 * @return the number of components followed by the id of each component
+	 */
+	private static byte[] codecId(final ByteHandlePipeline pipeline) {
+		final List<ByteHandler> components = pipeline.getComponents();
+		checkArgument(components.size() <= MAX_COMPONENTS,
+				"Too many components: %s", components.size());
+		final byte[] id = new byte[components.size() + 1];
+		id[0] = (byte) components.size();
+		for (int i = 0; i < components.size(); i++) {
+			final Byte handlerId = HANDLER_IDS.get(components.get(i).getClass());
+			checkArgument(handlerId != null, "No stable id for byte handler: %s",
+					components.get(i).getClass().getName());
+			id[i + 1] = handlerId;
+		}
+		return id;
+	}
+
+	/**
+	 * Get the key of a codec id.
+	 *
+	 * @param id
+	 *          the codec id
+	 * @return the bytes of the codec id as a number
+	 */
+	private static long key(final byte[] id) {
+		long key = 0;
+		for (final byte b : id) {
+			key = (key << 8) | (b & 0xFF);
+		}
+		return key;
+	}
+
+	/**
+	 * Get the codecs.
+	 *
+	 * @return the pipelines of the distinct codecs
+	 */
+	public Collection<ByteHandlePipeline> getCodecs() {
+		final List<ByteHandlePipeline> codecs = new ArrayList<>(mCodecs.size());
+		for (final Codec codec : mCodecs.values()) {
+			codecs.add(codec.mPipeline);
+		}
+		return Collections.unmodifiableList(codecs);
+	}
+
+	/**
+	 * Get the codec to use for a page.
+	 *
+	 * @param pageKind
+	 *          the id of the page kind
+	 * @return the codec
+	 */
+	private Codec select(final byte pageKind) {
+		final Codec codec = mSelection.get(PageKind.getKind(pageKind));
+		return codec == null ? mDefault : codec;
+	}
+
+	/**
+	 * Get the codec of a codec id.
+	 *
+	 * @param id
+	 *          the codec id
+	 * @return the codec
+	 * @throws IOException
+	 *           if the codec is unknown
+	 */
+	private Codec codec(final byte[] id) throws IOException {
+		final Codec codec = mCodecs.get(key(id));
+		if (codec == null) {
+			throw new IOException("Unknown codec: " + Long.toHexString(key(id)));
+		}
+		return codec;
+	}
+
+	/**
+	 * Read a codec id.
+	 *
+	 * @param in
+	 *          the stream to read from
+	 * @return the codec id
+	 * @throws IOException
+	 *           if the codec id is invalid
+	 */
+	private static byte[] readCodecId(final InputStream in) throws IOException {
+		final int components = in.read();
+		if (components < 0 || components > MAX_COMPONENTS) {
+			throw new IOException("Invalid codec id!");
+		}
+		final byte[] id = new byte[components + 1];
+		id[0] = (byte) components;
+		for (int i = 1; i < id.length; i++) {
+			final int handlerId = in.read();
+			if (handlerId < 0) {
+				throw new IOException("Truncated codec id!");
+			}
+			id[i] = (byte) handlerId;
+		}
+		return id;
+	}
+
+	/**
+	 * Read a codec id.
+	 *
+	 * @param buffer
+	 *          the buffer to read from
+	 * @return the codec id
+	 * @throws IOException
+	 *           if the codec id is invalid
+	 */
+	private static byte[] readCodecId(final ByteBuffer buffer)
+			throws IOException {
+		final int components = buffer.get() & 0xFF;
+		if (components > MAX_COMPONENTS || buffer.remaining() < components) {
+			throw new IOException("Invalid codec id!");
+		}
+		final byte[] id = new byte[components + 1];
+		id[0] = (byte) components;
+		buffer.get(id, 1, components);
+		return id;
+	}
+
+	@Override
+	public OutputStream serialize(final OutputStream toSerialize)
+			throws IOException {
+		// The codec is selected once the page kind has been written.
+		return new OutputStream() {
+			private OutputStream mOut;
+
+			private void select(final byte pageKind) throws IOException {
+				final Codec codec = PageKindByteHandler.this.select(pageKind);
+				toSerialize.write(codec.mId);
+				mOut = codec.mPipeline.serialize(toSerialize);
+			}
+
+			@Override
+			public void write(final int b) throws IOException {
+				if (mOut == null) {
+					select((byte) b);
+				}
+				mOut.write(b);
+			}
+
+			@Override
+			public void write(final byte[] b, final int off, final int len)
+					throws IOException {
+				if (len == 0) {
+					return;
+				}
+				if (mOut == null) {
+					select(b[off]);
+				}
+				mOut.write(b, off, len);
+			}
+
+			@Override
+			public void flush() throws IOException {
+				if (mOut != null) {
+					mOut.flush();
+				}
+			}
+
+			@Override
+			public void close() throws IOException {
+				if (mOut == null) {
+					toSerialize.close();
+				} else {
+					mOut.close();
+				}
+			}
+		};
+	}
+
+	@Override
+	public InputStream deserialize(final InputStream toDeserialize)
+			throws IOException {
+		return codec(readCodecId(toDeserialize)).mPipeline
+				.deserialize(toDeserialize);
+	}
+
+	@Override
+	public ByteBuffer serialize(final ByteBuffer toSerialize,
+			final ByteBufferPool pool) throws IOException {
+		if (!toSerialize.hasRemaining()) {
+			return toSerialize;
+		}
+		final Codec codec = select(toSerialize.get(toSerialize.position()));
+		final ByteBuffer encoded = codec.mPipeline.serialize(toSerialize, pool);
+
+		// Write the codec id in front of the encoded page.
+		if (encoded.position() >= codec.mId.length) {
+			encoded.position(encoded.position() - codec.mId.length);
+			encoded.duplicate().put(codec.mId);
+			return encoded;
+		}
+		final ByteBuffer target = pool.acquire(encoded.remaining()
+				+ codec.mId.length);
+		target.put(codec.mId);
+		target.put(encoded);
+		target.flip();
+		pool.release(encoded);
+		return target;
+	}
+
+	@Override
+	public ByteBuffer deserialize(final ByteBuffer toDeserialize,
+			final ByteBufferPool pool) throws IOException {
+		if (!toDeserialize.hasRemaining()) {
+			return toDeserialize;
+		}
+		return codec(readCodecId(toDeserialize)).mPipeline.deserialize(
+				toDeserialize, pool);
+	}
+
+	@Override
+	public ByteHandler getInstance() {
+		return new PageKindByteHandler(this);
+	}
+}
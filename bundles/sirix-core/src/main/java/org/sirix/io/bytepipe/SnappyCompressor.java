@@ -3,7 +3,9 @@ package org.sirix.io.bytepipe;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
+import org.xerial.snappy.Snappy;
 import org.xerial.snappy.SnappyInputStream;
 import org.xerial.snappy.SnappyOutputStream;
 
@@ -15,6 +17,16 @@ import org.xerial.snappy.SnappyOutputStream;
  */
 public final class SnappyCompressor implements ByteHandler {
 
+	/**
+	 * Header written by {@link SnappyOutputStream}: magic bytes, version and
+	 * compatible version.
+	 */
+	private static final byte[] HEADER = { -126, 'S', 'N', 'A', 'P', 'P', 'Y', 0,
+			0, 0, 0, 1, 0, 0, 0, 1 };
+
+	/** Number of uncompressed bytes per block of {@link SnappyOutputStream}. */
+	private static final int BLOCK_SIZE = 32 * 1024;
+
 	@Override
 	public OutputStream serialize(final OutputStream toSerialize)
 			throws IOException {
@@ -27,6 +39,94 @@ public final class SnappyCompressor implements ByteHandler {
 		return new SnappyInputStream(toDeserialize);
 	}
 
+	/*
+	 * The buffer based methods use the block format of the streams, that is the
+	 * header followed by blocks, which are prefixed by their compressed length.
+	 */
+
+	@Override
+	public ByteBuffer serialize(final ByteBuffer toSerialize,
+			final ByteBufferPool pool) throws IOException {
+		final ByteBuffer source = pool.arrayBacked(toSerialize);
+		ByteBuffer target = null;
+		try {
+			final int length = source.remaining();
+			int maxLength = HEADER.length;
+			for (int offset = 0; offset < length; offset += BLOCK_SIZE) {
+				maxLength += 4 + Snappy.maxCompressedLength(Math.min(BLOCK_SIZE,
+						length - offset));
+			}
+			target = pool.acquire(maxLength);
+			target.put(HEADER);
+			final int sourceOffset = source.arrayOffset() + source.position();
+			for (int offset = 0; offset < length; offset += BLOCK_SIZE) {
+				final int blockPosition = target.position() + 4;
+				final int compressed = Snappy.rawCompress(source.array(), sourceOffset
+						+ offset, Math.min(BLOCK_SIZE, length - offset), target.array(),
+						target.arrayOffset() + blockPosition);
+				target.putInt(compressed);
+				target.position(blockPosition + compressed);
+			}
+			target.flip();
+			final ByteBuffer result = target;
+			target = null;
+			return result;
+		} finally {
+			pool.release(target);
+			pool.release(source);
+		}
+	}
+
+	@Override
+	public ByteBuffer deserialize(final ByteBuffer toDeserialize,
+			final ByteBufferPool pool) throws IOException {
+		final ByteBuffer source = pool.arrayBacked(toDeserialize);
+		ByteBuffer target = null;
+		try {
+			if (source.remaining() < HEADER.length) {
+				throw new IOException("Missing snappy header!");
+			}
+			final byte[] array = source.array();
+			final int start = source.arrayOffset() + source.position();
+			for (int i = 0; i < HEADER.length; i++) {
+				if (array[start + i] != HEADER[i]) {
+					throw new IOException("Invalid snappy header!");
+				}
+			}
+
+			// Determine the uncompressed length first.
+			final int end = start + source.remaining();
+			int length = 0;
+			for (int offset = start + HEADER.length; offset < end;) {
+				final int compressed = source.getInt(offset - source.arrayOffset());
+				offset += 4;
+				if (compressed < 0 || offset + compressed > end) {
+					throw new IOException("Truncated snappy block!");
+				}
+				length += Snappy.uncompressedLength(array, offset, compressed);
+				offset += compressed;
+			}
+
+			target = pool.acquire(length);
+			for (int offset = start + HEADER.length; offset < end;) {
+				final int compressed = source.getInt(offset - source.arrayOffset());
+				offset += 4;
+				final int uncompressed = Snappy.rawUncompress(array, offset,
+						compressed, target.array(),
+						target.arrayOffset() + target.position());
+				target.position(target.position() + uncompressed);
+				offset += compressed;
+			}
+			target.flip();
+			final ByteBuffer result = target;
+			target = null;
+			return result;
+		} finally {
+			pool.release(target);
+			pool.release(source);
+		}
+	}
+
 	@Override
 	public ByteHandler getInstance() {
 		return new SnappyCompressor();
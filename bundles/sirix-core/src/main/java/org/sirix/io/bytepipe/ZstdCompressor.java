@@ -0,0 +1,347 @@
+package org.sirix.io.bytepipe;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nullable;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import com.github.luben.zstd.ZstdDictTrainer;
+import com.github.luben.zstd.ZstdException;
+import com.google.common.io.ByteStreams;
+
+/**
+ * Zstandard compression/decompression, optionally with a dictionary, which has
+ * been trained on pages of a resource (see
+ * {@link #trainDictionary(Iterable, int)}). As pages are small, a trained
+ * dictionary considerably improves the compression ratio, whereas the
+ * dictionary must be available to read the pages again. Data is stored as its
+ * uncompressed length followed by a single Zstandard frame.
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
+public final class ZstdCompressor implements ByteHandler {
+
+	/** Default compression level. */
+	public static final int DEFAULT_LEVEL = 3;
+
+	/** The compression level. */
+	private final int mLevel;
+
+	/** The dictionary or {@code null}, if no dictionary is used. */
+	private final byte[] mDictionary;
+
+	/** The digested dictionary to compress with, which is thread-safe. */
+	private final ZstdDictCompress mCompressDictionary;
+
+	/** The digested dictionary to decompress with, which is thread-safe. */
+	private final ZstdDictDecompress mDecompressDictionary;
+
+	/**
+	 * Constructor, which uses the {@link #DEFAULT_LEVEL} and no dictionary.
+	 */
+	public ZstdCompressor() {
+		this(DEFAULT_LEVEL, null);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param level
+	 *          the compression level
+	 * @param dictionary
+	 *          the trained dictionary or {@code null}
+	 */
+	public ZstdCompressor(final int level, final @Nullable byte[] dictionary) {
+		checkArgument(level >= Zstd.minCompressionLevel()
+				&& level <= Zstd.maxCompressionLevel(), "Invalid level: %s", level);
+		mLevel = level;
+		if (dictionary == null) {
+			mDictionary = null;
+			mCompressDictionary = null;
+			mDecompressDictionary = null;
+		} else {
+			mDictionary = dictionary.clone();
+			mCompressDictionary = new ZstdDictCompress(mDictionary, level);
+			mDecompressDictionary = new ZstdDictDecompress(mDictionary);
+		}
+	}
+
+	/**
+	 * Copy constructor, which shares the digested dictionaries.
+	 *
+	 * @param compressor
+	 *          the compressor to copy
+	 */
+	private ZstdCompressor(final ZstdCompressor compressor) {
+		mLevel = compressor.mLevel;
+		mDictionary = compressor.mDictionary;
+		mCompressDictionary = compressor.mCompressDictionary;
+		mDecompressDictionary = compressor.mDecompressDictionary;
+	}
+
+	/**
+	 * Train a dictionary.
+	 *
+	 * @param samples
+	 *          samples of the data to compress, for instance serialized pages of
+	 *          a page kind
+	 * @param size
+	 *          the maximum size of the dictionary in bytes
+	 * @return the dictionary
+	 * @throws IOException
+	 *           if the dictionary can't be trained, for instance because of too
+	 *           few samples
+	 */
+	public static byte[] trainDictionary(final Iterable<byte[]> samples,
+			final @Nonnegative int size) throws IOException {
+		checkArgument(size > 0, "size must be > 0!");
+		long samplesSize = 0;
+		for (final byte[] sample : samples) {
+			samplesSize += sample.length;
+		}
+		checkArgument(samplesSize <= Integer.MAX_VALUE, "Too many samples!");
+		final ZstdDictTrainer trainer = new ZstdDictTrainer((int) samplesSize,
+				size);
+		for (final byte[] sample : samples) {
+			trainer.addSample(checkNotNull(sample));
+		}
+		try {
+			return trainer.trainSamples();
+		} catch (final ZstdException e) {
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Get the compression level.
+	 *
+	 * @return the compression level
+	 */
+	public int getLevel() {
+		return mLevel;
+	}
+
+	/**
+	 * Get the dictionary.
+	 *
+	 * @return a copy of the dictionary or {@code null}, if no dictionary is used
+	 */
+	@Nullable
+	public byte[] getDictionary() {
+		return mDictionary == null ? null : mDictionary.clone();
+	}
+
+	/**
+	 * Determines if another compressor produces and reads the same frames.
+	 *
+	 * @param compressor
+	 *          the other compressor
+	 * @return {@code true}, if both compressors use the same dictionary
+	 */
+	boolean isCompatible(final ZstdCompressor compressor) {
+		return Arrays.equals(mDictionary, compressor.mDictionary);
+	}
+
+	@Override
+	public OutputStream serialize(final OutputStream toSerialize)
+			throws IOException {
+		// A frame is compressed as a whole, once the stream is closed.
+		return new FilterOutputStream(new ByteArrayOutputStream()) {
+			@Override
+			public void write(final byte[] b, final int off, final int len)
+					throws IOException {
+				out.write(b, off, len);
+			}
+
+			@Override
+			public void close() throws IOException {
+				final byte[] bytes = ((ByteArrayOutputStream) out).toByteArray();
+				final int maxLength = maxCompressedLength(bytes.length);
+				final byte[] compressed = new byte[4 + maxLength];
+				ByteBuffer.wrap(compressed).putInt(bytes.length);
+				final int length = compress(bytes, 0, bytes.length, compressed, 4,
+						maxLength);
+				toSerialize.write(compressed, 0, 4 + length);
+				toSerialize.close();
+			}
+		};
+	}
+
+	@Override
+	public InputStream deserialize(final InputStream toDeserialize)
+			throws IOException {
+		final byte[] bytes = ByteStreams.toByteArray(toDeserialize);
+		if (bytes.length < 4) {
+			throw new IOException("Missing zstd frame length!");
+		}
+		final int length = ByteBuffer.wrap(bytes).getInt();
+		if (length < 0) {
+			throw new IOException("Invalid zstd frame length: " + length);
+		}
+		final byte[] decompressed = new byte[length];
+		decompress(bytes, 4, bytes.length - 4, decompressed, 0, length);
+		return new ByteArrayInputStream(decompressed);
+	}
+
+	@Override
+	public ByteBuffer serialize(final ByteBuffer toSerialize,
+			final ByteBufferPool pool) throws IOException {
+		final ByteBuffer source = pool.arrayBacked(toSerialize);
+		ByteBuffer target = null;
+		try {
+			final int length = source.remaining();
+			final int maxLength = maxCompressedLength(length);
+			target = pool.acquire(4 + maxLength);
+			target.putInt(length);
+			final int compressed = compress(source.array(), source.arrayOffset()
+					+ source.position(), length, target.array(), target.arrayOffset()
+					+ target.position(), maxLength);
+			target.position(target.position() + compressed);
+			target.flip();
+			final ByteBuffer result = target;
+			target = null;
+			return result;
+		} finally {
+			pool.release(target);
+			pool.release(source);
+		}
+	}
+
+	@Override
+	public ByteBuffer deserialize(final ByteBuffer toDeserialize,
+			final ByteBufferPool pool) throws IOException {
+		final ByteBuffer source = pool.arrayBacked(toDeserialize);
+		ByteBuffer target = null;
+		try {
+			if (source.remaining() < 4) {
+				throw new IOException("Missing zstd frame length!");
+			}
+			final int length = source.getInt(source.position());
+			if (length < 0) {
+				throw new IOException("Invalid zstd frame length: " + length);
+			}
+			target = pool.acquire(length);
+			decompress(source.array(), source.arrayOffset() + source.position() + 4,
+					source.remaining() - 4, target.array(), target.arrayOffset(),
+					length);
+			target.limit(length);
+			final ByteBuffer result = target;
+			target = null;
+			return result;
+		} finally {
+			pool.release(target);
+			pool.release(source);
+		}
+	}
+
+	/**
+	 * Get the maximum length of a compressed frame.
+	 *
+	 * @param length
+	 *          the uncompressed length
+	 * @return the maximum compressed length
+	 * @throws IOException
+	 *           if the data is too large for a single frame
+	 */
+	private static int maxCompressedLength(final int length) throws IOException {
+		final long maxLength = Zstd.compressBound(length);
+		if (maxLength > Integer.MAX_VALUE - 4) {
+			throw new IOException("Too large for a zstd frame: " + length);
+		}
+		return (int) maxLength;
+	}
+
+	/**
+	 * Compress bytes into a single frame.
+	 *
+	 * @param src
+	 *          the source array
+	 * @param srcOff
+	 *          the offset of the bytes to compress
+	 * @param srcLen
+	 *          the number of bytes to compress
+	 * @param dest
+	 *          the destination array
+	 * @param destOff
+	 *          the offset in the destination array
+	 * @param destLen
+	 *          the maximum length of the frame
+	 * @return the length of the frame
+	 * @throws IOException
+	 *           if the bytes can't be compressed
+	 */
+	private int compress(final byte[] src, final int srcOff, final int srcLen,
+			final byte[] dest, final int destOff, final int destLen)
+			throws IOException {
+		try {
+			final long result = mCompressDictionary == null ? Zstd.compressByteArray(
+					dest, destOff, destLen, src, srcOff, srcLen, mLevel) : Zstd
+					.compressFastDict(dest, destOff, src, srcOff, srcLen,
+							mCompressDictionary);
+			if (Zstd.isError(result)) {
+				throw new IOException(Zstd.getErrorName(result));
+			}
+			return (int) result;
+		} catch (final ZstdException e) {
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Decompress a single frame.
+	 *
+	 * @param src
+	 *          the source array
+	 * @param srcOff
+	 *          the offset of the frame
+	 * @param srcLen
+	 *          the length of the frame
+	 * @param dest
+	 *          the destination array
+	 * @param destOff
+	 *          the offset in the destination array
+	 * @param destLen
+	 *          the uncompressed length
+	 * @throws IOException
+	 *           if the frame is corrupt, has been compressed with another
+	 *           dictionary or doesn't have the uncompressed length
+	 */
+	private void decompress(final byte[] src, final int srcOff,
+			final int srcLen, final byte[] dest, final int destOff, final int destLen)
+			throws IOException {
+		try {
+			final long result = mDecompressDictionary == null ? Zstd
+					.decompressByteArray(dest, destOff, destLen, src, srcOff, srcLen)
+					: Zstd.decompressFastDict(dest, destOff, src, srcOff, srcLen,
+							mDecompressDictionary);
+			if (Zstd.isError(result)) {
+				throw new IOException(Zstd.getErrorName(result));
+			}
+			if (result != destLen) {
+				throw new IOException("Invalid zstd frame length: " + result
+						+ " instead of " + destLen);
+			}
+		} catch (final ZstdException e) {
+			throw new IOException(e);
+		}
+	}
+
+	@Override
+	public ByteHandler getInstance() {
+		return new ZstdCompressor(this);
+	}
+}
@@ -2,51 +2,149 @@ package org.sirix.io.chronicle;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import java.io.ByteArrayInputStream;
-import java.io.DataInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import javax.annotation.Nullable;
 
-import net.openhft.chronicle.Chronicle;
 import net.openhft.chronicle.Excerpt;
 import net.openhft.chronicle.IndexedChronicle;
 
 import org.sirix.api.PageReadTrx;
+import org.sirix.cache.OffHeapPageCache;
 import org.sirix.exception.SirixIOException;
 import org.sirix.io.Reader;
+import org.sirix.io.bytepipe.ByteBufferDataInput;
+import org.sirix.io.bytepipe.ByteBufferPool;
+import org.sirix.io.bytepipe.ByteHandlePipeline;
 import org.sirix.io.bytepipe.ByteHandler;
 import org.sirix.page.PagePersistenter;
 import org.sirix.page.PageReference;
 import org.sirix.page.UberPage;
 import org.sirix.page.interfaces.Page;
 
+/**
+ * Reader of a chronicle. Pages are appended in batches to excerpts, thus the
+ * key of a page consists of the index of its excerpt and its offset within the
+ * excerpt. The last excerpt of each commit references the {@link UberPage}.
+ *
+ * <p>
+ * Reads are thread-safe, as each read uses its own excerpt of a pool. If no
+ * byte handler is used, pages are deserialized directly from the memory mapped
+ * excerpt without copying them.
+ * </p>
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
 public final class ChronicleReader implements Reader {
 
 	/** Beacon of the other references. */
 	final static int OTHER_BEACON = 4;
 
-	private final Chronicle mChronicle;
+	/** Kind of an excerpt, which holds a batch of pages. */
+	final static byte PAGES = 0;
+
+	/** Kind of an excerpt, which holds the key of an {@link UberPage}. */
+	final static byte BEACON = 1;
+
+	/** Number of bits of the offset of a page within its excerpt. */
+	final static int OFFSET_BITS = 32;
+
+	/** Mask of the offset of a page within its excerpt. */
+	private final static long OFFSET_MASK = (1L << OFFSET_BITS) - 1;
+
+	private final IndexedChronicle mChronicle;
 
 	final ByteHandler mByteHandler;
 
-	private final Excerpt mExcerpt;
+	final ByteBufferPool mBufferPool;
+
+	/** Excerpts, which are currently not used by any read. */
+	private final Queue<Excerpt> mExcerpts;
+
+	/** Optional off-heap cache of the decompressed bytes of pages. */
+	private final Optional<OffHeapPageCache> mCache;
 
-	public ChronicleReader(final File file, final ByteHandler handler)
+	/**
+	 * Determines if pages are stored without any byte handler, such that they
+	 * are deserialized directly from the excerpt.
+	 */
+	private final boolean mDirect;
+
+	public ChronicleReader(final File file, final ByteHandler handler,
+			final ByteBufferPool pool) throws IOException {
+		this(file, handler, pool, Optional.<OffHeapPageCache> empty());
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param file
+	 *          the chronicle
+	 * @param handler
+	 *          the byte handler
+	 * @param pool
+	 *          pool of buffers to read pages into
+	 * @param cache
+	 *          optional off-heap cache of the decompressed bytes of pages, which
+	 *          is only used, if pages aren't deserialized directly from the
+	 *          excerpts
+	 * @throws IOException
+	 *           if the chronicle can't be opened
+	 */
+	public ChronicleReader(final File file, final ByteHandler handler,
+			final ByteBufferPool pool, final Optional<OffHeapPageCache> cache)
 			throws IOException {
+		mCache = checkNotNull(cache);
 		mChronicle = new IndexedChronicle(file.getAbsolutePath());
 		mByteHandler = checkNotNull(handler);
-		mExcerpt = mChronicle.createExcerpt();
+		mBufferPool = checkNotNull(pool);
+		mExcerpts = new ConcurrentLinkedQueue<>();
+		mDirect = handler instanceof ByteHandlePipeline
+				&& ((ByteHandlePipeline) handler).getComponents().isEmpty();
+	}
+
+	/**
+	 * Create the key of a page.
+	 *
+	 * @param index
+	 *          the index of the excerpt
+	 * @param offset
+	 *          the offset of the page within the excerpt
+	 * @return the key
+	 */
+	static long key(final long index, final long offset) {
+		return index << OFFSET_BITS | offset;
 	}
 
 	@Override
 	public PageReference readUberPageReference() throws SirixIOException {
 		final PageReference uberPageReference = new PageReference();
-		// Read primary beacon.
-		final long lastIndex = mExcerpt.size() - 1;
-		uberPageReference.setKey(lastIndex);
-		final UberPage page = (UberPage) read(lastIndex, null);
+		// Read the last beacon.
+		final Excerpt excerpt = acquireExcerpt();
+		try {
+			// The size is only maintained for appends through the same instance.
+			long key = -1;
+			for (long index = mChronicle.findTheLastIndex(); key == -1
+					&& index >= 0; index--) {
+				if (excerpt.index(index) && excerpt.readByte() == BEACON) {
+					key = excerpt.readLong();
+				}
+				excerpt.finish();
+			}
+			if (key == -1) {
+				throw new SirixIOException("No uber page found!");
+			}
+			uberPageReference.setKey(key);
+		} finally {
+			mExcerpts.offer(excerpt);
+		}
+		final UberPage page = (UberPage) read(uberPageReference.getKey(), null);
 		uberPageReference.setPage(page);
 		return uberPageReference;
 	}
@@ -54,21 +152,70 @@ public final class ChronicleReader implements Reader {
 	@Override
 	public Page read(long key, @Nullable PageReadTrx pageReadTrx)
 			throws SirixIOException {
+		ByteBuffer buffer = mCache.isPresent() && !mDirect ? mCache.get().get(key,
+				mBufferPool) : null;
+		if (buffer != null) {
+			// Page is cached, thus it's neither read nor decompressed again.
+			try {
+				return PagePersistenter.deserializePage(
+						new ByteBufferDataInput(buffer), pageReadTrx);
+			} catch (final IOException e) {
+				throw new SirixIOException(e);
+			} finally {
+				mBufferPool.release(buffer);
+			}
+		}
+		final Excerpt excerpt = acquireExcerpt();
 		try {
+			if (!excerpt.index(key >>> OFFSET_BITS)) {
+				throw new SirixIOException("Page " + key + " doesn't exist!");
+			}
+			excerpt.position(key & OFFSET_MASK);
+			final int dataLength = excerpt.readInt();
+			if (mDirect) {
+				// Deserialize page directly from the mapped memory.
+				return PagePersistenter.deserializePage(new ExcerptDataInput(excerpt),
+						pageReadTrx);
+			}
+
 			// Read page from excerpt.
-			final boolean opened = mExcerpt.index(key);
-			assert opened : "Index couldn't be opened!";
-			final int dataLength = mExcerpt.readInt();
-			final byte[] page = new byte[dataLength];
-			mExcerpt.read(page);
-			mExcerpt.finish();
+			final ByteBuffer page = mBufferPool.acquire(dataLength);
+			page.limit(dataLength);
+			excerpt.read(page);
+			page.flip();
 
-			// Perform byte operations.
-			final DataInputStream input = new DataInputStream(
-					mByteHandler.deserialize(new ByteArrayInputStream(page)));
+			// Perform byte operations, which take over the buffer.
+			buffer = mByteHandler.deserialize(page, mBufferPool);
+			if (mCache.isPresent()) {
+				mCache.get().put(key, buffer);
+			}
 
 			// Return reader required to instantiate and deserialize page.
-			return PagePersistenter.deserializePage(input, pageReadTrx);
+			return PagePersistenter.deserializePage(new ByteBufferDataInput(buffer),
+					pageReadTrx);
+		} catch (final IOException e) {
+			throw new SirixIOException(e);
+		} finally {
+			excerpt.finish();
+			mExcerpts.offer(excerpt);
+			mBufferPool.release(buffer);
+		}
+	}
+
+	/**
+	 * Get an excerpt, which is not used by any other read.
+	 *
+	 * @return the excerpt, which has to be given back to {@link #mExcerpts}
+	 * @throws SirixIOException
+	 *           if the excerpt can't be created
+	 */
+	private Excerpt acquireExcerpt() throws SirixIOException {
+		final Excerpt excerpt = mExcerpts.poll();
+		if (excerpt != null) {
+			return excerpt;
+		}
+		try {
+			return mChronicle.createExcerpt();
 		} catch (final IOException e) {
 			throw new SirixIOException(e);
 		}
@@ -77,7 +224,10 @@ public final class ChronicleReader implements Reader {
 	@Override
 	public void close() throws SirixIOException {
 		try {
-			mExcerpt.close();
+			Excerpt excerpt;
+			while ((excerpt = mExcerpts.poll()) != null) {
+				excerpt.close();
+			}
 			mChronicle.close();
 		} catch (final IOException e) {
 			throw new SirixIOException(e.getCause());
@@ -2,12 +2,17 @@ package org.sirix.io.chronicle;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Optional;
 
 import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.cache.OffHeapPageCache;
 import org.sirix.exception.SirixIOException;
+import org.sirix.io.DurabilityMode;
 import org.sirix.io.Reader;
+import org.sirix.io.SharedReader;
 import org.sirix.io.Storage;
 import org.sirix.io.Writer;
+import org.sirix.io.bytepipe.ByteBufferPool;
 import org.sirix.io.bytepipe.ByteHandlePipeline;
 import org.sirix.io.bytepipe.ByteHandler;
 
@@ -28,6 +33,24 @@ public final class ChronicleStorage implements Storage {
 	/** Byte handler pipeline. */
 	private final ByteHandlePipeline mByteHandler;
 
+	/** Pool of buffers shared by all readers and writers. */
+	private final ByteBufferPool mBufferPool;
+
+	/** Determines if and when pages are forced to the storage device. */
+	private final DurabilityMode mDurability;
+
+	/** Maximum number of bytes of pages, which are appended at once. */
+	private final int mAppendBatchSize;
+
+	/** Thread-safe reader, which is shared by all transactions. */
+	private ChronicleReader mReader;
+
+	/**
+	 * Optional off-heap cache of the decompressed bytes of pages, which is
+	 * shared by all transactions.
+	 */
+	private final Optional<OffHeapPageCache> mCache;
+
 	/**
 	 * Constructor.
 	 * 
@@ -41,21 +64,30 @@ public final class ChronicleStorage implements Storage {
 			throws SirixIOException {
 		assert resourceConfig != null : "resourceConfig must not be null!";
 		mFile = resourceConfig.mPath;
-		mByteHandler = resourceConfig.mByteHandler;
+		mByteHandler = resourceConfig.getPageByteHandler();
+		mBufferPool = new ByteBufferPool();
+		mDurability = resourceConfig.mDurability;
+		mAppendBatchSize = resourceConfig.mAppendBatchSize;
+		mCache = resourceConfig.mOffHeapCacheSize > 0 ? Optional
+				.of(new OffHeapPageCache(resourceConfig.mOffHeapCacheSize)) : Optional
+				.<OffHeapPageCache> empty();
 	}
 
 	@Override
-	public Reader getReader() throws SirixIOException {
+	public synchronized Reader getReader() throws SirixIOException {
 		try {
-			final File concreteStorage = getConcreteStorage();
+			if (mReader == null) {
+				final File concreteStorage = getConcreteStorage();
 
-			if (!concreteStorage.exists()) {
-				concreteStorage.getParentFile().mkdirs();
-				concreteStorage.createNewFile();
-			}
+				if (!concreteStorage.exists()) {
+					concreteStorage.getParentFile().mkdirs();
+					concreteStorage.createNewFile();
+				}
 
-			return new ChronicleReader(concreteStorage, new ByteHandlePipeline(
-					mByteHandler));
+				mReader = new ChronicleReader(concreteStorage, new ByteHandlePipeline(
+						mByteHandler), mBufferPool, mCache);
+			}
+			return new SharedReader(mReader);
 		} catch (final IOException e) {
 			throw new SirixIOException(e);
 		}
@@ -72,14 +104,21 @@ public final class ChronicleStorage implements Storage {
 			}
 
 			return new ChronicleWriter(concreteStorage, new ByteHandlePipeline(
-					mByteHandler));
+					mByteHandler), mBufferPool, mDurability, mAppendBatchSize);
 		} catch (final IOException e) {
 			throw new SirixIOException(e);
 		}
 	}
 
 	@Override
-	public void close() throws SirixIOException {
+	public synchronized void close() throws SirixIOException {
+		if (mReader != null) {
+			mReader.close();
+			mReader = null;
+		}
+		if (mCache.isPresent()) {
+			mCache.get().clear();
+		}
 	}
 
 	/**
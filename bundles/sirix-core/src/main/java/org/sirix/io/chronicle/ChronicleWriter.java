@@ -1,22 +1,47 @@
 package org.sirix.io.chronicle;
 
-import java.io.ByteArrayOutputStream;
-import java.io.DataOutputStream;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nullable;
 
 import net.openhft.chronicle.ExcerptAppender;
 import net.openhft.chronicle.IndexedChronicle;
 
+import org.sirix.api.PageReadTrx;
 import org.sirix.exception.SirixIOException;
 import org.sirix.io.AbstractForwardingReader;
+import org.sirix.io.DurabilityMode;
 import org.sirix.io.Reader;
 import org.sirix.io.Writer;
+import org.sirix.io.bytepipe.ByteBufferDataOutput;
+import org.sirix.io.bytepipe.ByteBufferPool;
 import org.sirix.io.bytepipe.ByteHandler;
 import org.sirix.page.PagePersistenter;
 import org.sirix.page.PageReference;
 import org.sirix.page.interfaces.Page;
+import org.sirix.settings.Constants;
 
+/**
+ * Writer of a chronicle. Pages are appended to an excerpt, which is kept open
+ * until the append batch is full or the {@code UberPage} is written, such that
+ * a commit usually results in a single excerpt of pages followed by the
+ * beacon. Depending on the {@link DurabilityMode} the beacon is appended
+ * synchronously, which forces the chronicle once per commit.
+ *
+ * <p>
+ * Pages are serialized into pooled buffers before they are appended, as the
+ * capacity of an excerpt has to be reserved in advance.
+ * </p>
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
 public final class ChronicleWriter extends AbstractForwardingReader implements
 		Writer {
 
@@ -24,26 +49,49 @@ public final class ChronicleWriter extends AbstractForwardingReader implements
 	private final ExcerptAppender mExcerpt;
 	private final IndexedChronicle mChronicle;
 
+	/** Determines if and when pages are forced to the storage device. */
+	private final DurabilityMode mDurability;
+
+	/** Capacity of an excerpt holding a batch of pages. */
+	private final int mBatchSize;
+
+	/** Index of the excerpt currently filled or {@code -1}, if none is open. */
+	private long mBatchIndex;
+
 	/**
 	 * Constructor.
-	 * 
+	 *
 	 * @param storage
 	 *          the concrete storage
 	 * @param handler
 	 *          the byte handler
+	 * @param pool
+	 *          pool of buffers to serialize pages into
+	 * @param durability
+	 *          determines if and when pages are forced to the storage device
+	 * @param batchSize
+	 *          maximum number of bytes of pages, which are appended to a single
+	 *          excerpt
 	 * @throws IOException
 	 *           if an I/O error occurs
 	 */
-	public ChronicleWriter(final File file, final ByteHandler handler)
-			throws IOException {
-		mReader = new ChronicleReader(file, handler);
+	public ChronicleWriter(final File file, final ByteHandler handler,
+			final ByteBufferPool pool, final DurabilityMode durability,
+			final @Nonnegative int batchSize) throws IOException {
+		checkArgument(batchSize > 0, "batchSize must be > 0!");
+		mReader = new ChronicleReader(file, handler, pool);
 		mChronicle = new IndexedChronicle(file.getAbsolutePath());
 		mExcerpt = mChronicle.createAppender();
+		mDurability = checkNotNull(durability);
+		// An excerpt must fit into a single data block of the chronicle.
+		mBatchSize = Math.min(batchSize, mChronicle.config().dataBlockSize() / 2);
+		mBatchIndex = -1;
 	}
 
 	@Override
 	public void close() throws SirixIOException {
 		try {
+			finishBatch();
 			mExcerpt.close();
 			mChronicle.close();
 			mReader.close();
@@ -59,35 +107,79 @@ public final class ChronicleWriter extends AbstractForwardingReader implements
 			// Serialize page.
 			final Page page = pageReference.getPage();
 			assert page != null;
-			final ByteArrayOutputStream output = new ByteArrayOutputStream();
-			final DataOutputStream dataOutput = new DataOutputStream(
-					mReader.mByteHandler.serialize(output));
-			PagePersistenter.serializePage(dataOutput, page);
-			output.flush();
-			output.close();
-			dataOutput.close();
-
-			final byte[] serializedPage = output.toByteArray();
-
-			mExcerpt.startExcerpt(serializedPage.length
-					+ ChronicleReader.OTHER_BEACON);
-			mExcerpt.writeInt(serializedPage.length);
-			mExcerpt.write(serializedPage);
-			mExcerpt.finish();
-			final long index = mExcerpt.index() - 1;
-			assert index != -1 : "Index nr. not valid!";
+			final ByteBufferPool pool = mReader.mBufferPool;
+			final ByteBufferDataOutput output = new ByteBufferDataOutput(pool);
+			PagePersistenter.serializePage(output, page);
+			final ByteBuffer serializedPage = mReader.mByteHandler.serialize(
+					output.getBuffer(), pool);
+
+			final long key;
+			try {
+				final int dataLength = serializedPage.remaining();
+				final long length = dataLength + ChronicleReader.OTHER_BEACON;
+				if (mBatchIndex != -1 && mExcerpt.remaining() < length) {
+					finishBatch();
+				}
+				if (mBatchIndex == -1) {
+					// Start a new batch, which is able to hold at least the page.
+					mExcerpt.startExcerpt(Math.max(mBatchSize, length + 1));
+					mExcerpt.writeByte(ChronicleReader.PAGES);
+					mBatchIndex = mExcerpt.index();
+				}
+				key = ChronicleReader.key(mBatchIndex, mExcerpt.position());
+				mExcerpt.writeInt(dataLength);
+				mExcerpt.write(serializedPage);
+			} finally {
+				pool.release(serializedPage);
+			}
 
 			// Remember page coordinates.
-			pageReference.setKey(index);
+			pageReference.setKey(key);
 		} catch (final IOException e) {
 			throw new SirixIOException(e);
 		}
 	}
 
+	/**
+	 * Finish the excerpt currently filled, such that its pages are readable.
+	 */
+	private void finishBatch() {
+		if (mBatchIndex != -1) {
+			mExcerpt.finish();
+			mBatchIndex = -1;
+		}
+	}
+
+	@Override
+	public Page read(final long key, final @Nullable PageReadTrx pageReadTrx)
+			throws SirixIOException {
+		if (key >>> ChronicleReader.OFFSET_BITS == mBatchIndex) {
+			finishBatch();
+		}
+		return mReader.read(key, pageReadTrx);
+	}
+
 	@Override
 	public void writeUberPageReference(final PageReference pageReference)
 			throws SirixIOException {
-		write(pageReference);
+		if (pageReference.getKey() == Constants.NULL_ID) {
+			write(pageReference);
+		}
+		finishBatch();
+
+		// Append the beacon, which forces all pages of the commit if required.
+		mExcerpt.startExcerpt(9);
+		mExcerpt.writeByte(ChronicleReader.BEACON);
+		mExcerpt.writeLong(pageReference.getKey());
+		if (mDurability == DurabilityMode.FSYNC_ON_COMMIT) {
+			mExcerpt.nextSynchronous(true);
+		}
+		mExcerpt.finish();
+	}
+
+	@Override
+	public void sync() {
+		// Durability is handled by the chronicle.
 	}
 
 	@Override
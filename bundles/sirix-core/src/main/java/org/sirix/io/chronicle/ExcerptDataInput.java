@@ -0,0 +1,118 @@
+package org.sirix.io.chronicle;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteOrder;
+
+import net.openhft.chronicle.Excerpt;
+
+/**
+ * {@link DataInput} reading directly from the memory mapped data of an
+ * {@link Excerpt}. Pages are serialized in big-endian byte order, whereas an
+ * excerpt uses the byte order of the chronicle, thus multi-byte values are
+ * reversed if required.
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
+final class ExcerptDataInput implements DataInput {
+
+	/** The excerpt to read from. */
+	private final Excerpt mExcerpt;
+
+	/** Determines if the byte order of multi-byte values has to be reversed. */
+	private final boolean mReverse;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param excerpt
+	 *          the excerpt to read from, beginning at its current position
+	 */
+	ExcerptDataInput(final Excerpt excerpt) {
+		mExcerpt = checkNotNull(excerpt);
+		mReverse = excerpt.byteOrder() != ByteOrder.BIG_ENDIAN;
+	}
+
+	@Override
+	public void readFully(final byte[] b) {
+		mExcerpt.readFully(b);
+	}
+
+	@Override
+	public void readFully(final byte[] b, final int off, final int len) {
+		mExcerpt.readFully(b, off, len);
+	}
+
+	@Override
+	public int skipBytes(final int n) {
+		return mExcerpt.skipBytes(n);
+	}
+
+	@Override
+	public boolean readBoolean() {
+		return mExcerpt.readByte() != 0;
+	}
+
+	@Override
+	public byte readByte() {
+		return mExcerpt.readByte();
+	}
+
+	@Override
+	public int readUnsignedByte() {
+		return mExcerpt.readUnsignedByte();
+	}
+
+	@Override
+	public short readShort() {
+		final short value = mExcerpt.readShort();
+		return mReverse ? Short.reverseBytes(value) : value;
+	}
+
+	@Override
+	public int readUnsignedShort() {
+		return readShort() & 0xFFFF;
+	}
+
+	@Override
+	public char readChar() {
+		final char value = mExcerpt.readChar();
+		return mReverse ? Character.reverseBytes(value) : value;
+	}
+
+	@Override
+	public int readInt() {
+		final int value = mExcerpt.readInt();
+		return mReverse ? Integer.reverseBytes(value) : value;
+	}
+
+	@Override
+	public long readLong() {
+		final long value = mExcerpt.readLong();
+		return mReverse ? Long.reverseBytes(value) : value;
+	}
+
+	@Override
+	public float readFloat() {
+		return Float.intBitsToFloat(readInt());
+	}
+
+	@Override
+	public double readDouble() {
+		return Double.longBitsToDouble(readLong());
+	}
+
+	@Override
+	public String readLine() {
+		return mExcerpt.readLine();
+	}
+
+	@Override
+	public String readUTF() throws IOException {
+		return DataInputStream.readUTF(this);
+	}
+}
@@ -29,28 +29,46 @@ package org.sirix.io.file;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import java.io.ByteArrayInputStream;
-import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nullable;
 
 import org.sirix.api.PageReadTrx;
+import org.sirix.cache.OffHeapPageCache;
 import org.sirix.exception.SirixIOException;
+import org.sirix.io.ChecksumVerification;
 import org.sirix.io.Reader;
+import org.sirix.io.bytepipe.ByteBufferDataInput;
+import org.sirix.io.bytepipe.ByteBufferPool;
 import org.sirix.io.bytepipe.ByteHandler;
 import org.sirix.page.PagePersistenter;
 import org.sirix.page.PageReference;
 import org.sirix.page.UberPage;
 import org.sirix.page.interfaces.Page;
+import org.sirix.settings.Constants;
 
 /**
  * File Reader. Used for {@link PageReadTrx} to provide read only access on a
  * RandomAccessFile.
  * 
+ * <p>
+ * Each page is prefixed by its length and a CRC32 checksum, which is verified
+ * whenever the page is read or only the first time, depending on the
+ * {@link ChecksumVerification}. Thus pages, which have been torn by a crash,
+ * are detected instead of being deserialized.
+ * </p>
+ * 
  * @author Marc Kramis, Seabix
  * @author Sebastian Graf, University of Konstanz
  * @author Johannes Lichtenberger
@@ -58,18 +76,78 @@ import org.sirix.page.interfaces.Page;
  */
 public final class FileReader implements Reader {
 
-	/** Beacon of first references. */
-	final static int FIRST_BEACON = 12;
+	/**
+	 * Beacon of first references, that is the key of the last {@link UberPage},
+	 * the key of its predecessor, flags and a checksum.
+	 */
+	public final static int FIRST_BEACON = 24;
 
 	/** Beacon of the other references. */
-	final static int OTHER_BEACON = 4;
+	public final static int OTHER_BEACON = 4;
+
+	/** Header of a page, that is its length and its checksum. */
+	public final static int PAGE_HEADER = OTHER_BEACON + 4;
+
+	/**
+	 * Flag in the length of a page, which denotes an {@link UberPage}. The page
+	 * is preceded by the key of the previously committed {@link UberPage}.
+	 */
+	public final static int UBER_PAGE = 1 << 31;
+
+	/**
+	 * Flag of the beacon, which denotes that all pages of the revision have been
+	 * forced to the storage device before the beacon has been written.
+	 */
+	final static int FORCED = 1;
+
+	/**
+	 * Maximum number of keys of pages, which are remembered as verified, until
+	 * all pages are verified once more.
+	 */
+	public final static int MAX_VERIFIED_PAGES = 1 << 20;
 
 	/** Random access mFile to work on. */
 	private final RandomAccessFile mFile;
 
+	/**
+	 * Channel of the file. Pages are read with positional reads, such that
+	 * multiple threads can read concurrently.
+	 */
+	private final FileChannel mChannel;
+
 	/** Inflater to decompress. */
 	final ByteHandler mByteHandler;
 
+	/** Pool of buffers to read pages into. */
+	private final ByteBufferPool mBufferPool;
+
+	/** Optional off-heap cache of the decompressed bytes of pages. */
+	private final Optional<OffHeapPageCache> mCache;
+
+	/**
+	 * Keys of the pages, whose checksum has already been verified, or
+	 * {@code null}, if checksums are verified on every read.
+	 */
+	private final Set<Long> mVerifiedPages;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param concreteStorage
+	 *          storage file
+	 * @param handler
+	 *          {@link ByteHandler} instance
+	 * @param pool
+	 *          pool of buffers to read pages into
+	 * @throws SirixIOException
+	 *           if something bad happens
+	 */
+	public FileReader(final File concreteStorage, final ByteHandler handler,
+			final ByteBufferPool pool) throws SirixIOException {
+		this(concreteStorage, handler, pool, Optional.<OffHeapPageCache> empty(),
+				ChecksumVerification.EVERY_READ);
+	}
+
 	/**
 	 * Constructor.
 	 * 
@@ -77,11 +155,22 @@ public final class FileReader implements Reader {
 	 *          storage file
 	 * @param handler
 	 *          {@link ByteHandler} instance
+	 * @param pool
+	 *          pool of buffers to read pages into
+	 * @param cache
+	 *          optional off-heap cache of the decompressed bytes of pages
+	 * @param verification
+	 *          determines when the checksums of pages are verified
 	 * @throws SirixIOException
 	 *           if something bad happens
 	 */
-	public FileReader(final File concreteStorage, final ByteHandler handler)
-			throws SirixIOException {
+	public FileReader(final File concreteStorage, final ByteHandler handler,
+			final ByteBufferPool pool, final Optional<OffHeapPageCache> cache,
+			final ChecksumVerification verification) throws SirixIOException {
+		mCache = checkNotNull(cache);
+		checkNotNull(verification);
+		mVerifiedPages = verification == ChecksumVerification.FIRST_READ ? Collections
+				.newSetFromMap(new ConcurrentHashMap<Long, Boolean>()) : null;
 		try {
 			if (!concreteStorage.exists()) {
 				concreteStorage.getParentFile().mkdirs();
@@ -89,7 +178,9 @@ public final class FileReader implements Reader {
 			}
 
 			mFile = new RandomAccessFile(concreteStorage, "r");
+			mChannel = mFile.getChannel();
 			mByteHandler = checkNotNull(handler);
+			mBufferPool = checkNotNull(pool);
 		} catch (final IOException e) {
 			throw new SirixIOException(e);
 		}
@@ -98,21 +189,142 @@ public final class FileReader implements Reader {
 	@Override
 	public Page read(final @Nonnegative long key,
 			final @Nullable PageReadTrx pageReadTrx) throws SirixIOException {
+		ByteBuffer buffer = mCache.isPresent() ? mCache.get().get(key,
+				mBufferPool) : null;
 		try {
-			// Read page from file.
-			mFile.seek(key);
-			final int dataLength = mFile.readInt();
-			final byte[] page = new byte[dataLength];
-			mFile.read(page);
+			if (buffer != null) {
+				// Page is cached, thus it's neither read nor decompressed again.
+				return PagePersistenter.deserializePage(
+						new ByteBufferDataInput(buffer), pageReadTrx);
+			}
+			buffer = mBufferPool.acquire(ByteBufferPool.MIN_CAPACITY);
+
+			// Read page from file. Small pages are read with a single call.
+			readAtLeast(buffer, key, PAGE_HEADER);
+			final int header = buffer.getInt(0);
 
-			// Perform byte operations.
-			final DataInputStream input = new DataInputStream(
-					mByteHandler.deserialize(new ByteArrayInputStream(page)));
+			// Never trust the length of a page, which might have been torn.
+			final long pageLength = (header & ~UBER_PAGE) + (long) PAGE_HEADER;
+			if (pageLength > Integer.MAX_VALUE
+					|| pageLength > mChannel.size() - key) {
+				throw new SirixIOException("Page at offset " + key
+						+ " exceeds the end of the file!");
+			}
+			final int length = (int) pageLength;
+			if (buffer.position() < length) {
+				if (buffer.capacity() < length) {
+					buffer = mBufferPool.grow(buffer, length);
+				}
+				buffer.limit(length);
+				readFully(buffer, key + buffer.position());
+			}
+			buffer.limit(length);
+			buffer.position(PAGE_HEADER);
+			if (mVerifiedPages == null || !mVerifiedPages.contains(key)) {
+				if (checksum(buffer) != buffer.getInt(OTHER_BEACON)) {
+					throw new SirixIOException("Checksum mismatch of page at offset "
+							+ key + "!");
+				}
+				verified(key);
+			}
+			if ((header & UBER_PAGE) != 0) {
+				// Skip the key of the previous uber page.
+				buffer.position(PAGE_HEADER + 8);
+			}
+
+			// Perform byte operations, which take over the buffer.
+			final ByteBuffer page = buffer;
+			buffer = null;
+			buffer = mByteHandler.deserialize(page, mBufferPool);
+			if (mCache.isPresent()) {
+				mCache.get().put(key, buffer);
+			}
 
 			// Return reader required to instantiate and deserialize page.
-			return PagePersistenter.deserializePage(input, pageReadTrx);
+			return PagePersistenter.deserializePage(new ByteBufferDataInput(buffer),
+					pageReadTrx);
 		} catch (final IOException e) {
 			throw new SirixIOException(e);
+		} finally {
+			mBufferPool.release(buffer);
+		}
+	}
+
+	/**
+	 * Remember that the checksum of a page has been verified, if checksums are
+	 * only verified on the first read.
+	 * 
+	 * @param key
+	 *          the key of the page
+	 */
+	private void verified(final long key) {
+		if (mVerifiedPages != null) {
+			if (mVerifiedPages.size() >= MAX_VERIFIED_PAGES) {
+				mVerifiedPages.clear();
+			}
+			mVerifiedPages.add(key);
+		}
+	}
+
+	/**
+	 * Read bytes at the given position until at least the given number of bytes
+	 * has been read or the buffer is full.
+	 * 
+	 * @param buffer
+	 *          the buffer to fill
+	 * @param position
+	 *          the file position to read from
+	 * @param minLength
+	 *          the minimum number of bytes to read
+	 * @throws IOException
+	 *           if an I/O error occurs or the end of the file is reached
+	 */
+	private void readAtLeast(final ByteBuffer buffer, final long position,
+			final int minLength) throws IOException {
+		while (buffer.position() < minLength) {
+			final int read = mChannel.read(buffer, position + buffer.position());
+			if (read < 0) {
+				throw new EOFException();
+			}
+		}
+	}
+
+	/**
+	 * Read bytes at the given position until the buffer is full.
+	 * 
+	 * @param buffer
+	 *          the buffer to fill
+	 * @param position
+	 *          the file position to read from
+	 * @throws IOException
+	 *           if an I/O error occurs or the end of the file is reached
+	 */
+	private void readFully(final ByteBuffer buffer, final long position)
+			throws IOException {
+		readFully(mChannel, buffer, position);
+	}
+
+	/**
+	 * Read bytes at the given position of a channel until the buffer is full.
+	 * 
+	 * @param channel
+	 *          the channel to read from
+	 * @param buffer
+	 *          the buffer to fill
+	 * @param position
+	 *          the file position to read from
+	 * @throws IOException
+	 *           if an I/O error occurs or the end of the file is reached
+	 */
+	private static void readFully(final FileChannel channel,
+			final ByteBuffer buffer, final long position) throws IOException {
+		long offset = position;
+		while (buffer.hasRemaining()) {
+			final int read = channel.read(buffer, offset);
+			if (read < 0) {
+				throw new EOFException();
+			}
+			offset += read;
 		}
 	}
 
@@ -120,9 +332,12 @@ public final class FileReader implements Reader {
 	public PageReference readUberPageReference() throws SirixIOException {
 		final PageReference uberPageReference = new PageReference();
 		try {
-			// Read primary beacon.
-			mFile.seek(0);
-			uberPageReference.setKey(mFile.readLong());
+			// Read the uber page of the last completely written revision.
+			final long key = lastUberPageKey(mChannel);
+			if (key == Constants.NULL_ID) {
+				throw new SirixIOException("No completely written revision found!");
+			}
+			uberPageReference.setKey(key);
 			final UberPage page = (UberPage) read(uberPageReference.getKey(), null);
 			uberPageReference.setPage(page);
 			return uberPageReference;
@@ -131,6 +346,190 @@ public final class FileReader implements Reader {
 		}
 	}
 
+	/**
+	 * Compute the checksum of the remaining bytes of a buffer without changing
+	 * its position.
+	 * 
+	 * @param buffer
+	 *          the buffer
+	 * @return the checksum
+	 */
+	public static int checksum(final ByteBuffer buffer) {
+		final CRC32 crc = new CRC32();
+		crc.update(buffer.duplicate());
+		return (int) crc.getValue();
+	}
+
+	/**
+	 * Find the {@link UberPage} of the last completely written revision. The
+	 * beacon and the {@link UberPage} it references are verified. If the pages
+	 * of the revision have not been forced before the beacon has been written,
+	 * all pages of the revision are verified as well. Whenever a revision turns
+	 * out to be torn, the revisions are scanned backward by means of the keys of
+	 * the previous {@link UberPage}s. Readers and writers use the same check,
+	 * such that a writer never appends to a revision, which readers consider to
+	 * be torn.
+	 * 
+	 * @param channel
+	 *          channel of the data file
+	 * @return the key of the {@link UberPage} or {@link Constants#NULL_ID}, if no
+	 *         revision has been written completely
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	public static long lastUberPageKey(final FileChannel channel)
+			throws IOException {
+		final long size = channel.size();
+		if (size < FIRST_BEACON) {
+			return Constants.NULL_ID;
+		}
+		final ByteBuffer beacon = ByteBuffer.allocate(FIRST_BEACON);
+		readFully(channel, beacon, 0);
+		beacon.flip();
+		if (checksum((ByteBuffer) beacon.duplicate().limit(FIRST_BEACON - 4)) != beacon
+				.getInt(FIRST_BEACON - 4)) {
+			// Torn beacon.
+			return scanUberPageKey(channel, size);
+		}
+
+		long key = beacon.getLong(0);
+		long previousKey = beacon.getLong(8);
+		boolean forced = (beacon.getInt(16) & FORCED) != 0;
+		while (key >= FIRST_BEACON) {
+			final ByteBuffer uberPage = readVerifiedPage(channel, key, size);
+			if (uberPage != null && (uberPage.getInt(0) & UBER_PAGE) != 0) {
+				previousKey = uberPage.getLong(PAGE_HEADER);
+				if (forced || verifyPages(channel, previousKey, key, size)) {
+					return key;
+				}
+			} else if (key != beacon.getLong(0)) {
+				// The key of the previous uber page is lost.
+				return scanUberPageKey(channel, size);
+			}
+			if (previousKey >= key) {
+				break;
+			}
+			key = previousKey;
+			forced = false;
+		}
+		return Constants.NULL_ID;
+	}
+
+	/**
+	 * Get the offset behind a page.
+	 * 
+	 * @param channel
+	 *          channel of the data file
+	 * @param key
+	 *          the key of the page
+	 * @return the offset behind the page
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	static long endOfPage(final FileChannel channel, final long key)
+			throws IOException {
+		final ByteBuffer header = ByteBuffer.allocate(OTHER_BEACON);
+		readFully(channel, header, key);
+		return key + PAGE_HEADER + (header.getInt(0) & ~UBER_PAGE);
+	}
+
+	/**
+	 * Verify all pages of a revision, which are located between the
+	 * {@link UberPage} of the previous revision and the one of the revision.
+	 * 
+	 * @param channel
+	 *          channel of the data file
+	 * @param previousKey
+	 *          key of the previous {@link UberPage} or {@link Constants#NULL_ID}
+	 * @param key
+	 *          key of the {@link UberPage} of the revision
+	 * @param size
+	 *          size of the file
+	 * @return {@code true}, if all pages are valid, {@code false} otherwise
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	private static boolean verifyPages(final FileChannel channel,
+			final long previousKey, final long key, final long size)
+			throws IOException {
+		long offset = previousKey == Constants.NULL_ID ? FIRST_BEACON : endOfPage(
+				channel, previousKey);
+		while (offset < key) {
+			final ByteBuffer page = readVerifiedPage(channel, offset, key);
+			if (page == null) {
+				return false;
+			}
+			offset += page.limit();
+		}
+		return offset == key;
+	}
+
+	/**
+	 * Scan all pages from the beginning of the file until the first torn page to
+	 * find the last {@link UberPage}. Only used if the beacon is torn.
+	 * 
+	 * @param channel
+	 *          channel of the data file
+	 * @param size
+	 *          size of the file
+	 * @return the key of the {@link UberPage} or {@link Constants#NULL_ID}, if
+	 *         none has been found
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	private static long scanUberPageKey(final FileChannel channel,
+			final long size) throws IOException {
+		long uberPageKey = Constants.NULL_ID;
+		long offset = FIRST_BEACON;
+		while (offset < size) {
+			final ByteBuffer page = readVerifiedPage(channel, offset, size);
+			if (page == null) {
+				break;
+			}
+			if ((page.getInt(0) & UBER_PAGE) != 0) {
+				uberPageKey = offset;
+			}
+			offset += page.limit();
+		}
+		return uberPageKey;
+	}
+
+	/**
+	 * Read a page including its header and verify its checksum.
+	 * 
+	 * @param channel
+	 *          channel of the data file
+	 * @param key
+	 *          the key of the page
+	 * @param end
+	 *          offset, which must not be exceeded by the page
+	 * @return a buffer holding the page including its header or {@code null}, if
+	 *         the page is torn
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	private static ByteBuffer readVerifiedPage(final FileChannel channel,
+			final long key, final long end) throws IOException {
+		if (key + PAGE_HEADER > end) {
+			return null;
+		}
+		final ByteBuffer header = ByteBuffer.allocate(PAGE_HEADER);
+		readFully(channel, header, key);
+		final long length = (header.getInt(0) & ~UBER_PAGE) + (long) PAGE_HEADER;
+		if (length > Integer.MAX_VALUE || key + length > end) {
+			return null;
+		}
+		final ByteBuffer page = ByteBuffer.allocate((int) length);
+		page.put(header.array());
+		readFully(channel, page, key + PAGE_HEADER);
+		page.position(PAGE_HEADER);
+		if (checksum(page) != page.getInt(OTHER_BEACON)) {
+			return null;
+		}
+		page.position(0);
+		return page;
+	}
+
 	@Override
 	public void close() throws SirixIOException {
 		try {
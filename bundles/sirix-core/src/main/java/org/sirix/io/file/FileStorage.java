@@ -28,12 +28,18 @@
 package org.sirix.io.file;
 
 import java.io.File;
+import java.util.Optional;
 
 import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.cache.OffHeapPageCache;
 import org.sirix.exception.SirixIOException;
+import org.sirix.io.ChecksumVerification;
+import org.sirix.io.DurabilityMode;
 import org.sirix.io.Reader;
+import org.sirix.io.SharedReader;
 import org.sirix.io.Storage;
 import org.sirix.io.Writer;
+import org.sirix.io.bytepipe.ByteBufferPool;
 import org.sirix.io.bytepipe.ByteHandlePipeline;
 import org.sirix.io.bytepipe.ByteHandler;
 
@@ -54,6 +60,27 @@ public final class FileStorage implements Storage {
 	/** Byte handler pipeline. */
 	private final ByteHandlePipeline mByteHandler;
 
+	/** Determines if and when pages are forced to the storage device. */
+	private final DurabilityMode mDurability;
+
+	/** Pool of buffers shared by all readers and writers. */
+	private final ByteBufferPool mBufferPool;
+
+	/**
+	 * Thread-safe reader, which is shared by all transactions, such that the
+	 * file is only opened once.
+	 */
+	private FileReader mReader;
+
+	/**
+	 * Optional off-heap cache of the decompressed bytes of pages, which is
+	 * shared by all transactions.
+	 */
+	private final Optional<OffHeapPageCache> mCache;
+
+	/** Determines when the checksums of pages are verified. */
+	private final ChecksumVerification mVerification;
+
 	/**
 	 * Constructor.
 	 * 
@@ -65,24 +92,39 @@ public final class FileStorage implements Storage {
 	public FileStorage(final ResourceConfiguration resourceConfig) {
 		assert resourceConfig != null : "resourceConfig must not be null!";
 		mFile = resourceConfig.mPath;
-		mByteHandler = resourceConfig.mByteHandler;
+		mByteHandler = resourceConfig.getPageByteHandler();
+		mDurability = resourceConfig.mDurability;
+		mBufferPool = new ByteBufferPool();
+		mCache = resourceConfig.mOffHeapCacheSize > 0 ? Optional
+				.of(new OffHeapPageCache(resourceConfig.mOffHeapCacheSize)) : Optional
+				.<OffHeapPageCache> empty();
+		mVerification = resourceConfig.mChecksumVerification;
 	}
 
 	@Override
-	public Reader getReader() throws SirixIOException {
-		return new FileReader(getConcreteStorage(), new ByteHandlePipeline(
-				mByteHandler));
+	public synchronized Reader getReader() throws SirixIOException {
+		if (mReader == null) {
+			mReader = new FileReader(getConcreteStorage(), new ByteHandlePipeline(
+					mByteHandler), mBufferPool, mCache, mVerification);
+		}
+		return new SharedReader(mReader);
 	}
 
 	@Override
 	public Writer getWriter() throws SirixIOException {
 		return new FileWriter(getConcreteStorage(), new ByteHandlePipeline(
-				mByteHandler));
+				mByteHandler), mDurability, mBufferPool, getReader());
 	}
 
 	@Override
-	public void close() {
-		// not used over here
+	public synchronized void close() throws SirixIOException {
+		if (mReader != null) {
+			mReader.close();
+			mReader = null;
+		}
+		if (mCache.isPresent()) {
+			mCache.get().clear();
+		}
 	}
 
 	/**
@@ -27,38 +27,118 @@
 
 package org.sirix.io.file;
 
-import java.io.ByteArrayOutputStream;
-import java.io.DataOutputStream;
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nullable;
 
+import org.sirix.api.PageReadTrx;
 import org.sirix.exception.SirixIOException;
 import org.sirix.io.AbstractForwardingReader;
+import org.sirix.io.DurabilityMode;
+import org.sirix.io.Journal;
 import org.sirix.io.Reader;
 import org.sirix.io.Writer;
+import org.sirix.io.bytepipe.ByteBufferDataOutput;
+import org.sirix.io.bytepipe.ByteBufferPool;
 import org.sirix.io.bytepipe.ByteHandler;
 import org.sirix.page.PagePersistenter;
 import org.sirix.page.PageReference;
+import org.sirix.page.UberPage;
 import org.sirix.page.interfaces.Page;
+import org.sirix.settings.Constants;
 
 /**
  * File Writer for providing read/write access for file as a Sirix backend.
+ * Pages are serialized into pooled buffers, transformed by the
+ * {@link ByteHandler} and collected in large direct buffers, which are appended
+ * with gathering writes. The end of the file is tracked in memory, such that a page
+ * write usually doesn't involve any system call at all. Depending on the
+ * {@link DurabilityMode} the file is forced to the storage device before the
+ * beacon is switched to the new {@code UberPage} and once more on
+ * {@link #sync()} to make the beacon durable. Alternatively, the pages of a
+ * revision and the beacon are appended to the {@link Journal} of the database
+ * instead of forcing the file.
+ * 
+ * <p>
+ * Pages are written with a checksum and each {@code UberPage} is preceded by
+ * the key of the previously committed one, such that a torn revision is
+ * detected on open and the last completely written revision is found (see
+ * {@link FileReader#lastUberPageKey(FileChannel)}). Pages of
+ * incomplete commits behind the last revision are truncated, once a writer is
+ * opened.
+ * </p>
  * 
  * @author Marc Kramis, Seabix
  * @author Sebastian Graf, University of Konstanz
+ * @author Johannes Lichtenberger
  * 
  */
 public final class FileWriter extends AbstractForwardingReader implements
 		Writer {
 
+	/** Size of a single write buffer. */
+	static final int BUFFER_SIZE = 1 << 20;
+
+	/** Maximum number of filled buffers, until they are written to the file. */
+	static final int MAX_PENDING_BUFFERS = 16;
+
+	/** The data file. */
+	private final File mStorage;
+
 	/** Random access to work on. */
 	private final RandomAccessFile mFile;
 
-	/** {@link FileReader} reference for this writer. */
-	private final FileReader mReader;
+	/** Channel of the random access file. */
+	private final FileChannel mChannel;
+
+	/** {@link Reader} reference for this writer. */
+	private final Reader mReader;
+
+	/** {@link ByteHandler} to serialize pages with. */
+	private final ByteHandler mByteHandler;
+
+	/** Pool of buffers to serialize pages into. */
+	private final ByteBufferPool mBufferPool;
+
+	/** Determines if and when pages are forced to the storage device. */
+	private final DurabilityMode mDurability;
+
+	/** Buffers, which have been filled, but are not yet written to the file. */
+	private final List<ByteBuffer> mPending;
+
+	/** Buffers, which can be reused. */
+	private final Deque<ByteBuffer> mFree;
+
+	/** Buffer currently filled. */
+	private ByteBuffer mCurrent;
+
+	/** Offset of the end of the file including all pending pages. */
+	private long mEndOffset;
+
+	/** Offset up to which pages are written to the file. */
+	private volatile long mWrittenOffset;
+
+	/** Determines if data has been written since the last force. */
+	private boolean mIsDirty;
+
+	/** Key of the last committed {@link UberPage}. */
+	private long mUberPageKey;
+
+	/** Offset of the first page, which has been written since the last commit. */
+	private long mCommitOffset;
 
 	/**
 	 * Constructor.
@@ -67,17 +147,65 @@ public final class FileWriter extends AbstractForwardingReader implements
 	 *          the concrete storage
 	 * @param handler
 	 *          the byte handler
+	 * @param durability
+	 *          determines if and when pages are forced to the storage device
+	 * @param pool
+	 *          pool of buffers to serialize pages into
 	 * @throws SirixIOException
 	 *           if an I/O error occurs
 	 */
-	public FileWriter(final File storage, final ByteHandler handler)
+	public FileWriter(final File storage, final ByteHandler handler,
+			final DurabilityMode durability, final ByteBufferPool pool)
 			throws SirixIOException {
+		this(storage, handler, durability, pool, new FileReader(storage, handler,
+				pool));
+	}
+
+	/**
+	 * Constructor, which uses the given {@link Reader} to read pages back. The
+	 * reader must understand the file layout written by this writer.
+	 * 
+	 * @param storage
+	 *          the concrete storage
+	 * @param handler
+	 *          the byte handler
+	 * @param durability
+	 *          determines if and when pages are forced to the storage device
+	 * @param pool
+	 *          pool of buffers to serialize pages into
+	 * @param reader
+	 *          the reader to delegate reads to
+	 * @throws SirixIOException
+	 *           if an I/O error occurs
+	 */
+	public FileWriter(final File storage, final ByteHandler handler,
+			final DurabilityMode durability, final ByteBufferPool pool,
+			final Reader reader) throws SirixIOException {
+		mStorage = checkNotNull(storage);
 		try {
 			mFile = new RandomAccessFile(storage, "rw");
+			mChannel = mFile.getChannel();
+
+			// Discard pages behind the last revision, which might be torn.
+			mUberPageKey = FileReader.lastUberPageKey(mChannel);
+			mEndOffset = mUberPageKey == Constants.NULL_ID ? FileReader.FIRST_BEACON
+					: FileReader.endOfPage(mChannel, mUberPageKey);
+			if (mChannel.size() > mEndOffset) {
+				mChannel.truncate(mEndOffset);
+			}
 		} catch (final FileNotFoundException e) {
 			throw new SirixIOException(e);
+		} catch (final IOException e) {
+			throw new SirixIOException(e);
 		}
-		mReader = new FileReader(storage, handler);
+		mWrittenOffset = mEndOffset;
+		mCommitOffset = mEndOffset;
+		mByteHandler = checkNotNull(handler);
+		mDurability = checkNotNull(durability);
+		mBufferPool = checkNotNull(pool);
+		mReader = checkNotNull(reader);
+		mPending = new ArrayList<>(MAX_PENDING_BUFFERS);
+		mFree = new ArrayDeque<>();
 	}
 
 	/**
@@ -89,47 +217,182 @@ public final class FileWriter extends AbstractForwardingReader implements
 	 *           if errors during writing occur
 	 */
 	@Override
-	public void write(final PageReference pageReference) throws SirixIOException {
+	public synchronized void write(final PageReference pageReference)
+			throws SirixIOException {
 		// Perform byte operations.
 		try {
 			// Serialize page.
 			final Page page = pageReference.getPage();
 			assert page != null;
-			final ByteArrayOutputStream output = new ByteArrayOutputStream();
-			final DataOutputStream dataOutput = new DataOutputStream(
-					mReader.mByteHandler.serialize(output));
-			PagePersistenter.serializePage(dataOutput, page);
-			output.close();
-			dataOutput.close();
-
-			final byte[] serializedPage = output.toByteArray();
-
-			final byte[] writtenPage = new byte[serializedPage.length
-					+ FileReader.OTHER_BEACON];
-			final ByteBuffer buffer = ByteBuffer.allocate(writtenPage.length);
-			buffer.putInt(serializedPage.length);
-			buffer.put(serializedPage);
-			buffer.position(0);
-			buffer.get(writtenPage, 0, writtenPage.length);
-
-			// Getting actual offset and appending to the end of the current
-			// file.
-			final long fileSize = mFile.length();
-			final long offset = fileSize == 0 ? FileReader.FIRST_BEACON : fileSize;
-			mFile.seek(offset);
-			mFile.write(writtenPage);
-
-			// Remember page coordinates.
-			pageReference.setKey(offset);
+			final ByteBufferDataOutput output = new ByteBufferDataOutput(
+					mBufferPool);
+			PagePersistenter.serializePage(output, page);
+			final ByteBuffer serializedPage = mByteHandler.serialize(
+					output.getBuffer(), mBufferPool);
+
+			try {
+				// Append to the end of the file, which is tracked in memory.
+				final long offset = mEndOffset;
+				append(serializedPage, page instanceof UberPage);
+
+				// Remember page coordinates.
+				pageReference.setKey(offset);
+			} finally {
+				mBufferPool.release(serializedPage);
+			}
 		} catch (final IOException e) {
 			throw new SirixIOException(e);
 		}
 	}
 
+	/**
+	 * Append a serialized page prefixed by its header to the write buffers.
+	 * 
+	 * @param serializedPage
+	 *          buffer holding the serialized page between its position and limit
+	 * @param uberPage
+	 *          determines if the page is an {@link UberPage}, which is preceded
+	 *          by the key of the last committed {@link UberPage}
+	 * @throws IOException
+	 *           if the buffers couldn't be written
+	 */
+	private void append(final ByteBuffer serializedPage, final boolean uberPage)
+			throws IOException {
+		final ByteBuffer header = header(serializedPage, uberPage);
+		final int length = header.remaining() + serializedPage.remaining();
+		if (length > BUFFER_SIZE) {
+			// Too large for a single buffer, thus written directly.
+			flush();
+			final ByteBuffer[] buffers = { header, serializedPage };
+			mChannel.position(mWrittenOffset);
+			long toWrite = length;
+			while (toWrite > 0) {
+				toWrite -= mChannel.write(buffers);
+			}
+			mEndOffset += length;
+			mWrittenOffset = mEndOffset;
+			mIsDirty = true;
+			return;
+		}
+
+		if (mCurrent == null || mCurrent.remaining() < length) {
+			seal();
+			mCurrent = mFree.isEmpty() ? ByteBuffer.allocateDirect(BUFFER_SIZE)
+					: mFree.pop();
+		}
+		mCurrent.put(header);
+		mCurrent.put(serializedPage);
+		mEndOffset += length;
+
+		if (mPending.size() >= MAX_PENDING_BUFFERS) {
+			flush();
+		}
+	}
+
+	/**
+	 * Create the header of a page, that is its length, its checksum and the key
+	 * of the last committed {@link UberPage} in case of an {@link UberPage}.
+	 * 
+	 * @param serializedPage
+	 *          buffer holding the serialized page between its position and limit
+	 * @param uberPage
+	 *          determines if the page is an {@link UberPage}
+	 * @return the header
+	 */
+	private ByteBuffer header(final ByteBuffer serializedPage,
+			final boolean uberPage) {
+		final ByteBuffer header = ByteBuffer.allocate(FileReader.PAGE_HEADER
+				+ (uberPage ? 8 : 0));
+		final CRC32 crc = new CRC32();
+		if (uberPage) {
+			header.putLong(FileReader.PAGE_HEADER, mUberPageKey);
+			crc.update(header.array(), FileReader.PAGE_HEADER, 8);
+		}
+		crc.update(serializedPage.duplicate());
+		final int length = header.capacity() - FileReader.PAGE_HEADER
+				+ serializedPage.remaining();
+		header.putInt(0, uberPage ? length | FileReader.UBER_PAGE : length);
+		header.putInt(FileReader.OTHER_BEACON, (int) crc.getValue());
+		return header;
+	}
+
+	/**
+	 * Add the current buffer to the pending buffers, if it contains any data.
+	 */
+	private void seal() {
+		if (mCurrent != null && mCurrent.position() > 0) {
+			mPending.add(mCurrent);
+			mCurrent = null;
+		}
+	}
+
+	/**
+	 * Write all pending buffers to the file using gathering writes.
+	 * 
+	 * @throws IOException
+	 *           if the buffers couldn't be written
+	 */
+	private synchronized void flush() throws IOException {
+		seal();
+		if (mPending.isEmpty()) {
+			return;
+		}
+
+		final ByteBuffer[] buffers = mPending.toArray(new ByteBuffer[mPending
+				.size()]);
+		for (final ByteBuffer buffer : buffers) {
+			buffer.flip();
+		}
+		mChannel.position(mWrittenOffset);
+		long toWrite = mEndOffset - mWrittenOffset;
+		while (toWrite > 0) {
+			toWrite -= mChannel.write(buffers);
+		}
+		mWrittenOffset = mEndOffset;
+		mIsDirty = true;
+
+		// Recycle the buffers.
+		for (final ByteBuffer buffer : buffers) {
+			buffer.clear();
+			mFree.push(buffer);
+		}
+		mPending.clear();
+	}
+
+	/**
+	 * Force written pages to the storage device, if required by the
+	 * {@link DurabilityMode}.
+	 * 
+	 * @throws IOException
+	 *           if the file couldn't be forced
+	 */
+	private void force() throws IOException {
+		if (mIsDirty && mDurability == DurabilityMode.FSYNC_ON_COMMIT) {
+			// Metadata is needed, as the file might have grown.
+			mChannel.force(true);
+		}
+		mIsDirty = false;
+	}
+
+	@Override
+	public Page read(final @Nonnegative long key,
+			final @Nullable PageReadTrx pageReadTrx) throws SirixIOException {
+		if (key >= mWrittenOffset) {
+			try {
+				flush();
+			} catch (final IOException e) {
+				throw new SirixIOException(e);
+			}
+		}
+		return mReader.read(key, pageReadTrx);
+	}
+
 	@Override
 	public void close() throws SirixIOException {
 		try {
 			if (mFile != null) {
+				flush();
+				force();
 				mFile.close();
 			}
 			if (mReader != null) {
@@ -144,9 +407,92 @@ public final class FileWriter extends AbstractForwardingReader implements
 	public void writeUberPageReference(final PageReference pageReference)
 			throws SirixIOException {
 		try {
-			write(pageReference);
-			mFile.seek(0);
-			mFile.writeLong(pageReference.getKey());
+			if (pageReference.getKey() == Constants.NULL_ID) {
+				write(pageReference);
+			}
+
+			// Make all pages of the revision durable, before the beacon is written.
+			flush();
+			force();
+
+			writeBeacon(beacon(pageReference.getKey(),
+					mDurability == DurabilityMode.FSYNC_ON_COMMIT));
+			mUberPageKey = pageReference.getKey();
+			mCommitOffset = mEndOffset;
+		} catch (final IOException e) {
+			throw new SirixIOException(e);
+		}
+	}
+
+	@Override
+	public boolean writeUberPageReference(final PageReference pageReference,
+			final Journal journal) throws SirixIOException {
+		checkNotNull(journal);
+		if (mDurability != DurabilityMode.FSYNC_ON_COMMIT) {
+			return false;
+		}
+		try {
+			if (pageReference.getKey() == Constants.NULL_ID) {
+				write(pageReference);
+			}
+			flush();
+
+			// The pages aren't forced, thus they are verified on open, unless the
+			// beacon is replayed from the journal.
+			writeBeacon(beacon(pageReference.getKey(), false));
+			journal.append(mStorage, mChannel, mCommitOffset, mEndOffset
+					- mCommitOffset, beacon(pageReference.getKey(), true));
+			mUberPageKey = pageReference.getKey();
+			mCommitOffset = mEndOffset;
+			return true;
+		} catch (final IOException e) {
+			throw new SirixIOException(e);
+		}
+	}
+
+	/**
+	 * Create the beacon, which references an {@link UberPage} and its
+	 * predecessor.
+	 * 
+	 * @param uberPageKey
+	 *          the key of the {@link UberPage}
+	 * @param forced
+	 *          determines if the pages of the revision are forced
+	 * @return the beacon
+	 */
+	private ByteBuffer beacon(final long uberPageKey, final boolean forced) {
+		final ByteBuffer beacon = ByteBuffer.allocate(FileReader.FIRST_BEACON);
+		beacon.putLong(uberPageKey);
+		beacon.putLong(mUberPageKey);
+		beacon.putInt(forced ? FileReader.FORCED : 0);
+		beacon.flip();
+		final int checksum = FileReader.checksum(beacon);
+		beacon.limit(FileReader.FIRST_BEACON);
+		beacon.putInt(FileReader.FIRST_BEACON - 4, checksum);
+		beacon.position(0);
+		return beacon;
+	}
+
+	/**
+	 * Write the beacon at the beginning of the file.
+	 * 
+	 * @param beacon
+	 *          the beacon
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	private void writeBeacon(final ByteBuffer beacon) throws IOException {
+		while (beacon.hasRemaining()) {
+			mChannel.write(beacon, beacon.position());
+		}
+		mIsDirty = true;
+	}
+
+	@Override
+	public void sync() throws SirixIOException {
+		try {
+			flush();
+			force();
 		} catch (final IOException e) {
 			throw new SirixIOException(e);
 		}
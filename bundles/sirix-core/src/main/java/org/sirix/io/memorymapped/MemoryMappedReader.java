@@ -0,0 +1,399 @@
+/**
+ * Copyright (c) 2011, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.sirix.io.memorymapped;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nullable;
+
+import org.sirix.api.PageReadTrx;
+import org.sirix.cache.OffHeapPageCache;
+import org.sirix.exception.SirixIOException;
+import org.sirix.io.ChecksumVerification;
+import org.sirix.io.Reader;
+import org.sirix.io.bytepipe.ByteBufferDataInput;
+import org.sirix.io.bytepipe.ByteBufferPool;
+import org.sirix.io.bytepipe.ByteHandler;
+import org.sirix.io.file.FileReader;
+import org.sirix.page.PagePersistenter;
+import org.sirix.page.PageReference;
+import org.sirix.page.UberPage;
+import org.sirix.page.interfaces.Page;
+import org.sirix.settings.Constants;
+
+/**
+ * Reader, which maps the data file of the {@link FileReader} layout into memory
+ * in large segments. Once the file is resident in the page cache of the
+ * operating system a page read does not involve any system call. As the data
+ * file is append-only, the last segment is remapped whenever a read is beyond
+ * the currently mapped region.
+ * 
+ * <p>
+ * Reads are thread-safe, as the mapped buffers are only accessed through
+ * absolute operations or duplicates.
+ * </p>
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public final class MemoryMappedReader implements Reader {
+
+	/** Size of a mapped segment (1 GB). */
+	static final long SEGMENT_SIZE = 1L << 30;
+
+	/** The channel used to map the file. */
+	private final FileChannel mChannel;
+
+	/** The underlying file. */
+	private final RandomAccessFile mFile;
+
+	/** Inflater to decompress. */
+	private final ByteHandler mByteHandler;
+
+	/** Pool of buffers for pages, which can't be read in place. */
+	private final ByteBufferPool mBufferPool;
+
+	/** Optional off-heap cache of the decompressed bytes of pages. */
+	private final Optional<OffHeapPageCache> mCache;
+
+	/**
+	 * Keys of the pages, whose checksum has already been verified, or
+	 * {@code null}, if checksums are verified on every read.
+	 */
+	private final Set<Long> mVerifiedPages;
+
+	/**
+	 * The mapped segments, whereas only the last segment might not be fully
+	 * mapped.
+	 */
+	private volatile MappedByteBuffer[] mSegments;
+
+	/** Number of bytes currently mapped. */
+	private volatile long mMappedSize;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param concreteStorage
+	 *          storage file
+	 * @param handler
+	 *          {@link ByteHandler} instance
+	 * @param pool
+	 *          pool of buffers for pages, which can't be read in place
+	 * @throws SirixIOException
+	 *           if something bad happens
+	 */
+	public MemoryMappedReader(final File concreteStorage,
+			final ByteHandler handler, final ByteBufferPool pool)
+			throws SirixIOException {
+		this(concreteStorage, handler, pool, Optional.<OffHeapPageCache> empty(),
+				ChecksumVerification.EVERY_READ);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param concreteStorage
+	 *          storage file
+	 * @param handler
+	 *          {@link ByteHandler} instance
+	 * @param pool
+	 *          pool of buffers for pages, which can't be read in place
+	 * @param cache
+	 *          optional off-heap cache of the decompressed bytes of pages, which
+	 *          is only used for pages transformed by the byte handler
+	 * @param verification
+	 *          determines when the checksums of pages are verified
+	 * @throws SirixIOException
+	 *           if something bad happens
+	 */
+	public MemoryMappedReader(final File concreteStorage,
+			final ByteHandler handler, final ByteBufferPool pool,
+			final Optional<OffHeapPageCache> cache,
+			final ChecksumVerification verification) throws SirixIOException {
+		mCache = checkNotNull(cache);
+		checkNotNull(verification);
+		mVerifiedPages = verification == ChecksumVerification.FIRST_READ ? Collections
+				.newSetFromMap(new ConcurrentHashMap<Long, Boolean>()) : null;
+		try {
+			if (!concreteStorage.exists()) {
+				concreteStorage.getParentFile().mkdirs();
+				concreteStorage.createNewFile();
+			}
+
+			mFile = new RandomAccessFile(concreteStorage, "r");
+			mChannel = mFile.getChannel();
+			mByteHandler = checkNotNull(handler);
+			mBufferPool = checkNotNull(pool);
+			mSegments = new MappedByteBuffer[0];
+		} catch (final IOException e) {
+			throw new SirixIOException(e);
+		}
+	}
+
+	@Override
+	public Page read(final @Nonnegative long key,
+			final @Nullable PageReadTrx pageReadTrx) throws SirixIOException {
+		ByteBuffer buffer = mCache.isPresent() ? mCache.get().get(key,
+				mBufferPool) : null;
+		try {
+			if (buffer != null) {
+				// Page is cached, thus it's neither verified nor decompressed again.
+				return PagePersistenter.deserializePage(
+						new ByteBufferDataInput(buffer), pageReadTrx);
+			}
+
+			// Read page from the mapped file.
+			final int header = getInt(key);
+			final int checksum = getInt(key + FileReader.OTHER_BEACON);
+			final ByteBuffer page = slice(key + FileReader.PAGE_HEADER, header
+					& ~FileReader.UBER_PAGE);
+			if (mVerifiedPages == null || !mVerifiedPages.contains(key)) {
+				if (FileReader.checksum(page) != checksum) {
+					mBufferPool.release(page);
+					throw new SirixIOException("Checksum mismatch of page at offset "
+							+ key + "!");
+				}
+				verified(key);
+			}
+			if ((header & FileReader.UBER_PAGE) != 0) {
+				// Skip the key of the previous uber page.
+				page.position(page.position() + 8);
+			}
+
+			// Perform byte operations, which take over the buffer.
+			buffer = mByteHandler.deserialize(page, mBufferPool);
+			if (mCache.isPresent() && buffer != page) {
+				// Untransformed pages are already mapped outside of the heap.
+				mCache.get().put(key, buffer);
+			}
+
+			// Return reader required to instantiate and deserialize page.
+			return PagePersistenter.deserializePage(new ByteBufferDataInput(buffer),
+					pageReadTrx);
+		} catch (final IOException e) {
+			throw new SirixIOException(e);
+		} finally {
+			// Mapped buffers are ignored by the pool.
+			mBufferPool.release(buffer);
+		}
+	}
+
+	@Override
+	public PageReference readUberPageReference() throws SirixIOException {
+		final PageReference uberPageReference = new PageReference();
+		try {
+			// Read the uber page of the last completely written revision.
+			final long key = FileReader.lastUberPageKey(mChannel);
+			if (key == Constants.NULL_ID) {
+				throw new SirixIOException("No completely written revision found!");
+			}
+			uberPageReference.setKey(key);
+			final UberPage page = (UberPage) read(uberPageReference.getKey(), null);
+			uberPageReference.setPage(page);
+			return uberPageReference;
+		} catch (final IOException e) {
+			throw new SirixIOException(e);
+		}
+	}
+
+	/**
+	 * Remember that the checksum of a page has been verified, if checksums are
+	 * only verified on the first read.
+	 * 
+	 * @param key
+	 *          the key of the page
+	 */
+	private void verified(final long key) {
+		if (mVerifiedPages != null) {
+			if (mVerifiedPages.size() >= FileReader.MAX_VERIFIED_PAGES) {
+				mVerifiedPages.clear();
+			}
+			mVerifiedPages.add(key);
+		}
+	}
+
+	/**
+	 * Get the integer value stored at the given file position.
+	 * 
+	 * @param position
+	 *          the file position
+	 * @return the integer value
+	 * @throws IOException
+	 *           if the region can not be mapped
+	 */
+	private int getInt(final @Nonnegative long position) throws IOException {
+		ensureMapped(position, 4);
+		final MappedByteBuffer[] segments = mSegments;
+		final int index = (int) (position / SEGMENT_SIZE);
+		final int offset = (int) (position % SEGMENT_SIZE);
+		if (offset + 4 <= SEGMENT_SIZE) {
+			return segments[index].getInt(offset);
+		}
+		final ByteBuffer buffer = copy(segments, position, 4);
+		try {
+			return buffer.getInt();
+		} finally {
+			mBufferPool.release(buffer);
+		}
+	}
+
+	/**
+	 * Get a buffer on the given region of the file. If the region is contained in
+	 * a single segment, the mapped memory is read directly, otherwise the region
+	 * is copied into a buffer of the pool.
+	 * 
+	 * @param position
+	 *          the file position
+	 * @param length
+	 *          the length of the region
+	 * @return a buffer holding the region between its position and limit
+	 * @throws IOException
+	 *           if the region can not be mapped
+	 */
+	private ByteBuffer slice(final @Nonnegative long position,
+			final @Nonnegative int length) throws IOException {
+		ensureMapped(position, length);
+		final MappedByteBuffer[] segments = mSegments;
+		final int index = (int) (position / SEGMENT_SIZE);
+		final int offset = (int) (position % SEGMENT_SIZE);
+		if (offset + length <= SEGMENT_SIZE) {
+			final ByteBuffer buffer = segments[index].duplicate();
+			buffer.limit(offset + length);
+			buffer.position(offset);
+			return buffer;
+		}
+		return copy(segments, position, length);
+	}
+
+	/**
+	 * Copy a region, which spans multiple segments.
+	 * 
+	 * @param segments
+	 *          the mapped segments
+	 * @param position
+	 *          the file position
+	 * @param length
+	 *          the length of the region
+	 * @return a flipped buffer of the pool holding the copied bytes
+	 */
+	private ByteBuffer copy(final MappedByteBuffer[] segments,
+			final @Nonnegative long position, final @Nonnegative int length) {
+		final ByteBuffer bytes = mBufferPool.acquire(length);
+		long currPosition = position;
+		int copied = 0;
+		while (copied < length) {
+			final int index = (int) (currPosition / SEGMENT_SIZE);
+			final int offset = (int) (currPosition % SEGMENT_SIZE);
+			final int toCopy = (int) Math.min(length - copied, SEGMENT_SIZE - offset);
+			final ByteBuffer buffer = segments[index].duplicate();
+			buffer.limit(offset + toCopy);
+			buffer.position(offset);
+			bytes.put(buffer);
+			copied += toCopy;
+			currPosition += toCopy;
+		}
+		bytes.flip();
+		return bytes;
+	}
+
+	/**
+	 * Make sure, that the given region is mapped. As the file only grows, only
+	 * the last segment has to be remapped and further segments might be added.
+	 * 
+	 * @param position
+	 *          the file position
+	 * @param length
+	 *          the length of the region
+	 * @throws IOException
+	 *           if the region can not be mapped or is beyond the end of the file
+	 */
+	private void ensureMapped(final @Nonnegative long position,
+			final @Nonnegative int length) throws IOException {
+		final long end = position + length;
+		if (end <= mMappedSize) {
+			return;
+		}
+
+		synchronized (this) {
+			if (end <= mMappedSize) {
+				return;
+			}
+			final long fileSize = mChannel.size();
+			if (end > fileSize) {
+				throw new IOException("Position " + position + " with length "
+						+ length + " is beyond the end of the file (" + fileSize
+						+ " bytes).");
+			}
+			final int segmentCount = (int) ((fileSize + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+			final MappedByteBuffer[] segments = Arrays.copyOf(mSegments,
+					segmentCount);
+			// Remap the last (partially mapped) segment and map new ones.
+			final int firstSegment = mSegments.length == 0 ? 0
+					: mSegments.length - 1;
+			for (int i = firstSegment; i < segmentCount; i++) {
+				final long segmentStart = i * SEGMENT_SIZE;
+				final long segmentSize = Math.min(SEGMENT_SIZE, fileSize - segmentStart);
+				if (segments[i] == null || segments[i].capacity() < segmentSize) {
+					segments[i] = mChannel.map(MapMode.READ_ONLY, segmentStart,
+							segmentSize);
+				}
+			}
+			mSegments = segments;
+			mMappedSize = fileSize;
+		}
+	}
+
+	@Override
+	public void close() throws SirixIOException {
+		try {
+			// The mapped buffers are released once they are garbage collected.
+			synchronized (this) {
+				mSegments = new MappedByteBuffer[0];
+				mMappedSize = 0;
+			}
+			mFile.close();
+		} catch (final IOException e) {
+			throw new SirixIOException(e);
+		}
+	}
+}
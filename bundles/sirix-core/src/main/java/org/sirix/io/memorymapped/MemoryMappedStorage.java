@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) 2011, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.sirix.io.memorymapped;
+
+import java.io.File;
+import java.util.Optional;
+
+import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.cache.OffHeapPageCache;
+import org.sirix.exception.SirixIOException;
+import org.sirix.io.ChecksumVerification;
+import org.sirix.io.DurabilityMode;
+import org.sirix.io.Reader;
+import org.sirix.io.SharedReader;
+import org.sirix.io.Storage;
+import org.sirix.io.Writer;
+import org.sirix.io.bytepipe.ByteBufferPool;
+import org.sirix.io.bytepipe.ByteHandlePipeline;
+import org.sirix.io.bytepipe.ByteHandler;
+import org.sirix.io.file.FileWriter;
+
+/**
+ * Factory to provide memory mapped file access as a backend. The file layout is
+ * the same as the one of the {@link org.sirix.io.file.FileStorage}, thus pages
+ * are appended with the {@link FileWriter} and read through memory mapped
+ * segments.
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public final class MemoryMappedStorage implements Storage {
+
+	/** File name. */
+	private static final String FILENAME = "sirix.data";
+
+	/** Instance to storage. */
+	private final File mFile;
+
+	/** Byte handler pipeline. */
+	private final ByteHandlePipeline mByteHandler;
+
+	/** Determines if and when pages are forced to the storage device. */
+	private final DurabilityMode mDurability;
+
+	/** Pool of buffers shared by all readers and writers. */
+	private final ByteBufferPool mBufferPool;
+
+	/**
+	 * Thread-safe reader, which is shared by all transactions, such that the
+	 * file is only opened once.
+	 */
+	private MemoryMappedReader mReader;
+
+	/**
+	 * Optional off-heap cache of the decompressed bytes of pages, which is
+	 * shared by all transactions.
+	 */
+	private final Optional<OffHeapPageCache> mCache;
+
+	/** Determines when the checksums of pages are verified. */
+	private final ChecksumVerification mVerification;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param resourceConfig
+	 *          the resource configuration
+	 */
+	public MemoryMappedStorage(final ResourceConfiguration resourceConfig) {
+		assert resourceConfig != null : "resourceConfig must not be null!";
+		mFile = resourceConfig.mPath;
+		mByteHandler = resourceConfig.getPageByteHandler();
+		mDurability = resourceConfig.mDurability;
+		mBufferPool = new ByteBufferPool();
+		mCache = resourceConfig.mOffHeapCacheSize > 0 ? Optional
+				.of(new OffHeapPageCache(resourceConfig.mOffHeapCacheSize)) : Optional
+				.<OffHeapPageCache> empty();
+		mVerification = resourceConfig.mChecksumVerification;
+	}
+
+	@Override
+	public synchronized Reader getReader() throws SirixIOException {
+		if (mReader == null) {
+			mReader = new MemoryMappedReader(getConcreteStorage(),
+					new ByteHandlePipeline(mByteHandler), mBufferPool, mCache, mVerification);
+		}
+		return new SharedReader(mReader);
+	}
+
+	@Override
+	public Writer getWriter() throws SirixIOException {
+		return new FileWriter(getConcreteStorage(), new ByteHandlePipeline(
+				mByteHandler), mDurability, mBufferPool, getReader());
+	}
+
+	@Override
+	public synchronized void close() throws SirixIOException {
+		if (mReader != null) {
+			mReader.close();
+			mReader = null;
+		}
+		if (mCache.isPresent()) {
+			mCache.get().clear();
+		}
+	}
+
+	/**
+	 * Getting concrete storage for this file.
+	 * 
+	 * @return the concrete storage for this database
+	 */
+	private File getConcreteStorage() {
+		return new File(mFile, new StringBuilder(ResourceConfiguration.Paths.DATA
+				.getFile().getName()).append(File.separator).append(FILENAME)
+				.toString());
+	}
+
+	@Override
+	public boolean exists() throws SirixIOException {
+		final File file = getConcreteStorage();
+		return file.exists() && file.length() > 0;
+	}
+
+	@Override
+	public ByteHandler getByteHandler() {
+		return mByteHandler;
+	}
+}
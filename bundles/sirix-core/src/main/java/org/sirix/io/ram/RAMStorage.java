@@ -49,7 +49,7 @@ public final class RAMStorage implements Storage {
 	 */
 	public RAMStorage(final ResourceConfiguration resourceConfig) {
 		mStorage = new ConcurrentHashMap<String, Map<Long, Page>>();
-		mHandler = resourceConfig.mByteHandler;
+		mHandler = resourceConfig.getPageByteHandler();
 		final String resource = resourceConfig.getResource().getName();
 		final Map<Long, Page> resourceStorage = mStorage.get(resource);
 		if (resourceStorage == null) {
@@ -119,6 +119,11 @@ public final class RAMStorage implements Storage {
 			mResourceStorage.put(-1l, page);
 		}
 
+		@Override
+		public void sync() {
+			// Nothing to do, as pages are never persisted.
+		}
+
 		@Override
 		public void close() throws SirixIOException {
 		}
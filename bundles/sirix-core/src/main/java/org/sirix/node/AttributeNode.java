@@ -33,6 +33,7 @@ import javax.annotation.Nullable;
 import org.brackit.xquery.atomic.QNm;
 import org.sirix.api.visitor.VisitResult;
 import org.sirix.api.visitor.Visitor;
+import org.sirix.cache.NameCache;
 import org.sirix.node.delegates.NameNodeDelegate;
 import org.sirix.node.delegates.NodeDelegate;
 import org.sirix.node.delegates.StructNodeDelegate;
@@ -63,9 +64,12 @@ public final class AttributeNode extends AbstractForwardingNode implements
 	/** Node delegate. */
 	private final NodeDelegate mDel;
 
-	/** The qualified name. */
+	/** The qualified name or {@code null}, if it's resolved from the name keys. */
 	private final QNm mQNm;
 
+	/** Resolves the qualified name, if it hasn't been given. */
+	private final NameCache mNameCache;
+
 	/**
 	 * Creating an attribute.
 	 * 
@@ -75,19 +79,47 @@ public final class AttributeNode extends AbstractForwardingNode implements
 	 *          {@link StructNodeDelegate} to be set
 	 * @param valDel
 	 *          {@link ValNodeDelegate} to be set
-	 * 
+	 * @param qNm
+	 *          the qualified name
 	 */
 	public AttributeNode(final NodeDelegate nodeDel,
 			final NameNodeDelegate nameDel, final ValNodeDelegate valDel,
 			final QNm qNm) {
+		this(nodeDel, nameDel, valDel, qNm, null);
+		assert qNm != null : "qNm must not be null!";
+	}
+
+	/**
+	 * Creating an attribute, whose qualified name is resolved from the name keys
+	 * on demand.
+	 * 
+	 * @param nodeDel
+	 *          {@link NodeDelegate} to be set
+	 * @param nameDel
+	 *          {@link NameNodeDelegate} to be set
+	 * @param valDel
+	 *          {@link ValNodeDelegate} to be set
+	 * @param nameCache
+	 *          the cache of the qualified names of the revision
+	 */
+	public AttributeNode(final NodeDelegate nodeDel,
+			final NameNodeDelegate nameDel, final ValNodeDelegate valDel,
+			final NameCache nameCache) {
+		this(nodeDel, nameDel, valDel, null, nameCache);
+		assert nameCache != null : "nameCache must not be null!";
+	}
+
+	private AttributeNode(final NodeDelegate nodeDel,
+			final NameNodeDelegate nameDel, final ValNodeDelegate valDel,
+			final @Nullable QNm qNm, final @Nullable NameCache nameCache) {
 		assert nodeDel != null : "nodeDel must not be null!";
 		mDel = nodeDel;
 		assert nameDel != null : "nameDel must not be null!";
 		mNameDel = nameDel;
 		assert valDel != null : "valDel must not be null!";
 		mValDel = valDel;
-		assert qNm != null : "qNm must not be null!";
 		mQNm = qNm;
+		mNameCache = nameCache;
 	}
 
 	@Override
@@ -196,7 +228,9 @@ public final class AttributeNode extends AbstractForwardingNode implements
 
 	@Override
 	public QNm getName() {
-		return mQNm;
+		return mQNm == null ? mNameCache.getName(mNameDel.getURIKey(),
+				mNameDel.getPrefixKey(), mNameDel.getLocalNameKey(), Kind.ATTRIBUTE)
+				: mQNm;
 	}
 
 	@Override
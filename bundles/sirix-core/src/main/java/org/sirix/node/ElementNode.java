@@ -33,10 +33,12 @@ import java.util.Optional;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import org.brackit.xquery.atomic.QNm;
 import org.sirix.api.visitor.VisitResult;
 import org.sirix.api.visitor.Visitor;
+import org.sirix.cache.NameCache;
 import org.sirix.node.delegates.NameNodeDelegate;
 import org.sirix.node.delegates.NodeDelegate;
 import org.sirix.node.delegates.StructNodeDelegate;
@@ -75,9 +77,12 @@ public final class ElementNode extends AbstractStructForwardingNode implements
 	/** {@link StructNodeDelegate} reference. */
 	private final StructNodeDelegate mStructNodeDel;
 
-	/** The qualified name. */
+	/** The qualified name or {@code null}, if it's resolved from the name keys. */
 	private final QNm mQNm;
 
+	/** Resolves the qualified name, if it hasn't been given. */
+	private final NameCache mNameCache;
+
 	/**
 	 * Constructor
 	 * 
@@ -91,12 +96,48 @@ public final class ElementNode extends AbstractStructForwardingNode implements
 	 *          attribute nameKey / nodeKey mapping in both directions
 	 * @param namespaceKeys
 	 *          keys of namespaces to be set
-	 * @param
+	 * @param qNm
+	 *          the qualified name
 	 */
 	public ElementNode(final StructNodeDelegate structDel,
 			final NameNodeDelegate nameDel, final List<Long> attributeKeys,
 			final BiMap<Long, Long> attributes, final List<Long> namespaceKeys,
 			final QNm qNm) {
+		this(structDel, nameDel, attributeKeys, attributes, namespaceKeys, qNm,
+				null);
+		assert qNm != null;
+	}
+
+	/**
+	 * Constructor, whereas the qualified name is resolved from the name keys on
+	 * demand.
+	 * 
+	 * @param structDel
+	 *          {@link StructNodeDelegate} to be set
+	 * @param nameDel
+	 *          {@link NameNodeDelegate} to be set
+	 * @param attributeKeys
+	 *          list of attribute keys
+	 * @param attributes
+	 *          attribute nameKey / nodeKey mapping in both directions
+	 * @param namespaceKeys
+	 *          keys of namespaces to be set
+	 * @param nameCache
+	 *          the cache of the qualified names of the revision
+	 */
+	public ElementNode(final StructNodeDelegate structDel,
+			final NameNodeDelegate nameDel, final List<Long> attributeKeys,
+			final BiMap<Long, Long> attributes, final List<Long> namespaceKeys,
+			final NameCache nameCache) {
+		this(structDel, nameDel, attributeKeys, attributes, namespaceKeys, null,
+				nameCache);
+		assert nameCache != null;
+	}
+
+	private ElementNode(final StructNodeDelegate structDel,
+			final NameNodeDelegate nameDel, final List<Long> attributeKeys,
+			final BiMap<Long, Long> attributes, final List<Long> namespaceKeys,
+			final @Nullable QNm qNm, final @Nullable NameCache nameCache) {
 		assert structDel != null;
 		mStructNodeDel = structDel;
 		assert nameDel != null;
@@ -107,8 +148,8 @@ public final class ElementNode extends AbstractStructForwardingNode implements
 		mAttributes = attributes;
 		assert namespaceKeys != null;
 		mNamespaceKeys = namespaceKeys;
-		assert qNm != null;
 		mQNm = qNm;
+		mNameCache = nameCache;
 	}
 
 	/**
@@ -343,6 +384,8 @@ public final class ElementNode extends AbstractStructForwardingNode implements
 
 	@Override
 	public QNm getName() {
-		return mQNm;
+		return mQNm == null ? mNameCache.getName(mNameDel.getURIKey(),
+				mNameDel.getPrefixKey(), mNameDel.getLocalNameKey(), Kind.ELEMENT)
+				: mQNm;
 	}
 }
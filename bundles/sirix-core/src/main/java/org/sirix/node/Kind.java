@@ -26,7 +26,9 @@
  */
 package org.sirix.node;
 
+import static org.sirix.node.Utils.getSignedVarLong;
 import static org.sirix.node.Utils.getVarLong;
+import static org.sirix.node.Utils.putSignedVarLong;
 import static org.sirix.node.Utils.putVarLong;
 
 import java.io.DataInput;
@@ -67,6 +69,7 @@ import org.sirix.page.UnorderedKeyValuePage;
 import org.sirix.service.xml.xpath.AtomicValue;
 import org.sirix.settings.Constants;
 import org.sirix.settings.Fixed;
+import org.sirix.settings.StorageFormat;
 
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
@@ -91,39 +94,33 @@ public enum Kind implements NodePersistenter {
 					deweyID, pageReadTrx);
 
 			// Struct delegate.
-			final StructNodeDelegate structDel = deserializeStructDel(nodeDel, source);
+			final StructNodeDelegate structDel = deserializeStructDel(nodeDel, source,
+					format(pageReadTrx));
 
 			// Name delegate.
 			final NameNodeDelegate nameDel = deserializeNameDelegate(nodeDel, source);
 
 			// Attributes.
-			final int attrCount = source.readInt();
+			final StorageFormat format = format(pageReadTrx);
+			final long elementKey = nodeDel.getNodeKey();
+			final int attrCount = format.getCount(source);
 			final List<Long> attrKeys = new ArrayList<>(attrCount);
 			final BiMap<Long, Long> attrs = HashBiMap.<Long, Long> create();
 			for (int i = 0; i < attrCount; i++) {
-				final long nodeKey = source.readLong();
+				final long nodeKey = format.getMemberKey(source, elementKey);
 				attrKeys.add(nodeKey);
-				attrs.put(source.readLong(), nodeKey);
+				attrs.put(format.getNameKey(source), nodeKey);
 			}
 
 			// Namespaces.
-			final int nsCount = source.readInt();
+			final int nsCount = format.getCount(source);
 			final List<Long> namespKeys = new ArrayList<>(nsCount);
 			for (int i = 0; i < nsCount; i++) {
-				namespKeys.add(source.readLong());
+				namespKeys.add(format.getMemberKey(source, elementKey));
 			}
 
-			final String uri = pageReadTrx.getName(nameDel.getURIKey(),
-					Kind.NAMESPACE);
-			final int prefixKey = nameDel.getPrefixKey();
-			final String prefix = prefixKey == -1 ? "" : pageReadTrx.getName(
-					prefixKey, Kind.ELEMENT);
-			final int localNameKey = nameDel.getLocalNameKey();
-			final String localName = localNameKey == -1 ? "" : pageReadTrx.getName(
-					localNameKey, Kind.ELEMENT);
-
 			return new ElementNode(structDel, nameDel, attrKeys, attrs, namespKeys,
-					new QNm(uri, prefix, localName));
+					pageReadTrx.getNameCache());
 		}
 
 		@Override
@@ -131,17 +128,20 @@ public enum Kind implements NodePersistenter {
 				final PageReadTrx pageReadTrx) throws IOException {
 			final ElementNode node = (ElementNode) record;
 			serializeDelegate(node.getNodeDelegate(), sink, pageReadTrx);
-			serializeStrucDelegate(node.getStructNodeDelegate(), sink);
+			serializeStrucDelegate(node.getStructNodeDelegate(), sink,
+					format(pageReadTrx));
 			serializeNameDelegate(node.getNameNodeDelegate(), sink);
-			sink.writeInt(node.getAttributeCount());
+			final StorageFormat format = format(pageReadTrx);
+			final long elementKey = node.getNodeKey();
+			format.putCount(sink, node.getAttributeCount());
 			for (int i = 0, attCount = node.getAttributeCount(); i < attCount; i++) {
 				final long key = node.getAttributeKey(i);
-				sink.writeLong(key);
-				sink.writeLong(node.getAttributeNameKey(key).get());
+				format.putMemberKey(sink, key, elementKey);
+				format.putNameKey(sink, node.getAttributeNameKey(key).get());
 			}
-			sink.writeInt(node.getNamespaceCount());
+			format.putCount(sink, node.getNamespaceCount());
 			for (int i = 0, nspCount = node.getNamespaceCount(); i < nspCount; i++) {
-				sink.writeLong(node.getNamespaceKey(i));
+				format.putMemberKey(sink, node.getNamespaceKey(i), elementKey);
 			}
 		}
 	},
@@ -160,25 +160,12 @@ public enum Kind implements NodePersistenter {
 			final NameNodeDelegate nameDel = deserializeNameDelegate(nodeDel, source);
 
 			// Val delegate.
-			final boolean isCompressed = source.readByte() == (byte) 1 ? true : false;
-			final byte[] vals = new byte[source.readInt()];
-			source.readFully(vals, 0, vals.length);
-			final ValNodeDelegate valDel = new ValNodeDelegate(nodeDel, vals,
-					isCompressed);
-
-			final String uri = pageReadTrx.getName(nameDel.getURIKey(),
-					Kind.NAMESPACE);
-			final int prefixKey = nameDel.getPrefixKey();
-			final String prefix = prefixKey == -1 ? "" : pageReadTrx.getName(
-					prefixKey, Kind.ATTRIBUTE);
-			final int localNameKey = nameDel.getLocalNameKey();
-			final String localName = localNameKey == -1 ? "" : pageReadTrx.getName(
-					localNameKey, Kind.ATTRIBUTE);
-
-			final QNm name = new QNm(uri, prefix, localName);
+			final ValNodeDelegate valDel = deserializeValDelegate(nodeDel, source,
+					format(pageReadTrx));
 
 			// Returning an instance.
-			return new AttributeNode(nodeDel, nameDel, valDel, name);
+			return new AttributeNode(nodeDel, nameDel, valDel,
+					pageReadTrx.getNameCache());
 		}
 
 		@Override
@@ -187,7 +174,8 @@ public enum Kind implements NodePersistenter {
 			final AttributeNode node = (AttributeNode) record;
 			serializeDelegate(node.getNodeDelegate(), sink, pageReadTrx);
 			serializeNameDelegate(node.getNameNodeDelegate(), sink);
-			serializeValDelegate(node.getValNodeDelegate(), sink);
+			serializeValDelegate(node.getValNodeDelegate(), sink,
+					format(pageReadTrx));
 		}
 	},
 
@@ -204,18 +192,7 @@ public enum Kind implements NodePersistenter {
 			// Name delegate.
 			final NameNodeDelegate nameDel = deserializeNameDelegate(nodeDel, source);
 
-			final String uri = pageReadTrx.getName(nameDel.getURIKey(),
-					Kind.NAMESPACE);
-			final int prefixKey = nameDel.getPrefixKey();
-			final String prefix = prefixKey == -1 ? "" : pageReadTrx.getName(
-					prefixKey, Kind.ELEMENT);
-			final int localNameKey = nameDel.getLocalNameKey();
-			final String localName = localNameKey == -1 ? "" : pageReadTrx.getName(
-					localNameKey, Kind.ELEMENT);
-
-			final QNm name = new QNm(uri, prefix, localName);
-
-			return new NamespaceNode(nodeDel, nameDel, name);
+			return new NamespaceNode(nodeDel, nameDel, pageReadTrx.getNameCache());
 		}
 
 		@Override
@@ -238,17 +215,15 @@ public enum Kind implements NodePersistenter {
 					deweyID, pageReadTrx);
 
 			// Val delegate.
-			final boolean isCompressed = source.readByte() == (byte) 1 ? true : false;
-			final byte[] vals = new byte[source.readInt()];
-			source.readFully(vals, 0, vals.length);
-			final ValNodeDelegate valDel = new ValNodeDelegate(nodeDel, vals,
-					isCompressed);
+			final ValNodeDelegate valDel = deserializeValDelegate(nodeDel, source,
+					format(pageReadTrx));
 
 			// Struct delegate.
+			final StorageFormat format = format(pageReadTrx);
 			final long nodeKey = nodeDel.getNodeKey();
 			final StructNodeDelegate structDel = new StructNodeDelegate(nodeDel,
-					Fixed.NULL_NODE_KEY.getStandardProperty(), nodeKey
-							- getVarLong(source), nodeKey - getVarLong(source), 0L, 0L);
+					Fixed.NULL_NODE_KEY.getStandardProperty(), format.getKey(source,
+							nodeKey), format.getKey(source, nodeKey), 0L, 0L);
 
 			// Returning an instance.
 			return new TextNode(valDel, structDel);
@@ -259,11 +234,13 @@ public enum Kind implements NodePersistenter {
 				final PageReadTrx pageReadTrx) throws IOException {
 			final TextNode node = (TextNode) record;
 			serializeDelegate(node.getNodeDelegate(), sink, pageReadTrx);
-			serializeValDelegate(node.getValNodeDelegate(), sink);
+			serializeValDelegate(node.getValNodeDelegate(), sink,
+					format(pageReadTrx));
 			final StructNodeDelegate del = node.getStructNodeDelegate();
+			final StorageFormat format = format(pageReadTrx);
 			final long nodeKey = node.getNodeKey();
-			putVarLong(sink, nodeKey - del.getRightSiblingKey());
-			putVarLong(sink, nodeKey - del.getLeftSiblingKey());
+			format.putKey(sink, del.getRightSiblingKey(), nodeKey);
+			format.putKey(sink, del.getLeftSiblingKey(), nodeKey);
 		}
 	},
 
@@ -278,17 +255,15 @@ public enum Kind implements NodePersistenter {
 					deweyID, pageReadTrx);
 
 			// Struct delegate.
-			final StructNodeDelegate structDel = deserializeStructDel(nodeDel, source);
+			final StructNodeDelegate structDel = deserializeStructDel(nodeDel, source,
+					format(pageReadTrx));
 
 			// Name delegate.
 			final NameNodeDelegate nameDel = deserializeNameDelegate(nodeDel, source);
 
 			// Val delegate.
-			final boolean isCompressed = source.readByte() == (byte) 1 ? true : false;
-			final byte[] vals = new byte[source.readInt()];
-			source.readFully(vals, 0, vals.length);
-			final ValNodeDelegate valDel = new ValNodeDelegate(nodeDel, vals,
-					isCompressed);
+			final ValNodeDelegate valDel = deserializeValDelegate(nodeDel, source,
+					format(pageReadTrx));
 
 			// Returning an instance.
 			return new PINode(structDel, nameDel, valDel, pageReadTrx);
@@ -299,9 +274,11 @@ public enum Kind implements NodePersistenter {
 				final PageReadTrx pageReadTrx) throws IOException {
 			final PINode node = (PINode) record;
 			serializeDelegate(node.getNodeDelegate(), sink, pageReadTrx);
-			serializeStrucDelegate(node.getStructNodeDelegate(), sink);
+			serializeStrucDelegate(node.getStructNodeDelegate(), sink,
+					format(pageReadTrx));
 			serializeNameDelegate(node.getNameNodeDelegate(), sink);
-			serializeValDelegate(node.getValNodeDelegate(), sink);
+			serializeValDelegate(node.getValNodeDelegate(), sink,
+					format(pageReadTrx));
 		}
 	},
 
@@ -316,17 +293,15 @@ public enum Kind implements NodePersistenter {
 					deweyID, pageReadTrx);
 
 			// Val delegate.
-			final boolean isCompressed = source.readByte() == (byte) 1 ? true : false;
-			final byte[] vals = new byte[source.readInt()];
-			source.readFully(vals, 0, vals.length);
-			final ValNodeDelegate valDel = new ValNodeDelegate(nodeDel, vals,
-					isCompressed);
+			final ValNodeDelegate valDel = deserializeValDelegate(nodeDel, source,
+					format(pageReadTrx));
 
 			// Struct delegate.
+			final StorageFormat format = format(pageReadTrx);
 			final long nodeKey = nodeDel.getNodeKey();
 			final StructNodeDelegate structDel = new StructNodeDelegate(nodeDel,
-					Fixed.NULL_NODE_KEY.getStandardProperty(), nodeKey
-							- getVarLong(source), nodeKey - getVarLong(source), 0L, 0L);
+					Fixed.NULL_NODE_KEY.getStandardProperty(), format.getKey(source,
+							nodeKey), format.getKey(source, nodeKey), 0L, 0L);
 
 			// Returning an instance.
 			return new CommentNode(valDel, structDel);
@@ -337,11 +312,13 @@ public enum Kind implements NodePersistenter {
 				final PageReadTrx pageReadTrx) throws IOException {
 			final CommentNode node = (CommentNode) record;
 			serializeDelegate(node.getNodeDelegate(), sink, pageReadTrx);
-			serializeValDelegate(node.getValNodeDelegate(), sink);
+			serializeValDelegate(node.getValNodeDelegate(), sink,
+					format(pageReadTrx));
 			final StructNodeDelegate del = node.getStructNodeDelegate();
+			final StorageFormat format = format(pageReadTrx);
 			final long nodeKey = node.getNodeKey();
-			putVarLong(sink, nodeKey - del.getRightSiblingKey());
-			putVarLong(sink, nodeKey - del.getLeftSiblingKey());
+			format.putKey(sink, del.getRightSiblingKey(), nodeKey);
+			format.putKey(sink, del.getLeftSiblingKey(), nodeKey);
 		}
 	},
 
@@ -352,14 +329,16 @@ public enum Kind implements NodePersistenter {
 		public Record deserialize(final DataInput source,
 				final @Nonnegative long recordID, final Optional<SirixDeweyID> deweyID,
 				final PageReadTrx pageReadTrx) throws IOException {
+			final StorageFormat format = format(pageReadTrx);
 			final NodeDelegate nodeDel = new NodeDelegate(
 					Fixed.DOCUMENT_NODE_KEY.getStandardProperty(),
 					Fixed.NULL_NODE_KEY.getStandardProperty(), source.readLong(),
 					getVarLong(source), Optional.of(SirixDeweyID.newRootID()));
 			final StructNodeDelegate structDel = new StructNodeDelegate(nodeDel,
-					getVarLong(source), Fixed.NULL_NODE_KEY.getStandardProperty(),
+					format.getChildKey(source, nodeDel.getNodeKey()),
+					Fixed.NULL_NODE_KEY.getStandardProperty(),
 					Fixed.NULL_NODE_KEY.getStandardProperty(),
-					source.readByte() == ((byte) 0) ? 0 : 1, source.readLong());
+					source.readByte() == ((byte) 0) ? 0 : 1, format.getLong(source));
 			return new DocumentRootNode(nodeDel, structDel);
 		}
 
@@ -369,9 +348,10 @@ public enum Kind implements NodePersistenter {
 			final DocumentRootNode node = (DocumentRootNode) record;
 			sink.writeLong(node.getHash());
 			putVarLong(sink, node.getRevision());
-			putVarLong(sink, node.getFirstChildKey());
+			final StorageFormat format = format(pageReadTrx);
+			format.putChildKey(sink, node.getFirstChildKey(), node.getNodeKey());
 			sink.writeByte(node.hasFirstChild() ? (byte) 1 : (byte) 0);
-			sink.writeLong(node.getDescendantCount());
+			format.putLong(sink, node.getDescendantCount());
 		}
 
 		@Override
@@ -547,13 +527,15 @@ public enum Kind implements NodePersistenter {
 					recordID, pageReadTrx);
 
 			// Struct delegate.
-			final StructNodeDelegate structDel = deserializeStructDel(nodeDel, source);
+			final StructNodeDelegate structDel = deserializeStructDel(nodeDel, source,
+					format(pageReadTrx));
 
 			// Name delegate.
 			final NameNodeDelegate nameDel = deserializeNameDelegate(nodeDel, source);
 
+			final StorageFormat format = format(pageReadTrx);
 			return new PathNode(nodeDel, structDel, nameDel, Kind.getKind(source
-					.readByte()), source.readInt(), source.readInt());
+					.readByte()), format.getCount(source), format.getCount(source));
 		}
 
 		@Override
@@ -561,11 +543,13 @@ public enum Kind implements NodePersistenter {
 				final PageReadTrx pageReadTrx) throws IOException {
 			final PathNode node = (PathNode) record;
 			serializeDelegate(node.getNodeDelegate(), sink, pageReadTrx);
-			serializeStrucDelegate(node.getStructNodeDelegate(), sink);
+			serializeStrucDelegate(node.getStructNodeDelegate(), sink,
+					format(pageReadTrx));
 			serializeNameDelegate(node.getNameNodeDelegate(), sink);
 			sink.writeByte(node.getPathKind().getId());
-			sink.writeInt(node.getReferences());
-			sink.writeInt(node.getLevel());
+			final StorageFormat format = format(pageReadTrx);
+			format.putCount(sink, node.getReferences());
+			format.putCount(sink, node.getLevel());
 		};
 
 		@Override
@@ -589,30 +573,22 @@ public enum Kind implements NodePersistenter {
 		public Record deserialize(final DataInput source,
 				final @Nonnegative long recordID, final Optional<SirixDeweyID> deweyID,
 				final PageReadTrx pageReadTrx) throws IOException {
-			final int valueSize = source.readInt();
+			final StorageFormat format = format(pageReadTrx);
+			final int valueSize = format.getCount(source);
 			final byte[] value = new byte[valueSize];
 			source.readFully(value, 0, valueSize);
-			final int typeSize = source.readInt();
+			final int typeSize = format.getCount(source);
 			final byte[] type = new byte[typeSize];
 			source.readFully(type, 0, typeSize);
-			final int keySize = source.readInt();
-			final Set<Long> nodeKeys = new HashSet<>(keySize);
-			long key = getVarLong(source);
-			nodeKeys.add(key);
-			for (int i = 1; i < keySize; i++) {
-				if (i + 1 < keySize) {
-					key += getVarLong(source);
-					nodeKeys.add(key);
-				}
-			}
+			final Set<Long> nodeKeys = deserializeNodeKeys(source);
 			final Type atomicType = resolveType(new String(type,
 					Constants.DEFAULT_ENCODING));
 
 			// Node delegate.
 			final NodeDelegate nodeDel = deserializeNodeDelegateWithoutIDs(source,
 					recordID, pageReadTrx);
-			final long leftChild = getVarLong(source);
-			final long rightChild = getVarLong(source);
+			final long leftChild = format.getChildKey(source, recordID);
+			final long rightChild = format.getChildKey(source, recordID);
 			final long pathNodeKey = getVarLong(source);
 			final boolean isChanged = source.readBoolean();
 
@@ -637,30 +613,18 @@ public enum Kind implements NodePersistenter {
 			@SuppressWarnings("unchecked")
 			final AVLNode<CASValue, NodeReferences> node = (AVLNode<CASValue, NodeReferences>) record;
 			final CASValue key = node.getKey();
+			final StorageFormat format = format(pageReadTrx);
 			final byte[] textValue = key.getValue();
-			sink.writeInt(textValue.length);
+			format.putCount(sink, textValue.length);
 			sink.write(textValue);
 			final byte[] type = key.getType().toString()
 					.getBytes(Constants.DEFAULT_ENCODING);
-			sink.writeInt(type.length);
+			format.putCount(sink, type.length);
 			sink.write(type);
-			final NodeReferences value = node.getValue();
-			final Set<Long> nodeKeys = value.getNodeKeys();
-
-			// Store in a list and sort the list.
-			final List<Long> listNodeKeys = new ArrayList<>(nodeKeys);
-			Collections.sort(listNodeKeys);
-			sink.writeInt(listNodeKeys.size());
-			putVarLong(sink, listNodeKeys.get(0));
-			for (int i = 0; i < listNodeKeys.size(); i++) {
-				if (i + 1 < listNodeKeys.size()) {
-					final long diff = listNodeKeys.get(i + 1) - listNodeKeys.get(i);
-					putVarLong(sink, diff);
-				}
-			}
+			serializeNodeKeys(node.getValue().getNodeKeys(), sink);
 			serializeDelegate(node.getNodeDelegate(), sink, pageReadTrx);
-			putVarLong(sink, node.getLeftChildKey());
-			putVarLong(sink, node.getRightChildKey());
+			format.putChildKey(sink, node.getLeftChildKey(), node.getNodeKey());
+			format.putChildKey(sink, node.getRightChildKey(), node.getNodeKey());
 			putVarLong(sink, key.getPathNodeKey());
 			sink.writeBoolean(node.isChanged());
 		};
@@ -697,17 +661,14 @@ public enum Kind implements NodePersistenter {
 		public Record deserialize(final DataInput source,
 				final @Nonnegative long recordID, final Optional<SirixDeweyID> deweyID,
 				final PageReadTrx pageReadTrx) throws IOException {
+			final StorageFormat format = format(pageReadTrx);
 			final long key = getVarLong(source);
-			final int keySize = source.readInt();
-			final Set<Long> nodeKeys = new HashSet<>(keySize);
-			for (int i = 0; i < keySize; i++) {
-				nodeKeys.add(source.readLong());
-			}
+			final Set<Long> nodeKeys = deserializeNodeKeys(source);
 			// Node delegate.
 			final NodeDelegate nodeDel = deserializeNodeDelegateWithoutIDs(source,
 					recordID, pageReadTrx);
-			final long leftChild = getVarLong(source);
-			final long rightChild = getVarLong(source);
+			final long leftChild = format.getChildKey(source, recordID);
+			final long rightChild = format.getChildKey(source, recordID);
 			final boolean isChanged = source.readBoolean();
 			final AVLNode<Long, NodeReferences> node = new AVLNode<>(key,
 					new NodeReferences(nodeKeys), nodeDel);
@@ -722,16 +683,12 @@ public enum Kind implements NodePersistenter {
 				final PageReadTrx pageReadTrx) throws IOException {
 			@SuppressWarnings("unchecked")
 			final AVLNode<Long, NodeReferences> node = (AVLNode<Long, NodeReferences>) record;
+			final StorageFormat format = format(pageReadTrx);
 			putVarLong(sink, node.getKey().longValue());
-			final NodeReferences value = node.getValue();
-			final Set<Long> nodeKeys = value.getNodeKeys();
-			sink.writeInt(nodeKeys.size());
-			for (final long nodeKey : nodeKeys) {
-				sink.writeLong(nodeKey);
-			}
+			serializeNodeKeys(node.getValue().getNodeKeys(), sink);
 			serializeDelegate(node.getNodeDelegate(), sink, pageReadTrx);
-			putVarLong(sink, node.getLeftChildKey());
-			putVarLong(sink, node.getRightChildKey());
+			format.putChildKey(sink, node.getLeftChildKey(), node.getNodeKey());
+			format.putChildKey(sink, node.getRightChildKey(), node.getNodeKey());
 			sink.writeBoolean(node.isChanged());
 		};
 
@@ -756,26 +713,23 @@ public enum Kind implements NodePersistenter {
 		public Record deserialize(final DataInput source,
 				final @Nonnegative long recordID, final Optional<SirixDeweyID> deweyID,
 				final PageReadTrx pageReadTrx) throws IOException {
-			final byte[] nspBytes = new byte[source.readInt()];
+			final StorageFormat format = format(pageReadTrx);
+			final byte[] nspBytes = new byte[format.getCount(source)];
 			source.readFully(nspBytes);
-			final byte[] prefixBytes = new byte[source.readInt()];
+			final byte[] prefixBytes = new byte[format.getCount(source)];
 			source.readFully(prefixBytes);
-			final byte[] localNameBytes = new byte[source.readInt()];
+			final byte[] localNameBytes = new byte[format.getCount(source)];
 			source.readFully(localNameBytes);
 			final QNm name = new QNm(
 					new String(nspBytes, Constants.DEFAULT_ENCODING), new String(
 							prefixBytes, Constants.DEFAULT_ENCODING), new String(
 							localNameBytes, Constants.DEFAULT_ENCODING));
-			final int keySize = source.readInt();
-			final Set<Long> nodeKeys = new HashSet<>(keySize);
-			for (int i = 0; i < keySize; i++) {
-				nodeKeys.add(source.readLong());
-			}
+			final Set<Long> nodeKeys = deserializeNodeKeys(source);
 			// Node delegate.
 			final NodeDelegate nodeDel = deserializeNodeDelegateWithoutIDs(source,
 					recordID, pageReadTrx);
-			final long leftChild = getVarLong(source);
-			final long rightChild = getVarLong(source);
+			final long leftChild = format.getChildKey(source, recordID);
+			final long rightChild = format.getChildKey(source, recordID);
 			final boolean isChanged = source.readBoolean();
 			final AVLNode<QNm, NodeReferences> node = new AVLNode<>(name,
 					new NodeReferences(nodeKeys), nodeDel);
@@ -790,24 +744,20 @@ public enum Kind implements NodePersistenter {
 				final PageReadTrx pageReadTrx) throws IOException {
 			@SuppressWarnings("unchecked")
 			final AVLNode<QNm, NodeReferences> node = (AVLNode<QNm, NodeReferences>) record;
+			final StorageFormat format = format(pageReadTrx);
 			final byte[] nspBytes = node.getKey().getNamespaceURI().getBytes();
-			sink.writeInt(nspBytes.length);
+			format.putCount(sink, nspBytes.length);
 			sink.write(nspBytes);
 			final byte[] prefixBytes = node.getKey().getPrefix().getBytes();
-			sink.writeInt(prefixBytes.length);
+			format.putCount(sink, prefixBytes.length);
 			sink.write(prefixBytes);
 			final byte[] localNameBytes = node.getKey().getLocalName().getBytes();
-			sink.writeInt(localNameBytes.length);
+			format.putCount(sink, localNameBytes.length);
 			sink.write(localNameBytes);
-			final NodeReferences value = node.getValue();
-			final Set<Long> nodeKeys = value.getNodeKeys();
-			sink.writeInt(nodeKeys.size());
-			for (final long nodeKey : nodeKeys) {
-				sink.writeLong(nodeKey);
-			}
+			serializeNodeKeys(node.getValue().getNodeKeys(), sink);
 			serializeDelegate(node.getNodeDelegate(), sink, pageReadTrx);
-			putVarLong(sink, node.getLeftChildKey());
-			putVarLong(sink, node.getRightChildKey());
+			format.putChildKey(sink, node.getLeftChildKey(), node.getNodeKey());
+			format.putChildKey(sink, node.getRightChildKey(), node.getNodeKey());
 			sink.writeBoolean(node.isChanged());
 		};
 
@@ -1026,7 +976,7 @@ public enum Kind implements NodePersistenter {
 			final DataInput source, final @Nonnegative long recordID,
 			final PageReadTrx pageReadTrx) throws IOException {
 		final long nodeKey = recordID;
-		final long parentKey = nodeKey - getVarLong(source);
+		final long parentKey = format(pageReadTrx).getKey(source, nodeKey);
 		final long hash = source.readLong();
 		final long revision = getVarLong(source);
 		return new NodeDelegate(nodeKey, parentKey, hash, revision,
@@ -1047,7 +997,7 @@ public enum Kind implements NodePersistenter {
 			final Optional<SirixDeweyID> id, final PageReadTrx pageReadTrx)
 			throws IOException {
 		final long nodeKey = recordID;
-		final long parentKey = nodeKey - getVarLong(source);
+		final long parentKey = format(pageReadTrx).getKey(source, nodeKey);
 		final long hash = source.readLong();
 		final long revision = getVarLong(source);
 		return new NodeDelegate(nodeKey, parentKey, hash, revision, id);
@@ -1068,7 +1018,8 @@ public enum Kind implements NodePersistenter {
 	 */
 	private static final void serializeDelegate(final NodeDelegate nodeDel,
 			final DataOutput sink, final PageReadTrx pageReadTrx) throws IOException {
-		putVarLong(sink, nodeDel.getNodeKey() - nodeDel.getParentKey());
+		format(pageReadTrx).putKey(sink, nodeDel.getParentKey(),
+				nodeDel.getNodeKey());
 		sink.writeLong(nodeDel.getHash());
 		putVarLong(sink, nodeDel.getRevision());
 	}
@@ -1097,13 +1048,15 @@ public enum Kind implements NodePersistenter {
 	 *          to be serialize
 	 * @param sink
 	 *          to serialize to
+	 * @param format
+	 *          the storage format of the resource
 	 */
 	private static final void serializeStrucDelegate(
-			final StructNodeDelegate nodeDel, final DataOutput sink)
-			throws IOException {
-		putVarLong(sink, nodeDel.getNodeKey() - nodeDel.getRightSiblingKey());
-		putVarLong(sink, nodeDel.getNodeKey() - nodeDel.getLeftSiblingKey());
-		putVarLong(sink, nodeDel.getNodeKey() - nodeDel.getFirstChildKey());
+			final StructNodeDelegate nodeDel, final DataOutput sink,
+			final StorageFormat format) throws IOException {
+		format.putKey(sink, nodeDel.getRightSiblingKey(), nodeDel.getNodeKey());
+		format.putKey(sink, nodeDel.getLeftSiblingKey(), nodeDel.getNodeKey());
+		format.putKey(sink, nodeDel.getFirstChildKey(), nodeDel.getNodeKey());
 		putVarLong(sink, nodeDel.getChildCount());
 		putVarLong(sink, nodeDel.getDescendantCount() - nodeDel.getChildCount());
 	}
@@ -1115,14 +1068,17 @@ public enum Kind implements NodePersistenter {
 	 *          node delegate
 	 * @param source
 	 *          input source
+	 * @param format
+	 *          the storage format of the resource
 	 * @return {@link StructNodeDelegate} instance
 	 */
 	private static final StructNodeDelegate deserializeStructDel(
-			final NodeDelegate nodeDel, final DataInput source) throws IOException {
+			final NodeDelegate nodeDel, final DataInput source,
+			final StorageFormat format) throws IOException {
 		final long currKey = nodeDel.getNodeKey();
-		final long rightSibl = currKey - getVarLong(source);
-		final long leftSibl = currKey - getVarLong(source);
-		final long firstChild = currKey - getVarLong(source);
+		final long rightSibl = format.getKey(source, currKey);
+		final long leftSibl = format.getKey(source, currKey);
+		final long firstChild = format.getKey(source, currKey);
 		final long childCount = getVarLong(source);
 		final long descendantCount = getVarLong(source) + childCount;
 		return new StructNodeDelegate(nodeDel, firstChild, rightSibl, leftSibl,
@@ -1170,17 +1126,107 @@ public enum Kind implements NodePersistenter {
 	 *          to be serialized
 	 * @param sink
 	 *          to serialize to
+	 * @param format
+	 *          the storage format of the resource
 	 */
 	private static final void serializeValDelegate(
-			final ValNodeDelegate valueDel, final DataOutput sink) throws IOException {
+			final ValNodeDelegate valueDel, final DataOutput sink,
+			final StorageFormat format) throws IOException {
 		final boolean isCompressed = valueDel.isCompressed();
 		sink.writeByte(isCompressed ? (byte) 1 : (byte) 0);
 		final byte[] value = isCompressed ? valueDel.getCompressed() : valueDel
 				.getRawValue();
-		sink.writeInt(value.length);
+		format.putCount(sink, value.length);
 		sink.write(value);
 	}
 
+	/**
+	 * Deserialize value node delegate.
+	 *
+	 * @param nodeDel
+	 *          {@link NodeDelegate} instance
+	 * @param source
+	 *          source to read from
+	 * @param format
+	 *          the storage format of the resource
+	 * @return {@link ValNodeDelegate} instance
+	 */
+	private static final ValNodeDelegate deserializeValDelegate(
+			final NodeDelegate nodeDel, final DataInput source,
+			final StorageFormat format) throws IOException {
+		final boolean isCompressed = source.readByte() == (byte) 1 ? true : false;
+		final byte[] vals = new byte[format.getCount(source)];
+		source.readFully(vals, 0, vals.length);
+		return new ValNodeDelegate(nodeDel, vals, isCompressed);
+	}
+
+	/**
+	 * Get the storage format of a resource.
+	 *
+	 * @param pageReadTrx
+	 *          {@link PageReadTrx} instance of the resource
+	 * @return the storage format
+	 */
+	private static StorageFormat format(final PageReadTrx pageReadTrx) {
+		return pageReadTrx.getSession().getResourceConfig().mStorageFormat;
+	}
+
+	/**
+	 * Serializing the node keys referenced by an index node. The keys are sorted
+	 * and each key is stored as the difference to its predecessor.
+	 *
+	 * @param nodeKeys
+	 *          the node keys
+	 * @param sink
+	 *          to serialize to
+	 */
+	private static final void serializeNodeKeys(final Set<Long> nodeKeys,
+			final DataOutput sink) throws IOException {
+		final long[] keys = sortedKeys(nodeKeys);
+		putVarLong(sink, keys.length);
+		long previousKey = 0;
+		for (final long nodeKey : keys) {
+			putSignedVarLong(sink, nodeKey - previousKey);
+			previousKey = nodeKey;
+		}
+	}
+
+	/**
+	 * Deserialize the node keys referenced by an index node.
+	 *
+	 * @param source
+	 *          source to read from
+	 * @return the node keys
+	 */
+	private static final Set<Long> deserializeNodeKeys(final DataInput source)
+			throws IOException {
+		final int keySize = (int) getVarLong(source);
+		final Set<Long> nodeKeys = new HashSet<>(keySize);
+		long key = 0;
+		for (int i = 0; i < keySize; i++) {
+			key += getSignedVarLong(source);
+			nodeKeys.add(key);
+		}
+		return nodeKeys;
+	}
+
+	/**
+	 * Get the node keys in ascending order.
+	 *
+	 * @param nodeKeys
+	 *          the node keys
+	 * @return the sorted keys
+	 */
+	private static long[] sortedKeys(final Set<Long> nodeKeys) {
+		final long[] keys = new long[nodeKeys.size()];
+		int i = 0;
+		for (final long nodeKey : nodeKeys) {
+			keys[i++] = nodeKey;
+		}
+		Arrays.sort(keys);
+		return keys;
+	}
+
 	/**
 	 * Simple DumbNode just for testing the {@link UnorderedKeyValuePage}s.
 	 *
@@ -33,6 +33,7 @@ import javax.annotation.Nullable;
 import org.brackit.xquery.atomic.QNm;
 import org.sirix.api.visitor.VisitResult;
 import org.sirix.api.visitor.Visitor;
+import org.sirix.cache.NameCache;
 import org.sirix.node.delegates.NameNodeDelegate;
 import org.sirix.node.delegates.NodeDelegate;
 import org.sirix.node.immutable.ImmutableNamespace;
@@ -56,9 +57,12 @@ public final class NamespaceNode extends AbstractForwardingNode implements
 	/** {@link NodeDelegate} reference. */
 	private final NodeDelegate mNodeDel;
 
-	/** The qualified name. */
+	/** The qualified name or {@code null}, if it's resolved from the name keys. */
 	private final QNm mQNm;
 
+	/** Resolves the qualified name, if it hasn't been given. */
+	private final NameCache mNameCache;
+
 	/**
 	 * Constructor.
 	 * 
@@ -71,12 +75,36 @@ public final class NamespaceNode extends AbstractForwardingNode implements
 	 */
 	public NamespaceNode(final NodeDelegate nodeDel,
 			final NameNodeDelegate nameDel, final QNm qNm) {
+		this(nodeDel, nameDel, qNm, null);
+		assert qNm != null;
+	}
+
+	/**
+	 * Constructor, whereas the qualified name is resolved from the name keys on
+	 * demand.
+	 * 
+	 * @param nodeDel
+	 *          {@link NodeDelegate} reference
+	 * @param nameDel
+	 *          {@link NameNodeDelegate} reference
+	 * @param nameCache
+	 *          the cache of the qualified names of the revision
+	 */
+	public NamespaceNode(final NodeDelegate nodeDel,
+			final NameNodeDelegate nameDel, final NameCache nameCache) {
+		this(nodeDel, nameDel, null, nameCache);
+		assert nameCache != null;
+	}
+
+	private NamespaceNode(final NodeDelegate nodeDel,
+			final NameNodeDelegate nameDel, final @Nullable QNm qNm,
+			final @Nullable NameCache nameCache) {
 		assert nodeDel != null;
 		assert nameDel != null;
-		assert qNm != null;
 		mNodeDel = nodeDel;
 		mNameDel = nameDel;
 		mQNm = qNm;
+		mNameCache = nameCache;
 	}
 
 	@Override
@@ -166,6 +194,8 @@ public final class NamespaceNode extends AbstractForwardingNode implements
 
 	@Override
 	public QNm getName() {
-		return mQNm;
+		return mQNm == null ? mNameCache.getName(mNameDel.getURIKey(),
+				mNameDel.getPrefixKey(), mNameDel.getLocalNameKey(), Kind.NAMESPACE)
+				: mQNm;
 	}
 }
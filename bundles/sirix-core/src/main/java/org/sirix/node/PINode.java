@@ -7,6 +7,7 @@ import org.brackit.xquery.atomic.QNm;
 import org.sirix.api.PageReadTrx;
 import org.sirix.api.visitor.VisitResult;
 import org.sirix.api.visitor.Visitor;
+import org.sirix.cache.NameCache;
 import org.sirix.node.delegates.NameNodeDelegate;
 import org.sirix.node.delegates.NodeDelegate;
 import org.sirix.node.delegates.StructNodeDelegate;
@@ -37,8 +38,8 @@ public final class PINode extends AbstractStructForwardingNode implements
 	/** Delegate for structural node information. */
 	private final StructNodeDelegate mStructDel;
 
-	/** {@link PageReadTrx} reference. */
-	private final PageReadTrx mPageReadTrx;
+	/** Resolves the qualified name. */
+	private final NameCache mNameCache;
 
 	/**
 	 * Creating an attribute.
@@ -61,7 +62,7 @@ public final class PINode extends AbstractStructForwardingNode implements
 		assert valDel != null : "valDel must not be null!";
 		mValDel = valDel;
 		assert pageReadTrx != null : "pageReadTrx must not be null!";
-		mPageReadTrx = pageReadTrx;
+		mNameCache = pageReadTrx.getNameCache();
 	}
 
 	@Override
@@ -175,15 +176,8 @@ public final class PINode extends AbstractStructForwardingNode implements
 
 	@Override
 	public QNm getName() {
-		final String uri = mPageReadTrx.getName(mNameDel.getURIKey(),
-				Kind.NAMESPACE);
-		final int prefixKey = mNameDel.getPrefixKey();
-		final String prefix = prefixKey == -1 ? "" : mPageReadTrx.getName(
-				prefixKey, Kind.PROCESSING_INSTRUCTION);
-		final int localNameKey = mNameDel.getLocalNameKey();
-		final String localName = localNameKey == -1 ? "" : mPageReadTrx.getName(
-				localNameKey, Kind.PROCESSING_INSTRUCTION);
-		return new QNm(uri, prefix, localName);
+		return mNameCache.getName(mNameDel.getURIKey(), mNameDel.getPrefixKey(),
+				mNameDel.getLocalNameKey(), Kind.PROCESSING_INSTRUCTION);
 	}
 
 	@Override
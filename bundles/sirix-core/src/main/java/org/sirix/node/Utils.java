@@ -4,6 +4,8 @@ import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 
+import org.sirix.settings.Fixed;
+
 import com.google.common.io.ByteArrayDataInput;
 import com.google.common.io.ByteArrayDataOutput;
 
@@ -42,4 +44,74 @@ public final class Utils {
 		}
 		return value;
 	}
+
+	/**
+	 * Store a "compressed" variable-length long value, which might be negative.
+	 * The value is zig-zag encoded, such that values close to zero take a single
+	 * byte regardless of their sign.
+	 * 
+	 * @param output
+	 *          {@link DataOutput} reference
+	 * @param value
+	 *          long value
+	 */
+	public static final void putSignedVarLong(final DataOutput output,
+			final long value) throws IOException {
+		putVarLong(output, (value << 1) ^ (value >> 63));
+	}
+
+	/**
+	 * Get a "compressed" variable-length long value, which might be negative.
+	 * 
+	 * @param input
+	 *          {@link DataInput} reference
+	 * @return long value
+	 */
+	public static final long getSignedVarLong(final DataInput input)
+			throws IOException {
+		final long value = getVarLong(input);
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * Store a node key relative to another node key, usually the key of the
+	 * node, which references it. The difference is zig-zag encoded, such that
+	 * neighbouring keys take a single byte regardless of the direction, and the
+	 * null node key takes a single byte, too.
+	 * 
+	 * @param output
+	 *          {@link DataOutput} reference
+	 * @param key
+	 *          the node key to store
+	 * @param relativeKey
+	 *          the node key, which the key is stored relative to
+	 */
+	public static final void putVarKey(final DataOutput output, final long key,
+			final long relativeKey) throws IOException {
+		if (key == Fixed.NULL_NODE_KEY.getStandardProperty()) {
+			putVarLong(output, 0);
+		} else {
+			final long difference = key - relativeKey;
+			putVarLong(output, ((difference << 1) ^ (difference >> 63)) + 1);
+		}
+	}
+
+	/**
+	 * Get a node key, which has been stored relative to another node key.
+	 * 
+	 * @param input
+	 *          {@link DataInput} reference
+	 * @param relativeKey
+	 *          the node key, which the key has been stored relative to
+	 * @return the node key
+	 */
+	public static final long getVarKey(final DataInput input,
+			final long relativeKey) throws IOException {
+		final long value = getVarLong(input);
+		if (value == 0) {
+			return Fixed.NULL_NODE_KEY.getStandardProperty();
+		}
+		final long difference = value - 1;
+		return relativeKey + ((difference >>> 1) ^ -(difference & 1));
+	}
 }
@@ -68,6 +68,11 @@ public abstract class AbstractForwardingPage extends ForwardingObject implements
 		return delegate().getReferences();
 	}
 
+	@Override
+	public long getRetainedSize() {
+		return delegate().getRetainedSize();
+	}
+
 	@Override
 	public PageReference getReference(final @Nonnegative int offset) {
 		return delegate().getReference(offset);
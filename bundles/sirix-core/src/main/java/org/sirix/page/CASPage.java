@@ -26,7 +26,7 @@ package org.sirix.page;
  * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
-import java.io.DataInputStream;
+import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.util.HashMap;
@@ -81,7 +81,7 @@ public final class CASPage extends AbstractForwardingPage {
 	 * @param in
 	 *          input bytes to read from
 	 */
-	protected CASPage(final DataInputStream in) throws IOException {
+	protected CASPage(final DataInput in) throws IOException {
 		mDelegate = new PageDelegate(PageConstants.MAX_INDEX_NR, in);
 		final int size = in.readInt();
 		mMaxNodeKeys = new HashMap<>(size);
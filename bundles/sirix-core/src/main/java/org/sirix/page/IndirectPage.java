@@ -27,7 +27,7 @@
 
 package org.sirix.page;
 
-import java.io.DataInputStream;
+import java.io.DataInput;
 import java.io.IOException;
 
 import org.sirix.page.delegates.PageDelegate;
@@ -60,7 +60,7 @@ public final class IndirectPage extends AbstractForwardingPage {
 	 * @param in
 	 *          input source
 	 */
-	protected IndirectPage(final DataInputStream in) throws IOException {
+	protected IndirectPage(final DataInput in) throws IOException {
 		mDelegate = new PageDelegate(Constants.INP_REFERENCE_COUNT, in);
 	}
 
@@ -1,6 +1,6 @@
 package org.sirix.page;
 
-import java.io.DataInputStream;
+import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 
@@ -8,6 +8,7 @@ import org.sirix.api.PageWriteTrx;
 import org.sirix.node.interfaces.Record;
 import org.sirix.page.interfaces.KeyValuePage;
 import org.sirix.page.interfaces.Page;
+import org.sirix.settings.Constants;
 
 /**
  * OverflowPage used to store records which are longer than a predefined
@@ -40,7 +41,7 @@ public final class OverflowPage implements Page {
 		mData = data;
 	}
 
-	public OverflowPage(final DataInputStream in) throws IOException {
+	public OverflowPage(final DataInput in) throws IOException {
 		mData = new byte[in.readInt()];
 		in.readFully(mData);
 	}
@@ -80,4 +81,9 @@ public final class OverflowPage implements Page {
 	public byte[] getData() {
 		return mData;
 	}
+
+	@Override
+	public long getRetainedSize() {
+		return Constants.PAGE_SIZE + mData.length;
+	}
 }
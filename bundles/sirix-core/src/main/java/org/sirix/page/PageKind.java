@@ -26,8 +26,8 @@
  */
 package org.sirix.page;
 
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
@@ -47,13 +47,13 @@ public enum PageKind {
 	RECORDPAGE((byte) 1, UnorderedKeyValuePage.class) {
 		@Override
 		@Nonnull
-		Page deserializePage(final DataInputStream source,
+		Page deserializePage(final DataInput source,
 				final PageReadTrx pageReadTrx) throws IOException {
 			return new UnorderedKeyValuePage(source, pageReadTrx);
 		}
 
 		@Override
-		void serializePage(final DataOutputStream sink, final Page page)
+		void serializePage(final DataOutput sink, final Page page)
 				throws IOException {
 			sink.writeByte(RECORDPAGE.mId);
 			page.serialize(sink);
@@ -75,13 +75,13 @@ public enum PageKind {
 	NAMEPAGE((byte) 2, NamePage.class) {
 		@Override
 		@Nonnull
-		Page deserializePage(final DataInputStream source,
+		Page deserializePage(final DataInput source,
 				final PageReadTrx pageReadTrx) throws IOException {
 			return new NamePage(source);
 		}
 
 		@Override
-		void serializePage(final DataOutputStream sink, final Page page)
+		void serializePage(final DataOutput sink, final Page page)
 				throws IOException {
 			sink.writeByte(NAMEPAGE.mId);
 			page.serialize(sink);
@@ -100,13 +100,13 @@ public enum PageKind {
 	UBERPAGE((byte) 3, UberPage.class) {
 		@Override
 		@Nonnull
-		Page deserializePage(final DataInputStream source,
+		Page deserializePage(final DataInput source,
 				final PageReadTrx pageReadTrx) throws IOException {
 			return new UberPage(source);
 		}
 
 		@Override
-		void serializePage(final DataOutputStream sink, final Page page)
+		void serializePage(final DataOutput sink, final Page page)
 				throws IOException {
 			sink.writeByte(UBERPAGE.mId);
 			page.serialize(sink);
@@ -125,13 +125,13 @@ public enum PageKind {
 	INDIRECTPAGE((byte) 4, IndirectPage.class) {
 		@Override
 		@Nonnull
-		Page deserializePage(final DataInputStream source,
+		Page deserializePage(final DataInput source,
 				final PageReadTrx pageReadTrx) throws IOException {
 			return new IndirectPage(source);
 		}
 
 		@Override
-		void serializePage(final DataOutputStream sink, final Page page)
+		void serializePage(final DataOutput sink, final Page page)
 				throws IOException {
 			sink.writeByte(INDIRECTPAGE.mId);
 			page.serialize(sink);
@@ -150,13 +150,13 @@ public enum PageKind {
 	REVISIONROOTPAGE((byte) 5, RevisionRootPage.class) {
 		@Override
 		@Nonnull
-		Page deserializePage(final DataInputStream source,
+		Page deserializePage(final DataInput source,
 				final PageReadTrx pageReadTrx) throws IOException {
 			return new RevisionRootPage(source);
 		}
 
 		@Override
-		void serializePage(final DataOutputStream sink, final Page page)
+		void serializePage(final DataOutput sink, final Page page)
 				throws IOException {
 			sink.writeByte(REVISIONROOTPAGE.mId);
 			page.serialize(sink);
@@ -175,13 +175,13 @@ public enum PageKind {
 	PATHSUMMARYPAGE((byte) 6, PathSummaryPage.class) {
 		@Override
 		@Nonnull
-		Page deserializePage(final DataInputStream source,
+		Page deserializePage(final DataInput source,
 				final PageReadTrx pageReadTrx) throws IOException {
 			return new PathSummaryPage(source);
 		}
 
 		@Override
-		void serializePage(final DataOutputStream sink, final Page page)
+		void serializePage(final DataOutput sink, final Page page)
 				throws IOException {
 			sink.writeByte(PATHSUMMARYPAGE.mId);
 			page.serialize(sink);
@@ -200,13 +200,13 @@ public enum PageKind {
 	TEXTVALUEPAGE((byte) 7, PathPage.class) {
 		@Override
 		@Nonnull
-		Page deserializePage(final DataInputStream source,
+		Page deserializePage(final DataInput source,
 				final PageReadTrx pageReadTrx) throws IOException {
 			return new PathPage(source);
 		}
 
 		@Override
-		void serializePage(final DataOutputStream sink, final Page page)
+		void serializePage(final DataOutput sink, final Page page)
 				throws IOException {
 			sink.writeByte(TEXTVALUEPAGE.mId);
 			page.serialize(sink);
@@ -225,13 +225,13 @@ public enum PageKind {
 	CASPAGE((byte) 8, CASPage.class) {
 		@Override
 		@Nonnull
-		Page deserializePage(final DataInputStream source,
+		Page deserializePage(final DataInput source,
 				final PageReadTrx pageReadTrx) throws IOException {
 			return new CASPage(source);
 		}
 
 		@Override
-		void serializePage(final DataOutputStream sink, final Page page)
+		void serializePage(final DataOutput sink, final Page page)
 				throws IOException {
 			sink.writeByte(CASPAGE.mId);
 			page.serialize(sink);
@@ -250,13 +250,13 @@ public enum PageKind {
 	OVERFLOWPAGE((byte) 9, OverflowPage.class) {
 		@Override
 		@Nonnull
-		Page deserializePage(final DataInputStream source,
+		Page deserializePage(final DataInput source,
 				final PageReadTrx pageReadTrx) throws IOException {
 			return new OverflowPage(source);
 		}
 
 		@Override
-		void serializePage(final DataOutputStream sink, final Page page)
+		void serializePage(final DataOutput sink, final Page page)
 				throws IOException {
 			sink.writeByte(OVERFLOWPAGE.mId);
 			page.serialize(sink);
@@ -274,14 +274,14 @@ public enum PageKind {
 	 */
 	PATHPAGE((byte) 10, PathPage.class) {
 		@Override
-		void serializePage(DataOutputStream sink, @Nonnull Page page)
+		void serializePage(DataOutput sink, @Nonnull Page page)
 				throws IOException {
 			sink.writeByte(PATHPAGE.mId);
 			page.serialize(sink);
 		}
 
 		@Override
-		Page deserializePage(DataInputStream source,
+		Page deserializePage(DataInput source,
 				@Nonnull PageReadTrx pageReadTrx) throws IOException {
 			return new PathPage(source);
 		}
@@ -337,23 +337,23 @@ public enum PageKind {
 	 * Serialize page.
 	 * 
 	 * @param sink
-	 *          {@link DataInputStream} instance
+	 *          {@link DataInput} instance
 	 * @param page
 	 *          {@link Page} implementation
 	 */
-	abstract void serializePage(final DataOutputStream sink, final Page page)
+	abstract void serializePage(final DataOutput sink, final Page page)
 			throws IOException;
 
 	/**
 	 * Deserialize page.
 	 * 
 	 * @param source
-	 *          {@link DataInputStream} instance
+	 *          {@link DataInput} instance
 	 * @param pageReadTrx
 	 *          implementing {@link PageReadTrx} instance
 	 * @return page instance implementing the {@link Page} interface
 	 */
-	abstract Page deserializePage(final DataInputStream source,
+	abstract Page deserializePage(final DataInput source,
 			final PageReadTrx pageReadTrx) throws IOException;
 
 	/**
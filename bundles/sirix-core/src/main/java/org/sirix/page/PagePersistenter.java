@@ -27,8 +27,8 @@
 
 package org.sirix.page;
 
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
 
 import javax.annotation.Nonnull;
@@ -56,7 +56,7 @@ public final class PagePersistenter {
 	 * @throws IOException
 	 *           if an exception during deserialization of a page occurs
 	 */
-	public static @Nonnull Page deserializePage(final DataInputStream source,
+	public static @Nonnull Page deserializePage(final DataInput source,
 			final PageReadTrx pageReadTrx) throws IOException {
 		return PageKind.getKind(source.readByte()).deserializePage(source,
 				pageReadTrx);
@@ -72,7 +72,7 @@ public final class PagePersistenter {
 	 * @throws IOException
 	 *           if an exception during serialization of a page occurs
 	 */
-	public static void serializePage(final DataOutputStream sink, final Page page)
+	public static void serializePage(final DataOutput sink, final Page page)
 			throws IOException {
 		PageKind.getKind(page.getClass()).serializePage(sink, page);
 	}
@@ -26,7 +26,7 @@ package org.sirix.page;
  * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
-import java.io.DataInputStream;
+import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.util.HashMap;
@@ -83,7 +83,7 @@ public final class PathPage extends AbstractForwardingPage {
 	 * @throws IOException
 	 *           if the page couldn't be deserialized
 	 */
-	protected PathPage(final DataInputStream in) throws IOException {
+	protected PathPage(final DataInput in) throws IOException {
 		mDelegate = new PageDelegate(PageConstants.MAX_INDEX_NR, in);
 		final int size = in.readInt();
 		mMaxNodeKeys = new HashMap<>(size);
@@ -29,7 +29,7 @@ package org.sirix.page;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import java.io.DataInputStream;
+import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 
@@ -102,7 +102,7 @@ public final class RevisionRootPage extends AbstractForwardingPage {
 	 * @param in
 	 *          input stream
 	 */
-	protected RevisionRootPage(final DataInputStream in) throws IOException {
+	protected RevisionRootPage(final DataInput in) throws IOException {
 		mDelegate = new PageDelegate(5, in);
 		mRevision = in.readInt();
 		mMaxNodeKey = in.readLong();
@@ -29,7 +29,7 @@ package org.sirix.page;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import java.io.DataInputStream;
+import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 
@@ -99,7 +99,7 @@ public final class UberPage extends AbstractForwardingPage {
 	 * @param resourceConfig
 	 *          {@link ResourceConfiguration} reference
 	 */
-	protected UberPage(final DataInputStream in) throws IOException {
+	protected UberPage(final DataInput in) throws IOException {
 		mDelegate = new PageDelegate(1, in);
 		mRevisionCount = in.readInt();
 		mRevision = mRevisionCount == 0 ? 0 : mRevisionCount - 1;
@@ -24,6 +24,7 @@
  * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
+
 package org.sirix.page;
 
 import static org.sirix.node.Utils.getVarLong;
@@ -37,17 +38,15 @@ import java.io.DataOutput;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
-import java.util.List;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nullable;
@@ -61,14 +60,13 @@ import org.sirix.node.interfaces.Node;
 import org.sirix.node.interfaces.NodePersistenter;
 import org.sirix.node.interfaces.Record;
 import org.sirix.node.interfaces.RecordPersistenter;
+import org.sirix.node.interfaces.ValueNode;
 import org.sirix.page.interfaces.KeyValuePage;
 import org.sirix.page.interfaces.Page;
 import org.sirix.settings.Constants;
 
 import com.google.common.base.Objects;
 import com.google.common.base.Objects.ToStringHelper;
-import com.google.common.collect.Iterators;
-import com.google.common.collect.PeekingIterator;
 
 /**
  * <h1>UnorderedKeyValuePage</h1>
@@ -78,31 +76,56 @@ import com.google.common.collect.PeekingIterator;
  * unordered datastructure.
  * </p>
  * <p>
+ * The records, their serialized slots and the references to overflow pages are
+ * stored in arrays of {@link Constants#NDP_NODE_COUNT} entries, which are
+ * indexed by the offset of the record key to the first key of the page. On
+ * disk, a page consists of a directory of its slots, that is the offset and
+ * the length of each slot, followed by the data of all slots.
+ * </p>
+ * <p>
  * The page currently is not thread safe (might have to be for concurrent
  * write-transactions)!
  * </p>
+ * <p>
+ * The records of a page, which is read from the storage, are kept in their
+ * serialized form and only deserialized on demand, as a point lookup usually
+ * needs a single record. As pages are shared by reading transactions, the
+ * deserialization is thread safe.
+ * </p>
  */
 public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
 
+	/** No previous keys. */
+	private static final long[] NO_KEYS = new long[0];
+
 	private boolean mAddedReferences;
 
-	/** References to overflow pages. */
-	private final Map<Long, PageReference> mReferences;
+	/**
+	 * References to overflow pages, indexed by the offset of the record key (or
+	 * {@code null}, if the page doesn't contain overlong records).
+	 */
+	private PageReference[] mReferences;
+
+	/** Number of references to overflow pages. */
+	private int mReferenceCount;
 
 	/** Key of record page. This is the base key of all contained nodes. */
 	private final long mRecordPageKey;
 
 	/**
-	 * Records (must be a {@link LinkedHashMap} to provide consistent iteration
-	 * order).
+	 * Records, indexed by the offset of the record key (or {@code null}, if no
+	 * record has been stored or deserialized yet).
 	 */
-	private final LinkedHashMap<Long, Record> mRecords;
+	private Record[] mRecords;
+
+	/** Number of records. */
+	private int mRecordCount;
 
-	/** Slots which have to be serialized. */
-	private final Map<Long, byte[]> mSlots;
+	/** Slots which have to be serialized, indexed by the offset of the key. */
+	private byte[][] mSlots;
 
-	/** Dewey IDs which have to be serialized. */
-	private final Map<SirixDeweyID, Long> mDeweyIDs;
+	/** Dewey IDs which have to be serialized, indexed by the offset of the key. */
+	private SirixDeweyID[] mDeweyIDs;
 
 	/** Determine if node page has been modified. */
 	private boolean mIsDirty;
@@ -119,6 +142,39 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
 	/** Reference to the previous page if any. */
 	private Optional<PageReference> mPreviousPageReference;
 
+	/**
+	 * Keys of the previous versions of the page, which might be needed to
+	 * reconstruct the page, the most recent one first.
+	 */
+	private long[] mPreviousKeys;
+
+	/**
+	 * Pages, which own the records stored in their serialized form, indexed by
+	 * the offset of the record key to the first key of the page ({@code null}, if
+	 * there isn't a serialized record). That is the page itself, if it has been
+	 * read from the storage, or the page the record has been copied from, such
+	 * that all pages share the deserialized record.
+	 */
+	private UnorderedKeyValuePage[] mSerializedPages;
+
+	/** Number of serialized records. */
+	private int mSerializedCount;
+
+	/** Buffer of the serialized records, if the page has been read. */
+	private byte[] mSerializedRecords;
+
+	/** Offsets of the serialized records in the buffer. */
+	private int[] mSerializedOffsets;
+
+	/** Lengths of the serialized records. */
+	private int[] mSerializedLengths;
+
+	/** Dewey IDs of the serialized records, if they are stored. */
+	private SirixDeweyID[] mSerializedDeweyIDs;
+
+	/** Serialized records, which have been deserialized. */
+	private AtomicReferenceArray<Record> mDeserializedRecords;
+
 	/**
 	 * Constructor which initializes a new {@link UnorderedKeyValuePage}.
 	 *
@@ -140,22 +196,13 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
 		assert previousPageRef != null : "optional previous page reference must not be null!";
 		assert pageReadTrx != null : "The page reading trx must not be null!";
 
-		mReferences = new LinkedHashMap<>();
 		mRecordPageKey = recordPageKey;
-		mRecords = new LinkedHashMap<>();
-		mSlots = new LinkedHashMap<>();
 		mIsDirty = true;
 		mPageReadTrx = pageReadTrx;
 		mPageKind = pageKind;
 		mPersistenter = pageReadTrx.getSession().getResourceConfig().mPersistenter;
 		mPreviousPageReference = previousPageRef;
-
-		if (mPageReadTrx.getSession().getResourceConfig().mDeweyIDsStored
-				&& mPersistenter instanceof NodePersistenter) {
-			mDeweyIDs = new LinkedHashMap<>();
-		} else {
-			mDeweyIDs = Collections.emptyMap();
-		}
+		mPreviousKeys = NO_KEYS;
 	}
 
 	/**
@@ -171,58 +218,34 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
 		mRecordPageKey = getVarLong(in);
 		mPersistenter = pageReadTrx.getSession().getResourceConfig().mPersistenter;
 		mPageReadTrx = pageReadTrx;
-		mSlots = new LinkedHashMap<>();
 
-		if (mPageReadTrx.getSession().getResourceConfig().mDeweyIDsStored
-				&& mPersistenter instanceof NodePersistenter) {
-			mDeweyIDs = new LinkedHashMap<>();
-		} else {
-			mDeweyIDs = Collections.emptyMap();
-		}
-
-		if (mPageReadTrx.getSession().getResourceConfig().mDeweyIDsStored
-				&& mPersistenter instanceof NodePersistenter) {
+		// Read the directory of the slots. The records are kept in the data
+		// following the directory and deserialized on demand.
+		int position = 0;
+		if (storeDeweyIDs()) {
 			final NodePersistenter persistenter = (NodePersistenter) mPersistenter;
-			final int deweyIDSize = in.readInt();
-
-			mRecords = new LinkedHashMap<>(deweyIDSize);
+			final int deweyIDSize = (int) getVarLong(in);
 			Optional<SirixDeweyID> id = Optional.empty();
-
 			for (int index = 0; index < deweyIDSize; index++) {
 				id = persistenter.deserializeDeweyID(in, id, pageReadTrx);
-
-				if (id.isPresent()) {
-					final long key = getVarLong(in);
-					final int dataSize = in.readInt();
-					final byte[] data = new byte[dataSize];
-					in.readFully(data);
-					final Record record = mPersistenter.deserialize(new DataInputStream(
-							new ByteArrayInputStream(data)), key, id, mPageReadTrx);
-					mRecords.put(key, record);
-				}
+				position = readSlot(in, position, id.orElse(null));
 			}
-		} else {
-			mRecords = new LinkedHashMap<>();
 		}
-
-		final int normalEntrySize = in.readInt();
+		final int normalEntrySize = (int) getVarLong(in);
 		for (int index = 0; index < normalEntrySize; index++) {
-			final long key = getVarLong(in);
-			final int dataSize = in.readInt();
-			final byte[] data = new byte[dataSize];
-			in.readFully(data);
-			final Record record = mPersistenter
-					.deserialize(new DataInputStream(new ByteArrayInputStream(data)),
-							key, Optional.empty(), mPageReadTrx);
-			mRecords.put(key, record);
-		}
-		final int overlongEntrySize = in.readInt();
-		mReferences = new LinkedHashMap<>(overlongEntrySize);
+			position = readSlot(in, position, null);
+		}
+		if (mSerializedCount > 0) {
+			mSerializedRecords = new byte[position];
+			in.readFully(mSerializedRecords);
+		}
+
+		final int overlongEntrySize = (int) getVarLong(in);
 		for (int index = 0; index < overlongEntrySize; index++) {
-			final long key = in.readLong();
+			final int offset = in.readUnsignedShort();
 			final PageReference reference = new PageReference();
 			reference.setKey(in.readLong());
-			mReferences.put(key, reference);
+			setReference(offset, reference);
 		}
 		assert pageReadTrx != null : "pageReadTrx must not be null!";
 		final boolean hasPreviousReference = in.readBoolean();
@@ -230,12 +253,282 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
 			final PageReference previousPageReference = new PageReference();
 			previousPageReference.setKey(in.readLong());
 			mPreviousPageReference = Optional.of(previousPageReference);
+			final int previousKeys = in.readByte();
+			mPreviousKeys = previousKeys == 0 ? NO_KEYS : new long[previousKeys];
+			for (int index = 0; index < previousKeys; index++) {
+				mPreviousKeys[index] = getVarLong(in);
+			}
 		} else {
 			mPreviousPageReference = Optional.empty();
+			mPreviousKeys = NO_KEYS;
 		}
 		mPageKind = PageKind.getKind(in.readByte());
 	}
 
+	/**
+	 * Determines if dewey IDs are stored.
+	 *
+	 * @return {@code true}, if dewey IDs are stored, {@code false} otherwise
+	 */
+	private boolean storeDeweyIDs() {
+		return mPageReadTrx.getSession().getResourceConfig().mDeweyIDsStored
+				&& mPersistenter instanceof NodePersistenter;
+	}
+
+	/**
+	 * Read an entry of the directory of the slots.
+	 *
+	 * @param in
+	 *          input bytes to read the entry from
+	 * @param position
+	 *          the position of the slot in the data following the directory
+	 * @param id
+	 *          the dewey ID of the record or {@code null}
+	 * @return the position of the next slot
+	 * @throws IOException
+	 *           if the entry can't be read
+	 */
+	private int readSlot(final DataInput in, final @Nonnegative int position,
+			final @Nullable SirixDeweyID id) throws IOException {
+		final int offset = in.readUnsignedShort();
+		final int length = (int) getVarLong(in);
+		if (offset >= Constants.NDP_NODE_COUNT) {
+			throw new IOException("Invalid slot: " + offset);
+		}
+		if (mDeserializedRecords == null) {
+			mSerializedOffsets = new int[Constants.NDP_NODE_COUNT];
+			mSerializedLengths = new int[Constants.NDP_NODE_COUNT];
+			mDeserializedRecords = new AtomicReferenceArray<>(
+					Constants.NDP_NODE_COUNT);
+		}
+		if (id != null && mSerializedDeweyIDs == null) {
+			mSerializedDeweyIDs = new SirixDeweyID[Constants.NDP_NODE_COUNT];
+		}
+		mSerializedOffsets[offset] = position;
+		mSerializedLengths[offset] = length;
+		if (mSerializedDeweyIDs != null) {
+			mSerializedDeweyIDs[offset] = id;
+		}
+		setSerializedRecord(offset, this);
+		return position + length;
+	}
+
+	/**
+	 * Get the offset of a record key to the first key of the page.
+	 *
+	 * @param key
+	 *          the record key
+	 * @return the offset, or {@code -1}, if the key is outside of the key range
+	 *         of the page
+	 */
+	private int offset(final long key) {
+		final long offset = key
+				- (mRecordPageKey << Constants.NDP_NODE_COUNT_EXPONENT);
+		return offset >= 0 && offset < Constants.NDP_NODE_COUNT ? (int) offset
+				: -1;
+	}
+
+	/**
+	 * Get the offset of a record key, which must be in the key range of the page.
+	 *
+	 * @param key
+	 *          the record key
+	 * @return the offset
+	 * @throws IllegalArgumentException
+	 *           if the key is outside of the key range of the page
+	 */
+	private int checkedOffset(final long key) {
+		final int offset = offset(key);
+		if (offset == -1) {
+			throw new IllegalArgumentException("Key " + key
+					+ " doesn't belong to record page " + mRecordPageKey + "!");
+		}
+		return offset;
+	}
+
+	/**
+	 * Get the record key of an offset.
+	 *
+	 * @param offset
+	 *          the offset
+	 * @return the record key
+	 */
+	private long key(final @Nonnegative int offset) {
+		return (mRecordPageKey << Constants.NDP_NODE_COUNT_EXPONENT) + offset;
+	}
+
+	/**
+	 * Determines if a serialized record is stored at an offset.
+	 *
+	 * @param offset
+	 *          the offset
+	 * @return {@code true}, if a serialized record is stored, {@code false}
+	 *         otherwise
+	 */
+	private boolean isSerialized(final int offset) {
+		return mSerializedCount > 0 && offset != -1
+				&& mSerializedPages[offset] != null;
+	}
+
+	/**
+	 * Store a record in its serialized form.
+	 *
+	 * @param offset
+	 *          the offset of the record key
+	 * @param page
+	 *          the page, which owns the serialized record
+	 */
+	private void setSerializedRecord(final @Nonnegative int offset,
+			final UnorderedKeyValuePage page) {
+		if (mSerializedPages == null) {
+			mSerializedPages = new UnorderedKeyValuePage[Constants.NDP_NODE_COUNT];
+		}
+		if (mSerializedPages[offset] == null) {
+			mSerializedCount++;
+		}
+		mSerializedPages[offset] = page;
+	}
+
+	/**
+	 * Remove a serialized record. The page, which owns the record, keeps it, as
+	 * other pages might have copied it.
+	 *
+	 * @param offset
+	 *          the offset of the record key
+	 */
+	private void removeSerializedRecord(final @Nonnegative int offset) {
+		mSerializedPages[offset] = null;
+		mSerializedCount--;
+	}
+
+	/**
+	 * Get a serialized record.
+	 *
+	 * @param offset
+	 *          the offset of the record key
+	 * @param pageReadTrx
+	 *          the transaction, which deserializes the record
+	 * @return the record
+	 * @throws SirixIOException
+	 *           if the record can't be deserialized
+	 */
+	private Record getSerializedRecord(final @Nonnegative int offset,
+			final PageReadTrx pageReadTrx) {
+		return mSerializedPages[offset].deserializeRecord(offset, pageReadTrx);
+	}
+
+	/**
+	 * Deserialize a serialized record of this page, unless it has already been
+	 * deserialized. Records might be deserialized concurrently, whereas all
+	 * transactions get the same instance.
+	 *
+	 * @param offset
+	 *          the offset of the record key
+	 * @param pageReadTrx
+	 *          the transaction, which deserializes the record
+	 * @return the record
+	 * @throws SirixIOException
+	 *           if the record can't be deserialized
+	 */
+	private Record deserializeRecord(final @Nonnegative int offset,
+			final PageReadTrx pageReadTrx) {
+		final Record record = mDeserializedRecords.get(offset);
+		if (record != null) {
+			return record;
+		}
+		final Optional<SirixDeweyID> id = mSerializedDeweyIDs == null ? Optional
+				.empty() : Optional.ofNullable(mSerializedDeweyIDs[offset]);
+		final Record deserializedRecord;
+		try {
+			deserializedRecord = mPersistenter.deserialize(new DataInputStream(
+					new ByteArrayInputStream(mSerializedRecords,
+							mSerializedOffsets[offset], mSerializedLengths[offset])),
+					key(offset), id, pageReadTrx);
+		} catch (final IOException e) {
+			throw new SirixIOException(e);
+		}
+		// Another transaction might have deserialized the record concurrently.
+		return mDeserializedRecords.compareAndSet(offset, null, deserializedRecord)
+				? deserializedRecord : mDeserializedRecords.get(offset);
+	}
+
+	/**
+	 * Get a record, which is stored at an offset, whereas serialized records are
+	 * deserialized.
+	 *
+	 * @param offset
+	 *          the offset of the record key
+	 * @param pageReadTrx
+	 *          the transaction, which deserializes the record
+	 * @return the record or {@code null}, if no record is stored at the offset
+	 */
+	private Record getRecord(final @Nonnegative int offset,
+			final PageReadTrx pageReadTrx) {
+		final Record record = mRecords == null ? null : mRecords[offset];
+		if (record == null && isSerialized(offset)) {
+			return getSerializedRecord(offset, pageReadTrx);
+		}
+		return record;
+	}
+
+	/**
+	 * Get all records in the order of their keys, whereas serialized records are
+	 * deserialized. The returned map is a copy.
+	 *
+	 * @return all records
+	 */
+	private Map<Long, Record> records() {
+		final Map<Long, Record> records = new LinkedHashMap<>(
+				mRecordCount + mSerializedCount);
+		if (mRecordCount + mSerializedCount > 0) {
+			for (int offset = 0; offset < Constants.NDP_NODE_COUNT; offset++) {
+				final Record record = getRecord(offset, mPageReadTrx);
+				if (record != null) {
+					records.put(key(offset), record);
+				}
+			}
+		}
+		return records;
+	}
+
+	/**
+	 * Get all references to overflow pages in the order of their keys. The
+	 * returned map is a copy.
+	 *
+	 * @return all references
+	 */
+	private Map<Long, PageReference> references() {
+		final Map<Long, PageReference> references = new LinkedHashMap<>(
+				mReferenceCount);
+		if (mReferenceCount > 0) {
+			for (int offset = 0; offset < Constants.NDP_NODE_COUNT; offset++) {
+				if (mReferences[offset] != null) {
+					references.put(key(offset), mReferences[offset]);
+				}
+			}
+		}
+		return references;
+	}
+
+	/**
+	 * Store a reference to an overflow page.
+	 *
+	 * @param offset
+	 *          the offset of the record key
+	 * @param reference
+	 *          the reference
+	 */
+	private void setReference(final @Nonnegative int offset,
+			final PageReference reference) {
+		if (mReferences == null) {
+			mReferences = new PageReference[Constants.NDP_NODE_COUNT];
+		}
+		if (mReferences[offset] == null) {
+			mReferenceCount++;
+		}
+		mReferences[offset] = reference;
+	}
+
 	@Override
 	public long getPageKey() {
 		return mRecordPageKey;
@@ -244,14 +537,35 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
 	@Override
 	public Record getValue(final Long key) {
 		assert key != null : "key must not be null!";
-		Record record = mRecords.get(key);
+		return getValue(key.longValue(), mPageReadTrx);
+	}
+
+	/**
+	 * Get the record with the given key. If the record hasn't been deserialized
+	 * yet, it's deserialized by the given transaction, as the transaction, which
+	 * has read the page, might already be closed.
+	 *
+	 * @param key
+	 *          the record key
+	 * @param pageReadTrx
+	 *          the transaction, which reads the record
+	 * @return the record with the given key, or {@code null} if not present
+	 */
+	public Record getValue(final long key, final PageReadTrx pageReadTrx) {
+		assert pageReadTrx != null : "pageReadTrx must not be null!";
+		final int offset = offset(key);
+		if (offset == -1) {
+			return null;
+		}
+		Record record = getRecord(offset, pageReadTrx);
 		if (record == null) {
 			byte[] data = null;
 			try {
-				final PageReference reference = mReferences.get(key);
+				final PageReference reference = mReferences == null ? null
+						: mReferences[offset];
 				if (reference != null && reference.getKey() != Constants.NULL_ID) {
-					data = ((OverflowPage) mPageReadTrx.getReader().read(
-							reference.getKey(), mPageReadTrx)).getData();
+					data = ((OverflowPage) pageReadTrx.getReader().read(
+							reference.getKey(), pageReadTrx)).getData();
 				} else {
 					return null;
 				}
@@ -261,20 +575,110 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
 			final InputStream in = new ByteArrayInputStream(data);
 			try {
 				record = mPersistenter.deserialize(new DataInputStream(in), key,
-						Optional.empty(), mPageReadTrx);
+						Optional.empty(), pageReadTrx);
 			} catch (final IOException e) {
 				return null;
 			}
-			mRecords.put(key, record);
+			setRecord(offset, record);
 		}
 		return record;
 	}
 
+	/**
+	 * Store a record.
+	 *
+	 * @param offset
+	 *          the offset of the record key
+	 * @param record
+	 *          the record
+	 */
+	private void setRecord(final @Nonnegative int offset, final Record record) {
+		if (mRecords == null) {
+			mRecords = new Record[Constants.NDP_NODE_COUNT];
+		}
+		if (mRecords[offset] == null) {
+			mRecordCount++;
+		}
+		mRecords[offset] = record;
+	}
+
+	/**
+	 * Remove a record and its slot.
+	 *
+	 * @param offset
+	 *          the offset of the record key
+	 */
+	private void removeRecord(final @Nonnegative int offset) {
+		if (mRecords != null && mRecords[offset] != null) {
+			mRecords[offset] = null;
+			mRecordCount--;
+		}
+		if (isSerialized(offset)) {
+			removeSerializedRecord(offset);
+		}
+		if (mSlots != null) {
+			mSlots[offset] = null;
+			mDeweyIDs[offset] = null;
+		}
+		mAddedReferences = false;
+	}
+
 	@Override
 	public void setEntry(final Long key, final Record value) {
 		assert value != null : "record must not be null!";
-		mAddedReferences = false;
-		mRecords.put(key, value);
+		final int offset = checkedOffset(key);
+		removeRecord(offset);
+		setRecord(offset, value);
+	}
+
+	@Override
+	public void copyEntry(final Long key,
+			final KeyValuePage<Long, Record> page) {
+		assert key != null : "key must not be null!";
+		if (page instanceof UnorderedKeyValuePage) {
+			final UnorderedKeyValuePage other = (UnorderedKeyValuePage) page;
+			final int offset = other.offset(key);
+			if (other.mRecordPageKey == mRecordPageKey && other.isSerialized(offset)
+					&& (other.mRecords == null || other.mRecords[offset] == null)) {
+				// Share the serialized record instead of deserializing it.
+				removeRecord(offset);
+				setSerializedRecord(offset, other.mSerializedPages[offset]);
+				return;
+			}
+		}
+		setEntry(key, page.getValue(key));
+	}
+
+	@Override
+	public boolean containsKey(final Long key) {
+		assert key != null : "key must not be null!";
+		final int offset = offset(key);
+		if (offset == -1) {
+			return false;
+		}
+		if ((mRecords != null && mRecords[offset] != null) || isSerialized(offset)) {
+			return true;
+		}
+		final PageReference reference = mReferences == null ? null
+				: mReferences[offset];
+		return reference != null && reference.getKey() != Constants.NULL_ID;
+	}
+
+	/**
+	 * {@inheritDoc} The keys are ordered and the returned set is a copy.
+	 */
+	@Override
+	public Set<Long> keySet() {
+		final Set<Long> keys = new LinkedHashSet<>(mRecordCount + mSerializedCount);
+		if (mRecordCount + mSerializedCount > 0) {
+			for (int offset = 0; offset < Constants.NDP_NODE_COUNT; offset++) {
+				if ((mRecords != null && mRecords[offset] != null)
+						|| isSerialized(offset)) {
+					keys.add(key(offset));
+				}
+			}
+		}
+		return keys;
 	}
 
 	@Override
@@ -284,89 +688,147 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
 		}
 		// Write page key.
 		putVarLong(out, mRecordPageKey);
-		// Write dewey IDs.
-		if (mPageReadTrx.getSession().getResourceConfig().mDeweyIDsStored
-				&& mPersistenter instanceof NodePersistenter) {
+		// Write the directory of the slots, whereas slots with dewey IDs are
+		// ordered by the length of their IDs, such that they can be encoded
+		// relative to the previous one.
+		final int[] deweyOffsets = deweyOffsets();
+		if (storeDeweyIDs()) {
 			final NodePersistenter persistenter = (NodePersistenter) mPersistenter;
-			out.writeInt(mDeweyIDs.size());
-			final List<SirixDeweyID> ids = new ArrayList<>(mDeweyIDs.keySet());
-			ids.sort((SirixDeweyID first, SirixDeweyID second) -> Integer.valueOf(
-					first.toBytes().length).compareTo(second.toBytes().length));
-			final PeekingIterator<SirixDeweyID> iter = Iterators.peekingIterator(ids
-					.iterator());
+			putVarLong(out, deweyOffsets.length);
 			SirixDeweyID id = null;
-			if (iter.hasNext()) {
-				id = iter.next();
-				persistenter.serializeDeweyID(out, Kind.ELEMENT, id, Optional.empty(),
-						mPageReadTrx);
-				serializeDeweyRecord(id, out);
-			}
-			while (iter.hasNext()) {
-				final SirixDeweyID nextDeweyID = iter.next();
-				persistenter.serializeDeweyID(out, Kind.ELEMENT, id,
-						Optional.of(nextDeweyID), mPageReadTrx);
-				serializeDeweyRecord(nextDeweyID, out);
+			for (final int offset : deweyOffsets) {
+				final SirixDeweyID nextDeweyID = mDeweyIDs[offset];
+				if (id == null) {
+					persistenter.serializeDeweyID(out, Kind.ELEMENT, nextDeweyID,
+							Optional.empty(), mPageReadTrx);
+				} else {
+					persistenter.serializeDeweyID(out, Kind.ELEMENT, id,
+							Optional.of(nextDeweyID), mPageReadTrx);
+				}
+				writeSlot(out, offset);
 				id = nextDeweyID;
 			}
 		}
-		// Write normal entries.
-		out.writeInt(mSlots.size());
-		for (final Entry<Long, byte[]> entry : mSlots.entrySet()) {
-			putVarLong(out, entry.getKey());
-			final byte[] data = entry.getValue();
-			final int length = data.length;
-			out.writeInt(length);
-			out.write(data);
+		int normalEntrySize = 0;
+		if (mSlots != null) {
+			for (int offset = 0; offset < Constants.NDP_NODE_COUNT; offset++) {
+				if (mSlots[offset] != null && mDeweyIDs[offset] == null) {
+					normalEntrySize++;
+				}
+			}
+		}
+		putVarLong(out, normalEntrySize);
+		if (normalEntrySize > 0) {
+			for (int offset = 0; offset < Constants.NDP_NODE_COUNT; offset++) {
+				if (mSlots[offset] != null && mDeweyIDs[offset] == null) {
+					writeSlot(out, offset);
+				}
+			}
+		}
+		// Write the data of the slots in the order of the directory.
+		for (final int offset : deweyOffsets) {
+			out.write(mSlots[offset]);
+		}
+		if (normalEntrySize > 0) {
+			for (int offset = 0; offset < Constants.NDP_NODE_COUNT; offset++) {
+				if (mSlots[offset] != null && mDeweyIDs[offset] == null) {
+					out.write(mSlots[offset]);
+				}
+			}
 		}
 		// Write overlong entries.
-		out.writeInt(mReferences.size());
-		for (final Map.Entry<Long, PageReference> entry : mReferences.entrySet()) {
-			// Write record ID.
-			out.writeLong(entry.getKey());
-			// Write key in persistent storage.
-			out.writeLong(entry.getValue().getKey());
+		putVarLong(out, mReferenceCount);
+		if (mReferenceCount > 0) {
+			for (int offset = 0; offset < Constants.NDP_NODE_COUNT; offset++) {
+				if (mReferences[offset] != null) {
+					// Write offset of the record key.
+					out.writeShort(offset);
+					// Write key in persistent storage.
+					out.writeLong(mReferences[offset].getKey());
+				}
+			}
 		}
 		// Write previous reference if it has any reference.
 		final boolean hasPreviousReference = mPreviousPageReference.isPresent();
 		out.writeBoolean(hasPreviousReference);
 		if (hasPreviousReference) {
 			out.writeLong(mPreviousPageReference.get().getKey());
+			out.writeByte(mPreviousKeys.length);
+			for (final long key : mPreviousKeys) {
+				putVarLong(out, key);
+			}
 		}
 		out.writeByte(mPageKind.getID());
 	}
 
-	private void serializeDeweyRecord(SirixDeweyID id, DataOutput out)
+	/**
+	 * Write an entry of the directory of the slots.
+	 *
+	 * @param out
+	 *          the output to write to
+	 * @param offset
+	 *          the offset of the record key
+	 * @throws IOException
+	 *           if the entry can't be written
+	 */
+	private void writeSlot(final DataOutput out, final @Nonnegative int offset)
 			throws IOException {
-		final long recordKey = mDeweyIDs.get(id);
-		putVarLong(out, recordKey);
-		final byte[] data = mSlots.get(recordKey);
-		final int length = data.length;
-		out.writeInt(length);
-		out.write(data);
-		mSlots.remove(recordKey);
+		out.writeShort(offset);
+		putVarLong(out, mSlots[offset].length);
+	}
+
+	/**
+	 * Get the offsets of the slots with dewey IDs, ordered by the length of the
+	 * IDs.
+	 *
+	 * @return the offsets
+	 */
+	private int[] deweyOffsets() {
+		if (mSlots == null) {
+			return new int[0];
+		}
+		// The length of an ID and the offset are combined to sort primitives.
+		final long[] lengthsAndOffsets = new long[Constants.NDP_NODE_COUNT];
+		int size = 0;
+		for (int offset = 0; offset < Constants.NDP_NODE_COUNT; offset++) {
+			if (mSlots[offset] != null && mDeweyIDs[offset] != null) {
+				lengthsAndOffsets[size++] = ((long) mDeweyIDs[offset].toBytes().length << 32)
+						| offset;
+			}
+		}
+		Arrays.sort(lengthsAndOffsets, 0, size);
+		final int[] offsets = new int[size];
+		for (int index = 0; index < size; index++) {
+			offsets[index] = (int) lengthsAndOffsets[index];
+		}
+		return offsets;
 	}
 
 	@Override
 	public String toString() {
 		final ToStringHelper helper = Objects.toStringHelper(this).add("pagekey",
 				mRecordPageKey);
-		for (final Record record : mRecords.values()) {
+		for (final Record record : records().values()) {
 			helper.add("record", record);
 		}
-		for (final PageReference reference : mReferences.values()) {
+		for (final PageReference reference : references().values()) {
 			helper.add("reference", reference);
 		}
 		return helper.toString();
 	}
 
+	/**
+	 * {@inheritDoc} Serialized records are deserialized and the returned set is a
+	 * copy, thus changes aren't reflected.
+	 */
 	@Override
 	public Set<Entry<Long, Record>> entrySet() {
-		return mRecords.entrySet();
+		return records().entrySet();
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hashCode(mRecordPageKey, mRecords, mReferences);
+		return Objects.hashCode(mRecordPageKey, records(), references());
 	}
 
 	@Override
@@ -374,8 +836,8 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
 		if (obj instanceof UnorderedKeyValuePage) {
 			final UnorderedKeyValuePage other = (UnorderedKeyValuePage) obj;
 			return mRecordPageKey == other.mRecordPageKey
-					&& Objects.equal(mRecords, other.mRecords)
-					&& Objects.equal(mReferences, other.mReferences);
+					&& Objects.equal(records(), other.records())
+					&& Objects.equal(references(), other.references());
 		}
 		return false;
 	}
@@ -396,87 +858,92 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
 			}
 		}
 
-		for (final PageReference reference : mReferences.values()) {
-			if (!(reference.getLogKey() == null && reference.getPage() == null && reference
-					.getKey() == Constants.NULL_ID)) {
-				pageWriteTrx.commit(reference);
+		if (mReferenceCount > 0) {
+			for (final PageReference reference : mReferences) {
+				if (reference != null
+						&& !(reference.getLogKey() == null && reference.getPage() == null && reference
+								.getKey() == Constants.NULL_ID)) {
+					pageWriteTrx.commit(reference);
+				}
 			}
 		}
 	}
 
 	// Add references to OverflowPages.
 	private void addReferences() throws IOException {
-		final boolean storeDeweyIDs = mPageReadTrx.getSession().getResourceConfig().mDeweyIDsStored;
-
-		final List<Entry<Long, Record>> entries = sort();
-		final Iterator<Entry<Long, Record>> it = entries.iterator();
-		while (it.hasNext()) {
-			final Entry<Long, Record> entry = it.next();
-			final Record record = entry.getValue();
-			final long recordID = record.getNodeKey();
-			if (mSlots.get(recordID) == null) {
-				// Must be either a normal record or one which requires an
-				// Overflow page.
-				final ByteArrayOutputStream output = new ByteArrayOutputStream();
-				final DataOutput out = new DataOutputStream(output);
-				mPersistenter.serialize(out, record, mPageReadTrx);
-				final byte[] data = output.toByteArray();
-				if (data.length > PageConstants.MAX_RECORD_SIZE) {
-					final PageReference reference = new PageReference();
-					reference.setPage(new OverflowPage(data));
-					mReferences.put(recordID, reference);
+		if (mSlots == null) {
+			mSlots = new byte[Constants.NDP_NODE_COUNT][];
+			mDeweyIDs = new SirixDeweyID[Constants.NDP_NODE_COUNT];
+		}
+		final boolean storeDeweyIDs = storeDeweyIDs();
+		for (int offset = 0; offset < Constants.NDP_NODE_COUNT; offset++) {
+			if (mSlots[offset] != null) {
+				continue;
+			}
+			final Record record = mRecords == null ? null : mRecords[offset];
+			if (record == null && isSerialized(offset)) {
+				final UnorderedKeyValuePage page = mSerializedPages[offset];
+				if (page.mDeserializedRecords.get(offset) == null) {
+					// The serialized record is written as it is.
+					final int start = page.mSerializedOffsets[offset];
+					mSlots[offset] = Arrays.copyOfRange(page.mSerializedRecords, start,
+							start + page.mSerializedLengths[offset]);
+					if (storeDeweyIDs && page.mSerializedDeweyIDs != null) {
+						mDeweyIDs[offset] = page.mSerializedDeweyIDs[offset];
+					}
 				} else {
-					if (storeDeweyIDs && mPersistenter instanceof NodePersistenter
-							&& record instanceof Node
-							&& ((Node) record).getDeweyID().isPresent()
-							&& record.getNodeKey() != 0)
-						mDeweyIDs.put(((Node) record).getDeweyID().get(),
-								record.getNodeKey());
-					mSlots.put(recordID, data);
+					addSlot(offset, page.mDeserializedRecords.get(offset),
+							storeDeweyIDs);
 				}
+			} else if (record != null) {
+				addSlot(offset, record, storeDeweyIDs);
 			}
 		}
 
 		mAddedReferences = true;
 	}
 
-	private List<Entry<Long, Record>> sort() {
-		// Sort entries which have deweyIDs according to their byte-length.
-		final List<Map.Entry<Long, Record>> entries = new ArrayList<Map.Entry<Long, Record>>(
-				mRecords.entrySet());
-		final boolean storeDeweyIDs = mPageReadTrx.getSession().getResourceConfig().mDeweyIDsStored;
-		if (storeDeweyIDs && mPersistenter instanceof NodePersistenter) {
-			Collections.sort(entries, new Comparator<Map.Entry<Long, Record>>() {
-				@Override
-				public int compare(Map.Entry<Long, Record> a, Map.Entry<Long, Record> b) {
-					if (a.getValue() instanceof Node && b.getValue() instanceof Node) {
-						final Optional<SirixDeweyID> first = ((Node) a.getValue())
-								.getDeweyID();
-						final Optional<SirixDeweyID> second = ((Node) b.getValue())
-								.getDeweyID();
-
-						// Document node has no DeweyID.
-						if (!first.isPresent())
-							return 1;
-
-						if (!second.isPresent())
-							return -1;
-
-						return first.get().toBytes().length == second.get().toBytes().length ? 0
-								: first.get().toBytes().length > second.get().toBytes().length ? 1
-										: -1;
-					}
-					return -1;
-				}
-			});
+	/**
+	 * Serialize a record into its slot, or into an overflow page, if it is too
+	 * large.
+	 *
+	 * @param offset
+	 *          the offset of the record key
+	 * @param record
+	 *          the record
+	 * @param storeDeweyIDs
+	 *          determines if dewey IDs are stored
+	 * @throws IOException
+	 *           if the record can't be serialized
+	 */
+	private void addSlot(final @Nonnegative int offset, final Record record,
+			final boolean storeDeweyIDs) throws IOException {
+		// Must be either a normal record or one which requires an
+		// Overflow page.
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		final DataOutput out = new DataOutputStream(output);
+		mPersistenter.serialize(out, record, mPageReadTrx);
+		final byte[] data = output.toByteArray();
+		if (data.length > PageConstants.MAX_RECORD_SIZE) {
+			final PageReference reference = new PageReference();
+			reference.setPage(new OverflowPage(data));
+			setReference(offset, reference);
+		} else {
+			if (storeDeweyIDs && record instanceof Node
+					&& ((Node) record).getDeweyID().isPresent()
+					&& record.getNodeKey() != 0)
+				mDeweyIDs[offset] = ((Node) record).getDeweyID().get();
+			mSlots[offset] = data;
 		}
-
-		return entries;
 	}
 
+	/**
+	 * {@inheritDoc} Serialized records are deserialized and the returned
+	 * collection is a copy.
+	 */
 	@Override
 	public Collection<Record> values() {
-		return mRecords.values();
+		return records().values();
 	}
 
 	@Override
@@ -517,24 +984,54 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
 
 	@Override
 	public int size() {
-		return mRecords.size() + mReferences.size();
+		return mRecordCount + mSerializedCount + mReferenceCount;
+	}
+
+	@Override
+	public long getRetainedSize() {
+		long size = Constants.PAGE_SIZE + mReferenceCount
+				* Constants.REFERENCE_SIZE;
+		if (mRecordCount > 0) {
+			for (final Record record : mRecords) {
+				if (record != null) {
+					size += Constants.RECORD_SIZE;
+					if (record instanceof ValueNode) {
+						size += ((ValueNode) record).getRawValue().length;
+					}
+				}
+			}
+		}
+		if (mSerializedCount > 0) {
+			// Serialized records aren't deserialized to weigh the page.
+			for (int offset = 0; offset < Constants.NDP_NODE_COUNT; offset++) {
+				if (mSerializedPages[offset] != null) {
+					size += Constants.RECORD_SIZE
+							+ mSerializedPages[offset].mSerializedLengths[offset];
+				}
+			}
+		}
+		return size;
 	}
 
 	@Override
 	public void setPageReference(final Long key, final PageReference reference) {
 		assert key != null;
-		mReferences.put(key, reference);
+		setReference(checkedOffset(key), reference);
 	}
 
+	/**
+	 * {@inheritDoc} The returned set is a copy.
+	 */
 	@Override
 	public Set<Entry<Long, PageReference>> referenceEntrySet() {
-		return mReferences.entrySet();
+		return references().entrySet();
 	}
 
 	@Override
 	public PageReference getPageReference(final Long key) {
 		assert key != null;
-		return mReferences.get(key);
+		final int offset = offset(key);
+		return offset == -1 || mReferences == null ? null : mReferences[offset];
 	}
 
 	@Override
@@ -542,4 +1039,16 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
 		return mPreviousPageReference;
 	}
 
+	@Override
+	public long[] getPreviousKeys() {
+		return mPreviousKeys;
+	}
+
+	@Override
+	public void setPreviousKeys(final long[] keys) {
+		assert keys != null : "keys must not be null!";
+		assert keys.length <= Byte.MAX_VALUE : "too many previous keys!";
+		mPreviousKeys = keys;
+	}
+
 }
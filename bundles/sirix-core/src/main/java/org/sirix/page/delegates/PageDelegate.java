@@ -29,7 +29,7 @@ package org.sirix.page.delegates;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
-import java.io.DataInputStream;
+import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 
@@ -87,7 +87,7 @@ public class PageDelegate implements Page {
 	 *           if the delegate couldn't be deserialized
 	 */
 	public PageDelegate(final @Nonnegative int referenceCount,
-			final DataInputStream in) throws IOException {
+			final DataInput in) throws IOException {
 		checkArgument(referenceCount >= 0);
 		mReferences = new PageReference[referenceCount];
 		mIsDirty = false;
@@ -1,6 +1,7 @@
 package org.sirix.page.interfaces;
 
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
@@ -63,6 +64,47 @@ public interface KeyValuePage<K extends Comparable<? super K>, V extends Record>
 	 */
 	void setEntry(K key, @Nonnull V value);
 
+	/**
+	 * Store or overwrite a single entry with the entry of another page. Unlike
+	 * {@link #setEntry(Comparable, Record)}, the record isn't deserialized, if
+	 * the other page hasn't deserialized it yet.
+	 *
+	 * @param key
+	 *          key to store
+	 * @param page
+	 *          the page, which contains the entry
+	 */
+	default void copyEntry(final K key, final KeyValuePage<K, V> page) {
+		setEntry(key, page.getValue(key));
+	}
+
+	/**
+	 * Determines if the page contains a record or a reference to an overlong
+	 * record with the given key, without deserializing the record.
+	 *
+	 * @param key
+	 *          the key
+	 * @return {@code true}, if the page contains the record, {@code false}
+	 *         otherwise
+	 */
+	default boolean containsKey(final K key) {
+		return getValue(key) != null;
+	}
+
+	/**
+	 * Get the keys of all records (not including overlong records), without
+	 * deserializing the records.
+	 *
+	 * @return the keys of all records
+	 */
+	default Set<K> keySet() {
+		final Set<K> keys = new LinkedHashSet<>();
+		for (final Entry<K, V> entry : entrySet()) {
+			keys.add(entry.getKey());
+		}
+		return keys;
+	}
+
 	Set<Entry<K, PageReference>> referenceEntrySet();
 
 	/**
@@ -126,4 +168,22 @@ public interface KeyValuePage<K extends Comparable<? super K>, V extends Record>
 	 *         the page
 	 */
 	Optional<PageReference> getPreviousReference();
+
+	/**
+	 * Get the keys of the previous versions of the page, which might be needed to
+	 * reconstruct the page, the most recent one first. As the keys are known up
+	 * front, the previous versions can be read in parallel.
+	 *
+	 * @return keys of the previous versions, or an empty array, if they are not
+	 *         known
+	 */
+	long[] getPreviousKeys();
+
+	/**
+	 * Set the keys of the previous versions of the page.
+	 *
+	 * @param keys
+	 *          keys of the previous versions, the most recent one first
+	 */
+	void setPreviousKeys(long[] keys);
 }
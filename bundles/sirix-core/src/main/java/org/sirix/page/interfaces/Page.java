@@ -36,6 +36,7 @@ import org.sirix.api.PageWriteTrx;
 import org.sirix.exception.SirixIOException;
 import org.sirix.node.interfaces.Record;
 import org.sirix.page.PageReference;
+import org.sirix.settings.Constants;
 
 /**
  * Page interface all pages have to implement.
@@ -97,4 +98,15 @@ public interface Page {
 	 * @return the page instance
 	 */
 	Page setDirty(boolean dirty);
+
+	/**
+	 * Get the approximate number of bytes retained by the page, which is used to
+	 * weigh the page in caches.
+	 *
+	 * @return the approximate number of bytes
+	 */
+	default long getRetainedSize() {
+		return Constants.PAGE_SIZE + getReferences().length
+				* Constants.REFERENCE_SIZE;
+	}
 }
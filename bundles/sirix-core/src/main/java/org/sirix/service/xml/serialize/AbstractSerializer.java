@@ -148,7 +148,8 @@ public abstract class AbstractSerializer implements Callable<Void> {
 
 				rtx.moveTo(mNodeKey);
 
-				final Axis descAxis = new DescendantAxis(rtx, IncludeSelf.YES);
+				final Axis descAxis = new DescendantAxis(rtx, IncludeSelf.YES)
+						.setNoCacheHint(true);
 
 				// Setup primitives.
 				boolean closeElements = false;
@@ -135,4 +135,16 @@ public final class Constants {
 
 	public static final long NULL_ID = -15;
 
+	// --- Memory
+	// -------------------------------------------------------------
+
+	/** Approximate number of bytes of an empty page. */
+	public static final int PAGE_SIZE = 64;
+
+	/** Approximate number of bytes of a page reference. */
+	public static final int REFERENCE_SIZE = 48;
+
+	/** Approximate number of bytes of a record without its value. */
+	public static final int RECORD_SIZE = 128;
+
 }
@@ -0,0 +1,265 @@
+package org.sirix.settings;
+
+import static org.sirix.node.Utils.getSignedVarLong;
+import static org.sirix.node.Utils.getVarKey;
+import static org.sirix.node.Utils.getVarLong;
+import static org.sirix.node.Utils.putSignedVarLong;
+import static org.sirix.node.Utils.putVarKey;
+import static org.sirix.node.Utils.putVarLong;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Versions of the format of stored records and pages. The version of a
+ * resource is persisted with its configuration and never changes, as the pages
+ * of all revisions are read with it. Resources, which have been created before
+ * the format has been versioned, can't be read and have to be recreated.
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
+public enum StorageFormat {
+
+	/**
+	 * Counts and lengths are varints and node keys are zig-zag varints of their
+	 * distance from the referencing node (see
+	 * {@link org.sirix.node.Utils#putVarKey(DataOutput, long, long)}). Record
+	 * pages store the keys of their previous versions.
+	 */
+	V1 {
+		@Override
+		public void putKey(final DataOutput sink, final long key,
+				final long relativeKey) throws IOException {
+			putVarKey(sink, key, relativeKey);
+		}
+
+		@Override
+		public long getKey(final DataInput source, final long relativeKey)
+				throws IOException {
+			return getVarKey(source, relativeKey);
+		}
+
+		@Override
+		public void putChildKey(final DataOutput sink, final long key,
+				final long relativeKey) throws IOException {
+			putVarKey(sink, key, relativeKey);
+		}
+
+		@Override
+		public long getChildKey(final DataInput source, final long relativeKey)
+				throws IOException {
+			return getVarKey(source, relativeKey);
+		}
+
+		@Override
+		public void putMemberKey(final DataOutput sink, final long key,
+				final long relativeKey) throws IOException {
+			putVarKey(sink, key, relativeKey);
+		}
+
+		@Override
+		public long getMemberKey(final DataInput source, final long relativeKey)
+				throws IOException {
+			return getVarKey(source, relativeKey);
+		}
+
+		@Override
+		public void putNameKey(final DataOutput sink, final long nameKey)
+				throws IOException {
+			putSignedVarLong(sink, nameKey);
+		}
+
+		@Override
+		public long getNameKey(final DataInput source) throws IOException {
+			return getSignedVarLong(source);
+		}
+
+		@Override
+		public void putCount(final DataOutput sink, final int count)
+				throws IOException {
+			putVarLong(sink, count);
+		}
+
+		@Override
+		public int getCount(final DataInput source) throws IOException {
+			return (int) getVarLong(source);
+		}
+
+		@Override
+		public void putLong(final DataOutput sink, final long value)
+				throws IOException {
+			putVarLong(sink, value);
+		}
+
+		@Override
+		public long getLong(final DataInput source) throws IOException {
+			return getVarLong(source);
+		}
+	};
+
+	/** The format of new resources. */
+	public static final StorageFormat CURRENT = V1;
+
+	/**
+	 * Store a node key relative to the key of the node, which references it, for
+	 * instance a parent or sibling key.
+	 *
+	 * @param sink
+	 *          to serialize to
+	 * @param key
+	 *          the node key to store
+	 * @param relativeKey
+	 *          the key of the referencing node
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	public abstract void putKey(DataOutput sink, long key, long relativeKey)
+			throws IOException;
+
+	/**
+	 * Get a node key stored with {@link #putKey(DataOutput, long, long)}.
+	 *
+	 * @param source
+	 *          to deserialize from
+	 * @param relativeKey
+	 *          the key of the referencing node
+	 * @return the node key
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	public abstract long getKey(DataInput source, long relativeKey)
+			throws IOException;
+
+	/**
+	 * Store the key of the first child of the document root or of a child of an
+	 * index node.
+	 *
+	 * @param sink
+	 *          to serialize to
+	 * @param key
+	 *          the node key to store
+	 * @param relativeKey
+	 *          the key of the referencing node
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	public abstract void putChildKey(DataOutput sink, long key, long relativeKey)
+			throws IOException;
+
+	/**
+	 * Get a node key stored with {@link #putChildKey(DataOutput, long, long)}.
+	 *
+	 * @param source
+	 *          to deserialize from
+	 * @param relativeKey
+	 *          the key of the referencing node
+	 * @return the node key
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	public abstract long getChildKey(DataInput source, long relativeKey)
+			throws IOException;
+
+	/**
+	 * Store the key of an attribute or namespace of an element.
+	 *
+	 * @param sink
+	 *          to serialize to
+	 * @param key
+	 *          the node key to store
+	 * @param relativeKey
+	 *          the key of the element
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	public abstract void putMemberKey(DataOutput sink, long key,
+			long relativeKey) throws IOException;
+
+	/**
+	 * Get a node key stored with {@link #putMemberKey(DataOutput, long, long)}.
+	 *
+	 * @param source
+	 *          to deserialize from
+	 * @param relativeKey
+	 *          the key of the element
+	 * @return the node key
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	public abstract long getMemberKey(DataInput source, long relativeKey)
+			throws IOException;
+
+	/**
+	 * Store the name key of an attribute of an element.
+	 *
+	 * @param sink
+	 *          to serialize to
+	 * @param nameKey
+	 *          the name key, which might be negative
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	public abstract void putNameKey(DataOutput sink, long nameKey)
+			throws IOException;
+
+	/**
+	 * Get a name key stored with {@link #putNameKey(DataOutput, long)}.
+	 *
+	 * @param source
+	 *          to deserialize from
+	 * @return the name key
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	public abstract long getNameKey(DataInput source) throws IOException;
+
+	/**
+	 * Store a count or a length.
+	 *
+	 * @param sink
+	 *          to serialize to
+	 * @param count
+	 *          the non-negative count
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	public abstract void putCount(DataOutput sink, int count)
+			throws IOException;
+
+	/**
+	 * Get a count stored with {@link #putCount(DataOutput, int)}.
+	 *
+	 * @param source
+	 *          to deserialize from
+	 * @return the count
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	public abstract int getCount(DataInput source) throws IOException;
+
+	/**
+	 * Store a non-negative long value.
+	 *
+	 * @param sink
+	 *          to serialize to
+	 * @param value
+	 *          the non-negative value
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	public abstract void putLong(DataOutput sink, long value)
+			throws IOException;
+
+	/**
+	 * Get a long value stored with {@link #putLong(DataOutput, long)}.
+	 *
+	 * @param source
+	 *          to deserialize from
+	 * @return the value
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	public abstract long getLong(DataInput source) throws IOException;
+}
@@ -115,8 +115,8 @@ public enum Versioning {
 			assert latest.getPageKey() == recordPageKey;
 			assert fullDump.getPageKey() == recordPageKey;
 
-			for (final Map.Entry<K, V> entry : latest.entrySet()) {
-				returnVal.setEntry(entry.getKey(), entry.getValue());
+			for (final K recordKey : latest.keySet()) {
+				returnVal.copyEntry(recordKey, latest);
 			}
 			for (final Map.Entry<K, PageReference> entry : latest.referenceEntrySet()) {
 				returnVal.setPageReference(entry.getKey(), entry.getValue());
@@ -124,9 +124,9 @@ public enum Versioning {
 
 			// Skip full dump if not needed (fulldump equals latest page).
 			if (pages.size() == 2) {
-				for (final Entry<K, V> entry : fullDump.entrySet()) {
-					if (returnVal.getValue(entry.getKey()) == null) {
-						returnVal.setEntry(entry.getKey(), entry.getValue());
+				for (final K recordKey : fullDump.keySet()) {
+					if (!returnVal.containsKey(recordKey)) {
+						returnVal.copyEntry(recordKey, fullDump);
 						if (returnVal.size() == Constants.NDP_NODE_COUNT) {
 							break;
 						}
@@ -253,10 +253,9 @@ public enum Versioning {
 				if (filledPage) {
 					break;
 				}
-				for (final Entry<K, V> entry : page.entrySet()) {
-					final K recordKey = entry.getKey();
-					if (returnVal.getValue(recordKey) == null) {
-						returnVal.setEntry(recordKey, entry.getValue());
+				for (final K recordKey : page.keySet()) {
+					if (!returnVal.containsKey(recordKey)) {
+						returnVal.copyEntry(recordKey, page);
 						if (returnVal.size() == Constants.NDP_NODE_COUNT) {
 							filledPage = true;
 							break;
@@ -379,6 +378,11 @@ public enum Versioning {
 			}
 			return retVal;
 		}
+
+		@Override
+		public boolean isChainShareable() {
+			return true;
+		}
 	},
 
 	/**
@@ -406,10 +410,9 @@ public enum Versioning {
 				if (filledPage) {
 					break;
 				}
-				for (final Entry<K, V> entry : page.entrySet()) {
-					final K recordKey = entry.getKey();
-					if (returnVal.getValue(recordKey) == null) {
-						returnVal.setEntry(recordKey, entry.getValue());
+				for (final K recordKey : page.keySet()) {
+					if (!returnVal.containsKey(recordKey)) {
+						returnVal.copyEntry(recordKey, page);
 						if (returnVal.size() == Constants.NDP_NODE_COUNT) {
 							filledPage = true;
 							break;
@@ -527,6 +530,11 @@ public enum Versioning {
 			}
 			return retVal;
 		}
+
+		@Override
+		public boolean isChainShareable() {
+			return true;
+		}
 	};
 
 	/**
@@ -572,4 +580,19 @@ public enum Versioning {
 	public abstract int[] getRevisionRoots(
 			final @Nonnegative int previousRevision,
 			final @Nonnegative int revsToRestore);
+
+	/**
+	 * Determines if a {@link KeyValuePage}, which has been combined from a chain
+	 * of versions, is the same for all revisions, which resolve to the same most
+	 * recent version. This holds, if the combined page consists of the most
+	 * recent version of each record and a chain is only cut at the maximum
+	 * number of versions to restore, such that a page combined from fewer
+	 * versions is also valid for more versions.
+	 * 
+	 * @return {@code true}, if combined pages are shareable, {@code false}
+	 *         otherwise
+	 */
+	public boolean isChainShareable() {
+		return false;
+	}
 }
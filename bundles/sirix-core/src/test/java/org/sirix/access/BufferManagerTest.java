@@ -0,0 +1,320 @@
+/**
+ * Copyright (c) 2011, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.sirix.access;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+
+import org.brackit.xquery.atomic.QNm;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.Holder;
+import org.sirix.TestHelper;
+import org.sirix.TestHelper.PATHS;
+import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.access.conf.SessionConfiguration;
+import org.sirix.api.Database;
+import org.sirix.api.NodeWriteTrx;
+import org.sirix.api.PageReadTrx;
+import org.sirix.api.Session;
+import org.sirix.cache.BufferKey;
+import org.sirix.cache.CacheStatistics;
+import org.sirix.cache.NameCache;
+import org.sirix.cache.RecordPageContainer;
+import org.sirix.exception.SirixException;
+import org.sirix.node.interfaces.Record;
+import org.sirix.node.interfaces.ValueNode;
+import org.sirix.page.IndirectPage;
+import org.sirix.page.PageKind;
+import org.sirix.page.UnorderedKeyValuePage;
+import org.sirix.settings.Constants;
+
+/**
+ * Test the buffer of record pages, which is shared by all reading
+ * transactions.
+ */
+public final class BufferManagerTest {
+
+	private Holder holder;
+
+	@Before
+	public void setUp() throws SirixException {
+		TestHelper.deleteEverything();
+		TestHelper.createTestDocument();
+		holder = Holder.generateSession();
+	}
+
+	@After
+	public void tearDown() throws SirixException {
+		holder.close();
+		TestHelper.closeEverything();
+	}
+
+	@Test
+	public void testSharedPages() throws SirixException {
+		final SessionImpl session = (SessionImpl) holder.getSession();
+		final PageReadTrx firstTrx = session.beginPageReadTrx();
+		final PageReadTrx secondTrx = session.beginPageReadTrx();
+		final RecordPageContainer<UnorderedKeyValuePage> first = firstTrx
+				.getRecordPageContainer(0L, -1, PageKind.RECORDPAGE);
+		final RecordPageContainer<UnorderedKeyValuePage> second = secondTrx
+				.getRecordPageContainer(0L, -1, PageKind.RECORDPAGE);
+		assertSame(first.getComplete(), second.getComplete());
+		assertTrue(session.mBufferManager.getWeight() > 0);
+
+		// Buffered pages outlive the transaction, which has read them.
+		final long key = firstTrx.getRecord(1L, PageKind.RECORDPAGE, -1).get()
+				.getNodeKey();
+		firstTrx.close();
+		assertEquals(key, secondTrx.getRecord(1L, PageKind.RECORDPAGE, -1).get()
+				.getNodeKey());
+		secondTrx.close();
+
+		session.mBufferManager.clear();
+		assertEquals(0, session.mBufferManager.getWeight());
+	}
+
+	@Test
+	public void testSharedVersions() throws SirixException {
+		final SessionImpl session = (SessionImpl) holder.getSession();
+		try (final NodeWriteTrx wtx = session.beginNodeWriteTrx()) {
+			wtx.moveTo(4);
+			wtx.setValue("foo");
+			wtx.commit();
+		}
+		session.mBufferManager.clear();
+		final int revision = session.getMostRecentRevisionNumber();
+		try (final PageReadTrx firstTrx = session.beginPageReadTrx(revision - 1);
+				final PageReadTrx secondTrx = session.beginPageReadTrx(revision)) {
+			final UnorderedKeyValuePage first = firstTrx.<Long, Record, UnorderedKeyValuePage> getRecordPageContainer(
+					0L, -1, PageKind.RECORDPAGE).getComplete();
+			final UnorderedKeyValuePage second = secondTrx.<Long, Record, UnorderedKeyValuePage> getRecordPageContainer(
+					0L, -1, PageKind.RECORDPAGE).getComplete();
+
+			// The most recent version is combined with the buffered reconstruction of
+			// the previous version.
+			assertSame(first.getValue(5L), second.getValue(5L));
+			assertEquals("foo", new String(((ValueNode) second.getValue(4L))
+					.getRawValue(), Constants.DEFAULT_ENCODING));
+			assertEquals(first.size(), second.size());
+		}
+	}
+
+	@Test
+	public void testPinnedPages() throws SirixException {
+		final SessionImpl session = (SessionImpl) holder.getSession();
+		session.mBufferManager.clear();
+		try (final PageReadTrx firstTrx = session.beginPageReadTrx();
+				final PageReadTrx secondTrx = session.beginPageReadTrx()) {
+			firstTrx.getRecordPageContainer(0L, -1, PageKind.RECORDPAGE);
+			final int pinnedPages = session.mBufferManager.getPinnedPageCount();
+			assertTrue(pinnedPages > 0);
+			secondTrx.getRecordPageContainer(0L, -1, PageKind.RECORDPAGE);
+			assertEquals(pinnedPages, session.mBufferManager.getPinnedPageCount());
+			assertSame(firstTrx.getActualRevisionRootPage(),
+					secondTrx.getActualRevisionRootPage());
+			assertSame(firstTrx.getNameCache(), secondTrx.getNameCache());
+		}
+
+		// Pages are unpinned, once they aren't used by the most recent revisions.
+		final BufferManager bufferManager = new BufferManagerImpl(1 << 20, 2);
+		final IndirectPage page = new IndirectPage();
+		assertSame(page, bufferManager.getPinnedPage(0, 1L, () -> page));
+		assertSame(page, bufferManager.getPinnedPage(1, 1L, () -> null));
+		bufferManager.getPinnedPage(2, 2L, () -> new IndirectPage());
+		assertEquals(2, bufferManager.getPinnedPageCount());
+		assertNull(bufferManager.getPinnedPage(0, 1L, () -> page));
+		bufferManager.getPinnedPage(3, 3L, () -> new IndirectPage());
+		assertEquals(2, bufferManager.getPinnedPageCount());
+
+		// Name caches are kept next to the pinned pages.
+		final NameCache nameCache = bufferManager.getNameCache(3, 3L,
+				(key, kind) -> null);
+		assertSame(nameCache, bufferManager.getNameCache(2, 3L,
+				(key, kind) -> null));
+		assertNull(bufferManager.getNameCache(3, 4L, (key, kind) -> null));
+		bufferManager.getPinnedPage(5, 5L, () -> new IndirectPage());
+		assertNull(bufferManager.getNameCache(3, 3L, (key, kind) -> null));
+	}
+
+	@Test
+	public void testReadAhead() throws SirixException, InterruptedException {
+		final SessionImpl session = (SessionImpl) holder.getSession();
+		try (final NodeWriteTrx wtx = session.beginNodeWriteTrx()) {
+			wtx.moveTo(5);
+			for (int i = 0; i < 3 * Constants.NDP_NODE_COUNT; i++) {
+				wtx.insertElementAsRightSibling(new QNm("c"));
+			}
+			wtx.commit();
+		}
+		session.mBufferManager.clear();
+		try (final PageReadTrx trx = session.beginPageReadTrx()) {
+			// The first page isn't read sequentially, thus nothing is read ahead.
+			trx.getRecordPageContainer(1L, -1, PageKind.RECORDPAGE);
+			final long weight = session.mBufferManager.getWeight()
+					+ BufferManagerImpl.weigh(trx.getRecordPageContainer(2L, -1,
+							PageKind.RECORDPAGE));
+
+			// The next page is read ahead in the background, possibly before the
+			// second page has been returned.
+			final long deadline = System.currentTimeMillis() + 10_000;
+			while (session.mBufferManager.getWeight() == weight
+					&& System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+			final long readAheadWeight = session.mBufferManager.getWeight();
+			assertTrue(readAheadWeight > weight);
+			final RecordPageContainer<UnorderedKeyValuePage> container = trx
+					.getRecordPageContainer(3L, -1, PageKind.RECORDPAGE);
+			assertTrue(container.getComplete().size() > 0);
+			assertTrue(session.mBufferManager.getWeight() >= readAheadWeight);
+			assertEquals(3 * Constants.NDP_NODE_COUNT,
+					trx.getRecord(3 * Constants.NDP_NODE_COUNT, PageKind.RECORDPAGE, -1)
+							.get().getNodeKey());
+		}
+	}
+
+	@Test
+	public void testMemoryBudget() throws SirixException {
+		final BufferManager bufferManager = new BufferManagerImpl(1 << 20);
+		assertEquals(1 << 19, bufferManager.getMaxWeight(PageKind.RECORDPAGE));
+		assertEquals(1 << 16, bufferManager.getMaxWeight(PageKind.CASPAGE));
+		assertEquals(1 << 18, bufferManager.getMaxWeight(PageKind.INDIRECTPAGE));
+
+		// Pages are evicted as soon as the share of their kind is exceeded.
+		final SessionImpl session = (SessionImpl) holder.getSession();
+		try (final PageReadTrx trx = session.beginPageReadTrx()) {
+			final RecordPageContainer<UnorderedKeyValuePage> container = trx
+					.getRecordPageContainer(0L, -1, PageKind.RECORDPAGE);
+			final long weight = BufferManagerImpl.weigh(container);
+			assertTrue(weight > container.getComplete().size()
+					* Constants.RECORD_SIZE);
+			final BufferManager small = new BufferManagerImpl(weight * 3);
+			for (long key = 0; key < 10; key++) {
+				small.get(new BufferKey(PageKind.RECORDPAGE, -1, key, 1),
+						() -> container, true);
+			}
+			assertTrue(small.getWeight() <= weight * 3 / 2);
+
+			// Pages are evicted, once the budget shrinks.
+			small.setMemoryBudget(1);
+			assertEquals(0, small.getWeight());
+		}
+	}
+
+	@Test
+	public void testMemoryBudgetOfOpenResources() throws SirixException {
+		final SessionImpl session = (SessionImpl) holder.getSession();
+		final long maxWeight = session.mBufferManager
+				.getMaxWeight(PageKind.RECORDPAGE);
+		final Database database = holder.getDatabase();
+		database.createResource(new ResourceConfiguration.Builder("other",
+				PATHS.PATH1.getConfig()).build());
+		try (final Session otherSession = database
+				.getSession(new SessionConfiguration.Builder("other").build())) {
+			assertEquals(maxWeight / 2,
+					session.mBufferManager.getMaxWeight(PageKind.RECORDPAGE));
+			assertEquals(maxWeight / 2, ((SessionImpl) otherSession).mBufferManager
+					.getMaxWeight(PageKind.RECORDPAGE));
+		}
+		assertEquals(maxWeight,
+				session.mBufferManager.getMaxWeight(PageKind.RECORDPAGE));
+	}
+
+	@Test
+	public void testNoCacheHint() throws SirixException {
+		final SessionImpl session = (SessionImpl) holder.getSession();
+		session.mBufferManager.clear();
+		try (final PageReadTrx trx = session.beginPageReadTrx()) {
+			trx.setNoCacheHint(true);
+			assertTrue(trx.isNoCacheHint());
+			final long weight = session.mBufferManager.getWeight();
+			final RecordPageContainer<UnorderedKeyValuePage> container = trx
+					.getRecordPageContainer(0L, -1, PageKind.RECORDPAGE);
+			assertTrue(container.getComplete().size() > 0);
+			assertEquals(weight, session.mBufferManager.getWeight());
+		}
+		try (final PageReadTrx trx = session.beginPageReadTrx()) {
+			assertFalse(trx.isNoCacheHint());
+			final long weight = session.mBufferManager.getWeight();
+			trx.getRecordPageContainer(0L, -1, PageKind.RECORDPAGE);
+			assertTrue(session.mBufferManager.getWeight() > weight);
+		}
+	}
+
+	@Test
+	public void testCacheStatistics() throws SirixException, JMException {
+		final SessionImpl session = (SessionImpl) holder.getSession();
+		final CacheStatistics statistics = session.getCacheStatistics().get(
+				PageKind.RECORDPAGE);
+		final long requests = statistics.getRequestCount();
+		final long misses = statistics.getMissCount();
+		final long resident = statistics.getResidentBytes();
+		try (final PageReadTrx trx = session.beginPageReadTrx()) {
+			trx.getRecord(1L, PageKind.RECORDPAGE, -1);
+			trx.getRecord(2L, PageKind.RECORDPAGE, -1);
+			assertEquals(requests + 2, statistics.getRequestCount());
+			assertEquals(misses + 1, statistics.getMissCount());
+			assertTrue(statistics.getHitCount() > 0);
+			// The transaction only references the buffered page.
+			assertEquals(resident, statistics.getResidentBytes());
+			assertTrue(statistics.getBufferedBytes() > 0);
+		}
+		assertEquals(resident, statistics.getResidentBytes());
+
+		// Another transaction finds the page in the buffer.
+		final long bufferHits = statistics.getBufferHitCount();
+		try (final PageReadTrx trx = session.beginPageReadTrx()) {
+			trx.getRecord(1L, PageKind.RECORDPAGE, -1);
+			assertEquals(misses + 1, statistics.getMissCount());
+			assertEquals(bufferHits + 1, statistics.getBufferHitCount());
+		}
+
+		// Pages evicted from the buffer are recorded.
+		final long evictions = statistics.getEvictionCount();
+		session.mBufferManager.setMemoryBudget(1);
+		assertTrue(statistics.getEvictionCount() > evictions);
+
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		assertEquals(statistics.getRequestCount(), server.getAttribute(
+				BufferManagerImpl.objectName(session.getResourceConfig().mPath,
+						PageKind.RECORDPAGE), "RequestCount"));
+		holder.close();
+		assertFalse(server.isRegistered(BufferManagerImpl.objectName(
+				session.getResourceConfig().mPath, PageKind.RECORDPAGE)));
+	}
+}
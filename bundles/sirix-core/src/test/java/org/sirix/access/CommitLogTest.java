@@ -0,0 +1,235 @@
+/**
+ * Copyright (c) 2011, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.sirix.access;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.brackit.xquery.atomic.QNm;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.TestHelper;
+import org.sirix.TestHelper.PATHS;
+import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.exception.SirixException;
+import org.sirix.index.IndexDef;
+import org.sirix.index.IndexDefs;
+import org.sirix.index.IndexType;
+import org.sirix.index.Indexes;
+
+/**
+ * Test the {@link CommitLog}.
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public final class CommitLogTest {
+
+	/** Configuration of the resource. */
+	private ResourceConfiguration mResourceConfig;
+
+	@Before
+	public void setUp() throws SirixException {
+		TestHelper.deleteEverything();
+		mResourceConfig = new ResourceConfiguration.Builder(TestHelper.RESOURCE,
+				PATHS.PATH1.getConfig()).build();
+	}
+
+	@After
+	public void tearDown() throws SirixException {
+		TestHelper.deleteEverything();
+	}
+
+	/**
+	 * Test commit states and index definitions after reopening the log.
+	 */
+	@Test
+	public void testReopen() throws SirixException {
+		final Indexes indexes = new Indexes();
+		try (final CommitLog log = new CommitLog(mResourceConfig)) {
+			log.begin(0);
+			assertTrue(log.isCommitting(0));
+			log.indexDefs(0, new Indexes());
+			log.end(0);
+			assertFalse(log.isCommitting(0));
+
+			indexes.add(IndexDefs.createNameIdxDef(0));
+			log.begin(1);
+			log.indexDefs(1, indexes);
+			log.end(1);
+			log.begin(2);
+			log.indexDefs(2, indexes);
+			log.end(2);
+			log.begin(3);
+		}
+
+		try (final CommitLog log = new CommitLog(mResourceConfig)) {
+			assertFalse(log.isCommitting(2));
+			assertTrue(log.isCommitting(3));
+			assertIndexDefs(log, 0, 0);
+			assertIndexDefs(log, 1, 1);
+			assertIndexDefs(log, 2, 1);
+
+			log.abort(3);
+			assertFalse(log.isCommitting(3));
+		}
+
+		try (final CommitLog log = new CommitLog(mResourceConfig)) {
+			assertFalse(log.isCommitting(3));
+			final Indexes read = new Indexes();
+			assertTrue(log.readIndexDefs(2, read));
+			final IndexDef indexDef = read.getIndexDef(0, IndexType.NAME);
+			assertEquals(indexes.getIndexDef(0, IndexType.NAME), indexDef);
+		}
+	}
+
+	/**
+	 * Test that the index definitions of a revision are available, if the
+	 * process crashed after the revision has been written but before its end
+	 * record has been appended.
+	 */
+	@Test
+	public void testIndexDefsWithoutEnd() throws SirixException {
+		final Indexes indexes = new Indexes();
+		indexes.add(IndexDefs.createNameIdxDef(0));
+		try (final CommitLog log = new CommitLog(mResourceConfig)) {
+			log.begin(0);
+			log.indexDefs(0, new Indexes());
+			log.end(0);
+			log.begin(1);
+			log.indexDefs(1, indexes);
+		}
+
+		try (final CommitLog log = new CommitLog(mResourceConfig)) {
+			assertTrue(log.isCommitting(1));
+			assertIndexDefs(log, 0, 0);
+			assertIndexDefs(log, 1, 1);
+		}
+	}
+
+	/**
+	 * Test that an incomplete record at the end of the log is discarded.
+	 */
+	@Test
+	public void testIncompleteRecord() throws SirixException, IOException {
+		try (final CommitLog log = new CommitLog(mResourceConfig)) {
+			log.begin(0);
+			log.indexDefs(0, new Indexes());
+			log.end(0);
+		}
+
+		final File file = new File(new File(mResourceConfig.mPath,
+				ResourceConfiguration.Paths.TRANSACTION_LOG.getFile().getName()),
+				CommitLog.FILE_NAME);
+		final long length = file.length();
+		try (final OutputStream out = new FileOutputStream(file, true)) {
+			// Begin record of revision 1 without the complete revision number.
+			out.write(new byte[] { 0, 0, 0 });
+		}
+
+		try (final CommitLog log = new CommitLog(mResourceConfig)) {
+			assertEquals(length, file.length());
+			assertFalse(log.isCommitting(1));
+			log.begin(1);
+			assertTrue(log.isCommitting(1));
+		}
+	}
+
+	/**
+	 * Test that index definitions are unchanged, if they only have been added in
+	 * another order.
+	 */
+	@Test
+	public void testUnchangedIndexDefs() throws SirixException {
+		// The names have the same hash code, thus they are iterated in the order
+		// they have been added in.
+		final Set<QNm> names = new LinkedHashSet<>();
+		for (final String name : new String[] { "AaAa", "AaBB", "BBAa", "BBBB" }) {
+			names.add(new QNm(name));
+		}
+		final Set<QNm> reversed = new LinkedHashSet<>();
+		for (final String name : new String[] { "BBBB", "BBAa", "AaBB", "AaAa" }) {
+			reversed.add(new QNm(name));
+		}
+		final Indexes indexes = new Indexes();
+		indexes.add(IndexDefs.createSelectiveNameIdxDef(names, 0));
+		indexes.add(IndexDefs.createNameIdxDef(1));
+		final Indexes reordered = new Indexes();
+		reordered.add(IndexDefs.createNameIdxDef(1));
+		reordered.add(IndexDefs.createSelectiveNameIdxDef(reversed, 0));
+
+		final File file = new File(new File(mResourceConfig.mPath,
+				ResourceConfiguration.Paths.TRANSACTION_LOG.getFile().getName()),
+				CommitLog.FILE_NAME);
+		try (final CommitLog log = new CommitLog(mResourceConfig)) {
+			log.begin(0);
+			log.indexDefs(0, indexes);
+			log.end(0);
+			final long length = file.length();
+			log.begin(1);
+			log.indexDefs(1, reordered);
+			log.end(1);
+
+			// Begin record and end record without index definitions.
+			assertEquals(length + 5 + 9, file.length());
+			final Indexes read = new Indexes();
+			assertTrue(log.readIndexDefs(1, read));
+			assertEquals(
+					new LinkedHashSet<>(Arrays.asList(new QNm("AaAa"), new QNm("AaBB"),
+							new QNm("BBAa"), new QNm("BBBB"))),
+					read.getIndexDef(0, IndexType.NAME).getIncluded());
+		}
+	}
+
+	/**
+	 * Assert the number of index definitions of a revision.
+	 * 
+	 * @param log
+	 *          the commit log
+	 * @param revision
+	 *          the revision
+	 * @param expected
+	 *          expected number of index definitions
+	 */
+	private static void assertIndexDefs(final CommitLog log, final int revision,
+			final int expected) {
+		final Indexes indexes = new Indexes();
+		assertTrue(log.readIndexDefs(revision, indexes));
+		assertEquals(expected, indexes.getIndexDefs().size());
+	}
+}
@@ -0,0 +1,220 @@
+/**
+ * Copyright (c) 2011, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.sirix.access;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.TestHelper;
+import org.sirix.TestHelper.PATHS;
+import org.sirix.api.PageReadTrx;
+import org.sirix.exception.SirixException;
+import org.sirix.exception.SirixIOException;
+import org.sirix.io.Journal;
+import org.sirix.io.Writer;
+import org.sirix.page.PageReference;
+import org.sirix.page.interfaces.Page;
+
+/**
+ * Test the {@link GroupCommitCoordinator}.
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public final class GroupCommitCoordinatorTest {
+
+	/** Number of concurrent committers. */
+	private static final int COMMITTERS = 8;
+
+	/** Commits per committer. */
+	private static final int COMMITS = 20;
+
+	/** The journal of the database. */
+	private Journal mJournal;
+
+	@Before
+	public void setUp() throws SirixException {
+		TestHelper.deleteEverything();
+		PATHS.PATH1.getFile().mkdirs();
+		mJournal = new Journal(PATHS.PATH1.getFile(),
+				Journal.DEFAULT_CHECKPOINT_SIZE);
+		mJournal.open();
+	}
+
+	@After
+	public void tearDown() throws SirixException {
+		mJournal.close();
+		TestHelper.deleteEverything();
+	}
+
+	/**
+	 * Concurrent commits of different writers have to share forces of the
+	 * journal.
+	 */
+	@Test
+	public void testBatching() throws Exception {
+		final GroupCommitCoordinator coordinator = new GroupCommitCoordinator(
+				mJournal, TimeUnit.MILLISECONDS.toNanos(5));
+		final ExecutorService executor = Executors
+				.newFixedThreadPool(COMMITTERS);
+		final List<CountingWriter> writers = new ArrayList<>();
+		try {
+			final List<Future<Void>> futures = new ArrayList<>();
+			for (int i = 0; i < COMMITTERS; i++) {
+				final CountingWriter writer = new CountingWriter(true);
+				writers.add(writer);
+				futures.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws SirixIOException {
+						for (int j = 0; j < COMMITS; j++) {
+							final long start = coordinator.begin();
+							try {
+								coordinator.commit(writer, new PageReference());
+							} finally {
+								coordinator.end(start);
+							}
+						}
+						return null;
+					}
+				}));
+			}
+			for (final Future<Void> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		final CommitStatistics statistics = coordinator.getStatistics();
+		assertEquals(COMMITTERS * COMMITS, statistics.getCommits());
+		assertTrue(statistics.getBatches() < COMMITTERS * COMMITS);
+		assertTrue(statistics.getAverageBatchSize() > 1);
+		assertTrue(statistics.getMaxBatchSize() <= COMMITTERS);
+		for (final CountingWriter writer : writers) {
+			assertEquals(COMMITS, writer.mJournaled.get());
+			assertEquals(0, writer.mSyncs.get());
+		}
+	}
+
+	/**
+	 * Writers, which don't use the journal, have to sync on their own.
+	 */
+	@Test
+	public void testWithoutJournal() throws SirixIOException {
+		final GroupCommitCoordinator coordinator = new GroupCommitCoordinator(
+				mJournal, 0);
+		final CountingWriter writer = new CountingWriter(false);
+		coordinator.commit(writer, new PageReference());
+		assertEquals(1, writer.mSyncs.get());
+		assertEquals(0, coordinator.getStatistics().getBatches());
+	}
+
+	/**
+	 * A failing force of the journal has to be reported to the committer.
+	 */
+	@Test
+	public void testFailure() throws SirixIOException {
+		final GroupCommitCoordinator coordinator = new GroupCommitCoordinator(
+				mJournal, 0);
+		mJournal.close();
+		try {
+			coordinator.commit(new CountingWriter(true), new PageReference());
+			fail("Exception expected!");
+		} catch (final SirixIOException e) {
+			// Expected.
+		}
+		assertEquals(1, coordinator.getStatistics().getBatches());
+	}
+
+	/** Writer, which counts the journaled commits and the syncs. */
+	private static final class CountingWriter implements Writer {
+		/** Number of commits appended to the journal. */
+		private final AtomicInteger mJournaled = new AtomicInteger();
+
+		/** Number of syncs. */
+		private final AtomicInteger mSyncs = new AtomicInteger();
+
+		/** Determines if the writer uses the journal. */
+		private final boolean mUsesJournal;
+
+		private CountingWriter(final boolean usesJournal) {
+			mUsesJournal = usesJournal;
+		}
+
+		@Override
+		public boolean writeUberPageReference(final PageReference pageReference,
+				final Journal journal) {
+			if (mUsesJournal) {
+				mJournaled.incrementAndGet();
+			}
+			return mUsesJournal;
+		}
+
+		@Override
+		public void sync() {
+			mSyncs.incrementAndGet();
+		}
+
+		@Override
+		public void write(final PageReference pageReference) {
+		}
+
+		@Override
+		public void writeUberPageReference(final PageReference pageReference) {
+		}
+
+		@Override
+		public PageReference readUberPageReference() {
+			return null;
+		}
+
+		@Override
+		public Page read(final long key, final @Nullable PageReadTrx pageReadTrx) {
+			return null;
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+}
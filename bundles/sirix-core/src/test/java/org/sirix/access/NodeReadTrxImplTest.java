@@ -29,6 +29,8 @@ package org.sirix.access;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import org.junit.After;
 import org.junit.Before;
@@ -133,4 +135,42 @@ public final class NodeReadTrxImplTest {
 		holder.getRtx().close();
 	}
 
+	@Test
+	public void testTryMoveTo() throws SirixException {
+		final NodeReadTrx rtx = holder.getRtx();
+		assertTrue(rtx.tryMoveTo(0L));
+		assertFalse(rtx.tryMoveToParent());
+		assertTrue(rtx.tryMoveToFirstChild());
+		assertEquals(1L, rtx.getNodeKey());
+
+		assertFalse(rtx.tryMoveTo(Long.MAX_VALUE));
+		assertFalse(rtx.tryMoveTo(Long.MIN_VALUE));
+		assertFalse(rtx.tryMoveToRightSibling());
+		assertEquals(1L, rtx.getNodeKey());
+
+		assertTrue(rtx.tryMoveToAttribute(0));
+		assertEquals(Kind.ATTRIBUTE, rtx.getKind());
+		assertFalse(rtx.tryMoveToFirstChild());
+		assertFalse(rtx.tryMoveToAttribute(0));
+		assertTrue(rtx.tryMoveToParent());
+		assertTrue(rtx.tryMoveToNamespace(0));
+		assertEquals(Kind.NAMESPACE, rtx.getKind());
+		assertTrue(rtx.tryMoveToParent());
+		assertFalse(rtx.tryMoveToNamespace(1));
+		assertEquals(1L, rtx.getNodeKey());
+
+		assertTrue(rtx.tryMoveToFirstChild());
+		assertEquals(4L, rtx.getNodeKey());
+		assertTrue(rtx.tryMoveToRightSibling());
+		assertEquals(5L, rtx.getNodeKey());
+		assertTrue(rtx.tryMoveToLeftSibling());
+		assertFalse(rtx.tryMoveToLeftSibling());
+		assertEquals(4L, rtx.getNodeKey());
+
+		// The move API shares a single instance.
+		assertSame(rtx.moveToParent(), rtx.moveToFirstChild());
+
+		rtx.close();
+	}
+
 }
@@ -28,6 +28,7 @@
 package org.sirix.access;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
@@ -39,12 +40,14 @@ import org.junit.Test;
 import org.sirix.Holder;
 import org.sirix.TestHelper;
 import org.sirix.TestHelper.PATHS;
+import org.sirix.access.conf.ResourceConfiguration;
 import org.sirix.access.conf.SessionConfiguration;
 import org.sirix.api.Database;
 import org.sirix.api.NodeReadTrx;
 import org.sirix.api.NodeWriteTrx;
 import org.sirix.api.Session;
 import org.sirix.exception.SirixException;
+import org.sirix.io.DurabilityMode;
 import org.sirix.node.Kind;
 import org.sirix.settings.Constants;
 import org.sirix.utils.DocumentCreater;
@@ -253,4 +256,38 @@ public class SessionTest {
 		wtx.commit();
 		holder.getSession().beginNodeReadTrx();
 	}
+
+	@Test
+	public void testRecreatedResource() throws SirixException {
+		final String resource = "recreated";
+		Database database = holder.getDatabase();
+		database.createResource(new ResourceConfiguration.Builder(resource,
+				database.getDatabaseConfig()).build());
+		Session session = database.getSession(new SessionConfiguration.Builder(
+				resource).build());
+		final NodeWriteTrx wtx = session.beginNodeWriteTrx();
+		DocumentCreater.create(wtx);
+		wtx.commit();
+		wtx.close();
+		session.close();
+
+		// Commits of the recreated resource aren't journaled, thus the data file
+		// is left as is, unless a commit of the truncated resource is replayed.
+		database.truncateResource(resource);
+		database.createResource(new ResourceConfiguration.Builder(resource,
+				database.getDatabaseConfig()).durability(DurabilityMode.NONE).build());
+		database.close();
+
+		database = Databases.openDatabase(PATHS.PATH1.getFile());
+		try {
+			session = database.getSession(new SessionConfiguration.Builder(resource)
+					.build());
+			final NodeReadTrx rtx = session.beginNodeReadTrx();
+			assertEquals(0, rtx.getRevisionNumber());
+			assertFalse(rtx.moveToFirstChild().hasMoved());
+			rtx.close();
+		} finally {
+			database.close();
+		}
+	}
 }
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2011, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.sirix.access;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.TestHelper;
+import org.sirix.TestHelper.PATHS;
+import org.sirix.access.conf.SessionConfiguration;
+import org.sirix.api.Database;
+import org.sirix.api.NodeReadTrx;
+import org.sirix.api.Session;
+import org.sirix.exception.SirixException;
+
+/**
+ * Test the warm-up of the buffer of a resource.
+ */
+public final class WarmUpTest {
+
+	@Before
+	public void setUp() throws SirixException {
+		TestHelper.deleteEverything();
+		TestHelper.createTestDocument();
+	}
+
+	@After
+	public void tearDown() throws SirixException {
+		TestHelper.closeEverything();
+	}
+
+	@Test
+	public void testWarmUp() throws SirixException, InterruptedException {
+		final Database database = TestHelper.getDatabase(PATHS.PATH1.getFile());
+		final SessionConfiguration config = new SessionConfiguration.Builder(
+				TestHelper.RESOURCE).warmUpLimit(1 << 20).build();
+		Session session = database.getSession(config);
+		final BufferManager bufferManager = ((SessionImpl) session).mBufferManager;
+		try (final NodeReadTrx rtx = session.beginNodeReadTrx()) {
+			rtx.moveTo(5);
+		}
+		assertTrue(bufferManager.getWeight() > 0);
+		final File resource = session.getResourceConfig().mPath;
+		session.close();
+		assertTrue(new File(resource, WarmUp.FILE_NAME).exists());
+
+		// The recorded pages are preloaded in the background.
+		session = database.getSession(config);
+		final BufferManager warmBufferManager = ((SessionImpl) session).mBufferManager;
+		assertNotSame(bufferManager, warmBufferManager);
+		final long deadline = System.currentTimeMillis() + 10_000;
+		while (warmBufferManager.getWeight() == 0
+				&& System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertTrue(warmBufferManager.getWeight() > 0);
+		session.close();
+	}
+}
@@ -42,10 +42,11 @@ public class DatabaseConfigurationTest {
 	@Test
 	public void testDeSerialize() throws SirixIOException {
 		DatabaseConfiguration conf = new DatabaseConfiguration(
-				TestHelper.PATHS.PATH1.getFile());
+				TestHelper.PATHS.PATH1.getFile()).setMemoryBudget(1 << 20);
 		assertTrue(Databases.createDatabase(conf));
 		DatabaseConfiguration serializedConf = DatabaseConfiguration
 				.deserialize(TestHelper.PATHS.PATH1.getFile());
 		assertEquals(conf.toString(), serializedConf.toString());
+		assertEquals(conf.getMemoryBudget(), serializedConf.getMemoryBudget());
 	}
 }
@@ -1,5 +1,125 @@
 package org.sirix.access.conf;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.TestHelper;
+import org.sirix.TestHelper.PATHS;
+import org.sirix.api.Database;
+import org.sirix.api.NodeReadTrx;
+import org.sirix.api.NodeWriteTrx;
+import org.sirix.api.Session;
+import org.sirix.exception.SirixException;
+import org.sirix.exception.SirixIOException;
+import org.sirix.io.bytepipe.ByteHandlePipeline;
+import org.sirix.io.bytepipe.LZ4Compressor;
+import org.sirix.io.bytepipe.ZstdCompressor;
+import org.sirix.page.PageKind;
+import org.sirix.utils.DocumentCreater;
+
 public class ResourceConfigurationTest {
 
+	/** Name of the resource with byte handlers for specific page kinds. */
+	private static final String PAGE_KIND_RESOURCE = "pagekinds";
+
+	/** Name of the resource, whose configuration lacks the storage format. */
+	private static final String UNVERSIONED_RESOURCE = "unversioned";
+
+	/** Raw content dictionary of the name pages. */
+	private static final byte[] DICTIONARY = "http://www.w3.org/XML/1998/namespace"
+			.getBytes(StandardCharsets.UTF_8);
+
+	@Before
+	public void setUp() throws SirixException {
+		TestHelper.deleteEverything();
+	}
+
+	@After
+	public void tearDown() throws SirixException {
+		TestHelper.deleteEverything();
+	}
+
+	/**
+	 * Test byte handler pipelines for specific page kinds, which are persisted
+	 * with the configuration and used to store the pages.
+	 */
+	@Test
+	public void testPageKindByteHandlers() throws SirixException {
+		final Database database = TestHelper.getDatabase(PATHS.PATH1.getFile());
+		final ResourceConfiguration config = new ResourceConfiguration.Builder(
+				PAGE_KIND_RESOURCE, PATHS.PATH1.getConfig())
+				.byteHandlerPipeline(PageKind.RECORDPAGE,
+						new ByteHandlePipeline(new LZ4Compressor()))
+				.byteHandlerPipeline(PageKind.INDIRECTPAGE, new ByteHandlePipeline())
+				.byteHandlerPipeline(PageKind.NAMEPAGE,
+						new ByteHandlePipeline(new ZstdCompressor(5, DICTIONARY)))
+				.offHeapCacheSize(1 << 20).build();
+		database.createResource(config);
+
+		final ResourceConfiguration deserialized = ResourceConfiguration
+				.deserialize(config.getResource());
+		assertEquals(3, deserialized.mPageKindByteHandlers.size());
+		assertTrue(deserialized.mPageKindByteHandlers.get(PageKind.RECORDPAGE)
+				.getComponents().get(0) instanceof LZ4Compressor);
+		assertTrue(deserialized.mPageKindByteHandlers.get(PageKind.INDIRECTPAGE)
+				.getComponents().isEmpty());
+		final ZstdCompressor zstd = (ZstdCompressor) deserialized.mPageKindByteHandlers
+				.get(PageKind.NAMEPAGE).getComponents().get(0);
+		assertEquals(5, zstd.getLevel());
+		assertArrayEquals(DICTIONARY, zstd.getDictionary());
+		assertEquals(1 << 20, deserialized.mOffHeapCacheSize);
+
+		for (final String resource : new String[] { TestHelper.RESOURCE,
+				PAGE_KIND_RESOURCE }) {
+			try (final Session session = database
+					.getSession(new SessionConfiguration.Builder(resource).build());
+					final NodeWriteTrx wtx = session.beginNodeWriteTrx()) {
+				DocumentCreater.create(wtx);
+				wtx.commit();
+			}
+		}
+
+		// Pages are read back with a new session.
+		final long[] descendants = new long[2];
+		int i = 0;
+		for (final String resource : new String[] { TestHelper.RESOURCE,
+				PAGE_KIND_RESOURCE }) {
+			try (final Session session = database
+					.getSession(new SessionConfiguration.Builder(resource).build());
+					final NodeReadTrx rtx = session.beginNodeReadTrx()) {
+				rtx.moveToDocumentRoot();
+				descendants[i++] = rtx.getDescendantCount();
+			}
+		}
+		assertTrue(descendants[0] > 0);
+		assertEquals(descendants[0], descendants[1]);
+	}
+
+	/**
+	 * Test that a configuration, which has been written before the storage
+	 * format has been versioned, is rejected.
+	 */
+	@Test(expected = SirixIOException.class)
+	public void testUnversionedFormat() throws SirixException, IOException {
+		final ResourceConfiguration config = new ResourceConfiguration.Builder(
+				UNVERSIONED_RESOURCE, PATHS.PATH1.getConfig()).build();
+		TestHelper.getDatabase(PATHS.PATH1.getFile()).createResource(config);
+
+		// Strip the storage format and all following fields.
+		final Path file = config.getConfigFile().toPath();
+		final String json = new String(Files.readAllBytes(file),
+				StandardCharsets.UTF_8);
+		Files.write(file, (json.substring(0, json.indexOf(",\"storageFormat\""))
+				+ "}").getBytes(StandardCharsets.UTF_8));
+		ResourceConfiguration.deserialize(config.getResource());
+	}
 }
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2011, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.sirix.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.brackit.xquery.atomic.QNm;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.node.Kind;
+
+/**
+ * Test the {@link NameCache}.
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public class NameCacheTest {
+
+	/** Names of the keys. */
+	private Map<Integer, String> mNames;
+
+	/** Number of resolved name keys. */
+	private int mResolved;
+
+	/** The cache to test. */
+	private NameCache mCache;
+
+	@Before
+	public void setUp() {
+		mNames = new HashMap<>();
+		mNames.put(1, "ns");
+		mNames.put(2, "other");
+		mNames.put(3, "p");
+		mNames.put(4, "a");
+		mResolved = 0;
+		mCache = new NameCache((key, kind) -> {
+			mResolved++;
+			return mNames.get(key);
+		});
+	}
+
+	@Test
+	public void testShared() {
+		final QNm name = mCache.getName(1, 3, 4, Kind.ELEMENT);
+		assertEquals(new QNm("ns", "p", "a"), name);
+		assertEquals(3, mResolved);
+		assertSame(name, mCache.getName(1, 3, 4, Kind.ELEMENT));
+		assertEquals(3, mResolved);
+		assertEquals(1, mCache.size());
+	}
+
+	@Test
+	public void testDistinct() {
+		final QNm name = mCache.getName(1, -1, 4, Kind.ELEMENT);
+		assertEquals(new QNm("ns", "", "a"), name);
+		assertEquals(2, mResolved);
+
+		// Same prefix and local name, but another namespace URI or kind.
+		final QNm otherURI = mCache.getName(2, -1, 4, Kind.ELEMENT);
+		assertEquals(new QNm("other", "", "a"), otherURI);
+		final QNm attribute = mCache.getName(1, -1, 4, Kind.ATTRIBUTE);
+		assertNotSame(name, attribute);
+		assertEquals(3, mCache.size());
+
+		assertSame(name, mCache.getName(1, -1, 4, Kind.ELEMENT));
+		assertSame(otherURI, mCache.getName(2, -1, 4, Kind.ELEMENT));
+		assertSame(attribute, mCache.getName(1, -1, 4, Kind.ATTRIBUTE));
+		assertEquals(6, mResolved);
+	}
+}
@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) 2011, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.sirix.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+import org.sirix.io.bytepipe.ByteBufferPool;
+
+/**
+ * Test the {@link OffHeapPageCache}.
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public class OffHeapPageCacheTest {
+
+	/** Pool of buffers. */
+	private final ByteBufferPool mPool = new ByteBufferPool();
+
+	/**
+	 * Create the bytes of a page.
+	 * 
+	 * @param key
+	 *          the key, which determines the content
+	 * @param length
+	 *          the number of bytes
+	 * @return the flipped bytes
+	 */
+	private static ByteBuffer page(final long key, final int length) {
+		final ByteBuffer page = ByteBuffer.allocate(length);
+		for (int i = 0; i < length; i++) {
+			page.put((byte) (key + i));
+		}
+		page.flip();
+		return page;
+	}
+
+	@Test
+	public void testPutAndGet() {
+		final OffHeapPageCache cache = new OffHeapPageCache(1 << 20);
+		final ByteBuffer page = page(1, 1000);
+		assertTrue(cache.put(1, page));
+		assertEquals(0, page.position());
+		assertNull(cache.get(2, mPool));
+
+		final ByteBuffer cached = cache.get(1, mPool);
+		assertNotNull(cached);
+		assertEquals(page, cached);
+		mPool.release(cached);
+		assertEquals(1, cache.size());
+		assertEquals(1000, cache.getSize());
+
+		cache.remove(1);
+		assertNull(cache.get(1, mPool));
+		assertEquals(0, cache.getSize());
+
+		// Pages larger than a chunk are not cached.
+		assertFalse(new OffHeapPageCache(1 << 12).put(3, page(3, 1 << 13)));
+	}
+
+	@Test
+	public void testEviction() {
+		final OffHeapPageCache cache = new OffHeapPageCache(1 << 16);
+		for (long key = 0; key < 1000; key++) {
+			assertTrue(cache.put(key, page(key, 1000)));
+			assertTrue(cache.getSize() <= cache.getCapacity());
+		}
+		// Only the most recently used pages are cached.
+		assertEquals(64, cache.size());
+		assertNull(cache.get(0, mPool));
+		final ByteBuffer cached = cache.get(999, mPool);
+		assertEquals(page(999, 1000), cached);
+		mPool.release(cached);
+
+		// Blocks of larger pages are split for smaller pages.
+		final OffHeapPageCache split = new OffHeapPageCache(1 << 12);
+		assertTrue(split.put(0, page(0, 1 << 12)));
+		for (long key = 1; key <= 16; key++) {
+			assertTrue(split.put(key, page(key, 1 << 8)));
+		}
+		assertNull(split.get(0, mPool));
+		assertEquals(16, split.size());
+
+		split.clear();
+		assertEquals(0, split.size());
+		assertEquals(0, split.getSize());
+		assertTrue(split.put(0, page(0, 1 << 12)));
+	}
+
+	@Test
+	public void testRemainingCapacity() {
+		// Chunks of 8 KB, 4 KB and 256 bytes.
+		final OffHeapPageCache cache = new OffHeapPageCache((1 << 13) + (1 << 12)
+				+ (1 << 8));
+		for (long key = 0; key < 3; key++) {
+			assertTrue(cache.put(key, page(key, 1 << 12)));
+		}
+		assertTrue(cache.put(3, page(3, 1 << 8)));
+		assertEquals(4, cache.size());
+		assertEquals(cache.getCapacity(), cache.getSize());
+		for (long key = 0; key < 3; key++) {
+			final ByteBuffer cached = cache.get(key, mPool);
+			assertEquals(page(key, 1 << 12), cached);
+			mPool.release(cached);
+		}
+	}
+
+	@Test
+	public void testMergeFreeBlocks() {
+		final OffHeapPageCache cache = new OffHeapPageCache(1 << 12);
+		for (long key = 0; key < 16; key++) {
+			assertTrue(cache.put(key, page(key, 1 << 8)));
+		}
+
+		// The blocks of the first half are merged into a block of 2 KB.
+		for (long key = 0; key < 8; key++) {
+			cache.remove(key);
+		}
+		assertTrue(cache.put(16, page(16, 1 << 11)));
+		assertEquals(9, cache.size());
+
+		// All blocks are merged into a block of 4 KB.
+		for (long key = 8; key <= 16; key++) {
+			cache.remove(key);
+		}
+		assertEquals(0, cache.size());
+		assertTrue(cache.put(17, page(17, 1 << 12)));
+		final ByteBuffer cached = cache.get(17, mPool);
+		assertEquals(page(17, 1 << 12), cached);
+		mPool.release(cached);
+	}
+}
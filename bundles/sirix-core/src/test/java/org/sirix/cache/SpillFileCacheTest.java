@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2011, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.sirix.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.TestHelper;
+import org.sirix.exception.SirixException;
+
+/**
+ * Test the {@link SpillFileCache}.
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public class SpillFileCacheTest {
+
+	/** The cache to test. */
+	private SpillFileCache<Long, Long> mCache;
+
+	@Before
+	public void setUp() throws SirixException {
+		TestHelper.deleteEverything();
+		mCache = newCache();
+	}
+
+	@After
+	public void tearDown() throws SirixException {
+		mCache.close();
+		TestHelper.deleteEverything();
+	}
+
+	/**
+	 * Open the log of revision 0.
+	 * 
+	 * @return the log
+	 * @throws SirixException
+	 *           if opening the log fails
+	 */
+	private static SpillFileCache<Long, Long> newCache() throws SirixException {
+		return new SpillFileCache<>(TestHelper.PATHS.PATH1.getFile(), 0, "log",
+				SpillBinding.LONG, SpillBinding.LONG);
+	}
+
+	@Test
+	public void testPutGetRemove() {
+		for (long i = 0; i < 100; i++) {
+			mCache.put(i, i * 2);
+		}
+		mCache.put(5L, 42L);
+		mCache.remove(7L);
+		mCache.remove(1000L);
+		assertEquals(99, mCache.size());
+		assertEquals(Long.valueOf(42), mCache.get(5L));
+		assertEquals(Long.valueOf(198), mCache.get(99L));
+		assertNull(mCache.get(7L));
+		assertNull(mCache.get(1000L));
+
+		mCache.clear();
+		assertEquals(0, mCache.size());
+		assertNull(mCache.get(5L));
+		mCache.put(5L, 1L);
+		assertEquals(Long.valueOf(1), mCache.get(5L));
+	}
+
+	@Test
+	public void testSharedLog() throws SirixException, IOException {
+		mCache.put(1L, 1L);
+		mCache.put(2L, 2L);
+		mCache.remove(2L);
+		final SpillFileCache<Long, Long> other = newCache();
+		try {
+			assertEquals(1, other.size());
+			assertEquals(Long.valueOf(1), other.get(1L));
+			assertNull(other.get(2L));
+
+			// Appended after the log has been opened.
+			mCache.put(3L, 3L);
+			assertEquals(Long.valueOf(3), other.get(3L));
+		} finally {
+			other.close();
+		}
+
+		// Torn record at the end of the log.
+		final File file = new File(mCache.mPlace, SpillFileCache.FILE_NAME);
+		try (final RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.seek(raf.length());
+			raf.writeInt(64);
+			raf.writeInt(0);
+			raf.writeByte(0);
+		}
+		final SpillFileCache<Long, Long> reopened = newCache();
+		try {
+			assertEquals(2, reopened.size());
+			assertEquals(Long.valueOf(3), reopened.get(3L));
+		} finally {
+			reopened.close();
+		}
+	}
+
+	@Test
+	public void testVerifiedReads() throws SirixException, IOException {
+		mCache.put(1L, 1L);
+		mCache.put(2L, 2L);
+
+		// Rewritten by another instance with records of the same size, such that
+		// the offsets of the entries are swapped.
+		final SpillFileCache<Long, Long> other = newCache();
+		try {
+			other.clear();
+			other.put(2L, 20L);
+			other.put(1L, 10L);
+		} finally {
+			other.close();
+		}
+		assertEquals(Long.valueOf(10), mCache.get(1L));
+		assertEquals(Long.valueOf(20), mCache.get(2L));
+
+		// The checksum of the last record doesn't match anymore.
+		final File file = new File(mCache.mPlace, SpillFileCache.FILE_NAME);
+		try (final RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.seek(raf.length() - 1);
+			final byte last = raf.readByte();
+			raf.seek(raf.length() - 1);
+			raf.writeByte(last ^ 1);
+		}
+		assertNull(mCache.get(1L));
+		assertEquals(Long.valueOf(20), mCache.get(2L));
+	}
+}
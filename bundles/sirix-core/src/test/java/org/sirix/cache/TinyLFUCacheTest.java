@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2011, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.sirix.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Test the {@link TinyLFUCache}.
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public class TinyLFUCacheTest {
+
+	/** Number of frequently used entries. */
+	private static final int HOT_ENTRIES = 50;
+
+	/** Maximum number of entries. */
+	private static final int MAX_SIZE = 200;
+
+	@Test
+	public void testScanResistance() {
+		final TinyLFUCache<Long, String> cache = new TinyLFUCache<>(MAX_SIZE);
+		for (int i = 0; i < 5; i++) {
+			for (long key = 0; key < HOT_ENTRIES; key++) {
+				if (cache.get(key) == null) {
+					cache.put(key, String.valueOf(key));
+				}
+			}
+		}
+
+		// Scan many entries, which are used only once, while the frequently used
+		// entries are still in use.
+		for (long key = HOT_ENTRIES; key < 100 * MAX_SIZE; key++) {
+			assertNull(cache.get(key));
+			cache.put(key, String.valueOf(key));
+			if (key % 10 == 0) {
+				cache.get(key / 10 % HOT_ENTRIES);
+			}
+		}
+
+		for (long key = 0; key < HOT_ENTRIES; key++) {
+			assertEquals(String.valueOf(key), cache.getQuietly(key));
+		}
+		assertTrue(cache.size() <= MAX_SIZE);
+	}
+
+	@Test
+	public void testWeight() {
+		final TinyLFUCache<Long, String> cache = new TinyLFUCache<>(1000, 100,
+				(final Long key, final String value) -> value.length());
+		for (long key = 0; key < 1000; key++) {
+			cache.put(key, "0123456789");
+			assertTrue(cache.getWeight() <= 1000);
+		}
+		assertEquals(10 * cache.size(), cache.getWeight());
+
+		// An entry, which is heavier than the cache, isn't cached.
+		final StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < 2000; i++) {
+			builder.append('0');
+		}
+		cache.put(-1L, builder.toString());
+		assertNull(cache.getQuietly(-1L));
+		assertTrue(cache.getWeight() <= 1000);
+
+		cache.put(-2L, "0");
+		assertNotNull(cache.get(-2L));
+		cache.remove(-2L);
+		assertNull(cache.get(-2L));
+		cache.clear();
+		assertEquals(0, cache.getWeight());
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testMaxWeight() {
+		final TinyLFUCache<Long, String> cache = new TinyLFUCache<>(MAX_SIZE);
+		for (long key = 0; key < MAX_SIZE; key++) {
+			cache.put(key, String.valueOf(key));
+			cache.get(key);
+		}
+		cache.setMaxWeight(HOT_ENTRIES);
+		assertTrue(cache.size() <= HOT_ENTRIES);
+		for (long key = MAX_SIZE; key < 2 * MAX_SIZE; key++) {
+			cache.put(key, String.valueOf(key));
+			assertTrue(cache.size() <= HOT_ENTRIES);
+		}
+		cache.setMaxWeight(MAX_SIZE);
+		for (long key = 0; key < MAX_SIZE; key++) {
+			cache.put(key, String.valueOf(key));
+		}
+		assertTrue(cache.size() > HOT_ENTRIES);
+	}
+
+	@Test
+	public void testEvictionListener() {
+		final List<Long> evicted = new ArrayList<>();
+		final TinyLFUCache<Long, String> cache = new TinyLFUCache<>(MAX_SIZE,
+				MAX_SIZE, (final Long key, final String value) -> 1,
+				(final Long key, final String value) -> evicted.add(key));
+		for (long key = 0; key < 2 * MAX_SIZE; key++) {
+			cache.put(key, String.valueOf(key));
+		}
+		assertEquals(2 * MAX_SIZE, cache.size() + evicted.size());
+		for (final Long key : evicted) {
+			assertNull(cache.getQuietly(key));
+		}
+
+		// Removed entries aren't evicted.
+		final int evictions = evicted.size();
+		cache.remove(2L * MAX_SIZE - 1);
+		cache.clear();
+		assertEquals(evictions, evicted.size());
+	}
+
+	@Test
+	public void testHottest() {
+		final TinyLFUCache<Long, String> cache = new TinyLFUCache<>(MAX_SIZE);
+		for (long key = 0; key < HOT_ENTRIES; key++) {
+			cache.put(key, String.valueOf(key));
+		}
+		for (int i = 0; i < 5; i++) {
+			cache.get(7L);
+		}
+		cache.get(3L);
+		cache.get(3L);
+		final ImmutableMap<Long, String> hottest = cache.getHottest(2);
+		assertEquals(ImmutableList.of(7L, 3L), hottest.keySet().asList());
+		assertEquals(HOT_ENTRIES, cache.getHottest(MAX_SIZE).size());
+	}
+}
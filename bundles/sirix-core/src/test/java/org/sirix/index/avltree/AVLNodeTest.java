@@ -0,0 +1,188 @@
+package org.sirix.index.avltree;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.brackit.xquery.atomic.Atomic;
+import org.brackit.xquery.atomic.QNm;
+import org.brackit.xquery.atomic.Str;
+import org.brackit.xquery.xdm.Type;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.TestHelper;
+import org.sirix.TestHelper.PATHS;
+import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.access.conf.SessionConfiguration;
+import org.sirix.api.Database;
+import org.sirix.api.PageReadTrx;
+import org.sirix.api.Session;
+import org.sirix.exception.SirixException;
+import org.sirix.index.avltree.keyvalue.CASValue;
+import org.sirix.index.avltree.keyvalue.NodeReferences;
+import org.sirix.node.SirixDeweyID;
+import org.sirix.node.delegates.NodeDelegate;
+import org.sirix.node.interfaces.Record;
+import org.sirix.settings.Fixed;
+import org.sirix.settings.StorageFormat;
+
+/**
+ * Test the serialization of the nodes of the index AVL trees in all storage
+ * formats.
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
+public class AVLNodeTest {
+
+	/** Sets of referenced node keys, including an empty set. */
+	private static final List<Set<Long>> NODE_KEYS = Arrays.asList(
+			Collections.<Long> emptySet(), Collections.singleton(42L), new HashSet<>(
+					Arrays.asList(4711L, 3L, 1000000L, 4712L, 0L)));
+
+	/** The indexed value. */
+	private static final Atomic VALUE = new Str("foo");
+
+	@Before
+	public void setUp() throws SirixException {
+		TestHelper.deleteEverything();
+	}
+
+	@After
+	public void tearDown() throws SirixException {
+		TestHelper.deleteEverything();
+	}
+
+	/**
+	 * Test CAS index nodes, whose deserializer lost the last node key.
+	 */
+	@Test
+	public void testCASNode() throws SirixException, IOException {
+		for (final StorageFormat format : StorageFormat.values()) {
+			try (final Session session = session(format);
+					final PageReadTrx pageReadTrx = session.beginPageReadTrx()) {
+				for (final Set<Long> nodeKeys : NODE_KEYS) {
+					final AVLNode<CASValue, NodeReferences> node = new AVLNode<>(
+							new CASValue(VALUE, Type.STR, 7), new NodeReferences(nodeKeys),
+							delegate());
+					node.setLeftChildKey(Fixed.NULL_NODE_KEY.getStandardProperty());
+					node.setRightChildKey(9);
+					@SuppressWarnings("unchecked")
+					final AVLNode<CASValue, NodeReferences> deserialized = (AVLNode<CASValue, NodeReferences>) roundTrip(
+							node, pageReadTrx);
+					assertEquals(nodeKeys, deserialized.getValue().getNodeKeys());
+					assertEquals(VALUE, deserialized.getKey().getAtomicValue());
+					assertEquals(7, deserialized.getKey().getPathNodeKey());
+					check(node, deserialized);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Test path and name index nodes.
+	 */
+	@Test
+	public void testPathAndNameNodes() throws SirixException, IOException {
+		for (final StorageFormat format : StorageFormat.values()) {
+			try (final Session session = session(format);
+					final PageReadTrx pageReadTrx = session.beginPageReadTrx()) {
+				for (final Set<Long> nodeKeys : NODE_KEYS) {
+					final AVLNode<Long, NodeReferences> pathNode = new AVLNode<>(3L,
+							new NodeReferences(nodeKeys), delegate());
+					pathNode.setLeftChildKey(2);
+					@SuppressWarnings("unchecked")
+					final AVLNode<Long, NodeReferences> deserializedPathNode = (AVLNode<Long, NodeReferences>) roundTrip(
+							pathNode, pageReadTrx);
+					assertEquals(nodeKeys, deserializedPathNode.getValue().getNodeKeys());
+					assertEquals(3L, deserializedPathNode.getKey().longValue());
+					check(pathNode, deserializedPathNode);
+
+					final QNm name = new QNm("http://sirix.org", "s", "foo");
+					final AVLNode<QNm, NodeReferences> nameNode = new AVLNode<>(name,
+							new NodeReferences(nodeKeys), delegate());
+					@SuppressWarnings("unchecked")
+					final AVLNode<QNm, NodeReferences> deserializedNameNode = (AVLNode<QNm, NodeReferences>) roundTrip(
+							nameNode, pageReadTrx);
+					assertEquals(nodeKeys, deserializedNameNode.getValue().getNodeKeys());
+					assertEquals(name, deserializedNameNode.getKey());
+					check(nameNode, deserializedNameNode);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Get a session of a resource with a storage format.
+	 *
+	 * @param format
+	 *          the storage format
+	 * @return the session
+	 */
+	private static Session session(final StorageFormat format)
+			throws SirixException {
+		final Database database = TestHelper.getDatabase(PATHS.PATH1.getFile());
+		database.createResource(new ResourceConfiguration.Builder(format.name(),
+				PATHS.PATH1.getConfig()).storageFormat(format).build());
+		return database.getSession(new SessionConfiguration.Builder(format.name())
+				.build());
+	}
+
+	/**
+	 * Get a node delegate of an index node.
+	 *
+	 * @return the node delegate
+	 */
+	private static NodeDelegate delegate() {
+		return new NodeDelegate(5, 4, 0, 1, Optional.<SirixDeweyID> empty());
+	}
+
+	/**
+	 * Serialize and deserialize a record.
+	 *
+	 * @param record
+	 *          the record
+	 * @param pageReadTrx
+	 *          the page reading transaction of the resource
+	 * @return the deserialized record
+	 */
+	private static Record roundTrip(final Record record,
+			final PageReadTrx pageReadTrx) throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		record.getKind().serialize(new DataOutputStream(out), record, pageReadTrx);
+		final DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+				out.toByteArray()));
+		final Record deserialized = record.getKind().deserialize(in,
+				record.getNodeKey(), Optional.<SirixDeweyID> empty(), pageReadTrx);
+		assertEquals(0, in.available());
+		return deserialized;
+	}
+
+	/**
+	 * Compare the fields, which all index nodes have in common.
+	 *
+	 * @param node
+	 *          the serialized node
+	 * @param deserialized
+	 *          the deserialized node
+	 */
+	private static void check(final AVLNode<?, ?> node,
+			final AVLNode<?, ?> deserialized) {
+		assertEquals(node.getNodeKey(), deserialized.getNodeKey());
+		assertEquals(node.getParentKey(), deserialized.getParentKey());
+		assertEquals(node.getLeftChildKey(), deserialized.getLeftChildKey());
+		assertEquals(node.getRightChildKey(), deserialized.getRightChildKey());
+		assertEquals(node.isChanged(), deserialized.isChanged());
+	}
+}
@@ -41,6 +41,7 @@ import org.sirix.io.berkeley.BerkeleyStorage;
 import org.sirix.io.bytepipe.ByteHandler;
 import org.sirix.io.chronicle.ChronicleStorage;
 import org.sirix.io.file.FileStorage;
+import org.sirix.io.memorymapped.MemoryMappedStorage;
 import org.sirix.io.ram.RAMStorage;
 import org.sirix.page.PageReference;
 import org.sirix.page.UberPage;
@@ -135,7 +136,9 @@ public final class StorageTest {
 		Object[][] returnVal = { {
 				Storage.class,
 				new Storage[] { // new ChronicleStorage(mResourceConfig),
-				new FileStorage(mResourceConfig), new BerkeleyStorage(mResourceConfig),
+				new FileStorage(mResourceConfig),
+						new MemoryMappedStorage(mResourceConfig),
+						new BerkeleyStorage(mResourceConfig),
 						new RAMStorage(mResourceConfig) } } };
 		return returnVal;
 	}
@@ -1,17 +1,28 @@
 package org.sirix.io.bytepipe;
 
 import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNotSame;
+import static org.testng.AssertJUnit.assertSame;
 import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
 
 import org.sirix.TestHelper;
 import org.sirix.exception.SirixIOException;
+import org.sirix.page.PageKind;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
@@ -72,24 +83,232 @@ public class ByteHandlerTest {
 		}
 	}
 
+	/**
+	 * Test method for {@link ByteHandler#serialize(ByteBuffer, ByteBufferPool)}
+	 * and {@link ByteHandler#deserialize(ByteBuffer, ByteBufferPool)}, which
+	 * also checks, that the representation is the same as the one of the stream
+	 * based methods.
+	 * 
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	@Test(dataProvider = "instantiateByteHandler")
+	public void testSerializeAndDeserializeBuffers(Class<ByteHandler> clazz,
+			ByteHandler[] handlers) throws IOException {
+		final ByteBufferPool pool = new ByteBufferPool();
+		for (final ByteHandler handler : handlers) {
+			final int datasize = 100000;
+			final byte[] bytes = TestHelper.generateRandomBytes(datasize);
+
+			// Buffers to buffers.
+			ByteBuffer source = pool.acquire(datasize);
+			source.put(bytes).flip();
+			final ByteBuffer encoded = handler.serialize(source, pool);
+			final byte[] encodedBytes = new byte[encoded.remaining()];
+			encoded.duplicate().get(encodedBytes);
+			ByteBuffer decoded = handler.deserialize(encoded, pool);
+			assertTrue(new StringBuilder("Check for ").append(handler.getClass())
+					.append(" failed.").toString(), ByteBuffer.wrap(bytes)
+					.equals(decoded));
+			pool.release(decoded);
+
+			// Buffers to streams.
+			final InputStream handledInput = handler
+					.deserialize(new ByteArrayInputStream(encodedBytes));
+			final ByteArrayOutputStream output = new ByteArrayOutputStream();
+			ByteStreams.copy(handledInput, output);
+			handledInput.close();
+			assertTrue(new StringBuilder("Check for ").append(handler.getClass())
+					.append(" failed.").toString(),
+					Arrays.equals(bytes, output.toByteArray()));
+
+			// Streams to buffers.
+			final ByteArrayOutputStream streamOutput = new ByteArrayOutputStream();
+			final OutputStream handledOutput = handler.serialize(streamOutput);
+			handledOutput.write(bytes);
+			handledOutput.close();
+			decoded = handler.deserialize(
+					ByteBuffer.wrap(streamOutput.toByteArray()), pool);
+			assertTrue(new StringBuilder("Check for ").append(handler.getClass())
+					.append(" failed.").toString(), ByteBuffer.wrap(bytes)
+					.equals(decoded));
+			pool.release(decoded);
+		}
+	}
+
+	/**
+	 * Test that the pool only takes back buffers, which it has handed out and
+	 * which haven't been released yet.
+	 */
+	@Test
+	public void testBufferPool() {
+		final ByteBufferPool pool = new ByteBufferPool();
+		final ByteBuffer buffer = pool.acquire(ByteBufferPool.MIN_CAPACITY);
+		pool.release(buffer);
+		pool.release(buffer);
+		assertSame(buffer, pool.acquire(ByteBufferPool.MIN_CAPACITY));
+		assertNotSame(buffer, pool.acquire(ByteBufferPool.MIN_CAPACITY));
+
+		// Foreign buffers and duplicates are ignored.
+		final ByteBuffer foreign = ByteBuffer
+				.allocate(ByteBufferPool.MIN_CAPACITY);
+		pool.release(foreign);
+		pool.release(buffer.duplicate());
+		assertNotSame(foreign, pool.acquire(ByteBufferPool.MIN_CAPACITY));
+		pool.release(buffer);
+		assertSame(buffer, pool.acquire(ByteBufferPool.MIN_CAPACITY));
+		assertNotSame(buffer, pool.acquire(ByteBufferPool.MIN_CAPACITY));
+	}
+
+	/**
+	 * Test the selection of the pipeline by the page kind, that is the first
+	 * byte.
+	 * 
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	@Test
+	public void testPageKindByteHandler() throws IOException {
+		final Map<PageKind, ByteHandlePipeline> pipelines = new EnumMap<>(
+				PageKind.class);
+		pipelines.put(PageKind.RECORDPAGE, new ByteHandlePipeline(
+				new LZ4Compressor()));
+		pipelines.put(PageKind.INDIRECTPAGE, new ByteHandlePipeline());
+		final ByteHandler handler = new PageKindByteHandler(new ByteHandlePipeline(
+				new DeflateCompressor()), pipelines);
+		final ByteBufferPool pool = new ByteBufferPool();
+
+		// Another selection, which contains the same codecs.
+		final Map<PageKind, ByteHandlePipeline> otherPipelines = new EnumMap<>(
+				PageKind.class);
+		otherPipelines.put(PageKind.NAMEPAGE, new ByteHandlePipeline(
+				new DeflateCompressor()));
+		otherPipelines.put(PageKind.UBERPAGE, new ByteHandlePipeline());
+		final ByteHandler otherHandler = new PageKindByteHandler(
+				new ByteHandlePipeline(new LZ4Compressor()), otherPipelines);
+
+		final PageKind[] kinds = { PageKind.UBERPAGE, PageKind.RECORDPAGE,
+				PageKind.INDIRECTPAGE };
+		final byte[][] codecIds = { { 1, 1 }, { 1, 3 }, { 0 } };
+		for (int i = 0; i < kinds.length; i++) {
+			final byte[] bytes = TestHelper.generateRandomBytes(10000);
+			bytes[0] = kinds[i].getID();
+
+			ByteBuffer source = pool.acquire(bytes.length);
+			source.put(bytes).flip();
+			final ByteBuffer encoded = handler.serialize(source, pool);
+			final byte[] codecId = new byte[codecIds[i].length];
+			encoded.duplicate().get(codecId);
+			assertTrue(Arrays.equals(codecIds[i], codecId));
+			final ByteBuffer copy = pool.acquireCopy(encoded);
+			final ByteBuffer decoded = handler.deserialize(encoded, pool);
+			assertTrue(ByteBuffer.wrap(bytes).equals(decoded));
+			pool.release(decoded);
+
+			// The codec id doesn't depend on the selection.
+			final ByteBuffer otherDecoded = otherHandler.deserialize(copy, pool);
+			assertTrue(ByteBuffer.wrap(bytes).equals(otherDecoded));
+			pool.release(otherDecoded);
+
+			final ByteArrayOutputStream output = new ByteArrayOutputStream();
+			final OutputStream handledOutput = handler.serialize(output);
+			handledOutput.write(bytes);
+			handledOutput.close();
+			assertTrue(Arrays.equals(codecIds[i],
+					Arrays.copyOf(output.toByteArray(), codecIds[i].length)));
+			final InputStream handledInput = handler
+					.deserialize(new ByteArrayInputStream(output.toByteArray()));
+			assertTrue(Arrays.equals(bytes, ByteStreams.toByteArray(handledInput)));
+		}
+	}
+
+	/**
+	 * Test Zstandard compression with a trained dictionary, which must not be
+	 * mixed up with other dictionaries.
+	 * 
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	@Test
+	public void testZstdDictionary() throws IOException {
+		final ZstdCompressor compressor = new ZstdCompressor(
+				ZstdCompressor.DEFAULT_LEVEL, dictionary());
+		final ByteBufferPool pool = new ByteBufferPool();
+		final byte[] bytes = ("<page><node key=\"4711\" name=\"foo\">bar</node>"
+				+ "<node key=\"4712\" name=\"baz\">qux</node></page>")
+				.getBytes(StandardCharsets.UTF_8);
+
+		ByteBuffer source = pool.acquire(bytes.length);
+		source.put(bytes).flip();
+		final ByteBuffer encoded = compressor.serialize(source, pool);
+		final ByteBuffer copy = pool.acquireCopy(encoded);
+		final ByteBuffer decoded = compressor.getInstance().deserialize(encoded,
+				pool);
+		assertTrue(ByteBuffer.wrap(bytes).equals(decoded));
+		pool.release(decoded);
+
+		// Frames of a dictionary can't be read without it.
+		try {
+			new ZstdCompressor().deserialize(copy, pool);
+			fail("Frame has been decompressed without its dictionary!");
+		} catch (final IOException e) {
+			// Expected.
+		}
+
+		// Pipelines with the same codec id must use the same dictionary.
+		final Map<PageKind, ByteHandlePipeline> pipelines = new EnumMap<>(
+				PageKind.class);
+		pipelines.put(PageKind.RECORDPAGE, new ByteHandlePipeline(compressor));
+		try {
+			new PageKindByteHandler(new ByteHandlePipeline(new ZstdCompressor()),
+					pipelines);
+			fail("Pipelines with different dictionaries have been accepted!");
+		} catch (final IllegalArgumentException e) {
+			// Expected.
+		}
+	}
+
+	/**
+	 * Train a dictionary on similar samples.
+	 * 
+	 * @return the dictionary
+	 * @throws IOException
+	 *           if the dictionary can't be trained
+	 */
+	private static byte[] dictionary() throws IOException {
+		final List<byte[]> samples = new ArrayList<>();
+		final Random random = new Random(42);
+		for (int i = 0; i < 2000; i++) {
+			samples.add(("<page><node key=\"" + random.nextInt(100000)
+					+ "\" name=\"foo" + random.nextInt(100) + "\">bar</node><node key=\""
+					+ random.nextInt(100000) + "\" name=\"baz\">qux" + i + "</node></page>")
+					.getBytes(StandardCharsets.UTF_8));
+		}
+		return ZstdCompressor.trainDictionary(samples, 4096);
+	}
+
 	/**
 	 * Providing different implementations of the {@link ByteHandler} as
 	 * Dataprovider to the test class.
 	 * 
 	 * @return different classes of the {@link ByteHandler}
-	 * @throws SirixIOException
+	 * @throws IOException
 	 *           if an I/O error occurs
 	 */
 	@DataProvider(name = "instantiateByteHandler")
-	public Object[][] instantiateByteHandler() throws SirixIOException {
+	public Object[][] instantiateByteHandler() throws IOException {
 		Object[][] returnVal = { {
 				ByteHandler.class,
 				new ByteHandler[] { new Encryptor(), new DeflateCompressor(),
-						new SnappyCompressor(),
+						new SnappyCompressor(), new LZ4Compressor(),
+						new ZstdCompressor(),
+						new ZstdCompressor(ZstdCompressor.DEFAULT_LEVEL, dictionary()),
 						new ByteHandlePipeline(new Encryptor(), new DeflateCompressor()),
 						new ByteHandlePipeline(new DeflateCompressor(), new Encryptor()),
 						new ByteHandlePipeline(new Encryptor(), new SnappyCompressor()),
-						new ByteHandlePipeline(new SnappyCompressor(), new Encryptor()), } } };
+						new ByteHandlePipeline(new SnappyCompressor(), new Encryptor()),
+						new ByteHandlePipeline(new LZ4Compressor(), new Encryptor()),
+						new ByteHandlePipeline(new ZstdCompressor(), new Encryptor()), } } };
 		return returnVal;
 	}
 
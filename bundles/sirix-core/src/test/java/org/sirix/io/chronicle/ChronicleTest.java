@@ -1,5 +1,10 @@
 package org.sirix.io.chronicle;
 
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -8,7 +13,12 @@ import org.sirix.TestHelper;
 import org.sirix.access.conf.ResourceConfiguration;
 import org.sirix.exception.SirixException;
 import org.sirix.io.IOTestHelper;
+import org.sirix.io.Reader;
+import org.sirix.io.Storage;
 import org.sirix.io.StorageType;
+import org.sirix.io.Writer;
+import org.sirix.page.PageReference;
+import org.sirix.page.UberPage;
 
 public class ChronicleTest {
 
@@ -23,7 +33,43 @@ public class ChronicleTest {
 
 	@Test
 	public void testFirstRef() throws SirixException {
-		// IOTestHelper.testReadWriteFirstRef(resourceConf);
+		IOTestHelper.testReadWriteFirstRef(resourceConf);
+	}
+
+	@Test
+	public void testBatchedPages() throws SirixException {
+		final Storage storage = StorageType.getStorage(resourceConf);
+		final Writer writer = storage.getWriter();
+		final List<PageReference> refs = new ArrayList<>();
+		UberPage page = new UberPage();
+		for (int i = 0; i < 1000; i++) {
+			final PageReference ref = new PageReference();
+			ref.setPage(page);
+			writer.write(ref);
+			refs.add(ref);
+			page = new UberPage(page);
+		}
+
+		// Pages of the open batch are readable through the writer.
+		for (final PageReference ref : refs) {
+			assertEquals(((UberPage) ref.getPage()).getRevisionCount(),
+					((UberPage) writer.read(ref.getKey(), null)).getRevisionCount());
+		}
+
+		final PageReference uberPageReference = new PageReference();
+		uberPageReference.setPage(page);
+		writer.writeUberPageReference(uberPageReference);
+		writer.close();
+
+		final Reader reader = storage.getReader();
+		assertEquals(uberPageReference.getKey(), reader.readUberPageReference()
+				.getKey());
+		for (final PageReference ref : refs) {
+			assertEquals(((UberPage) ref.getPage()).getRevisionCount(),
+					((UberPage) reader.read(ref.getKey(), null)).getRevisionCount());
+		}
+		reader.close();
+		storage.close();
 	}
 
 	@After
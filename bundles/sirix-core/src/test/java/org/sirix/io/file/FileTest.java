@@ -27,15 +27,35 @@
 
 package org.sirix.io.file;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.sirix.Holder;
 import org.sirix.TestHelper;
+import org.sirix.TestHelper.PATHS;
 import org.sirix.access.conf.ResourceConfiguration;
 import org.sirix.exception.SirixException;
+import org.sirix.exception.SirixIOException;
+import org.sirix.io.ChecksumVerification;
+import org.sirix.io.DurabilityMode;
 import org.sirix.io.IOTestHelper;
+import org.sirix.io.Journal;
+import org.sirix.io.Reader;
+import org.sirix.io.Storage;
 import org.sirix.io.StorageType;
+import org.sirix.io.Writer;
+import org.sirix.page.PageReference;
+import org.sirix.page.UberPage;
 
 public class FileTest {
 	private ResourceConfiguration resourceConf;
@@ -52,6 +72,301 @@ public class FileTest {
 		IOTestHelper.testReadWriteFirstRef(resourceConf);
 	}
 
+	@Test
+	public void testBufferedPages() throws SirixException {
+		final Storage storage = StorageType.getStorage(resourceConf);
+		final Writer writer = storage.getWriter();
+		final List<PageReference> refs = new ArrayList<>();
+		UberPage page = new UberPage();
+		for (int i = 0; i < 1000; i++) {
+			final PageReference ref = new PageReference();
+			ref.setPage(page);
+			writer.write(ref);
+			refs.add(ref);
+			page = new UberPage(page);
+		}
+
+		// Pending pages are readable through the writer.
+		for (final PageReference ref : refs) {
+			assertTrue(writer.read(ref.getKey(), null) instanceof UberPage);
+		}
+
+		final PageReference uberPageReference = new PageReference();
+		uberPageReference.setPage(page);
+		writer.writeUberPageReference(uberPageReference);
+		writer.close();
+
+		final Reader reader = storage.getReader();
+		assertEquals(uberPageReference.getKey(), reader.readUberPageReference()
+				.getKey());
+		for (final PageReference ref : refs) {
+			assertTrue(reader.read(ref.getKey(), null) instanceof UberPage);
+		}
+		reader.close();
+		storage.close();
+	}
+
+	@Test
+	public void testTornRevision() throws SirixException, IOException {
+		final Storage storage = StorageType.getStorage(resourceConf);
+		Writer writer = storage.getWriter();
+		final PageReference first = new PageReference();
+		first.setPage(new UberPage());
+		writer.writeUberPageReference(first);
+		final PageReference second = new PageReference();
+		second.setPage(new UberPage((UberPage) first.getPage()));
+		writer.writeUberPageReference(second);
+		writer.close();
+
+		// Tear the uber page of the second revision.
+		final File file = new File(new File(resourceConf.mPath,
+				ResourceConfiguration.Paths.DATA.getFile().getName()), "sirix.data");
+		try (final RandomAccessFile data = new RandomAccessFile(file, "rw")) {
+			data.setLength(data.length() - 1);
+		}
+
+		Reader reader = storage.getReader();
+		assertEquals(first.getKey(), reader.readUberPageReference().getKey());
+		try {
+			reader.read(second.getKey(), null);
+			fail("Torn page must not be read!");
+		} catch (final SirixIOException e) {
+			// Expected.
+		}
+		reader.close();
+
+		// A new revision is appended behind the last complete revision.
+		writer = storage.getWriter();
+		final PageReference third = new PageReference();
+		third.setPage(new UberPage((UberPage) first.getPage()));
+		writer.writeUberPageReference(third);
+		writer.close();
+		assertEquals(second.getKey(), third.getKey());
+
+		// Corrupt a byte of the third revision.
+		try (final RandomAccessFile data = new RandomAccessFile(file, "rw")) {
+			data.seek(data.length() - 1);
+			final int b = data.read();
+			data.seek(data.length() - 1);
+			data.write(b ^ 0xFF);
+		}
+
+		reader = storage.getReader();
+		assertEquals(first.getKey(), reader.readUberPageReference().getKey());
+		reader.close();
+		storage.close();
+	}
+
+	@Test
+	public void testJournal() throws SirixException, IOException {
+		final Storage storage = StorageType.getStorage(resourceConf);
+		final Writer writer = storage.getWriter();
+		final PageReference first = new PageReference();
+		first.setPage(new UberPage());
+		writer.writeUberPageReference(first);
+
+		// The second revision is only made durable through the journal.
+		final Journal journal = new Journal(PATHS.PATH1.getFile(),
+				Journal.DEFAULT_CHECKPOINT_SIZE);
+		journal.open();
+		final PageReference second = new PageReference();
+		second.setPage(new UberPage((UberPage) first.getPage()));
+		assertTrue(writer.writeUberPageReference(second, journal));
+		journal.force();
+		writer.close();
+		journal.close();
+
+		// Lose the pages of the second revision.
+		final File file = new File(new File(resourceConf.mPath,
+				ResourceConfiguration.Paths.DATA.getFile().getName()), "sirix.data");
+		try (final RandomAccessFile data = new RandomAccessFile(file, "rw")) {
+			data.setLength(second.getKey());
+		}
+		Reader reader = storage.getReader();
+		assertEquals(first.getKey(), reader.readUberPageReference().getKey());
+		reader.close();
+
+		// The second revision is replayed from the journal.
+		try (final Journal replayed = new Journal(PATHS.PATH1.getFile(),
+				Journal.DEFAULT_CHECKPOINT_SIZE)) {
+			replayed.open();
+		}
+		reader = storage.getReader();
+		assertEquals(second.getKey(), reader.readUberPageReference().getKey());
+		assertTrue(reader.read(second.getKey(), null) instanceof UberPage);
+		reader.close();
+		storage.close();
+	}
+
+	@Test
+	public void testSharedReader() throws SirixException {
+		final Storage storage = StorageType.getStorage(resourceConf);
+		final Writer writer = storage.getWriter();
+		final PageReference uberPageReference = new PageReference();
+		uberPageReference.setPage(new UberPage());
+		writer.writeUberPageReference(uberPageReference);
+		writer.close();
+
+		// Closing a reader of a transaction doesn't close the shared reader.
+		final Reader first = storage.getReader();
+		final Reader second = storage.getReader();
+		first.close();
+		assertEquals(uberPageReference.getKey(), second.readUberPageReference()
+				.getKey());
+		assertTrue(second.read(uberPageReference.getKey(), null) instanceof UberPage);
+		second.close();
+		storage.close();
+	}
+
+	@Test
+	public void testOffHeapCache() throws SirixException, IOException {
+		final ResourceConfiguration config = new ResourceConfiguration.Builder(
+				TestHelper.RESOURCE, PATHS.PATH1.getConfig())
+				.storageType(StorageType.FILE).offHeapCacheSize(1 << 20).build();
+		final Storage storage = StorageType.getStorage(config);
+		final Writer writer = storage.getWriter();
+		final PageReference uberPageReference = new PageReference();
+		uberPageReference.setPage(new UberPage());
+		writer.writeUberPageReference(uberPageReference);
+		writer.close();
+		final Reader reader = storage.getReader();
+		assertTrue(reader.read(uberPageReference.getKey(), null) instanceof UberPage);
+
+		// Corrupt the page, which is still read from the cache.
+		final File file = new File(new File(config.mPath,
+				ResourceConfiguration.Paths.DATA.getFile().getName()), "sirix.data");
+		try (final RandomAccessFile data = new RandomAccessFile(file, "rw")) {
+			data.seek(data.length() - 1);
+			final int b = data.read();
+			data.seek(data.length() - 1);
+			data.write(b ^ 0xFF);
+		}
+		assertTrue(reader.read(uberPageReference.getKey(), null) instanceof UberPage);
+		reader.close();
+		storage.close();
+
+		// Closing the storage clears the cache.
+		final Reader uncached = storage.getReader();
+		try {
+			uncached.read(uberPageReference.getKey(), null);
+			fail("Corrupted page must not be read!");
+		} catch (final SirixIOException e) {
+			// Expected.
+		}
+		uncached.close();
+		storage.close();
+	}
+
+	@Test
+	public void testTornPageOfUnforcedRevision() throws SirixException,
+			IOException {
+		final ResourceConfiguration config = new ResourceConfiguration.Builder(
+				TestHelper.RESOURCE, PATHS.PATH1.getConfig())
+				.storageType(StorageType.FILE).durability(DurabilityMode.NONE).build();
+		final Storage storage = StorageType.getStorage(config);
+		Writer writer = storage.getWriter();
+		final PageReference first = new PageReference();
+		first.setPage(new UberPage());
+		writer.writeUberPageReference(first);
+		final PageReference page = new PageReference();
+		page.setPage(new UberPage((UberPage) first.getPage()));
+		writer.write(page);
+		final PageReference second = new PageReference();
+		second.setPage(new UberPage((UberPage) page.getPage()));
+		writer.writeUberPageReference(second);
+		writer.close();
+
+		// Corrupt a page of the second revision, which hasn't been forced.
+		final File file = new File(new File(config.mPath,
+				ResourceConfiguration.Paths.DATA.getFile().getName()), "sirix.data");
+		try (final RandomAccessFile data = new RandomAccessFile(file, "rw")) {
+			data.seek(page.getKey() + FileReader.PAGE_HEADER);
+			final int b = data.read();
+			data.seek(page.getKey() + FileReader.PAGE_HEADER);
+			data.write(b ^ 0xFF);
+		}
+		final Reader reader = storage.getReader();
+		assertEquals(first.getKey(), reader.readUberPageReference().getKey());
+		reader.close();
+
+		// The writer discards the revision, which is torn for readers as well.
+		writer = storage.getWriter();
+		final PageReference third = new PageReference();
+		third.setPage(new UberPage((UberPage) first.getPage()));
+		writer.writeUberPageReference(third);
+		writer.close();
+		assertEquals(page.getKey(), third.getKey());
+		storage.close();
+	}
+
+	@Test
+	public void testInvalidPageLength() throws SirixException, IOException {
+		final Storage storage = StorageType.getStorage(resourceConf);
+		final Writer writer = storage.getWriter();
+		final PageReference uberPageReference = new PageReference();
+		uberPageReference.setPage(new UberPage());
+		writer.writeUberPageReference(uberPageReference);
+		writer.close();
+
+		// The maximum length must neither overflow nor be allocated.
+		final File file = new File(new File(resourceConf.mPath,
+				ResourceConfiguration.Paths.DATA.getFile().getName()), "sirix.data");
+		try (final RandomAccessFile data = new RandomAccessFile(file, "rw")) {
+			data.seek(uberPageReference.getKey());
+			data.writeInt(-1);
+		}
+		final Reader reader = storage.getReader();
+		try {
+			reader.read(uberPageReference.getKey(), null);
+			fail("Page exceeding the file must not be read!");
+		} catch (final SirixIOException e) {
+			// Expected.
+		}
+		reader.close();
+		storage.close();
+	}
+
+	@Test
+	public void testVerificationOnFirstRead() throws SirixException,
+			IOException {
+		final ResourceConfiguration config = new ResourceConfiguration.Builder(
+				TestHelper.RESOURCE, PATHS.PATH1.getConfig())
+				.storageType(StorageType.FILE)
+				.checksumVerification(ChecksumVerification.FIRST_READ).build();
+		final Storage storage = StorageType.getStorage(config);
+		final Writer writer = storage.getWriter();
+		final PageReference uberPageReference = new PageReference();
+		uberPageReference.setPage(new UberPage());
+		writer.writeUberPageReference(uberPageReference);
+		writer.close();
+		final Reader reader = storage.getReader();
+		assertTrue(reader.read(uberPageReference.getKey(), null) instanceof UberPage);
+
+		// Corrupt the checksum of the page, which has been verified.
+		final File file = new File(new File(config.mPath,
+				ResourceConfiguration.Paths.DATA.getFile().getName()), "sirix.data");
+		try (final RandomAccessFile data = new RandomAccessFile(file, "rw")) {
+			data.seek(uberPageReference.getKey() + FileReader.OTHER_BEACON);
+			final int checksum = data.readInt();
+			data.seek(uberPageReference.getKey() + FileReader.OTHER_BEACON);
+			data.writeInt(~checksum);
+		}
+		assertTrue(reader.read(uberPageReference.getKey(), null) instanceof UberPage);
+		reader.close();
+		storage.close();
+
+		// A new reader verifies the page again.
+		final Reader verifying = storage.getReader();
+		try {
+			verifying.read(uberPageReference.getKey(), null);
+			fail("Corrupted page must not be read!");
+		} catch (final SirixIOException e) {
+			// Expected.
+		}
+		verifying.close();
+		storage.close();
+	}
+
 	@After
 	public void tearDown() throws SirixException {
 		IOTestHelper.clean();
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2011, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.sirix.io.memorymapped;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.Holder;
+import org.sirix.TestHelper;
+import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.exception.SirixException;
+import org.sirix.io.IOTestHelper;
+import org.sirix.io.Reader;
+import org.sirix.io.Storage;
+import org.sirix.io.StorageType;
+import org.sirix.io.Writer;
+import org.sirix.page.PageReference;
+import org.sirix.page.UberPage;
+
+public class MemoryMappedTest {
+	private ResourceConfiguration resourceConf;
+
+	@Before
+	public void setUp() throws SirixException {
+		TestHelper.deleteEverything();
+		Holder.generateSession().close();
+		resourceConf = IOTestHelper.registerIO(StorageType.MEMORY_MAPPED);
+	}
+
+	@Test
+	public void testFirstRef() throws SirixException {
+		IOTestHelper.testReadWriteFirstRef(resourceConf);
+	}
+
+	@Test
+	public void testGrowingFile() throws SirixException {
+		final Storage storage = StorageType.getStorage(resourceConf);
+		final Writer writer = storage.getWriter();
+		final PageReference firstRef = new PageReference();
+		UberPage page = new UberPage();
+		firstRef.setPage(page);
+		writer.writeUberPageReference(firstRef);
+
+		// Reader maps the file before it grows.
+		final Reader reader = storage.getReader();
+		assertEquals(page.getRevisionCount(), ((UberPage) reader
+				.readUberPageReference().getPage()).getRevisionCount());
+
+		for (int i = 0; i < 100; i++) {
+			page = new UberPage(page);
+			final PageReference ref = new PageReference();
+			ref.setPage(page);
+			writer.writeUberPageReference(ref);
+			assertEquals(page.getRevisionCount(), ((UberPage) reader
+					.readUberPageReference().getPage()).getRevisionCount());
+			assertEquals(page.getRevisionCount(),
+					((UberPage) reader.read(ref.getKey(), null)).getRevisionCount());
+		}
+		reader.close();
+		writer.close();
+		storage.close();
+	}
+
+	@After
+	public void tearDown() throws SirixException {
+		IOTestHelper.clean();
+	}
+}
@@ -0,0 +1,74 @@
+package org.sirix.node;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+import org.sirix.settings.Fixed;
+
+/**
+ * Test the variable-length encodings of {@link Utils}.
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
+public class UtilsTest {
+
+	/** The null node key. */
+	private static final long NULL_KEY = Fixed.NULL_NODE_KEY
+			.getStandardProperty();
+
+	/**
+	 * Test the node keys relative to other node keys, including the null node
+	 * key and keys before the relative key.
+	 */
+	@Test
+	public void testVarKey() throws IOException {
+		final long[][] keys = { { NULL_KEY, 0 }, { NULL_KEY, 4711 },
+				{ 4712, 4711 }, { 4710, 4711 }, { 0, 4711 }, { 4711, 4711 },
+				{ 0, 0 }, { 1, 0 }, { 0, Long.MAX_VALUE }, { Long.MAX_VALUE, 0 } };
+		for (final long[] key : keys) {
+			final ByteArrayOutputStream out = new ByteArrayOutputStream();
+			Utils.putVarKey(new DataOutputStream(out), key[0], key[1]);
+			final DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+					out.toByteArray()));
+			assertEquals(key[0], Utils.getVarKey(in, key[1]));
+			assertEquals(0, in.available());
+		}
+	}
+
+	/**
+	 * Test, that the null node key and neighbouring keys take a single byte.
+	 */
+	@Test
+	public void testVarKeySize() throws IOException {
+		final long[] keys = { NULL_KEY, 4711, 4712, 4710, 4680, 4740 };
+		for (final long key : keys) {
+			final ByteArrayOutputStream out = new ByteArrayOutputStream();
+			Utils.putVarKey(new DataOutputStream(out), key, 4711);
+			assertEquals(1, out.size());
+		}
+	}
+
+	/**
+	 * Test negative and positive values, which are zig-zag encoded.
+	 */
+	@Test
+	public void testSignedVarLong() throws IOException {
+		final long[] values = { 0, 1, -1, 63, -64, 64, -65, Integer.MIN_VALUE,
+				Long.MAX_VALUE, Long.MIN_VALUE };
+		for (final long value : values) {
+			final ByteArrayOutputStream out = new ByteArrayOutputStream();
+			Utils.putSignedVarLong(new DataOutputStream(out), value);
+			final DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+					out.toByteArray()));
+			assertEquals(value, Utils.getSignedVarLong(in));
+			assertEquals(0, in.available());
+		}
+	}
+}
@@ -28,6 +28,11 @@
 package org.sirix.page;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -51,6 +56,9 @@ import org.sirix.node.delegates.NameNodeDelegate;
 import org.sirix.node.delegates.NodeDelegate;
 import org.sirix.node.delegates.StructNodeDelegate;
 import org.sirix.node.interfaces.NameNode;
+import org.sirix.node.interfaces.Node;
+import org.sirix.node.interfaces.Record;
+import org.sirix.settings.Constants;
 import org.sirix.utils.NamePageHash;
 
 import com.google.common.collect.HashBiMap;
@@ -130,4 +138,78 @@ public final class NodePageTest {
 		assertEquals(NamePageHash.generateHashForString("xs:untyped"),
 				element.getTypeKey());
 	}
+
+	@Test
+	public void testDeserializeOnDemand() throws IOException {
+		final UnorderedKeyValuePage page = mPageReadTrx
+				.<Long, Record, UnorderedKeyValuePage> getRecordPageContainer(0L, -1,
+						PageKind.RECORDPAGE).getComplete();
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		PagePersistenter.serializePage(new DataOutputStream(out), page);
+		final UnorderedKeyValuePage page2 = (UnorderedKeyValuePage) PagePersistenter
+				.deserializePage(new DataInputStream(new ByteArrayInputStream(out
+						.toByteArray())), mPageReadTrx);
+		assertEquals(page.size(), page2.size());
+		assertEquals(page.keySet(), page2.keySet());
+
+		// Serialized records are copied without deserializing them.
+		final UnorderedKeyValuePage page3 = page2.newInstance(0L,
+				PageKind.RECORDPAGE, Optional.<PageReference> empty(), mPageReadTrx);
+		for (final long key : page2.keySet()) {
+			assertFalse(page3.containsKey(key));
+			page3.copyEntry(key, page2);
+			assertTrue(page3.containsKey(key));
+		}
+		assertEquals(page.size(), page3.size());
+
+		for (final long key : page.keySet()) {
+			final Record record = page.getValue(key);
+			assertEquals(key, page2.getValue(key).getNodeKey());
+			assertEquals(record.getKind(), page2.getValue(key).getKind());
+			assertSame(page2.getValue(key), page3.getValue(key));
+			if (record instanceof Node) {
+				assertEquals(((Node) record).getDeweyID(),
+						((Node) page3.getValue(key)).getDeweyID());
+			}
+		}
+		assertEquals(page.entrySet().size(), page2.entrySet().size());
+		assertNull(page2.getValue(Long.MAX_VALUE));
+	}
+
+	@Test
+	public void testSlots() throws IOException {
+		final UnorderedKeyValuePage page = mPageReadTrx
+				.<Long, Record, UnorderedKeyValuePage> getRecordPageContainer(0L, -1,
+						PageKind.RECORDPAGE).getComplete();
+		final UnorderedKeyValuePage page1 = page.newInstance(0L,
+				PageKind.RECORDPAGE, Optional.<PageReference> empty(), mPageReadTrx);
+		page1.copyEntry(1L, page);
+		final PageReference reference = new PageReference();
+		reference.setKey(42L);
+		page1.setPageReference(Long.valueOf(Constants.NDP_NODE_COUNT - 1),
+				reference);
+		assertEquals(2, page1.size());
+
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		PagePersistenter.serializePage(new DataOutputStream(out), page1);
+		final UnorderedKeyValuePage page2 = (UnorderedKeyValuePage) PagePersistenter
+				.deserializePage(new DataInputStream(new ByteArrayInputStream(out
+						.toByteArray())), mPageReadTrx);
+		assertEquals(2, page2.size());
+		assertEquals(1L, page2.getValue(1L).getNodeKey());
+		assertEquals(42L,
+				page2.getPageReference(Long.valueOf(Constants.NDP_NODE_COUNT - 1))
+						.getKey());
+		assertEquals(1, page2.referenceEntrySet().size());
+		assertNull(page2.getPageReference(1L));
+
+		// Records of other pages can't be stored.
+		try {
+			page2.setEntry(Long.valueOf(Constants.NDP_NODE_COUNT),
+					page.getValue(1L));
+			fail();
+		} catch (final IllegalArgumentException e) {
+			assertEquals(2, page2.size());
+		}
+	}
 }
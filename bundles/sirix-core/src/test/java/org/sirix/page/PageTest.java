@@ -20,6 +20,7 @@ import org.sirix.exception.SirixException;
 import org.sirix.exception.SirixIOException;
 import org.sirix.io.bytepipe.ByteHandler;
 import org.sirix.node.Kind;
+import org.sirix.node.Kind.DumbNode;
 import org.sirix.node.interfaces.Record;
 import org.sirix.page.interfaces.Page;
 import org.sirix.settings.Constants;
@@ -103,12 +104,15 @@ public class PageTest {
 		// RevisionRootPage setup.
 		// final RevisionRootPage revRootPage = new RevisionRootPage();
 
-		// NodePage setup.
+		// NodePage setup (the keys of the records must belong to the page).
+		final long recordPageKey = TestHelper.random
+				.nextInt(Integer.MAX_VALUE >> Constants.NDP_NODE_COUNT_EXPONENT);
 		final UnorderedKeyValuePage nodePage = new UnorderedKeyValuePage(
-				TestHelper.random.nextInt(Integer.MAX_VALUE), PageKind.RECORDPAGE,
-				Optional.<PageReference> empty(), mPageReadTrx);
+				recordPageKey, PageKind.RECORDPAGE, Optional.<PageReference> empty(),
+				mPageReadTrx);
 		for (int i = 0; i < Constants.NDP_NODE_COUNT - 1; i++) {
-			final Record record = TestHelper.generateOne();
+			final Record record = new DumbNode(
+					(recordPageKey << Constants.NDP_NODE_COUNT_EXPONENT) + i);
 			nodePage.setEntry(record.getNodeKey(), record);
 		}
 		// NamePage setup.
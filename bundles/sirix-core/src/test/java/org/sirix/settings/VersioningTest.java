@@ -164,6 +164,15 @@ public class VersioningTest {
 		test2();
 	}
 
+	@Test
+	public void testSlidingSnapshot3() throws SirixException {
+		mDatabase.createResource(new ResourceConfiguration.Builder(
+				TestHelper.RESOURCE, mDatabase.getDatabaseConfig())
+				.versioningApproach(Versioning.SLIDING_SNAPSHOT)
+				.hashKind(HashKind.NONE).revisionsToRestore(5).build());
+		test1();
+	}
+
 	/**
 	 * Test revisioning.
 	 * 